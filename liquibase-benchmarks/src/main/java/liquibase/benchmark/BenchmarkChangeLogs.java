@@ -0,0 +1,197 @@
+package liquibase.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Writes the synthetic changelogs used by the benchmarks.
+ * <p>
+ * The content only depends on the format and the number of changeSets, so every run and every machine parses exactly
+ * the same files. Each group of five changeSets creates a table, adds a column, creates an index, inserts a row and
+ * runs raw sql, and the contexts, labels and dbms attributes rotate through fixed values so filters match a known
+ * fraction of the changeSets.
+ */
+public class BenchmarkChangeLogs {
+
+    public static final String[] CONTEXTS = {"dev", "test", "prod"};
+    public static final String[] LABELS = {"feature-a", "feature-b", "feature-c", "feature-d"};
+    public static final String[] DBMS = {"h2", "postgresql", "!oracle"};
+
+    private BenchmarkChangeLogs() {
+    }
+
+    /**
+     * Writes a changelog with the given number of changeSets to directory and returns its file name.
+     *
+     * @param format one of "xml", "yaml" or "sql"
+     */
+    public static String write(File directory, String format, int changeSets) throws IOException {
+        String fileName = "changelog-" + changeSets + "." + format;
+        try (Writer writer = Files.newBufferedWriter(new File(directory, fileName).toPath(), StandardCharsets.UTF_8)) {
+            if ("xml".equals(format)) {
+                writeXml(writer, changeSets);
+            } else if ("yaml".equals(format)) {
+                writeYaml(writer, changeSets);
+            } else if ("sql".equals(format)) {
+                writeSql(writer, changeSets);
+            } else {
+                throw new IllegalArgumentException("Unknown changelog format " + format);
+            }
+        }
+        return fileName;
+    }
+
+    private static void writeXml(Writer writer, int changeSets) throws IOException {
+        writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        writer.write("<databaseChangeLog xmlns=\"http://www.liquibase.org/xml/ns/dbchangelog\"\n");
+        writer.write("        xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\"\n");
+        writer.write("        xsi:schemaLocation=\"http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-4.9.xsd\">\n");
+        for (int i = 0; i < changeSets; i++) {
+            writer.write("    <changeSet id=\"" + i + "\" author=\"benchmark\" context=\"" + context(i) + "\" labels=\"" + label(i) + "\" dbms=\"" + dbms(i) + "\">\n");
+            String table = table(i);
+            switch (i % 5) {
+                case 0:
+                    writer.write("        <createTable tableName=\"" + table + "\">\n");
+                    writer.write("            <column name=\"id\" type=\"int\">\n");
+                    writer.write("                <constraints primaryKey=\"true\"/>\n");
+                    writer.write("            </column>\n");
+                    writer.write("            <column name=\"name\" type=\"varchar(100)\"/>\n");
+                    writer.write("        </createTable>\n");
+                    break;
+                case 1:
+                    writer.write("        <addColumn tableName=\"" + table + "\">\n");
+                    writer.write("            <column name=\"code\" type=\"varchar(20)\" defaultValue=\"none\"/>\n");
+                    writer.write("        </addColumn>\n");
+                    break;
+                case 2:
+                    writer.write("        <createIndex tableName=\"" + table + "\" indexName=\"idx_" + table + "_code\">\n");
+                    writer.write("            <column name=\"code\"/>\n");
+                    writer.write("        </createIndex>\n");
+                    break;
+                case 3:
+                    writer.write("        <insert tableName=\"" + table + "\">\n");
+                    writer.write("            <column name=\"id\" valueNumeric=\"" + i + "\"/>\n");
+                    writer.write("            <column name=\"name\" value=\"row " + i + "\"/>\n");
+                    writer.write("        </insert>\n");
+                    break;
+                default:
+                    writer.write("        <sql>" + updateSql(i) + "</sql>\n");
+                    break;
+            }
+            writer.write("    </changeSet>\n");
+        }
+        writer.write("</databaseChangeLog>\n");
+    }
+
+    private static void writeYaml(Writer writer, int changeSets) throws IOException {
+        writer.write("databaseChangeLog:\n");
+        for (int i = 0; i < changeSets; i++) {
+            writer.write("  - changeSet:\n");
+            writer.write("      id: \"" + i + "\"\n");
+            writer.write("      author: benchmark\n");
+            writer.write("      context: " + context(i) + "\n");
+            writer.write("      labels: " + label(i) + "\n");
+            writer.write("      dbms: \"" + dbms(i) + "\"\n");
+            writer.write("      changes:\n");
+            String table = table(i);
+            switch (i % 5) {
+                case 0:
+                    writer.write("        - createTable:\n");
+                    writer.write("            tableName: " + table + "\n");
+                    writer.write("            columns:\n");
+                    writer.write("              - column:\n");
+                    writer.write("                  name: id\n");
+                    writer.write("                  type: int\n");
+                    writer.write("                  constraints:\n");
+                    writer.write("                    primaryKey: true\n");
+                    writer.write("              - column:\n");
+                    writer.write("                  name: name\n");
+                    writer.write("                  type: varchar(100)\n");
+                    break;
+                case 1:
+                    writer.write("        - addColumn:\n");
+                    writer.write("            tableName: " + table + "\n");
+                    writer.write("            columns:\n");
+                    writer.write("              - column:\n");
+                    writer.write("                  name: code\n");
+                    writer.write("                  type: varchar(20)\n");
+                    writer.write("                  defaultValue: none\n");
+                    break;
+                case 2:
+                    writer.write("        - createIndex:\n");
+                    writer.write("            tableName: " + table + "\n");
+                    writer.write("            indexName: idx_" + table + "_code\n");
+                    writer.write("            columns:\n");
+                    writer.write("              - column:\n");
+                    writer.write("                  name: code\n");
+                    break;
+                case 3:
+                    writer.write("        - insert:\n");
+                    writer.write("            tableName: " + table + "\n");
+                    writer.write("            columns:\n");
+                    writer.write("              - column:\n");
+                    writer.write("                  name: id\n");
+                    writer.write("                  valueNumeric: " + i + "\n");
+                    writer.write("              - column:\n");
+                    writer.write("                  name: name\n");
+                    writer.write("                  value: row " + i + "\n");
+                    break;
+                default:
+                    writer.write("        - sql:\n");
+                    writer.write("            sql: " + updateSql(i) + "\n");
+                    break;
+            }
+        }
+    }
+
+    private static void writeSql(Writer writer, int changeSets) throws IOException {
+        writer.write("--liquibase formatted sql\n\n");
+        for (int i = 0; i < changeSets; i++) {
+            writer.write("--changeset benchmark:" + i + " context:" + context(i) + " labels:" + label(i) + " dbms:" + dbms(i) + "\n");
+            writer.write("--comment: synthetic changeSet " + i + "\n");
+            String table = table(i);
+            switch (i % 5) {
+                case 0:
+                    writer.write("create table " + table + " (id int primary key, name varchar(100));\n");
+                    writer.write("--rollback drop table " + table + ";\n");
+                    break;
+                case 1:
+                    writer.write("alter table " + table + " add code varchar(20) default 'none';\n");
+                    break;
+                case 2:
+                    writer.write("create index idx_" + table + "_code on " + table + " (code);\n");
+                    break;
+                case 3:
+                    writer.write("insert into " + table + " (id, name) values (" + i + ", 'row " + i + "');\n");
+                    break;
+                default:
+                    writer.write(updateSql(i) + "\n");
+                    break;
+            }
+            writer.write("\n");
+        }
+    }
+
+    private static String table(int changeSet) {
+        return "table_" + (changeSet / 5);
+    }
+
+    private static String updateSql(int changeSet) {
+        return "update " + table(changeSet) + " set name = 'updated " + changeSet + "' where id = " + (changeSet - 1) + ";";
+    }
+
+    private static String context(int changeSet) {
+        return CONTEXTS[changeSet % CONTEXTS.length];
+    }
+
+    private static String label(int changeSet) {
+        return LABELS[changeSet % LABELS.length];
+    }
+
+    private static String dbms(int changeSet) {
+        return DBMS[changeSet % DBMS.length];
+    }
+}
@@ -0,0 +1,92 @@
+package liquibase.benchmark;
+
+import liquibase.Contexts;
+import liquibase.LabelExpression;
+import liquibase.RuntimeEnvironment;
+import liquibase.changelog.ChangeLogIterator;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.filter.ChangeSetFilter;
+import liquibase.changelog.filter.ChangeSetFilterResult;
+import liquibase.changelog.filter.ContextChangeSetFilter;
+import liquibase.changelog.filter.DbmsChangeSetFilter;
+import liquibase.changelog.filter.LabelChangeSetFilter;
+import liquibase.changelog.visitor.ChangeSetVisitor;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.FileSystemResourceAccessor;
+import liquibase.resource.ResourceAccessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs a {@link ChangeLogIterator} with the context, label and dbms filters over a parsed synthetic changelog.
+ * <p>
+ * The visitor only counts the accepted changeSets, so the benchmark measures filtering and the per-changeSet scope
+ * handling of the iterator.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ChangeLogIteratorBenchmark {
+
+    @Param({"1000", "10000"})
+    public int changeSets;
+
+    private DatabaseChangeLog changeLog;
+    private Database database;
+    private Contexts contexts;
+    private LabelExpression labelExpression;
+
+    @Setup
+    public void setUp() throws Exception {
+        File directory = Files.createTempDirectory("liquibase-benchmark").toFile();
+        String changeLogFile = BenchmarkChangeLogs.write(directory, "xml", changeSets);
+        ResourceAccessor resourceAccessor = new FileSystemResourceAccessor(directory);
+        changeLog = ChangeLogParserFactory.getInstance().getParser(changeLogFile, resourceAccessor)
+                .parse(changeLogFile, new ChangeLogParameters(), resourceAccessor);
+
+        new File(directory, changeLogFile).delete();
+        directory.delete();
+
+        database = DatabaseFactory.getInstance().getDatabase("h2");
+        contexts = new Contexts("dev", "test");
+        labelExpression = new LabelExpression("!feature-d");
+    }
+
+    @Benchmark
+    public int iterate() throws Exception {
+        ChangeSetFilter[] filters = {
+                new ContextChangeSetFilter(contexts),
+                new LabelChangeSetFilter(labelExpression),
+                new DbmsChangeSetFilter(database)
+        };
+        CountingVisitor visitor = new CountingVisitor();
+        new ChangeLogIterator(changeLog, filters).run(visitor, new RuntimeEnvironment(database, contexts, labelExpression));
+        return visitor.count;
+    }
+
+    private static class CountingVisitor implements ChangeSetVisitor {
+
+        private int count;
+
+        @Override
+        public Direction getDirection() {
+            return Direction.FORWARD;
+        }
+
+        @Override
+        public void visit(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, Set<ChangeSetFilterResult> filterResults) {
+            count++;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package liquibase.benchmark;
+
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.parser.ChangeLogParser;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.FileSystemResourceAccessor;
+import liquibase.resource.ResourceAccessor;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses the synthetic changelogs from {@link BenchmarkChangeLogs} with the xml, yaml and formatted sql parsers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ChangeLogParserBenchmark {
+
+    @Param({"1000", "10000"})
+    public int changeSets;
+
+    @Param({"xml", "yaml", "sql"})
+    public String format;
+
+    private File directory;
+    private String changeLogFile;
+    private ResourceAccessor resourceAccessor;
+    private ChangeLogParser parser;
+
+    @Setup
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("liquibase-benchmark").toFile();
+        changeLogFile = BenchmarkChangeLogs.write(directory, format, changeSets);
+        resourceAccessor = new FileSystemResourceAccessor(directory);
+        parser = ChangeLogParserFactory.getInstance().getParser(changeLogFile, resourceAccessor);
+    }
+
+    @TearDown
+    public void tearDown() {
+        new File(directory, changeLogFile).delete();
+        directory.delete();
+    }
+
+    @Benchmark
+    public DatabaseChangeLog parse() throws Exception {
+        return parser.parse(changeLogFile, new ChangeLogParameters(), resourceAccessor);
+    }
+}
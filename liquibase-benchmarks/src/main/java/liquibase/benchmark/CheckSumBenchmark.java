@@ -0,0 +1,60 @@
+package liquibase.benchmark;
+
+import liquibase.change.CheckSum;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.FileSystemResourceAccessor;
+import liquibase.resource.ResourceAccessor;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Computes the checksum of every changeSet in a parsed synthetic changelog.
+ * <p>
+ * The checksum cache file is not configured, so each invocation measures the full computation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CheckSumBenchmark {
+
+    @Param({"1000", "10000"})
+    public int changeSets;
+
+    @Param({"xml", "sql"})
+    public String format;
+
+    private List<ChangeSet> parsedChangeSets;
+
+    @Setup
+    public void setUp() throws Exception {
+        File directory = Files.createTempDirectory("liquibase-benchmark").toFile();
+        String changeLogFile = BenchmarkChangeLogs.write(directory, format, changeSets);
+        ResourceAccessor resourceAccessor = new FileSystemResourceAccessor(directory);
+        DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance().getParser(changeLogFile, resourceAccessor)
+                .parse(changeLogFile, new ChangeLogParameters(), resourceAccessor);
+        parsedChangeSets = changeLog.getChangeSets();
+
+        new File(directory, changeLogFile).delete();
+        directory.delete();
+    }
+
+    @Benchmark
+    public void generateCheckSum(Blackhole blackhole) {
+        for (ChangeSet changeSet : parsedChangeSets) {
+            changeSet.clearCheckSum();
+            CheckSum checkSum = changeSet.generateCheckSum();
+            blackhole.consume(checkSum);
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package liquibase.benchmark;
+
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.diff.DiffGeneratorFactory;
+import liquibase.diff.DiffResult;
+import liquibase.diff.compare.CompareControl;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares snapshots of two in-memory H2 databases with the {@link liquibase.diff.core.StandardDiffGenerator}.
+ * <p>
+ * Both schemas contain the same tables, and every fourth table differs in the comparison database: a missing column,
+ * a different column type, a missing index or a missing table. The snapshots are taken once in setup, so only the
+ * comparison itself is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DiffBenchmark {
+
+    @Param({"100", "500"})
+    public int tables;
+
+    private Connection referenceConnection;
+    private Connection comparisonConnection;
+    private DatabaseSnapshot referenceSnapshot;
+    private DatabaseSnapshot comparisonSnapshot;
+
+    @Setup
+    public void setUp() throws Exception {
+        referenceConnection = DriverManager.getConnection("jdbc:h2:mem:benchmark_reference");
+        comparisonConnection = DriverManager.getConnection("jdbc:h2:mem:benchmark_comparison");
+        createSchema(referenceConnection, false);
+        createSchema(comparisonConnection, true);
+
+        referenceSnapshot = snapshot(referenceConnection);
+        comparisonSnapshot = snapshot(comparisonConnection);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        referenceConnection.close();
+        comparisonConnection.close();
+    }
+
+    @Benchmark
+    public DiffResult compare() throws Exception {
+        return DiffGeneratorFactory.getInstance().compare(referenceSnapshot, comparisonSnapshot, new CompareControl());
+    }
+
+    private void createSchema(Connection connection, boolean comparison) throws Exception {
+        try (Statement statement = connection.createStatement()) {
+            for (int i = 0; i < tables; i++) {
+                int variant = comparison ? (i % 16) : -1;
+                if (variant == 3) {
+                    continue;
+                }
+                statement.execute("CREATE TABLE TABLE_" + i + " (ID INT PRIMARY KEY, NAME VARCHAR(" + ((variant == 1) ? 50 : 100) + ")"
+                        + ((variant == 0) ? "" : ", CODE VARCHAR(20)")
+                        + ", CREATED TIMESTAMP, PARENT_ID INT"
+                        + ((i == 0) ? "" : ", CONSTRAINT FK_TABLE_" + i + "_PARENT FOREIGN KEY (PARENT_ID) REFERENCES TABLE_0 (ID)")
+                        + ")");
+                if ((variant != 0) && (variant != 2)) {
+                    statement.execute("CREATE INDEX IDX_TABLE_" + i + "_CODE ON TABLE_" + i + " (CODE)");
+                }
+                statement.execute("CREATE UNIQUE INDEX UIDX_TABLE_" + i + "_NAME ON TABLE_" + i + " (NAME)");
+            }
+        }
+    }
+
+    private static DatabaseSnapshot snapshot(Connection connection) throws Exception {
+        Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+        return SnapshotGeneratorFactory.getInstance().createSnapshot(database.getDefaultSchema(), database, new SnapshotControl(database));
+    }
+}
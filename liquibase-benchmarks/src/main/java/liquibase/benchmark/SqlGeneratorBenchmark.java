@@ -0,0 +1,74 @@
+package liquibase.benchmark;
+
+import liquibase.change.Change;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.FileSystemResourceAccessor;
+import liquibase.resource.ResourceAccessor;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.SqlStatement;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generates the sql of the statements of 1000 synthetic changeSets through {@link SqlGeneratorFactory}.
+ * <p>
+ * The statements are created once in setup so only generator lookup and sql generation is measured. The databases are
+ * offline instances, which is enough for the generators and keeps the benchmark independent of any server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SqlGeneratorBenchmark {
+
+    @Param({"h2", "postgresql", "oracle", "mssql"})
+    public String database;
+
+    private Database targetDatabase;
+    private SqlStatement[] statements;
+
+    @Setup
+    public void setUp() throws Exception {
+        targetDatabase = DatabaseFactory.getInstance().getDatabase(database);
+
+        File directory = Files.createTempDirectory("liquibase-benchmark").toFile();
+        String changeLogFile = BenchmarkChangeLogs.write(directory, "xml", 1000);
+        ResourceAccessor resourceAccessor = new FileSystemResourceAccessor(directory);
+        DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance().getParser(changeLogFile, resourceAccessor)
+                .parse(changeLogFile, new ChangeLogParameters(), resourceAccessor);
+
+        List<SqlStatement> statementList = new ArrayList<>();
+        for (ChangeSet changeSet : changeLog.getChangeSets()) {
+            for (Change change : changeSet.getChanges()) {
+                for (SqlStatement statement : change.generateStatements(targetDatabase)) {
+                    statementList.add(statement);
+                }
+            }
+        }
+        statements = statementList.toArray(new SqlStatement[0]);
+
+        new File(directory, changeLogFile).delete();
+        directory.delete();
+    }
+
+    @Benchmark
+    public void generateSql(Blackhole blackhole) {
+        SqlGeneratorFactory sqlGeneratorFactory = SqlGeneratorFactory.getInstance();
+        for (SqlStatement statement : statements) {
+            blackhole.consume(sqlGeneratorFactory.generateSql(statement, targetDatabase));
+        }
+    }
+}
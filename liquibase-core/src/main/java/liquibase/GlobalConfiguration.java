@@ -34,6 +34,19 @@ public class GlobalConfiguration implements AutoloadedConfigurations {
     public static final ConfigurationDefinition<Boolean> STRICT;
     public static final ConfigurationDefinition<Integer> DDL_LOCK_TIMEOUT;
     public static final ConfigurationDefinition<Boolean> SECURE_PARSING;
+    public static final ConfigurationDefinition<String> CHECKSUM_CACHE_FILE;
+    public static final ConfigurationDefinition<Boolean> UPDATE_FINGERPRINT;
+    public static final ConfigurationDefinition<String> DATABASECHANGELOGFINGERPRINT_TABLE_NAME;
+    public static final ConfigurationDefinition<Boolean> INCREMENTAL_HISTORY_READS;
+    public static final ConfigurationDefinition<Boolean> STREAM_LOAD_DATA;
+    public static final ConfigurationDefinition<Boolean> BULK_LOAD_DATA;
+    public static final ConfigurationDefinition<Boolean> BULK_LOAD_UPDATE_DATA;
+    public static final ConfigurationDefinition<Boolean> SNAPSHOT_BULK_METADATA;
+    public static final ConfigurationDefinition<String> SNAPSHOT_CACHE_DIRECTORY;
+    public static final ConfigurationDefinition<Boolean> PRECONDITION_METADATA_CACHE;
+    public static final ConfigurationDefinition<Boolean> STREAMING_DIFF;
+    public static final ConfigurationDefinition<Integer> DIFF_DATA_FETCH_SIZE;
+    public static final ConfigurationDefinition<Boolean> STREAMING_SQL_FILE;
 
     static {
         ConfigurationDefinition.Builder builder = new ConfigurationDefinition.Builder("liquibase");
@@ -181,5 +194,67 @@ public class GlobalConfiguration implements AutoloadedConfigurations {
                 .setDescription("If true, remove functionality from file parsers which could be used insecurely. Examples include (but not limited to) disabling remote XML entity support.")
                 .setDefaultValue(true)
                 .build();
+
+        CHECKSUM_CACHE_FILE = builder.define("checksumCacheFile", String.class)
+                .setDescription("Path to a local file used to cache calculated changeset checksums between runs. Checksums for changesets in unmodified changelog files are read from the cache instead of being recalculated. If not set, checksums are cached next to liquibase.changelogCacheFile when that is set, and are always calculated otherwise.")
+                .build();
+
+        UPDATE_FINGERPRINT = builder.define("updateFingerprint", Boolean.class)
+                .setDescription("If true, update stores a fingerprint of the changelog once all changesets are deployed. Later updates of the same changelog return without locking or reading the full history when the fingerprint still matches.")
+                .setDefaultValue(false)
+                .build();
+
+        DATABASECHANGELOGFINGERPRINT_TABLE_NAME = builder.define("databaseChangelogFingerprintTableName", String.class)
+                .setDescription("Name of table to use for storing update fingerprints")
+                .setDefaultValue("DATABASECHANGELOGFINGERPRINT")
+                .build();
+
+        INCREMENTAL_HISTORY_READS = builder.define("incrementalHistoryReads", Boolean.class)
+                .setDescription("If true, the rows read from the databasechangelog table are kept in memory and later reads only fetch rows with a higher ORDEREXECUTED. All rows are read again if a summary of the rows already read (counts, latest dates, checksums and a hash of the rows where the database supports it) shows they were modified. Useful for long-running processes that update the same database repeatedly.")
+                .setDefaultValue(false)
+                .build();
+
+        STREAM_LOAD_DATA = builder.define("streamLoadData", Boolean.class)
+                .setDescription("If true, loadData changes executed against a database supporting batch updates read, convert and insert the CSV rows in fixed size chunks while the change runs instead of building a statement for every row up front. Memory use then does not depend on the size of the CSV file.")
+                .setDefaultValue(false)
+                .build();
+
+        BULK_LOAD_DATA = builder.define("bulkLoadData", Boolean.class)
+                .setDescription("If true, loadData uses the native bulk load path of the database when one is available: COPY on PostgreSQL, LOAD DATA LOCAL INFILE on MySQL and MariaDB (requires allowLoadLocalInfile on the connection) and CSVREAD on embedded H2. Other databases, and files with computed, sequence, LOB or 'other' columns, use the regular insert statements.")
+                .setDefaultValue(false)
+                .build();
+
+        BULK_LOAD_UPDATE_DATA = builder.define("bulkLoadUpdateData", Boolean.class)
+                .setDescription("If true, loadUpdateData inserts or updates its rows with one set-based statement per batch instead of one statement per row: INSERT ... ON CONFLICT on PostgreSQL 9.5+ (requires a unique constraint on the primary key columns), INSERT ... ON DUPLICATE KEY UPDATE on MySQL and MariaDB, MERGE on H2, Oracle and SQL Server. The batch size is set by the batchSize attribute. Other databases, and onlyUpdate on databases without MERGE, use a statement per row.")
+                .setDefaultValue(false)
+                .build();
+
+        SNAPSHOT_BULK_METADATA = builder.define("snapshotBulkMetadata", Boolean.class)
+                .setDescription("If true, snapshots of whole schemas read the columns, keys, indexes and constraints of all tables with one query per schema on databases which support it: Oracle, SQL Server, PostgreSQL, MySQL and H2 2.x. If false, the first tables are queried one by one before the whole schema is read.")
+                .setDefaultValue(false)
+                .build();
+
+        SNAPSHOT_CACHE_DIRECTORY = builder.define("snapshotCacheDirectory", String.class)
+                .setDescription("Path to a local directory used to store schema snapshots between runs. A stored snapshot is reused as long as the DDL change markers of its schemas are unchanged, and any DDL change refreshes the whole snapshot. Markers are available for PostgreSQL, Oracle and SQL Server; other databases are always snapshotted. If not set, snapshots are not stored.")
+                .build();
+
+        PRECONDITION_METADATA_CACHE = builder.define("preconditionMetadataCache", Boolean.class)
+                .setDescription("If true, tableExists, columnExists, viewExists, indexExists, primaryKeyExists, foreignKeyConstraintExists, uniqueConstraintExists and sequenceExists preconditions are checked against one snapshot per schema taken on first use. The snapshot is updated by the executed changes it can model; other changes such as sql or sqlFile discard it so it is taken again.")
+                .setDefaultValue(false)
+                .build();
+
+        STREAMING_DIFF = builder.define("streamingDiff", Boolean.class)
+                .setDescription("If true, diffChangeLog and generateChangeLog snapshot, compare and write one table at a time instead of holding both complete snapshots in memory. Foreign keys, views, sequences and other schema level objects are still compared for the whole schema. Changesets are written per table, with dropped foreign keys and schema level objects first and added ones last.")
+                .setDefaultValue(false)
+                .build();
+
+        DIFF_DATA_FETCH_SIZE = builder.define("diffDataFetchSize", Integer.class)
+                .setDescription("Number of rows fetched at a time when table data is exported by generateChangeLog or diffChangeLog with the data diff type. If not set, 1000 rows are fetched for insert changes and 100 rows for CSV files.")
+                .build();
+
+        STREAMING_SQL_FILE = builder.define("streamingSqlFile", Boolean.class)
+                .setDescription("If true, sqlFile statements are read from the file and executed one at a time instead of loading the whole file first. Changelog parameters in the file are expanded line by line")
+                .setDefaultValue(false)
+                .build();
     }
 }
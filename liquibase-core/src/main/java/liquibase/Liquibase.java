@@ -33,6 +33,7 @@ import liquibase.logging.core.BufferedLogService;
 import liquibase.logging.core.CompositeLogService;
 import liquibase.parser.ChangeLogParser;
 import liquibase.parser.ChangeLogParserFactory;
+import liquibase.precondition.PreconditionMetadataCache;
 import liquibase.resource.InputStreamList;
 import liquibase.resource.ResourceAccessor;
 import liquibase.serializer.ChangeLogSerializer;
@@ -210,12 +211,19 @@ public class Liquibase implements AutoCloseable {
     public void update(Contexts contexts, LabelExpression labelExpression, boolean checkLiquibaseTables) throws LiquibaseException {
         runInScope(() -> {
 
-            LockService lockService = LockServiceFactory.getInstance().getLockService(database);
-            lockService.waitForLock();
-
             changeLogParameters.setContexts(contexts);
             changeLogParameters.setLabels(labelExpression);
 
+            UpdateFingerprint updateFingerprint = new UpdateFingerprint(database);
+            if (updateFingerprint.isEnabled() && updateFingerprint.isUpToDate(getDatabaseChangeLog(), contexts, labelExpression)) {
+                LOG.info("Update fingerprint matches, skipping update of " + changeLogFile);
+                resetServices();
+                return;
+            }
+
+            LockService lockService = LockServiceFactory.getInstance().getLockService(database);
+            lockService.waitForLock();
+
             Operation updateOperation = null;
             BufferedLogService bufferLog = new BufferedLogService();
             DatabaseChangeLog changeLog = null;
@@ -265,6 +273,8 @@ public class Liquibase implements AutoCloseable {
                     runChangeLogIterator.run(createUpdateVisitor(), new RuntimeEnvironment(database, contexts, labelExpression));
                 });
 
+                updateFingerprint.store(changeLog, contexts, labelExpression);
+
                 //
                 // Update Hub with the operation information
                 //
@@ -2218,7 +2228,9 @@ public class Liquibase implements AutoCloseable {
             );
         }
 
-        return changeSet.generateCheckSum();
+        final CheckSum checkSum = changeSet.generateCheckSum();
+        Scope.getCurrentScope().getSingleton(ChangeSetCheckSumCache.class).save();
+        return checkSum;
     }
 
     public void generateDocumentation(String outputDirectory) throws LiquibaseException {
@@ -2400,6 +2412,9 @@ public class Liquibase implements AutoCloseable {
         Map<String, Object> scopeObjects = new HashMap<>();
         scopeObjects.put(Scope.Attr.database.name(), getDatabase());
         scopeObjects.put(Scope.Attr.resourceAccessor.name(), getResourceAccessor());
+        if (GlobalConfiguration.PRECONDITION_METADATA_CACHE.getCurrentValue()) {
+            scopeObjects.put(PreconditionMetadataCache.class.getName(), new PreconditionMetadataCache(getDatabase()));
+        }
 
         try {
             Scope.child(scopeObjects, scopedRunner);
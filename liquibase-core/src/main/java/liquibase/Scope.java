@@ -24,6 +24,7 @@ import liquibase.util.StringUtil;
 import java.lang.reflect.Constructor;
 import java.nio.charset.Charset;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This scope object is used to hold configuration and other parameters within a call without needing complex method signatures.
@@ -61,13 +62,23 @@ public class Scope {
 
     private static ScopeManager scopeManager;
 
+    /**
+     * Current scope of threads running in {@link #child(Scope, Map, ScopedRunnerWithReturn)}. Those threads do not use the scopeManager.
+     */
+    private static final ThreadLocal<Scope> threadScopes = new ThreadLocal<>();
+
     private Scope parent;
     private SmartMap values = new SmartMap();
+    private final Map<String, SingletonHolder> singletons = new ConcurrentHashMap<>();
     private String scopeId;
 
     private LiquibaseListener listener;
 
     public static Scope getCurrentScope() {
+        Scope threadScope = threadScopes.get();
+        if (threadScope != null) {
+            return threadScope;
+        }
         if (scopeManager == null) {
             scopeManager = new SingletonScopeManager();
         }
@@ -162,7 +173,7 @@ public class Scope {
      * Creates a new scope that is a child of this scope.
      */
     public static <ReturnType> ReturnType child(Map<String, Object> scopeValues, ScopedRunnerWithReturn<ReturnType> runner) throws Exception {
-        return child(null, scopeValues, runner);
+        return child((LiquibaseListener) null, scopeValues, runner);
     }
 
     /**
@@ -192,6 +203,29 @@ public class Scope {
         }
     }
 
+    /**
+     * Creates a new child of the given scope and runs the runner in it on the current thread.
+     * Use this to continue a scope on threads started from it, such as pool threads working on a task:
+     * the current scope of the thread is tracked separately from the scope manager while the runner runs,
+     * so the thread can enter and exit scopes without affecting other threads.
+     */
+    public static <T> T child(Scope parent, Map<String, Object> scopeValues, ScopedRunnerWithReturn<T> runner) throws Exception {
+        Scope child = new Scope(parent, scopeValues);
+        child.scopeId = StringUtil.randomIdentifer(10).toLowerCase();
+
+        Scope originalThreadScope = threadScopes.get();
+        threadScopes.set(child);
+        try {
+            return runner.run();
+        } finally {
+            if (originalThreadScope == null) {
+                threadScopes.remove();
+            } else {
+                threadScopes.set(originalThreadScope);
+            }
+        }
+    }
+
     /**
      * Convenience version of {@link #enter(LiquibaseListener, Map)} with no {@link LiquibaseListener}
      */
@@ -214,7 +248,7 @@ public class Scope {
         Scope child = new Scope(originalScope, scopeValues);
         child.listener = listener;
         child.scopeId = scopeId;
-        scopeManager.setCurrentScope(child);
+        setCurrentScope(child);
 
         return scopeId;
     }
@@ -230,7 +264,15 @@ public class Scope {
             throw new RuntimeException("Cannot end scope " + scopeId + " when currently at scope " + currentScope.scopeId);
         }
 
-        scopeManager.setCurrentScope(currentScope.getParent());
+        setCurrentScope(currentScope.getParent());
+    }
+
+    private static void setCurrentScope(Scope scope) {
+        if (threadScopes.get() != null) {
+            threadScopes.set(scope);
+        } else {
+            scopeManager.setCurrentScope(scope);
+        }
     }
 
     /**
@@ -312,26 +354,42 @@ public class Scope {
             return getParent().getSingleton(type);
         }
 
-        String key = type.getName();
-        T singleton = get(key, type);
-        if (singleton == null) {
+        return (T) singletons.computeIfAbsent(type.getName(), key -> new SingletonHolder()).get(type, this);
+    }
+
+    /**
+     * Creates its singleton the first time it is requested. Singletons are created outside of the map so
+     * their constructors can look up other singletons.
+     */
+    private static class SingletonHolder {
+        private volatile SingletonObject singleton;
+
+        private SingletonObject get(Class<? extends SingletonObject> type, Scope scope) {
+            if (singleton == null) {
+                synchronized (this) {
+                    if (singleton == null) {
+                        singleton = create(type, scope);
+                    }
+                }
+            }
+            return singleton;
+        }
+
+        private static SingletonObject create(Class<? extends SingletonObject> type, Scope scope) {
             try {
                 try {
-                    Constructor<T> constructor = type.getDeclaredConstructor(Scope.class);
+                    Constructor<? extends SingletonObject> constructor = type.getDeclaredConstructor(Scope.class);
                     constructor.setAccessible(true);
-                    singleton = constructor.newInstance(this);
+                    return constructor.newInstance(scope);
                 } catch (NoSuchMethodException e) { //try without scope
-                    Constructor<T> constructor = type.getDeclaredConstructor();
+                    Constructor<? extends SingletonObject> constructor = type.getDeclaredConstructor();
                     constructor.setAccessible(true);
-                    singleton = constructor.newInstance();
+                    return constructor.newInstance();
                 }
             } catch (Exception e) {
                 throw new UnexpectedLiquibaseException(e);
             }
-
-            values.put(key, singleton);
         }
-        return singleton;
     }
 
     public Logger getLog(Class clazz) {
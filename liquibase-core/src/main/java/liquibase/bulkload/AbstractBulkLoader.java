@@ -0,0 +1,115 @@
+package liquibase.bulkload;
+
+import liquibase.GlobalConfiguration;
+import liquibase.database.Database;
+import liquibase.database.DatabaseConnection;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.statement.DatabaseFunction;
+
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Convenience base class for {@link BulkLoader} implementations which send the rows to the database as CSV.
+ * By default every value is quoted, quotes are doubled and null values are written as an empty unquoted field.
+ */
+public abstract class AbstractBulkLoader implements BulkLoader {
+
+    /**
+     * Converts a row value to its CSV text. Returns null for null values.
+     */
+    protected String formatValue(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof DatabaseFunction) {
+            throw new UnexpectedLiquibaseException("Computed value '" + value + "' cannot be bulk loaded. Set " +
+                    GlobalConfiguration.BULK_LOAD_DATA.getKey() + " to false to load this file");
+        }
+        if ((value instanceof java.sql.Timestamp) || (value instanceof java.sql.Date) || (value instanceof java.sql.Time)) {
+            return value.toString();
+        }
+        if (value instanceof Date) {
+            return new Timestamp(((Date) value).getTime()).toString();
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        return value.toString();
+    }
+
+    /**
+     * Creates the CSV line for a row, including the trailing line separator.
+     */
+    protected String toCsvLine(Object[] row) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < row.length; i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            String value = formatValue(row[i]);
+            if (value == null) {
+                line.append(getNullValue());
+            } else {
+                line.append('"').append(escapeValue(value)).append('"');
+            }
+        }
+        return line.append('\n').toString();
+    }
+
+    /**
+     * Returns the text written for a null value.
+     */
+    protected String getNullValue() {
+        return "";
+    }
+
+    /**
+     * Escapes a value which will be enclosed in double quotes.
+     */
+    protected String escapeValue(String value) {
+        return value.replace("\"", "\"\"");
+    }
+
+    protected String getColumnList(Database database, String catalogName, String schemaName, String tableName,
+                                   List<String> columnNames) {
+        StringJoiner columns = new StringJoiner(", ");
+        for (String columnName : columnNames) {
+            columns.add(database.escapeColumnName(catalogName, schemaName, tableName, columnName));
+        }
+        return columns.toString();
+    }
+
+    /**
+     * Returns the JDBC connection of the database, or null if it is not connected through JDBC.
+     */
+    protected Connection getUnderlyingConnection(Database database) {
+        DatabaseConnection connection = database.getConnection();
+        if (connection instanceof JdbcConnection) {
+            return ((JdbcConnection) connection).getUnderlyingConnection();
+        }
+        return null;
+    }
+
+    /**
+     * Unwraps the cause of a failed reflective call to a driver specific API.
+     */
+    protected DatabaseException toDatabaseException(Exception e) {
+        Throwable cause = (e instanceof InvocationTargetException) ? e.getCause() : e;
+        if (cause instanceof UnexpectedLiquibaseException) {
+            throw (UnexpectedLiquibaseException) cause;
+        }
+        if (cause instanceof SQLException) {
+            return new DatabaseException(cause);
+        }
+        return new DatabaseException(cause.getMessage(), cause);
+    }
+}
@@ -0,0 +1,33 @@
+package liquibase.bulkload;
+
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.plugin.Plugin;
+
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Loads rows into a table using a native bulk load path of the database, such as PostgreSQL's COPY.
+ * Used by loadData when {@link liquibase.GlobalConfiguration#BULK_LOAD_DATA} is enabled.
+ * Implementations are looked up through the {@link BulkLoaderFactory}.
+ */
+public interface BulkLoader extends Plugin {
+
+    /**
+     * Returns the priority of this loader for the given database. Returns {@link #PRIORITY_NOT_APPLICABLE} if the database is not supported.
+     */
+    int getPriority(Database database);
+
+    /**
+     * Inserts the rows into the table. Each row holds one value per column, in the same order as the column names.
+     * Column names are passed unescaped and must be escaped with {@link Database#escapeColumnName(String, String, String, String)}
+     * like the INSERT statements do, see {@link AbstractBulkLoader#getColumnList(Database, String, String, String, List)}.
+     * Values are Strings, Numbers, Booleans, Dates or null. Rows should be read lazily so the whole data set is
+     * never held in memory.
+     *
+     * @return the number of rows loaded
+     */
+    long load(Database database, String catalogName, String schemaName, String tableName, List<String> columnNames,
+              Iterator<Object[]> rows) throws DatabaseException;
+}
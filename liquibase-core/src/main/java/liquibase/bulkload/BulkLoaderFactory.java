@@ -0,0 +1,30 @@
+package liquibase.bulkload;
+
+import liquibase.database.Database;
+import liquibase.plugin.AbstractPluginFactory;
+
+/**
+ * Finds the {@link BulkLoader} with the highest priority for a database.
+ */
+public class BulkLoaderFactory extends AbstractPluginFactory<BulkLoader> {
+
+    private BulkLoaderFactory() {
+    }
+
+    @Override
+    protected Class<BulkLoader> getPluginClass() {
+        return BulkLoader.class;
+    }
+
+    @Override
+    protected int getPriority(BulkLoader loader, Object... args) {
+        return loader.getPriority((Database) args[0]);
+    }
+
+    /**
+     * Returns the loader to use for the given database, or null if the database has no bulk load path.
+     */
+    public BulkLoader getBulkLoader(Database database) {
+        return getPlugin(database);
+    }
+}
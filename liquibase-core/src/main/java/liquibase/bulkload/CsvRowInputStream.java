@@ -0,0 +1,69 @@
+package liquibase.bulkload;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.function.Function;
+
+/**
+ * UTF-8 encoded stream of CSV lines. Each line is created from the next row only when the previous line has been
+ * read, so rows are never buffered beyond the current line.
+ */
+public class CsvRowInputStream extends InputStream {
+
+    private final Iterator<Object[]> rows;
+    private final Function<Object[], String> lineFormatter;
+    private byte[] buffer = new byte[0];
+    private int position;
+    private long rowCount;
+
+    /**
+     * @param rows          the rows to write
+     * @param lineFormatter creates the line for a row, including the line separator
+     */
+    public CsvRowInputStream(Iterator<Object[]> rows, Function<Object[], String> lineFormatter) {
+        this.rows = rows;
+        this.lineFormatter = lineFormatter;
+    }
+
+    /**
+     * Returns the number of rows read from the stream so far.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int read() {
+        if (!fillBuffer()) {
+            return -1;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        if (!fillBuffer()) {
+            return -1;
+        }
+        int count = Math.min(length, buffer.length - position);
+        System.arraycopy(buffer, position, bytes, offset, count);
+        position += count;
+        return count;
+    }
+
+    private boolean fillBuffer() {
+        while (position >= buffer.length) {
+            if (!rows.hasNext()) {
+                return false;
+            }
+            buffer = lineFormatter.apply(rows.next()).getBytes(StandardCharsets.UTF_8);
+            position = 0;
+            rowCount++;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,74 @@
+package liquibase.bulkload.core;
+
+import liquibase.bulkload.AbstractBulkLoader;
+import liquibase.bulkload.CsvRowInputStream;
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.exception.DatabaseException;
+import liquibase.util.JdbcUtil;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Loads rows on an embedded H2 database by writing them to a temporary file and inserting the result of CSVREAD.
+ * CSVREAD reads files on the database server, so H2 servers reached over TCP or SSL are not supported.
+ */
+public class H2CsvReadBulkLoader extends AbstractBulkLoader {
+
+    @Override
+    public int getPriority(Database database) {
+        if (!(database instanceof H2Database) || (getUnderlyingConnection(database) == null)) {
+            return PRIORITY_NOT_APPLICABLE;
+        }
+        String url = database.getConnection().getURL();
+        if ((url == null) || url.startsWith("jdbc:h2:tcp:") || url.startsWith("jdbc:h2:ssl:")) {
+            return PRIORITY_NOT_APPLICABLE;
+        }
+        return PRIORITY_DEFAULT;
+    }
+
+    @Override
+    public long load(Database database, String catalogName, String schemaName, String tableName,
+                     List<String> columnNames, Iterator<Object[]> rows) throws DatabaseException {
+        Path file = null;
+        Statement statement = null;
+        try {
+            file = Files.createTempFile("liquibase-load", ".csv");
+            CsvRowInputStream data = new CsvRowInputStream(rows, this::toCsvLine);
+            Files.copy(data, file, StandardCopyOption.REPLACE_EXISTING);
+
+            // the CSV has no header, so the columns are given generic names and inserted by position
+            StringJoiner csvColumns = new StringJoiner(",");
+            for (int i = 1; i <= columnNames.size(); i++) {
+                csvColumns.add("C" + i);
+            }
+            String sql = "INSERT INTO " + database.escapeTableName(catalogName, schemaName, tableName) +
+                    " (" + getColumnList(database, catalogName, schemaName, tableName, columnNames) + ")" +
+                    " SELECT * FROM CSVREAD('" + file.toAbsolutePath().toString().replace("'", "''") + "', '" +
+                    csvColumns + "', 'charset=UTF-8 fieldSeparator=,')";
+
+            statement = getUnderlyingConnection(database).createStatement();
+            statement.execute(sql);
+            return data.getRowCount();
+        } catch (IOException | SQLException e) {
+            throw new DatabaseException(e);
+        } finally {
+            JdbcUtil.closeStatement(statement);
+            if (file != null) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException ignore) {
+                    // Do nothing
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package liquibase.bulkload.core;
+
+import liquibase.bulkload.AbstractBulkLoader;
+import liquibase.bulkload.CsvRowInputStream;
+import liquibase.database.Database;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.util.JdbcUtil;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Loads rows with LOAD DATA LOCAL INFILE on MySQL and MariaDB. The rows are streamed to the server through the
+ * driver's setLocalInfileInputStream method, so no file is written. The connection must allow local infile loading,
+ * for example with the allowLoadLocalInfile=true connection property.
+ */
+public class MySQLLoadDataBulkLoader extends AbstractBulkLoader {
+
+    private static final String[] STATEMENT_CLASSES = {
+            "com.mysql.cj.jdbc.JdbcStatement",
+            "com.mysql.jdbc.Statement",
+            "org.mariadb.jdbc.MariaDbStatement",
+    };
+
+    @Override
+    public int getPriority(Database database) {
+        if (!(database instanceof MySQLDatabase)) {
+            return PRIORITY_NOT_APPLICABLE;
+        }
+        Connection connection = getUnderlyingConnection(database);
+        return ((connection == null) || (getStatementClass(connection.getClass().getClassLoader()) == null)) ? PRIORITY_NOT_APPLICABLE : PRIORITY_DEFAULT;
+    }
+
+    @Override
+    public long load(Database database, String catalogName, String schemaName, String tableName,
+                     List<String> columnNames, Iterator<Object[]> rows) throws DatabaseException {
+        String sql = "LOAD DATA LOCAL INFILE 'liquibase.csv' INTO TABLE " +
+                database.escapeTableName(catalogName, schemaName, tableName) +
+                " CHARACTER SET utf8mb4 FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '\\\\'" +
+                " LINES TERMINATED BY '\\n'" +
+                " (" + getColumnList(database, catalogName, schemaName, tableName, columnNames) + ")";
+
+        Connection connection = getUnderlyingConnection(database);
+        CsvRowInputStream data = new CsvRowInputStream(rows, this::toCsvLine);
+        Statement statement = null;
+        try {
+            statement = connection.createStatement();
+            Class<?> statementClass = getStatementClass(connection.getClass().getClassLoader());
+            statementClass.getMethod("setLocalInfileInputStream", InputStream.class)
+                    .invoke(statement.unwrap(statementClass), data);
+            statement.execute(sql);
+        } catch (ReflectiveOperationException | SQLException e) {
+            throw toDatabaseException(e);
+        } finally {
+            JdbcUtil.closeStatement(statement);
+        }
+        return data.getRowCount();
+    }
+
+    @Override
+    protected String formatValue(Object value) {
+        if (value instanceof Boolean) {
+            return ((Boolean) value) ? "1" : "0";
+        }
+        return super.formatValue(value);
+    }
+
+    @Override
+    protected String getNullValue() {
+        return "\\N";
+    }
+
+    @Override
+    protected String escapeValue(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private Class<?> getStatementClass(ClassLoader classLoader) {
+        for (String className : STATEMENT_CLASSES) {
+            try {
+                Class<?> statementClass = Class.forName(className, false, classLoader);
+                statementClass.getMethod("setLocalInfileInputStream", InputStream.class);
+                return statementClass;
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                // try the next driver
+            }
+        }
+        return null;
+    }
+}
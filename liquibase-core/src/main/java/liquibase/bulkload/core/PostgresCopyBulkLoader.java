@@ -0,0 +1,61 @@
+package liquibase.bulkload.core;
+
+import liquibase.bulkload.AbstractBulkLoader;
+import liquibase.bulkload.CsvRowInputStream;
+import liquibase.database.Database;
+import liquibase.database.core.CockroachDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.exception.DatabaseException;
+
+import java.io.InputStream;
+import java.sql.Connection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Loads rows with COPY ... FROM STDIN through the CopyManager of the PostgreSQL JDBC driver.
+ * The driver API is called reflectively so the driver is not needed at compile time.
+ */
+public class PostgresCopyBulkLoader extends AbstractBulkLoader {
+
+    private static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection";
+
+    @Override
+    public int getPriority(Database database) {
+        if (!(database instanceof PostgresDatabase) || (database instanceof CockroachDatabase)) {
+            return PRIORITY_NOT_APPLICABLE;
+        }
+        return (getPgConnectionClass(getUnderlyingConnection(database)) == null) ? PRIORITY_NOT_APPLICABLE : PRIORITY_DEFAULT;
+    }
+
+    @Override
+    public long load(Database database, String catalogName, String schemaName, String tableName,
+                     List<String> columnNames, Iterator<Object[]> rows) throws DatabaseException {
+        String sql = "COPY " + database.escapeTableName(catalogName, schemaName, tableName) +
+                " (" + getColumnList(database, catalogName, schemaName, tableName, columnNames) + ")" +
+                " FROM STDIN WITH (FORMAT csv)";
+
+        Connection connection = getUnderlyingConnection(database);
+        CsvRowInputStream data = new CsvRowInputStream(rows, this::toCsvLine);
+        try {
+            Class<?> pgConnectionClass = getPgConnectionClass(connection);
+            Object copyManager = pgConnectionClass.getMethod("getCopyAPI").invoke(connection.unwrap(pgConnectionClass));
+            copyManager.getClass().getMethod("copyIn", String.class, InputStream.class).invoke(copyManager, sql, data);
+        } catch (ReflectiveOperationException | java.sql.SQLException e) {
+            throw toDatabaseException(e);
+        }
+        return data.getRowCount();
+    }
+
+    private Class<?> getPgConnectionClass(Connection connection) {
+        if (connection == null) {
+            return null;
+        }
+        try {
+            Class<?> pgConnectionClass = Class.forName(PG_CONNECTION_CLASS, false, connection.getClass().getClassLoader());
+            return connection.isWrapperFor(pgConnectionClass) ? pgConnectionClass : null;
+        } catch (ClassNotFoundException | java.sql.SQLException e) {
+            return null;
+        }
+    }
+}
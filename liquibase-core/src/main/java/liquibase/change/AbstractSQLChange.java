@@ -236,23 +236,30 @@ public abstract class AbstractSQLChange extends AbstractChange implements DbmsTa
             return returnStatements.toArray(new SqlStatement[returnStatements.size()]);
         }
         for (String statement : StringUtil.processMultiLineSQL(processedSQL, isStripComments(), isSplitStatements(), getEndDelimiter())) {
-            if (database instanceof MSSQLDatabase) {
-                statement = statement.replaceAll("\\n", "\r\n");
-            }
+            returnStatements.add(createRawSqlStatement(statement, database));
+        }
 
-            String escapedStatement = statement;
-            try {
-                if (database.getConnection() != null) {
-                    escapedStatement = database.getConnection().nativeSQL(statement);
-                }
-            } catch (DatabaseException e) {
-                escapedStatement = statement;
-            }
+        return returnStatements.toArray(new SqlStatement[returnStatements.size()]);
+    }
 
-            returnStatements.add(new RawSqlStatement(escapedStatement, getEndDelimiter()));
+    /**
+     * Creates the statement to execute for one of the statements split from the sql.
+     */
+    protected SqlStatement createRawSqlStatement(String statement, Database database) {
+        if (database instanceof MSSQLDatabase) {
+            statement = statement.replaceAll("\\n", "\r\n");
         }
 
-        return returnStatements.toArray(new SqlStatement[returnStatements.size()]);
+        String escapedStatement = statement;
+        try {
+            if (database.getConnection() != null) {
+                escapedStatement = database.getConnection().nativeSQL(statement);
+            }
+        } catch (DatabaseException e) {
+            escapedStatement = statement;
+        }
+
+        return new RawSqlStatement(escapedStatement, getEndDelimiter());
     }
 
     @Override
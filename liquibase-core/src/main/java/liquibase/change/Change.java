@@ -14,6 +14,7 @@ import liquibase.serializer.LiquibaseSerializable;
 import liquibase.statement.SqlStatement;
 import liquibase.structure.DatabaseObject;
 
+import java.io.IOException;
 import java.util.Set;
 
 /**
@@ -96,6 +97,15 @@ public interface Change extends LiquibaseSerializable, Plugin, ExtensibleObject
      */
     public SqlStatement[] generateStatements(Database database);
 
+    /**
+     * Returns the statements to execute for the change if they are created one at a time while they are executed,
+     * for changes which may produce too many statements to generate up front. Returns null by default, in which case
+     * {@link #generateStatements(Database)} is used. The returned iterator is closed once its statements are executed.
+     */
+    default StatementIterator openStatements(Database database) throws IOException {
+        return null;
+    }
+
     /**
      * Returns true if this change reads data from the database or other sources that would change during the course of an update in the {@link #generateStatements(Database) } method.
      * If true, this change cannot be used in an updateSql-style commands because Liquibase cannot know the {@link SqlStatement} objects until all changeSets prior have been actually executed.
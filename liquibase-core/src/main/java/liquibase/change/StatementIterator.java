@@ -0,0 +1,12 @@
+package liquibase.change;
+
+import liquibase.statement.SqlStatement;
+
+import java.io.Closeable;
+import java.util.Iterator;
+
+/**
+ * The statements of a change created one at a time while they are executed, see {@link Change#openStatements(liquibase.database.Database)}.
+ */
+public interface StatementIterator extends Iterator<SqlStatement>, Closeable {
+}
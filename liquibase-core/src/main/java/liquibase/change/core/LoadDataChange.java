@@ -2,7 +2,10 @@ package liquibase.change.core;
 
 import com.opencsv.exceptions.CsvMalformedLineException;
 import liquibase.CatalogAndSchema;
+import liquibase.GlobalConfiguration;
 import liquibase.Scope;
+import liquibase.bulkload.BulkLoader;
+import liquibase.bulkload.BulkLoaderFactory;
 import liquibase.change.*;
 import liquibase.changelog.ChangeSet;
 import liquibase.database.AbstractJdbcDatabase;
@@ -21,10 +24,15 @@ import liquibase.resource.ResourceAccessor;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotControl;
 import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
 import liquibase.statement.BatchDmlExecutablePreparedStatement;
+import liquibase.statement.BulkLoadStatement;
 import liquibase.statement.ExecutablePreparedStatementBase;
 import liquibase.statement.InsertExecutablePreparedStatement;
 import liquibase.statement.SqlStatement;
+import liquibase.statement.StreamingBatchDmlExecutablePreparedStatement;
+import liquibase.statement.core.CommitStatement;
+import liquibase.statement.core.InsertOrUpdateSetStatement;
 import liquibase.statement.core.InsertOrUpdateStatement;
 import liquibase.statement.core.InsertSetStatement;
 import liquibase.statement.core.InsertStatement;
@@ -37,10 +45,12 @@ import liquibase.util.StreamUtil;
 import liquibase.util.StringUtil;
 import liquibase.util.csv.CSVReader;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.util.*;
+import java.util.function.Function;
 import java.util.regex.Pattern;
 
 import static java.util.ResourceBundle.getBundle;
@@ -89,6 +99,8 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
     private List<LoadDataColumnConfig> columns = new ArrayList<>();
 
     private Boolean usePreparedStatements;
+    private Integer batchSize;
+    private Integer commitEvery;
 
     /**
      * Transform a value read from a CSV file into a string to be written into the database if the column type
@@ -149,6 +161,28 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
         this.usePreparedStatements = usePreparedStatements;
     }
 
+    @DatabaseChangeProperty(supportsDatabase = ALL,
+            description = "Maximum number of rows sent to the database in one JDBC batch or multi-row insert. " +
+                    "Default: all rows in one batch, 50 rows per multi-row insert")
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    @DatabaseChangeProperty(supportsDatabase = ALL,
+            description = "Commit the transaction each time this many rows have been loaded. Rows committed before " +
+                    "a failure are not rolled back. Default: the rows are committed with the rest of the changeset")
+    public Integer getCommitEvery() {
+        return commitEvery;
+    }
+
+    public void setCommitEvery(Integer commitEvery) {
+        this.commitEvery = commitEvery;
+    }
+
     @DatabaseChangeProperty(supportsDatabase = ALL,
             description = "Lines staring with this are treated as comment and ignored. Default: " + DEFAULT_COMMENT_PATTERN)
     public String getCommentLineStartsWith() {
@@ -289,6 +323,15 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
                 throw new UnexpectedLiquibaseException(e);
             }
 
+            BulkLoader bulkLoader = getBulkLoader(database);
+            if (bulkLoader != null) {
+                return new SqlStatement[]{createBulkLoadStatement(database, headers, bulkLoader)};
+            }
+
+            if (shouldStreamRows(database, databaseSupportsBatchUpdates)) {
+                return new SqlStatement[]{createStreamingStatement(database, headers, databaseSupportsBatchUpdates)};
+            }
+
             String[] line;
             // Start at '1' to take into account the header (already processed):
             int lineNumber = 1;
@@ -298,183 +341,11 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
             List<LoadDataRowConfig> rows = new ArrayList<>();
             while ((line = reader.readNext()) != null) {
                 lineNumber++;
-                if
-                ((line.length == 0) || ((line.length == 1) && (StringUtil.trimToNull(line[0]) == null)) ||
-                        (isCommentingEnabled && isLineCommented(line))
-                ) {
+                if (isSkippedLine(line, isCommentingEnabled)) {
                     //nothing interesting on this line
                     continue;
                 }
-
-                // Ensure each line has the same number of columns defined as does the header.
-                // (Failure could indicate unquoted strings with commas, for example).
-                if (line.length != headers.length) {
-                    throw new UnexpectedLiquibaseException(
-                            "CSV file " + getFile() + " Line " + lineNumber + " has " + line.length +
-                                    " values defined, Header has " + headers.length +
-                                    ". Numbers MUST be equal (check for unquoted string with embedded commas)"
-                    );
-                }
-
-                boolean needsPreparedStatement = false;
-
-                List<LoadDataColumnConfig> columnsFromCsv = new ArrayList<>();
-                for (int i = 0; i < headers.length; i++) {
-                    String value = line[i];
-                    String columnName = headers[i].trim();
-
-                    LoadDataColumnConfig valueConfig = new LoadDataColumnConfig();
-
-                    LoadDataColumnConfig columnConfig = getColumnConfig(i, columnName);
-                    if (columnConfig != null) {
-                        if ("skip".equalsIgnoreCase(columnConfig.getType())) {
-                            continue;
-                        }
-
-                        // don't overwrite header name unless there is actually a value to override it with
-                        if (columnConfig.getName() != null) {
-                            columnName = columnConfig.getName();
-                        }
-
-                        //
-                        // Always set the type for the valueConfig if the value is NULL
-                        //
-                        if ("NULL".equalsIgnoreCase(value)) {
-                            valueConfig.setType(columnConfig.getType());
-                        }
-                        valueConfig.setName(columnName);
-                        valueConfig.setAllowUpdate(columnConfig.getAllowUpdate());
-
-                        if (value.isEmpty()) {
-                            value = columnConfig.getDefaultValue();
-                        }
-                        if (StringUtil.equalsWordNull(value)) {
-                            valueConfig.setValue(null);
-                        } else if (columnConfig.getType() == null) {
-                            // columnConfig did not specify a type
-                            valueConfig.setValue(value);
-                        } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.BOOLEAN) {
-                            if (value == null) { // TODO getDefaultValueBoolean should use BooleanUtil.parseBoolean also for consistent behaviour
-                                valueConfig.setValueBoolean(columnConfig.getDefaultValueBoolean());
-                            } else {
-                                valueConfig.setValueBoolean(BooleanUtil.parseBoolean(value));
-                            }
-                        } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.NUMERIC) {
-                            if (value != null) {
-                                valueConfig.setValueNumeric(value);
-                            } else {
-                                valueConfig.setValueNumeric(columnConfig.getDefaultValueNumeric());
-                            }
-                        } else if (columnConfig.getType().equalsIgnoreCase("date")
-                                || columnConfig.getType().equalsIgnoreCase("datetime")
-                                || columnConfig.getType().equalsIgnoreCase("time")) {
-                            if ("NULL".equalsIgnoreCase(value) || "".equals(value)) {
-                                valueConfig.setValue(null);
-                            } else {
-                                try {
-                                    // Need the column type for handling 'NOW' or 'TODAY' type column value
-                                    valueConfig.setType(columnConfig.getType());
-                                    if (value != null) {
-                                        valueConfig.setValueDate(value);
-                                    } else {
-                                        valueConfig.setValueDate(columnConfig.getDefaultValueDate());
-                                    }
-                                } catch (DateParseException e) {
-                                    throw new UnexpectedLiquibaseException(e);
-                                }
-                            }
-                        } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.STRING) {
-                            valueConfig.setType(columnConfig.getType());
-                            valueConfig.setValue(value == null ? "" : value);
-                        } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.COMPUTED) {
-                            if (null != value) {
-                                liquibase.statement.DatabaseFunction function =
-                                        new liquibase.statement.DatabaseFunction(value);
-                                valueConfig.setValueComputed(function);
-                            } else {
-                                valueConfig.setValueComputed(columnConfig.getDefaultValueComputed());
-                            }
-                        } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.SEQUENCE) {
-                            if (value == null) {
-                                throw new UnexpectedLiquibaseException(
-                                        "Must set a sequence name in the loadData column defaultValue attribute"
-                                );
-                            }
-                            liquibase.statement.SequenceNextValueFunction function =
-                                    new liquibase.statement.SequenceNextValueFunction(getSchemaName(), value);
-                            valueConfig.setValueComputed(function);
-
-                        } else if (columnConfig.getType().equalsIgnoreCase(LOAD_DATA_TYPE.BLOB.toString())) {
-                            if ("NULL".equalsIgnoreCase(value)) {
-                                valueConfig.setValue(null);
-                            } else if (BASE64_PATTERN.matcher(value).matches()) {
-                                valueConfig.setType(columnConfig.getType());
-                                valueConfig.setValue(value);
-                                needsPreparedStatement = true;
-                            } else {
-                                valueConfig.setValueBlobFile(value);
-                                needsPreparedStatement = true;
-                            }
-                        } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.CLOB) {
-                            valueConfig.setValueClobFile(value);
-                            needsPreparedStatement = true;
-                        } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.UUID) {
-                            valueConfig.setType(columnConfig.getType());
-                            if ("NULL".equalsIgnoreCase(value)) {
-                                valueConfig.setValue(null);
-                            } else {
-                                valueConfig.setValue(value);
-                            }
-                        } else if (columnConfig.getType().equalsIgnoreCase(LOAD_DATA_TYPE.OTHER.toString())) {
-                            valueConfig.setType(columnConfig.getType());
-                            if ("NULL".equalsIgnoreCase(value)) {
-                                valueConfig.setValue(null);
-                            } else {
-                                valueConfig.setValue(value);
-                            }
-                        } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.UNKNOWN) {
-                            // columnConfig did not match a specific type
-                            valueConfig.setValue(value);
-                        } else {
-                            throw new UnexpectedLiquibaseException(
-                                    String.format(coreBundle.getString("loaddata.type.is.not.supported"),
-                                            columnConfig.getType()
-                                    )
-                            );
-                        }
-                    } else {
-                        // No columnConfig found. Assume header column name to be the table column name.
-                        if (columnName.contains("(") || (columnName.contains(")") && (database instanceof
-                                AbstractJdbcDatabase))) {
-                            columnName = ((AbstractJdbcDatabase) database).quoteObject(columnName, Column.class);
-                        }
-
-                        valueConfig.setName(columnName);
-
-                        valueConfig.setValue(getValueToWrite(value));
-                    }
-                    columnsFromCsv.add(valueConfig);
-                }
-                // end of: iterate through all the columns of a CSV line
-
-                // Try to use prepared statements if any of the following conditions apply:
-                // 1. There is no other option than using a prepared statement (e.g. in cases of LOBs) regardless
-                //     of whether the 'usePreparedStatement' is set to false
-                // 2. The database supports batched statements (for improved performance) AND we are not in an
-                //    "SQL" mode (i.e. we generate an SQL file instead of actually modifying the database).
-                // BUT: if the user specifically requests usePreparedStatement=false, then respect that
-                boolean actuallyUsePreparedStatements = false;
-                if (hasPreparedStatementsImplemented()) {
-                    if (usePreparedStatements != null) {
-                        if (!usePreparedStatements && needsPreparedStatement) {
-                            throw new UnexpectedLiquibaseException("loadData is requesting usePreparedStatements=false but prepared statements are required");
-                        }
-                        actuallyUsePreparedStatements = usePreparedStatements;
-                    } else {
-                        actuallyUsePreparedStatements = needsPreparedStatement || (databaseSupportsBatchUpdates && !isLoggingExecutor(database));
-                    }
-                }
-                rows.add(new LoadDataRowConfig(actuallyUsePreparedStatements, columnsFromCsv));
+                rows.add(createRowConfig(database, headers, line, lineNumber, databaseSupportsBatchUpdates));
             }
             return generateStatementsFromRows(database, rows);
         } catch (CsvMalformedLineException e) {
@@ -501,6 +372,267 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
         }
     }
 
+    /**
+     * Returns true if the rows should be read while the change executes instead of up front.
+     * See {@link GlobalConfiguration#STREAM_LOAD_DATA}. Streaming requires every row to use a prepared statement.
+     */
+    protected boolean shouldStreamRows(Database database, boolean databaseSupportsBatchUpdates) {
+        return GlobalConfiguration.STREAM_LOAD_DATA.getCurrentValue()
+                && hasPreparedStatementsImplemented()
+                && !Boolean.FALSE.equals(usePreparedStatements)
+                && databaseSupportsBatchUpdates
+                && !isLoggingExecutor(database);
+    }
+
+    /**
+     * Returns the native {@link BulkLoader} to use for this change, or null if the rows must be inserted with the
+     * regular statements. See {@link GlobalConfiguration#BULK_LOAD_DATA}. The decision is made from the column configuration
+     * only, without reading the rows: columns whose values cannot be expressed as plain CSV (computed values, sequences,
+     * LOBs and 'other' types) always use the regular statements, as do changes setting commitEvery since a bulk load is a
+     * single operation. Rows holding a function in another column fail the bulk load, those columns must be declared as computed.
+     */
+    protected BulkLoader getBulkLoader(Database database) {
+        if (!GlobalConfiguration.BULK_LOAD_DATA.getCurrentValue()
+                || !hasPreparedStatementsImplemented()
+                || (commitEvery != null)
+                || isLoggingExecutor(database)) {
+            return null;
+        }
+        for (LoadDataColumnConfig column : columns) {
+            LOAD_DATA_TYPE type = column.getTypeEnum();
+            if ((type == LOAD_DATA_TYPE.COMPUTED) || (type == LOAD_DATA_TYPE.SEQUENCE) || (type == LOAD_DATA_TYPE.BLOB)
+                    || (type == LOAD_DATA_TYPE.CLOB) || (type == LOAD_DATA_TYPE.OTHER)
+                    || (column.getDefaultValueComputed() != null)) {
+                return null;
+            }
+        }
+        return Scope.getCurrentScope().getSingleton(BulkLoaderFactory.class).getBulkLoader(database);
+    }
+
+    private SqlStatement createBulkLoadStatement(Database database, String[] headers, BulkLoader bulkLoader) {
+        List<String> columnNames = new ArrayList<>();
+        for (int i = 0; i < headers.length; i++) {
+            String columnName = headers[i].trim();
+            LoadDataColumnConfig columnConfig = getColumnConfig(i, columnName);
+            if (columnConfig != null) {
+                if ("skip".equalsIgnoreCase(columnConfig.getType())) {
+                    continue;
+                }
+                if (columnConfig.getName() != null) {
+                    columnName = columnConfig.getName();
+                }
+            }
+            columnNames.add(columnName);
+        }
+
+        return new BulkLoadStatement(bulkLoader, database, getCatalogName(), getSchemaName(), getTableName(),
+                columnNames, getChangeSet(),
+                () -> new CsvRowIterator<>(database, headers, false, row -> {
+                    Object[] values = new Object[row.getColumns().size()];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = row.getColumns().get(i).getValueObject();
+                    }
+                    return values;
+                }));
+    }
+
+    private SqlStatement createStreamingStatement(Database database, String[] headers,
+                                                  boolean databaseSupportsBatchUpdates) {
+        // we don't do batch updates for Postgres but we still send as a prepared statement, see LB-744
+        StreamingBatchDmlExecutablePreparedStatement statement = new StreamingBatchDmlExecutablePreparedStatement(
+                database, getCatalogName(), getSchemaName(), getTableName(), columns,
+                getChangeSet(), Scope.getCurrentScope().getResourceAccessor(),
+                () -> new CsvRowIterator<>(database, headers, databaseSupportsBatchUpdates,
+                        row -> createPreparedStatement(
+                                database, getCatalogName(), getSchemaName(), getTableName(), row.getColumns(),
+                                getChangeSet(), Scope.getCurrentScope().getResourceAccessor())),
+                ObjectUtil.defaultIfNull(batchSize, StreamingBatchDmlExecutablePreparedStatement.DEFAULT_CHUNK_SIZE),
+                !(database instanceof PostgresDatabase));
+        statement.setCommitEvery(commitEvery);
+        return statement;
+    }
+
+    private boolean isSkippedLine(String[] line, boolean isCommentingEnabled) {
+        return (line.length == 0) || ((line.length == 1) && (StringUtil.trimToNull(line[0]) == null)) ||
+                (isCommentingEnabled && isLineCommented(line));
+    }
+
+    /**
+     * Converts a line of the CSV file into the column values to insert.
+     */
+    private LoadDataRowConfig createRowConfig(Database database, String[] headers, String[] line, int lineNumber,
+                                              boolean databaseSupportsBatchUpdates) {
+        // Ensure each line has the same number of columns defined as does the header.
+        // (Failure could indicate unquoted strings with commas, for example).
+        if (line.length != headers.length) {
+            throw new UnexpectedLiquibaseException(
+                    "CSV file " + getFile() + " Line " + lineNumber + " has " + line.length +
+                            " values defined, Header has " + headers.length +
+                            ". Numbers MUST be equal (check for unquoted string with embedded commas)"
+            );
+        }
+
+        boolean needsPreparedStatement = false;
+
+        List<LoadDataColumnConfig> columnsFromCsv = new ArrayList<>();
+        for (int i = 0; i < headers.length; i++) {
+            String value = line[i];
+            String columnName = headers[i].trim();
+
+            LoadDataColumnConfig valueConfig = new LoadDataColumnConfig();
+
+            LoadDataColumnConfig columnConfig = getColumnConfig(i, columnName);
+            if (columnConfig != null) {
+                if ("skip".equalsIgnoreCase(columnConfig.getType())) {
+                    continue;
+                }
+
+                // don't overwrite header name unless there is actually a value to override it with
+                if (columnConfig.getName() != null) {
+                    columnName = columnConfig.getName();
+                }
+
+                //
+                // Always set the type for the valueConfig if the value is NULL
+                //
+                if ("NULL".equalsIgnoreCase(value)) {
+                    valueConfig.setType(columnConfig.getType());
+                }
+                valueConfig.setName(columnName);
+                valueConfig.setAllowUpdate(columnConfig.getAllowUpdate());
+
+                if (value.isEmpty()) {
+                    value = columnConfig.getDefaultValue();
+                }
+                if (StringUtil.equalsWordNull(value)) {
+                    valueConfig.setValue(null);
+                } else if (columnConfig.getType() == null) {
+                    // columnConfig did not specify a type
+                    valueConfig.setValue(value);
+                } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.BOOLEAN) {
+                    if (value == null) { // TODO getDefaultValueBoolean should use BooleanUtil.parseBoolean also for consistent behaviour
+                        valueConfig.setValueBoolean(columnConfig.getDefaultValueBoolean());
+                    } else {
+                        valueConfig.setValueBoolean(BooleanUtil.parseBoolean(value));
+                    }
+                } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.NUMERIC) {
+                    if (value != null) {
+                        valueConfig.setValueNumeric(value);
+                    } else {
+                        valueConfig.setValueNumeric(columnConfig.getDefaultValueNumeric());
+                    }
+                } else if (columnConfig.getType().equalsIgnoreCase("date")
+                        || columnConfig.getType().equalsIgnoreCase("datetime")
+                        || columnConfig.getType().equalsIgnoreCase("time")) {
+                    if ("NULL".equalsIgnoreCase(value) || "".equals(value)) {
+                        valueConfig.setValue(null);
+                    } else {
+                        try {
+                            // Need the column type for handling 'NOW' or 'TODAY' type column value
+                            valueConfig.setType(columnConfig.getType());
+                            if (value != null) {
+                                valueConfig.setValueDate(value);
+                            } else {
+                                valueConfig.setValueDate(columnConfig.getDefaultValueDate());
+                            }
+                        } catch (DateParseException e) {
+                            throw new UnexpectedLiquibaseException(e);
+                        }
+                    }
+                } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.STRING) {
+                    valueConfig.setType(columnConfig.getType());
+                    valueConfig.setValue(value == null ? "" : value);
+                } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.COMPUTED) {
+                    if (null != value) {
+                        liquibase.statement.DatabaseFunction function =
+                                new liquibase.statement.DatabaseFunction(value);
+                        valueConfig.setValueComputed(function);
+                    } else {
+                        valueConfig.setValueComputed(columnConfig.getDefaultValueComputed());
+                    }
+                } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.SEQUENCE) {
+                    if (value == null) {
+                        throw new UnexpectedLiquibaseException(
+                                "Must set a sequence name in the loadData column defaultValue attribute"
+                        );
+                    }
+                    liquibase.statement.SequenceNextValueFunction function =
+                            new liquibase.statement.SequenceNextValueFunction(getSchemaName(), value);
+                    valueConfig.setValueComputed(function);
+
+                } else if (columnConfig.getType().equalsIgnoreCase(LOAD_DATA_TYPE.BLOB.toString())) {
+                    if ("NULL".equalsIgnoreCase(value)) {
+                        valueConfig.setValue(null);
+                    } else if (BASE64_PATTERN.matcher(value).matches()) {
+                        valueConfig.setType(columnConfig.getType());
+                        valueConfig.setValue(value);
+                        needsPreparedStatement = true;
+                    } else {
+                        valueConfig.setValueBlobFile(value);
+                        needsPreparedStatement = true;
+                    }
+                } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.CLOB) {
+                    valueConfig.setValueClobFile(value);
+                    needsPreparedStatement = true;
+                } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.UUID) {
+                    valueConfig.setType(columnConfig.getType());
+                    if ("NULL".equalsIgnoreCase(value)) {
+                        valueConfig.setValue(null);
+                    } else {
+                        valueConfig.setValue(value);
+                    }
+                } else if (columnConfig.getType().equalsIgnoreCase(LOAD_DATA_TYPE.OTHER.toString())) {
+                    valueConfig.setType(columnConfig.getType());
+                    if ("NULL".equalsIgnoreCase(value)) {
+                        valueConfig.setValue(null);
+                    } else {
+                        valueConfig.setValue(value);
+                    }
+                } else if (columnConfig.getTypeEnum() == LOAD_DATA_TYPE.UNKNOWN) {
+                    // columnConfig did not match a specific type
+                    valueConfig.setValue(value);
+                } else {
+                    throw new UnexpectedLiquibaseException(
+                            String.format(coreBundle.getString("loaddata.type.is.not.supported"),
+                                    columnConfig.getType()
+                            )
+                    );
+                }
+            } else {
+                // No columnConfig found. Assume header column name to be the table column name.
+                if (columnName.contains("(") || (columnName.contains(")") && (database instanceof
+                        AbstractJdbcDatabase))) {
+                    columnName = ((AbstractJdbcDatabase) database).quoteObject(columnName, Column.class);
+                }
+
+                valueConfig.setName(columnName);
+
+                valueConfig.setValue(getValueToWrite(value));
+            }
+            columnsFromCsv.add(valueConfig);
+        }
+        // end of: iterate through all the columns of a CSV line
+
+        // Try to use prepared statements if any of the following conditions apply:
+        // 1. There is no other option than using a prepared statement (e.g. in cases of LOBs) regardless
+        //     of whether the 'usePreparedStatement' is set to false
+        // 2. The database supports batched statements (for improved performance) AND we are not in an
+        //    "SQL" mode (i.e. we generate an SQL file instead of actually modifying the database).
+        // BUT: if the user specifically requests usePreparedStatement=false, then respect that
+        boolean actuallyUsePreparedStatements = false;
+        if (hasPreparedStatementsImplemented()) {
+            if (usePreparedStatements != null) {
+                if (!usePreparedStatements && needsPreparedStatement) {
+                    throw new UnexpectedLiquibaseException("loadData is requesting usePreparedStatements=false but prepared statements are required");
+                }
+                actuallyUsePreparedStatements = usePreparedStatements;
+            } else {
+                actuallyUsePreparedStatements = needsPreparedStatement || (databaseSupportsBatchUpdates && !isLoggingExecutor(database));
+            }
+        }
+        return new LoadDataRowConfig(actuallyUsePreparedStatements, columnsFromCsv);
+    }
+
     protected boolean supportsBatchUpdates(Database database) {
         boolean databaseSupportsBatchUpdates = false;
         try {
@@ -641,6 +773,12 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
     public ValidationErrors validate(Database database) {
         ValidationErrors validationErrors = new ValidationErrors(this);
         validationErrors.addAll(super.validate(database));
+        if ((batchSize != null) && (batchSize < 1)) {
+            validationErrors.addError("batchSize must be greater than 0");
+        }
+        if ((commitEvery != null) && (commitEvery < 1)) {
+            validationErrors.addError("commitEvery must be greater than 0");
+        }
         return validateColumns(validationErrors);
     }
 
@@ -746,7 +884,11 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
     }
 
     protected InsertSetStatement createStatementSet(String catalogName, String schemaName, String tableName) {
-        return new InsertSetStatement(catalogName, schemaName, tableName);
+        if (batchSize == null) {
+            return new InsertSetStatement(catalogName, schemaName, tableName);
+        }
+        // InsertSetGenerator starts a new insert once more rows than the threshold were added
+        return new InsertSetStatement(catalogName, schemaName, tableName, batchSize - 1);
     }
 
     protected LoadDataColumnConfig getColumnConfig(int index, String header) {
@@ -850,18 +992,20 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
             if (supportsBatchUpdates(database) && !preparedStatements.isEmpty()) {
                 if (database instanceof PostgresDatabase) {
                     // we don't do batch updates for Postgres but we still send as a prepared statement, see LB-744
-                    return preparedStatements.toArray(new SqlStatement[0]);
+                    return withCommits(preparedStatements, group -> group);
                 } else {
-                    return new SqlStatement[]{
-                            new BatchDmlExecutablePreparedStatement(
-                                    database, getCatalogName(), getSchemaName(),
-                                    getTableName(), columns,
-                                    getChangeSet(), Scope.getCurrentScope().getResourceAccessor(),
-                                    preparedStatements)
-                    };
+                    return withCommits(preparedStatements, group -> {
+                        BatchDmlExecutablePreparedStatement batch = new BatchDmlExecutablePreparedStatement(
+                                database, getCatalogName(), getSchemaName(),
+                                getTableName(), columns,
+                                getChangeSet(), Scope.getCurrentScope().getResourceAccessor(),
+                                group);
+                        batch.setBatchSize(batchSize);
+                        return Collections.singletonList(batch);
+                    });
                 }
             } else {
-                return statements.toArray(new SqlStatement[0]);
+                return withCommits(statements, group -> group);
             }
         } else {
             if (statements.isEmpty()) {
@@ -869,35 +1013,151 @@ public class LoadDataChange extends AbstractTableChange implements ChangeWithCol
                 return new SqlStatement[0];
             }
 
-            InsertSetStatement statementSet = this.createStatementSet(
-                    getCatalogName(), getSchemaName(), getTableName()
-            );
-            for (SqlStatement stmt : statements) {
-                statementSet.addInsertStatement((InsertStatement) stmt);
+            if (statements.get(0) instanceof InsertOrUpdateStatement) {
+                return withCommits(statements, group -> createInsertOrUpdateSet(database, group));
             }
 
             if ((database instanceof MSSQLDatabase) || (database instanceof MySQLDatabase) || (database
                     instanceof PostgresDatabase)) {
-                List<InsertStatement> innerStatements = statementSet.getStatements();
-                if ((innerStatements != null) && (!innerStatements.isEmpty()) && (innerStatements.get(0)
-                        instanceof InsertOrUpdateStatement)) {
-                    //cannot do insert or update in a single statement
-                    return statementSet.getStatementsArray();
-                }
-                // we only return a single "statement" - it's capable of emitting multiple sub-statements,
-                // should the need arise, on generation.
-                return new SqlStatement[]{statementSet};
+                // we only return a single "statement" per commit - it's capable of emitting multiple
+                // sub-statements, should the need arise, on generation.
+                return withCommits(statements, group -> {
+                    InsertSetStatement statementSet = this.createStatementSet(
+                            getCatalogName(), getSchemaName(), getTableName()
+                    );
+                    for (SqlStatement stmt : group) {
+                        statementSet.addInsertStatement((InsertStatement) stmt);
+                    }
+                    return Collections.singletonList(statementSet);
+                });
             } else {
-                return statementSet.getStatementsArray();
+                return withCommits(statements, group -> group);
             }
         }
     }
 
+    /**
+     * Combines the insert or update statements of a group into a single {@link InsertOrUpdateSetStatement} if
+     * {@link GlobalConfiguration#BULK_LOAD_UPDATE_DATA} is enabled and the database has a set-based upsert.
+     * Otherwise the statements are returned as they are, one per row.
+     */
+    private List<? extends SqlStatement> createInsertOrUpdateSet(Database database, List<SqlStatement> group) {
+        if (!GlobalConfiguration.BULK_LOAD_UPDATE_DATA.getCurrentValue()) {
+            return group;
+        }
+        InsertOrUpdateStatement first = (InsertOrUpdateStatement) group.get(0);
+        InsertOrUpdateSetStatement statementSet = new InsertOrUpdateSetStatement(
+                getCatalogName(), getSchemaName(), getTableName(), first.getPrimaryKey(), first.getOnlyUpdate(),
+                ObjectUtil.defaultIfNull(batchSize, InsertOrUpdateSetStatement.DEFAULT_BATCH_SIZE));
+        for (SqlStatement stmt : group) {
+            statementSet.addStatement((InsertOrUpdateStatement) stmt);
+        }
+        if (!SqlGeneratorFactory.getInstance().supports(statementSet, database)) {
+            return group;
+        }
+        return Collections.singletonList(statementSet);
+    }
+
+    /**
+     * Splits the rows into groups of {@link #getCommitEvery()} rows, creates the statements of each group and
+     * separates the groups with a {@link CommitStatement}. All rows are in a single group if commitEvery is not set.
+     */
+    private <T> SqlStatement[] withCommits(List<T> rows, Function<List<T>, List<? extends SqlStatement>> toStatements) {
+        List<SqlStatement> result = new ArrayList<>();
+        int groupSize = (commitEvery == null) ? rows.size() : commitEvery;
+        for (int i = 0; i < rows.size(); i += groupSize) {
+            if (i > 0) {
+                result.add(new CommitStatement());
+            }
+            result.addAll(toStatements.apply(rows.subList(i, Math.min(i + groupSize, rows.size()))));
+        }
+        return result.toArray(new SqlStatement[0]);
+    }
+
     @SuppressWarnings("HardCodedStringLiteral")
     public enum LOAD_DATA_TYPE {
         BOOLEAN, NUMERIC, DATE, STRING, COMPUTED, SEQUENCE, BLOB, CLOB, SKIP, UUID, OTHER, UNKNOWN
     }
 
+    /**
+     * Reads the CSV file one line at a time and converts each row with the given function.
+     * Used by {@link StreamingBatchDmlExecutablePreparedStatement} and {@link BulkLoadStatement} so rows are only
+     * created as they are executed.
+     */
+    private class CsvRowIterator<T> implements Iterator<T>, Closeable {
+
+        private final Database database;
+        private final String[] headers;
+        private final boolean databaseSupportsBatchUpdates;
+        private final Function<LoadDataRowConfig, T> converter;
+        private final boolean isCommentingEnabled = StringUtil.isNotEmpty(commentLineStartsWith);
+        private final CSVReader reader;
+        // Start at '1' to take into account the header
+        private int lineNumber = 1;
+        private LoadDataRowConfig nextRow;
+
+        CsvRowIterator(Database database, String[] headers, boolean databaseSupportsBatchUpdates,
+                       Function<LoadDataRowConfig, T> converter) throws DatabaseException {
+            this.database = database;
+            this.headers = headers;
+            this.databaseSupportsBatchUpdates = databaseSupportsBatchUpdates;
+            this.converter = converter;
+            try {
+                this.reader = getCSVReader();
+                if (reader == null) {
+                    throw new DatabaseException("Unable to read file " + getFile());
+                }
+                reader.readNext();
+            } catch (IOException | LiquibaseException e) {
+                throw new DatabaseException(e);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (nextRow == null) {
+                nextRow = readRow();
+            }
+            return nextRow != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            LoadDataRowConfig row = nextRow;
+            nextRow = null;
+            return converter.apply(row);
+        }
+
+        private LoadDataRowConfig readRow() {
+            try {
+                String[] line;
+                while ((line = reader.readNext()) != null) {
+                    lineNumber++;
+                    if (!isSkippedLine(line, isCommentingEnabled)) {
+                        return createRowConfig(database, headers, line, lineNumber, databaseSupportsBatchUpdates);
+                    }
+                }
+                return null;
+            } catch (CsvMalformedLineException e) {
+                throw new UnexpectedLiquibaseException("Error parsing " + getRelativeTo() + " on line " + e.getLineNumber() + ": " + e.getMessage());
+            } catch (IOException e) {
+                throw new UnexpectedLiquibaseException(e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                reader.close();
+            } catch (Exception e) {
+                throw new IOException(e);
+            }
+        }
+    }
+
     protected static class LoadDataRowConfig {
 
         private final boolean needsPreparedStatement;
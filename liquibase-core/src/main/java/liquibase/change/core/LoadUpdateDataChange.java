@@ -12,7 +12,9 @@ import liquibase.resource.ResourceAccessor;
 import liquibase.statement.BatchDmlExecutablePreparedStatement;
 import liquibase.statement.ExecutablePreparedStatementBase;
 import liquibase.statement.SqlStatement;
+import liquibase.statement.core.CommitStatement;
 import liquibase.statement.core.DeleteStatement;
+import liquibase.statement.core.InsertOrUpdateSetStatement;
 import liquibase.statement.core.InsertOrUpdateStatement;
 import liquibase.statement.core.InsertStatement;
 import liquibase.util.StringUtil;
@@ -91,13 +93,15 @@ public class LoadUpdateDataChange extends LoadDataChange {
         List<SqlStatement> statements = new ArrayList<>();
         List<SqlStatement> finalForwardList = new ArrayList<>();
 
-        // If we are dealing with a batched UPDATE, "unroll" the individual statements first.
+        // If we are dealing with a batched UPDATE or a set of upserts, "unroll" the individual statements first.
         for (SqlStatement thisForward : this.generateStatements(database)) {
             if (thisForward instanceof BatchDmlExecutablePreparedStatement) {
                 finalForwardList.addAll(
                         ((BatchDmlExecutablePreparedStatement)thisForward).getIndividualStatements()
                 );
-            } else {
+            } else if (thisForward instanceof InsertOrUpdateSetStatement) {
+                finalForwardList.addAll(((InsertOrUpdateSetStatement) thisForward).getStatements());
+            } else if (!(thisForward instanceof CommitStatement)) {
                 finalForwardList.add(thisForward);
             }
         }
@@ -1,23 +1,26 @@
 package liquibase.change.core;
 
+import liquibase.GlobalConfiguration;
 import liquibase.Scope;
 import liquibase.change.AbstractSQLChange;
 import liquibase.change.ChangeMetaData;
 import liquibase.change.DatabaseChange;
 import liquibase.change.DatabaseChangeProperty;
+import liquibase.change.StatementIterator;
 import liquibase.changelog.ChangeLogParameters;
 import liquibase.database.Database;
 import liquibase.exception.SetupException;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.exception.ValidationErrors;
 import liquibase.resource.ResourceAccessor;
+import liquibase.statement.SqlStatement;
 import liquibase.util.FileUtil;
 import liquibase.util.ObjectUtil;
 import liquibase.util.StreamUtil;
+import liquibase.util.StreamingSqlSplitter;
 import liquibase.util.StringUtil;
 
-import java.io.IOException;
-import java.io.InputStream;
+import java.io.*;
 
 /**
  * Represents a Change for custom SQL stored in a File.
@@ -172,6 +175,28 @@ public class SQLFileChange extends AbstractSQLChange {
         }
     }
 
+    /**
+     * Returns true if the statements should be read from the file as they are executed with {@link #openStatements(Database)}
+     * rather than generated all at once. See {@link GlobalConfiguration#STREAMING_SQL_FILE}.
+     */
+    public boolean isStreamingStatements() {
+        return GlobalConfiguration.STREAMING_SQL_FILE.getCurrentValue() && (super.getSql() == null) && (path != null);
+    }
+
+    /**
+     * If {@link #isStreamingStatements()}, opens the file and returns its statements, which are read and split one at a time
+     * with the same rules as {@link #generateStatements(Database)}. Changelog parameters are expanded line by line, so an
+     * expression cannot span lines.
+     */
+    @Override
+    public StatementIterator openStatements(Database database) throws IOException {
+        if (!isStreamingStatements()) {
+            return null;
+        }
+        Reader reader = new ExpandingReader(StreamUtil.readStreamWithReader(openSqlStream(), getEncoding()));
+        return new FileStatementIterator(new StreamingSqlSplitter(reader, isStripComments(), isSplitStatements(), getEndDelimiter()), database);
+    }
+
     @Override
     public void setSql(String sql) {
         if ((getChangeSet() != null) && (getChangeSet().getChangeLogParameters() != null)) {
@@ -184,4 +209,92 @@ public class SQLFileChange extends AbstractSQLChange {
     public String getSerializedObjectNamespace() {
         return STANDARD_CHANGELOG_NAMESPACE;
     }
+
+    /**
+     * The statements of the file, created as they are read.
+     */
+    private class FileStatementIterator implements StatementIterator {
+        private final StreamingSqlSplitter splitter;
+        private final Database database;
+
+        private FileStatementIterator(StreamingSqlSplitter splitter, Database database) {
+            this.splitter = splitter;
+            this.database = database;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return splitter.hasNext();
+        }
+
+        @Override
+        public SqlStatement next() {
+            return createRawSqlStatement(splitter.next(), database);
+        }
+
+        @Override
+        public void close() throws IOException {
+            splitter.close();
+        }
+    }
+
+    /**
+     * Removes \r characters and expands the changelog parameters of each line, like {@link #getSql()} and
+     * {@link #generateStatements(Database)} do for the whole file.
+     */
+    private class ExpandingReader extends Reader {
+        private final Reader reader;
+        private String line = "";
+        private int position;
+
+        private ExpandingReader(Reader reader) {
+            this.reader = new BufferedReader(reader);
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            while (position >= line.length()) {
+                line = readLine();
+                if (line == null) {
+                    line = "";
+                    return -1;
+                }
+                position = 0;
+            }
+            int count = Math.min(len, line.length() - position);
+            line.getChars(position, position + count, cbuf, off);
+            position += count;
+            return count;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder builder = new StringBuilder();
+            int c;
+            while ((c = reader.read()) != -1) {
+                if (c != '\r') {
+                    builder.append((char) c);
+                    if (c == '\n') {
+                        break;
+                    }
+                }
+            }
+            if ((c == -1) && (builder.length() == 0)) {
+                return null;
+            }
+
+            String content = builder.toString();
+            if (getChangeSet() != null) {
+                ChangeLogParameters parameters = getChangeSet().getChangeLogParameters();
+                if (parameters != null) {
+                    content = parameters.expandExpressions(content, getChangeSet().getChangeLog());
+                }
+            }
+            return content;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
 }
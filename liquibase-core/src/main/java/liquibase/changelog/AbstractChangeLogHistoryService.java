@@ -76,6 +76,7 @@ public abstract class AbstractChangeLogHistoryService implements ChangeLogHistor
                 }
             }
         }
+        Scope.getCurrentScope().getSingleton(ChangeSetCheckSumCache.class).save();
     }
 
     @Override
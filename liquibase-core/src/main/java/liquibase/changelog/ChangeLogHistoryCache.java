@@ -0,0 +1,119 @@
+package liquibase.changelog;
+
+import liquibase.SingletonObject;
+import liquibase.database.Database;
+
+import java.util.*;
+
+/**
+ * Keeps the DATABASECHANGELOG rows read by {@link StandardChangeLogHistoryService} across service resets and
+ * {@link Database} instances, so refreshing the history only needs to read rows with a higher ORDEREXECUTED.
+ * Used when {@link liquibase.GlobalConfiguration#INCREMENTAL_HISTORY_READS} is enabled.
+ * <p>
+ * Only rows actually read from the database are stored, never rows added to the in-memory history by update-sql style runs.
+ */
+public class ChangeLogHistoryCache implements SingletonObject {
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    protected ChangeLogHistoryCache() {
+    }
+
+    /**
+     * Returns the cached rows for the given database, or null if there are none.
+     */
+    public synchronized Entry get(Database database) {
+        String key = getKey(database);
+        if (key == null) {
+            return null;
+        }
+        Entry entry = entries.get(key);
+        return (entry == null) ? null : new Entry(entry);
+    }
+
+    /**
+     * Replaces the cached rows for the given database.
+     */
+    public synchronized void put(Database database, Entry entry) {
+        String key = getKey(database);
+        if (key != null) {
+            entries.put(key, new Entry(entry));
+        }
+    }
+
+    /**
+     * Removes the cached rows for the given database. Called whenever Liquibase changes or removes existing rows.
+     */
+    public synchronized void clear(Database database) {
+        String key = getKey(database);
+        if (key != null) {
+            entries.remove(key);
+        }
+    }
+
+    public synchronized void clearAll() {
+        entries.clear();
+    }
+
+    protected String getKey(Database database) {
+        if ((database == null) || (database.getConnection() == null)) {
+            return null;
+        }
+        return database.getConnection().getURL()
+                + "|" + database.getConnection().getConnectionUserName()
+                + "|" + database.getDefaultSchemaName()
+                + "|" + database.escapeTableName(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName());
+    }
+
+    /**
+     * DATABASECHANGELOG rows in the order of the full table query, indexed by changeset identity.
+     */
+    public static class Entry {
+        private final LinkedHashMap<String, Map<String, ?>> rows;
+        private int maxOrderExecuted;
+        private String summary;
+
+        public Entry() {
+            this.rows = new LinkedHashMap<>();
+        }
+
+        private Entry(Entry copyFrom) {
+            this.rows = new LinkedHashMap<>(copyFrom.rows);
+            this.maxOrderExecuted = copyFrom.maxOrderExecuted;
+            this.summary = copyFrom.summary;
+        }
+
+        /**
+         * Adds a row, replacing any existing row for the same changeset so re-executed runAlways and runOnChange changesets move to the end.
+         */
+        public void add(Map<String, ?> row) {
+            String key = row.get("FILENAME") + "::" + row.get("ID") + "::" + row.get("AUTHOR");
+            rows.remove(key);
+            rows.put(key, row);
+
+            Object orderExecuted = row.get("ORDEREXECUTED");
+            if (orderExecuted != null) {
+                maxOrderExecuted = Math.max(maxOrderExecuted, Integer.parseInt(orderExecuted.toString()));
+            }
+        }
+
+        public Collection<Map<String, ?>> getRows() {
+            return Collections.unmodifiableCollection(rows.values());
+        }
+
+        public int getMaxOrderExecuted() {
+            return maxOrderExecuted;
+        }
+
+        /**
+         * Returns the summary of the table rows this entry holds, used to check they are unchanged before reading only newer rows.
+         */
+        public String getSummary() {
+            return summary;
+        }
+
+        public void setSummary(String summary) {
+            this.summary = summary;
+        }
+    }
+}
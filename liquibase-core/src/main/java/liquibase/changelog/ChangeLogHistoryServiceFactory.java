@@ -92,6 +92,13 @@ public class ChangeLogHistoryServiceFactory {
             }
     }
 
+    /**
+     * Removes the service created for the given database without resetting the services of other databases.
+     */
+    public void removeChangeLogService(Database database) {
+        services.remove(database);
+    }
+
     public void resetAll() {
         synchronized (ChangeLogHistoryServiceFactory.class) {
             for (ChangeLogHistoryService changeLogHistoryService : registry) {
@@ -0,0 +1,93 @@
+package liquibase.changelog;
+
+import liquibase.Scope;
+import liquibase.change.ColumnConfig;
+import liquibase.database.Database;
+import liquibase.database.core.*;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.statement.core.SelectFromDatabaseChangeLogStatement;
+import liquibase.util.MD5Util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads a single value summarizing the DATABASECHANGELOG table, used to detect changes made by other processes
+ * without reading every row.
+ * <p>
+ * The summary combines the row, checksum and tag counts, the latest ORDEREXECUTED and DATEEXECUTED, the lowest and highest checksum and,
+ * on databases with a suitable aggregate function, a hash over the identity, checksum, EXECTYPE, DEPLOYMENT_ID and tag of every row.
+ * Every aggregate is aliased and read by that alias, since unaliased aggregates get the same or empty labels on most databases.
+ */
+class ChangeLogHistorySummary {
+
+    private static final String[] COLUMNS = {"ROW_COUNT", "CHECKSUM_COUNT", "TAG_COUNT", "MAX_ORDER_EXECUTED", "MAX_DATE_EXECUTED",
+            "MIN_CHECKSUM", "MAX_CHECKSUM", "HISTORY_HASH"};
+
+    private ChangeLogHistorySummary() {
+    }
+
+    /**
+     * Returns the summary of all rows, or only of the rows with an ORDEREXECUTED up to the given value if it is not null.
+     */
+    static String read(Database database, Integer maxOrderExecuted) throws DatabaseException {
+        List<ColumnConfig> columns = new ArrayList<>();
+        columns.add(new ColumnConfig().setName("COUNT(*) AS ROW_COUNT", true));
+        columns.add(new ColumnConfig().setName("COUNT(MD5SUM) AS CHECKSUM_COUNT", true));
+        columns.add(new ColumnConfig().setName("COUNT(TAG) AS TAG_COUNT", true));
+        columns.add(new ColumnConfig().setName("MAX(ORDEREXECUTED) AS MAX_ORDER_EXECUTED", true));
+        columns.add(new ColumnConfig().setName("MAX(DATEEXECUTED) AS MAX_DATE_EXECUTED", true));
+        columns.add(new ColumnConfig().setName("MIN(MD5SUM) AS MIN_CHECKSUM", true));
+        columns.add(new ColumnConfig().setName("MAX(MD5SUM) AS MAX_CHECKSUM", true));
+        String hashSql = getHistoryHashSql(database);
+        if (hashSql != null) {
+            columns.add(new ColumnConfig().setName(hashSql + " AS HISTORY_HASH", true));
+        }
+
+        SelectFromDatabaseChangeLogStatement.WhereClause where = (maxOrderExecuted == null) ? null
+                : new SelectFromDatabaseChangeLogStatement.ByOrderExecutedUpTo(maxOrderExecuted);
+        List<Map<String, ?>> rows = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database)
+                .queryForList(new SelectFromDatabaseChangeLogStatement(where, columns.toArray(new ColumnConfig[0])));
+        if (rows.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder summary = new StringBuilder();
+        for (int i = 0; i < columns.size(); i++) {
+            summary.append(getValue(rows.get(0), COLUMNS[i], database)).append(";");
+        }
+        return MD5Util.computeMD5(summary.toString());
+    }
+
+    /**
+     * Returns an aggregate expression hashing the identity, checksum, EXECTYPE, DEPLOYMENT_ID and tag of every row, or null if
+     * the database has no suitable aggregate function.
+     */
+    static String getHistoryHashSql(Database database) {
+        if (database instanceof PostgresDatabase) {
+            return "MD5(STRING_AGG(ID || ':' || AUTHOR || ':' || FILENAME || ':' || COALESCE(MD5SUM, '') || ':' || EXECTYPE "
+                    + "|| ':' || COALESCE(DEPLOYMENT_ID, '') || ':' || COALESCE(TAG, ''), ',' ORDER BY ORDEREXECUTED, FILENAME, ID, AUTHOR))";
+        } else if (database instanceof H2Database) {
+            return "BIT_XOR_AGG(ORA_HASH(ID || ':' || AUTHOR || ':' || FILENAME || ':' || COALESCE(MD5SUM, '') || ':' || EXECTYPE "
+                    + "|| ':' || COALESCE(DEPLOYMENT_ID, '') || ':' || COALESCE(TAG, '')))";
+        } else if (database instanceof MySQLDatabase) {
+            return "BIT_XOR(CRC32(CONCAT_WS(':', ID, AUTHOR, FILENAME, COALESCE(MD5SUM, ''), EXECTYPE, COALESCE(DEPLOYMENT_ID, ''), COALESCE(TAG, ''))))";
+        } else if (database instanceof MSSQLDatabase) {
+            return "CHECKSUM_AGG(CHECKSUM(ID, AUTHOR, FILENAME, MD5SUM, EXECTYPE, DEPLOYMENT_ID, TAG))";
+        } else if (database instanceof OracleDatabase) {
+            return "SUM(ORA_HASH(ID || ':' || AUTHOR || ':' || FILENAME || ':' || MD5SUM || ':' || EXECTYPE || ':' || DEPLOYMENT_ID || ':' || TAG))";
+        }
+        return null;
+    }
+
+    private static Object getValue(Map<String, ?> row, String column, Database database) throws DatabaseException {
+        for (Map.Entry<String, ?> entry : row.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(column)) {
+                return entry.getValue();
+            }
+        }
+        throw new DatabaseException("Column " + column + " not returned by the " + database.getDatabaseChangeLogTableName() + " summary query");
+    }
+}
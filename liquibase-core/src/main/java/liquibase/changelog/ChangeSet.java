@@ -22,6 +22,7 @@ import liquibase.parser.core.ParsedNodeException;
 import liquibase.precondition.Conditional;
 import liquibase.precondition.ErrorPrecondition;
 import liquibase.precondition.FailedPrecondition;
+import liquibase.precondition.PreconditionMetadataCache;
 import liquibase.precondition.core.PreconditionContainer;
 import liquibase.resource.ResourceAccessor;
 import liquibase.sql.visitor.SqlVisitor;
@@ -30,6 +31,7 @@ import liquibase.statement.SqlStatement;
 import liquibase.util.StreamUtil;
 import liquibase.util.StringUtil;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -302,6 +304,12 @@ public class ChangeSet implements Conditional, ChangeLogChild {
 
     public CheckSum generateCheckSum() {
         if (checkSum == null) {
+            ChangeSetCheckSumCache checkSumCache = Scope.getCurrentScope().getSingleton(ChangeSetCheckSumCache.class);
+            checkSum = checkSumCache.get(this);
+            if (checkSum != null) {
+                return checkSum;
+            }
+
             StringBuilder stringToMD5 = new StringBuilder();
             for (Change change : getChanges()) {
                 stringToMD5.append(change.generateCheckSum()).append(":");
@@ -313,6 +321,7 @@ public class ChangeSet implements Conditional, ChangeLogChild {
 
 
             checkSum = CheckSum.compute(stringToMD5.toString());
+            checkSumCache.put(this, checkSum);
         }
 
         return checkSum;
@@ -658,7 +667,13 @@ public class ChangeSet implements Conditional, ChangeLogChild {
                         }
 
 
-                        database.executeStatements(change, databaseChangeLog, sqlVisitors);
+                        // the listener is made available to statements reporting progress, see ChangeExecListener.batchExecuted
+                        Scope.child(ChangeExecListener.class.getName(), listener, () ->
+                                executeStatements(change, database, databaseChangeLog, sqlVisitors));
+                        PreconditionMetadataCache preconditionMetadataCache = PreconditionMetadataCache.getCurrent(database);
+                        if (preconditionMetadataCache != null) {
+                            preconditionMetadataCache.changeExecuted(change);
+                        }
                         log.info(change.getConfirmationMessage());
                         if (listener != null) {
                             listener.ran(change, this, changeLog, database);
@@ -680,6 +695,7 @@ public class ChangeSet implements Conditional, ChangeLogChild {
             }
 
         } catch (Exception e) {
+            clearPreconditionMetadataCache(database);
             try {
                 database.rollback();
             } catch (Exception e1) {
@@ -827,6 +843,8 @@ public class ChangeSet implements Conditional, ChangeLogChild {
             }
             throw new RollbackFailedException(e);
         } finally {
+            // rolled back changes are not applied to the precondition cache, so the schemas are snapshotted again
+            clearPreconditionMetadataCache(database);
             // restore auto-commit to false if this ChangeSet was not run in a transaction,
             // but only if the database supports DDL in transactions
             Scope.getCurrentScope().getSingleton(ExecutorService.class).setExecutor("jdbc", database, originalExecutor);
@@ -841,6 +859,30 @@ public class ChangeSet implements Conditional, ChangeLogChild {
 
     }
 
+    /**
+     * Executes the statements of a change, one at a time if the change creates them while they are executed.
+     */
+    private void executeStatements(Change change, Database database, DatabaseChangeLog databaseChangeLog, List<SqlVisitor> sqlVisitors) throws LiquibaseException {
+        try (StatementIterator statements = change.openStatements(database)) {
+            if (statements == null) {
+                database.executeStatements(change, databaseChangeLog, sqlVisitors);
+                return;
+            }
+            while (statements.hasNext()) {
+                database.execute(new SqlStatement[]{statements.next()}, sqlVisitors);
+            }
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+    }
+
+    private void clearPreconditionMetadataCache(Database database) {
+        PreconditionMetadataCache preconditionMetadataCache = PreconditionMetadataCache.getCurrent(database);
+        if (preconditionMetadataCache != null) {
+            preconditionMetadataCache.clear();
+        }
+    }
+
     /**
      * Returns whether custom rollback steps are specified for this changeSet, or whether auto-generated ones should be used
      */
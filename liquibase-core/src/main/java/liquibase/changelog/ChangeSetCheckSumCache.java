@@ -0,0 +1,272 @@
+package liquibase.changelog;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.SingletonObject;
+import liquibase.change.Change;
+import liquibase.change.CheckSum;
+import liquibase.change.core.CreateProcedureChange;
+import liquibase.change.core.CreateViewChange;
+import liquibase.change.core.LoadDataChange;
+import liquibase.change.core.SQLFileChange;
+import liquibase.parser.ChangeLogParserConfiguration;
+import liquibase.resource.InputStreamList;
+import liquibase.resource.ResourceAccessor;
+import liquibase.util.LiquibaseUtil;
+import liquibase.util.MD5Util;
+import liquibase.util.StreamUtil;
+import liquibase.util.StringUtil;
+
+import java.io.*;
+import java.net.URI;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Persistent cache of {@link ChangeSet#generateCheckSum()} values, stored in the file configured by
+ * {@link GlobalConfiguration#CHECKSUM_CACHE_FILE}, or next to the {@link ChangeLogParserConfiguration#CHANGELOG_CACHE_FILE} if only that is set.
+ * <p>
+ * Entries are keyed by the physical changelog path, changeset id and author, and are only used when the fingerprint
+ * of the changelog file matches. The fingerprint combines the file content hash, the values of the changelog
+ * parameters referenced in the file, the checksum algorithm version and the Liquibase version. When the changelog is a local file, its modification time
+ * and size are stored too so an unchanged file does not even need to be re-read to compute the content hash.
+ * <p>
+ * ChangeSets containing changes whose checksum depends on external files (sqlFile, loadData, createProcedure and
+ * createView with a path) are never cached because changes to those files would not change the fingerprint.
+ */
+public class ChangeSetCheckSumCache implements SingletonObject {
+
+    private static final String FILE_KEY_PREFIX = "file:";
+    private static final String CHANGESET_KEY_PREFIX = "changeset:";
+    private static final Pattern PARAMETER_PATTERN = Pattern.compile("\\$\\{([^\\}]+)\\}");
+
+    private String loadedFrom;
+    private final Properties entries = new Properties();
+    private final Map<String, String> fileFingerprints = new HashMap<>();
+    private boolean dirty;
+
+    protected ChangeSetCheckSumCache() {
+    }
+
+    /**
+     * Returns the cached checksum for the given changeSet, or null if caching is disabled or there is no valid entry.
+     */
+    public synchronized CheckSum get(ChangeSet changeSet) {
+        if (!ensureLoaded() || !isCacheable(changeSet)) {
+            return null;
+        }
+        String fingerprint = getFingerprint(changeSet);
+        if (fingerprint == null) {
+            return null;
+        }
+
+        String value = entries.getProperty(getChangeSetKey(changeSet));
+        if (value == null) {
+            return null;
+        }
+        String[] parts = value.split(" ", 2);
+        if ((parts.length != 2) || !parts[0].equals(fingerprint)) {
+            return null;
+        }
+        return CheckSum.parse(parts[1]);
+    }
+
+    /**
+     * Stores the computed checksum for the given changeSet. Does nothing if caching is disabled.
+     */
+    public synchronized void put(ChangeSet changeSet, CheckSum checkSum) {
+        if ((checkSum == null) || !ensureLoaded() || !isCacheable(changeSet)) {
+            return;
+        }
+        String fingerprint = getFingerprint(changeSet);
+        if (fingerprint == null) {
+            return;
+        }
+
+        String value = fingerprint + " " + checkSum.toString();
+        Object oldValue = entries.setProperty(getChangeSetKey(changeSet), value);
+        if (!value.equals(oldValue)) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * Writes the cache file if any entries changed since it was loaded. Failures are logged but not thrown since the
+     * cache is only an optimization.
+     * <p>
+     * This also marks the end of a run: changelog file hashes are recomputed on next use so long-running processes
+     * pick up modified changelogs.
+     */
+    public synchronized void save() {
+        fileFingerprints.clear();
+        if (!dirty || (loadedFrom == null)) {
+            return;
+        }
+
+        File file = new File(loadedFrom);
+        File parent = file.getAbsoluteFile().getParentFile();
+        if ((parent != null) && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            entries.store(outputStream, "Liquibase changeset checksum cache. Safe to delete.");
+            dirty = false;
+        } catch (IOException e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Cannot write checksum cache " + loadedFrom + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Discards all in-memory state. The cache file will be re-read on next use.
+     */
+    public synchronized void reset() {
+        loadedFrom = null;
+        entries.clear();
+        fileFingerprints.clear();
+        dirty = false;
+    }
+
+    /**
+     * Loads the configured cache file if it has not been loaded yet.
+     *
+     * @return false if the cache is disabled
+     */
+    private boolean ensureLoaded() {
+        String cacheFile = StringUtil.trimToNull(GlobalConfiguration.CHECKSUM_CACHE_FILE.getCurrentValue());
+        if (cacheFile == null) {
+            String changeLogCacheFile = StringUtil.trimToNull(ChangeLogParserConfiguration.CHANGELOG_CACHE_FILE.getCurrentValue());
+            if (changeLogCacheFile == null) {
+                return false;
+            }
+            cacheFile = changeLogCacheFile + ".checksums";
+        }
+        if (cacheFile.equals(loadedFrom)) {
+            return true;
+        }
+
+        save();
+        reset();
+        loadedFrom = cacheFile;
+
+        File file = new File(cacheFile);
+        if (file.exists()) {
+            try (InputStream inputStream = new FileInputStream(file)) {
+                entries.load(inputStream);
+            } catch (IOException | IllegalArgumentException e) {
+                Scope.getCurrentScope().getLog(getClass()).warning("Cannot read checksum cache " + cacheFile + ", ignoring it: " + e.getMessage());
+                entries.clear();
+            }
+        }
+        return true;
+    }
+
+    protected boolean isCacheable(ChangeSet changeSet) {
+        if ((changeSet.getChangeLog() == null) || (changeSet.getChangeLog().getPhysicalFilePath() == null)) {
+            return false;
+        }
+        for (Change change : changeSet.getChanges()) {
+            if ((change instanceof SQLFileChange) || (change instanceof LoadDataChange)) {
+                return false;
+            }
+            if ((change instanceof CreateProcedureChange) && (((CreateProcedureChange) change).getPath() != null)) {
+                return false;
+            }
+            if ((change instanceof CreateViewChange) && (((CreateViewChange) change).getPath() != null)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String getChangeSetKey(ChangeSet changeSet) {
+        return CHANGESET_KEY_PREFIX + changeSet.getChangeLog().getPhysicalFilePath() + "::" + changeSet.getId() + "::" + changeSet.getAuthor();
+    }
+
+    /**
+     * Returns the fingerprint that cached checksums for the given changeSet must match, or null if the changelog file
+     * cannot be read.
+     */
+    private String getFingerprint(ChangeSet changeSet) {
+        DatabaseChangeLog changeLog = changeSet.getChangeLog();
+        String physicalPath = changeLog.getPhysicalFilePath();
+        if (fileFingerprints.containsKey(physicalPath)) {
+            return fileFingerprints.get(physicalPath);
+        }
+
+        String fingerprint = null;
+        String[] fileInfo = getFileInfo(physicalPath);
+        if (fileInfo != null) {
+            StringBuilder valueToHash = new StringBuilder(fileInfo[0])
+                    .append(":").append(CheckSum.getCurrentVersion())
+                    .append(":").append(LiquibaseUtil.getBuildVersion());
+
+            ChangeLogParameters changeLogParameters = changeLog.getChangeLogParameters();
+            for (String parameterName : fileInfo[1].split("\n")) {
+                if (parameterName.isEmpty()) {
+                    continue;
+                }
+                Object value = (changeLogParameters == null) ? null : changeLogParameters.getValue(parameterName, changeLog);
+                valueToHash.append("\n").append(parameterName).append("=").append(value);
+            }
+            fingerprint = MD5Util.computeMD5(valueToHash.toString());
+        }
+
+        fileFingerprints.put(physicalPath, fingerprint);
+        return fingerprint;
+    }
+
+    /**
+     * Returns the content hash and the newline separated changelog parameters referenced by the given changelog file,
+     * or null if the file cannot be read.
+     */
+    private String[] getFileInfo(String physicalPath) {
+        ResourceAccessor resourceAccessor = Scope.getCurrentScope().getResourceAccessor();
+        try (InputStreamList streams = resourceAccessor.openStreams(null, physicalPath)) {
+            if ((streams == null) || (streams.size() != 1)) {
+                return null;
+            }
+            String fileKey = FILE_KEY_PREFIX + physicalPath;
+            String fileStamp = getFileStamp(streams.getURIs().get(0));
+
+            String storedValue = entries.getProperty(fileKey);
+            if ((fileStamp != null) && (storedValue != null)) {
+                String[] storedParts = storedValue.split(" ", 3);
+                if ((storedParts.length == 3) && storedParts[0].equals(fileStamp)) {
+                    return new String[]{storedParts[1], storedParts[2]};
+                }
+            }
+
+            String content = StreamUtil.readStreamAsString(streams.iterator().next());
+            Set<String> parameterNames = new TreeSet<>();
+            Matcher matcher = PARAMETER_PATTERN.matcher(content);
+            while (matcher.find()) {
+                parameterNames.add(matcher.group(1));
+            }
+            String[] fileInfo = new String[]{MD5Util.computeMD5(content), StringUtil.join(parameterNames, "\n")};
+
+            if (fileStamp != null) {
+                entries.setProperty(fileKey, fileStamp + " " + fileInfo[0] + " " + fileInfo[1]);
+                dirty = true;
+            }
+            return fileInfo;
+        } catch (IOException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot read " + physicalPath + " for checksum cache: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns a "lastModified:length" stamp for local files, or null if the resource is not a local file.
+     */
+    private String getFileStamp(URI uri) {
+        if ((uri == null) || !"file".equals(uri.getScheme())) {
+            return null;
+        }
+        File file = new File(uri);
+        if (!file.isFile()) {
+            return null;
+        }
+        return file.lastModified() + ":" + file.length();
+    }
+}
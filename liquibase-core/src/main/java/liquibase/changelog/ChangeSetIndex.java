@@ -0,0 +1,89 @@
+package liquibase.changelog;
+
+import java.util.*;
+
+/**
+ * Index of {@link ChangeSet}s or {@link RanChangeSet}s by their path, id and author so matching a changeset does not require scanning
+ * every entry. Paths are normalized with {@link DatabaseChangeLog#normalizePath(String)} once when the index is built.
+ * <p>
+ * Keys are case-insensitive, so {@link #get(String, String, String)} returns every entry which could match. Callers
+ * which compare more strictly still apply their own comparison to the returned candidates.
+ * Candidates are returned in the order they were added to the index.
+ */
+public class ChangeSetIndex<T> {
+
+    private final Map<String, List<T>> entries = new HashMap<>();
+    private final int size;
+
+    private ChangeSetIndex(int size) {
+        this.size = size;
+    }
+
+    public static ChangeSetIndex<ChangeSet> forChangeSets(Collection<ChangeSet> changeSets) {
+        ChangeSetIndex<ChangeSet> index = new ChangeSetIndex<>(changeSets.size());
+        for (ChangeSet changeSet : changeSets) {
+            index.add(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor(), changeSet);
+        }
+        return index;
+    }
+
+    public static ChangeSetIndex<RanChangeSet> forRanChangeSets(Collection<RanChangeSet> ranChangeSets) {
+        ChangeSetIndex<RanChangeSet> index = new ChangeSetIndex<>(ranChangeSets.size());
+        for (RanChangeSet ranChangeSet : ranChangeSets) {
+            index.add(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor(), ranChangeSet);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the entries whose normalized path, id and author equal the given values ignoring case.
+     */
+    public List<T> get(String path, String id, String author) {
+        List<T> found = entries.get(createKey(path, id, author));
+        if (found == null) {
+            return Collections.emptyList();
+        }
+        return Collections.unmodifiableList(found);
+    }
+
+    /**
+     * Returns the entries which could match the given changeSet.
+     */
+    public List<T> get(ChangeSet changeSet) {
+        return get(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor());
+    }
+
+    /**
+     * Returns the number of entries the index was built from. Used to detect that the source collection has changed.
+     */
+    public int size() {
+        return size;
+    }
+
+    private void add(String path, String id, String author, T entry) {
+        entries.computeIfAbsent(createKey(path, id, author), key -> new ArrayList<>(1)).add(entry);
+    }
+
+    private static String createKey(String path, String id, String author) {
+        StringBuilder key = new StringBuilder();
+        appendFolded(DatabaseChangeLog.normalizePath(path), key);
+        key.append("::");
+        appendFolded(id, key);
+        key.append("::");
+        appendFolded(author, key);
+        return key.toString();
+    }
+
+    /**
+     * Appends the value using the same per-character case folding as {@link String#equalsIgnoreCase(String)}.
+     */
+    private static void appendFolded(String value, StringBuilder key) {
+        if (value == null) {
+            key.append('\0');
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            key.append(Character.toLowerCase(Character.toUpperCase(value.charAt(i))));
+        }
+    }
+}
@@ -14,6 +14,7 @@ import liquibase.parser.ChangeLogParser;
 import liquibase.parser.ChangeLogParserFactory;
 import liquibase.parser.core.ParsedNode;
 import liquibase.parser.core.ParsedNodeException;
+import liquibase.parser.core.xml.AbstractChangeLogParser;
 import liquibase.precondition.Conditional;
 import liquibase.precondition.Precondition;
 import liquibase.precondition.core.PreconditionContainer;
@@ -41,6 +42,7 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
     private ObjectQuotingStrategy objectQuotingStrategy;
 
     private List<ChangeSet> changeSets = new ArrayList<>();
+    private ChangeSetIndex<ChangeSet> changeSetIndex;
     private ChangeLogParameters changeLogParameters;
 
     private RuntimeEnvironment runtimeEnvironment;
@@ -56,6 +58,8 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
     private LabelExpression includeLabels;
     private boolean includeIgnore;
 
+    private IncludePreParser includePreParser;
+
     public DatabaseChangeLog() {
     }
 
@@ -195,7 +199,10 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
     }
 
     public ChangeSet getChangeSet(String path, String author, String id) {
-        for (ChangeSet changeSet : changeSets) {
+        if ((changeSetIndex == null) || (changeSetIndex.size() != changeSets.size())) {
+            changeSetIndex = ChangeSetIndex.forChangeSets(changeSets);
+        }
+        for (ChangeSet changeSet : changeSetIndex.get(path, id, author)) {
             final String normalizedPath = normalizePath(changeSet.getFilePath());
             if (normalizedPath != null &&
                 normalizedPath.equalsIgnoreCase(normalizePath(path)) &&
@@ -214,6 +221,7 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
     }
 
     public void addChangeSet(ChangeSet changeSet) {
+        changeSetIndex = null;
         if (changeSet.getRunOrder() == null) {
             ListIterator<ChangeSet> it = this.changeSets.listIterator(this.changeSets.size());
             boolean added = false;
@@ -287,6 +295,7 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         ValidatingVisitor validatingVisitor = new ValidatingVisitor(database.getRanChangeSetList());
         validatingVisitor.validate(database, this);
         logIterator.run(validatingVisitor, new RuntimeEnvironment(database, contexts, labelExpression));
+        Scope.getCurrentScope().getSingleton(ChangeSetCheckSumCache.class).save();
 
         for (String message : validatingVisitor.getWarnings().getMessages()) {
             Scope.getCurrentScope().getLog(getClass()).warning(message);
@@ -314,9 +323,40 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         if (objectQuotingStrategy != null) {
             setObjectQuotingStrategy(ObjectQuotingStrategy.valueOf(objectQuotingStrategy));
         }
+        IncludePreParser previousPreParser = this.includePreParser;
+        this.includePreParser = IncludePreParser.start(getStaticIncludePaths(parsedNode), changeLogParameters, resourceAccessor);
+        try {
+            for (ParsedNode childNode : parsedNode.getChildren()) {
+                handleChildNode(childNode, resourceAccessor);
+            }
+        } finally {
+            if (this.includePreParser != null) {
+                this.includePreParser.close();
+            }
+            this.includePreParser = previousPreParser;
+        }
+    }
+
+    /**
+     * Returns the resolved paths of the "include" children which do not depend on changelog parameters.
+     */
+    private List<String> getStaticIncludePaths(ParsedNode parsedNode) throws ParsedNodeException {
+        List<String> paths = new ArrayList<>();
+        if (!IncludePreParser.isEnabled()) {
+            return paths;
+        }
         for (ParsedNode childNode : parsedNode.getChildren()) {
-            handleChildNode(childNode, resourceAccessor);
+            if (!"include".equals(childNode.getName())) {
+                continue;
+            }
+            String path = childNode.getChildValue(null, "file", String.class);
+            boolean isRelativePath = childNode.getChildValue(null, "relativeToChangelogFile", false);
+            if ((path == null) || path.contains("${") || (isRelativePath && (getPhysicalFilePath() == null))) {
+                continue;
+            }
+            paths.add(resolveIncludePath(path.replace('\\', '/'), isRelativePath));
         }
+        return paths;
     }
 
     protected void expandExpressions(ParsedNode parsedNode) {
@@ -545,9 +585,24 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
                         "Could not find directory or directory was empty for includeAll '" + pathName + "'");
             }
 
-            for (String path : resources) {
-                Scope.getCurrentScope().getLog(getClass()).info("Reading resource: " + path);
-                include(path, false, resourceAccessor, includeContexts, labelExpression, ignore, false);
+            IncludePreParser previousPreParser = this.includePreParser;
+            List<String> resolvedPaths = new ArrayList<>();
+            if (IncludePreParser.isEnabled()) {
+                for (String path : resources) {
+                    resolvedPaths.add(resolveIncludePath(path, false));
+                }
+            }
+            this.includePreParser = IncludePreParser.start(resolvedPaths, changeLogParameters, resourceAccessor);
+            try {
+                for (String path : resources) {
+                    Scope.getCurrentScope().getLog(getClass()).info("Reading resource: " + path);
+                    include(path, false, resourceAccessor, includeContexts, labelExpression, ignore, false);
+                }
+            } finally {
+                if (this.includePreParser != null) {
+                    this.includePreParser.close();
+                }
+                this.includePreParser = previousPreParser;
             }
         } catch (Exception e) {
             throw new SetupException(e);
@@ -568,12 +623,7 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         }
 
         String relativeBaseFileName = this.getPhysicalFilePath();
-        if (isRelativePath) {
-            relativeBaseFileName = relativeBaseFileName.replaceFirst("classpath:", "");
-            fileName =  FilenameUtil.concat(FilenameUtil.getDirectory(relativeBaseFileName), fileName);
-        }
-
-        fileName = fileName.replaceFirst("classpath:", "");
+        fileName = resolveIncludePath(fileName, isRelativePath);
         DatabaseChangeLog changeLog;
         try {
             DatabaseChangeLog rootChangeLog = ROOT_CHANGE_LOG.get();
@@ -584,7 +634,11 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
             PARENT_CHANGE_LOG.set(this);
             try {
                 ChangeLogParser parser = ChangeLogParserFactory.getInstance().getParser(fileName, resourceAccessor);
-                changeLog = parser.parse(fileName, changeLogParameters, resourceAccessor);
+                if ((includePreParser != null) && includePreParser.contains(fileName) && (parser instanceof AbstractChangeLogParser)) {
+                    changeLog = includePreParser.parse(fileName, (AbstractChangeLogParser) parser, changeLogParameters, resourceAccessor);
+                } else {
+                    changeLog = parser.parse(fileName, changeLogParameters, resourceAccessor);
+                }
                 changeLog.setIncludeContexts(includeContexts);
                 changeLog.setIncludeLabels(labelExpression);
                 changeLog.setIncludeIgnore(ignore != null ? ignore.booleanValue() : false);
@@ -622,6 +676,14 @@ public class DatabaseChangeLog implements Comparable<DatabaseChangeLog>, Conditi
         return true;
     }
 
+    private String resolveIncludePath(String fileName, boolean isRelativePath) {
+        if (isRelativePath) {
+            String relativeBaseFileName = this.getPhysicalFilePath().replaceFirst("classpath:", "");
+            fileName = FilenameUtil.concat(FilenameUtil.getDirectory(relativeBaseFileName), fileName);
+        }
+        return fileName.replaceFirst("classpath:", "");
+    }
+
     protected ChangeSet createChangeSet(ParsedNode node, ResourceAccessor resourceAccessor) throws ParsedNodeException {
         ChangeSet changeSet = new ChangeSet(this);
         changeSet.setChangeLogParameters(this.getChangeLogParameters());
@@ -0,0 +1,137 @@
+package liquibase.changelog;
+
+import liquibase.Scope;
+import liquibase.exception.ChangeLogParseException;
+import liquibase.exception.LiquibaseException;
+import liquibase.parser.ChangeLogParser;
+import liquibase.parser.ChangeLogParserConfiguration;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.parser.core.ParsedNode;
+import liquibase.parser.core.xml.AbstractChangeLogParser;
+import liquibase.resource.ResourceAccessor;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Parses sibling include files to {@link ParsedNode}s concurrently when
+ * {@link ChangeLogParserConfiguration#INCLUDE_PARSING_THREADS} is greater than one.
+ * <p>
+ * Only the file reading and syntax parsing done by {@link AbstractChangeLogParser#parseToNode} runs in parallel.
+ * Loading the nodes into {@link DatabaseChangeLog}s, including changelog parameter expansion, still happens on the
+ * calling thread in include order so the resulting changesets, parameters and any errors are the same as when parsing
+ * serially. Parse errors are re-thrown when the failing file is included.
+ * <p>
+ * Each pre-parser uses its own pool, which the caller shuts down with {@link #close()} once the files are included.
+ * The pool threads parse in a child of the caller's scope, so they see the same configuration and resource settings.
+ */
+class IncludePreParser implements AutoCloseable {
+
+    private final ForkJoinPool pool;
+    private final Map<String, ForkJoinTask<Result>> tasks = new LinkedHashMap<>();
+
+    private IncludePreParser(int threads) {
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    static boolean isEnabled() {
+        Integer threads = ChangeLogParserConfiguration.INCLUDE_PARSING_THREADS.getCurrentValue();
+        return (threads != null) && (threads > 1);
+    }
+
+    /**
+     * Starts parsing the given physical file paths in the background.
+     *
+     * @return null if parallel include parsing is disabled or there is nothing to parse concurrently
+     */
+    static IncludePreParser start(Collection<String> fileNames, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) {
+        if (!isEnabled() || (fileNames.size() < 2)) {
+            return null;
+        }
+
+        int threads = ChangeLogParserConfiguration.INCLUDE_PARSING_THREADS.getCurrentValue();
+        Scope scope = Scope.getCurrentScope();
+        IncludePreParser preParser = new IncludePreParser(Math.min(threads, fileNames.size()));
+        for (String fileName : fileNames) {
+            if (preParser.tasks.containsKey(fileName)) {
+                continue;
+            }
+            ChangeLogParser parser;
+            try {
+                parser = ChangeLogParserFactory.getInstance().getParser(fileName, resourceAccessor);
+            } catch (LiquibaseException e) {
+                continue; //include() will handle unknown formats
+            }
+            if (parser instanceof AbstractChangeLogParser) {
+                preParser.tasks.put(fileName, preParser.pool.submit(() -> Scope.child(scope, null, () -> {
+                    try {
+                        return new Result(((AbstractChangeLogParser) parser).preParse(fileName, changeLogParameters, resourceAccessor), null);
+                    } catch (ChangeLogParseException e) {
+                        return new Result(null, e);
+                    } catch (RuntimeException e) {
+                        return new Result(null, new ChangeLogParseException(e));
+                    }
+                })));
+            }
+        }
+        if (preParser.tasks.isEmpty()) {
+            preParser.close();
+            return null;
+        }
+        Scope.getCurrentScope().getLog(IncludePreParser.class).fine("Parsing " + preParser.tasks.size() + " included files using " + preParser.pool.getParallelism() + " threads");
+        return preParser;
+    }
+
+    boolean contains(String fileName) {
+        return tasks.containsKey(fileName);
+    }
+
+    /**
+     * Waits for the given file to be parsed and loads it into a {@link DatabaseChangeLog}.
+     */
+    DatabaseChangeLog parse(String fileName, AbstractChangeLogParser parser, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
+        Result result;
+        try {
+            result = tasks.remove(fileName).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ChangeLogParseException(e);
+        } catch (ExecutionException e) {
+            throw new ChangeLogParseException(e.getCause());
+        }
+        if (result.error != null) {
+            throw result.error;
+        }
+        return parser.parse(fileName, changeLogParameters, resourceAccessor, result.parsedNode);
+    }
+
+    /**
+     * Cancels parsing of any files which have not been included yet and shuts down the pool.
+     */
+    @Override
+    public void close() {
+        for (ForkJoinTask<Result> task : tasks.values()) {
+            task.cancel(false);
+        }
+        tasks.clear();
+        pool.shutdown();
+    }
+
+    /**
+     * Parse outcome for a single file. Errors are kept as-is rather than propagated through the pool, which would
+     * re-wrap them.
+     */
+    private static class Result {
+        private final ParsedNode parsedNode;
+        private final ChangeLogParseException error;
+
+        private Result(ParsedNode parsedNode, ChangeLogParseException error) {
+            this.parsedNode = parsedNode;
+            this.error = error;
+        }
+    }
+}
@@ -290,6 +290,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         if (statementsToExecute.size() > 0) {
             //reset the cache if there was a change to the table. Especially catches things like md5 changes which might have been updated but would still be wrong in the cache
             this.ranChangeSetList = null;
+            clearHistoryCache();
         }
         serviceInitialized = true;
     }
@@ -312,51 +313,8 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
             List<RanChangeSet> ranChangeSets = new ArrayList<>();
             if (hasDatabaseChangeLogTable()) {
                 Scope.getCurrentScope().getLog(getClass()).info("Reading from " + databaseChangeLogTableName);
-                List<Map<String, ?>> results = queryDatabaseChangeLogTable(database);
-                for (Map rs : results) {
-                    String storedFileName = rs.get("FILENAME").toString();
-                    String fileName = DatabaseChangeLog.normalizePath(storedFileName);
-                    String author = rs.get("AUTHOR").toString();
-                    String id = rs.get("ID").toString();
-                    String md5sum = ((rs.get("MD5SUM") == null) || !databaseChecksumsCompatible) ? null : rs.get
-                        ("MD5SUM").toString();
-                    String description = (rs.get("DESCRIPTION") == null) ? null : rs.get("DESCRIPTION").toString();
-                    String comments = (rs.get("COMMENTS") == null) ? null : rs.get("COMMENTS").toString();
-                    Object tmpDateExecuted = rs.get("DATEEXECUTED");
-                    Date dateExecuted = null;
-                    if (tmpDateExecuted instanceof Date) {
-                        dateExecuted = (Date) tmpDateExecuted;
-                    } else if (tmpDateExecuted instanceof LocalDateTime) {
-                        dateExecuted = Date.from(((LocalDateTime) tmpDateExecuted).atZone(ZoneId.systemDefault()).toInstant());
-                    } else {
-                        DateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-                        try {
-                            dateExecuted = df.parse((String) tmpDateExecuted);
-                        } catch (ParseException e) {
-                            // Ignore ParseException and assume dateExecuted == null instead of aborting.
-                        }
-                    }
-                    String tmpOrderExecuted = rs.get("ORDEREXECUTED").toString();
-                    Integer orderExecuted = ((tmpOrderExecuted == null) ? null : Integer.valueOf(tmpOrderExecuted));
-                    String tag = (rs.get("TAG") == null) ? null : rs.get("TAG").toString();
-                    String execType = (rs.get("EXECTYPE") == null) ? null : rs.get("EXECTYPE").toString();
-                    ContextExpression contexts = new ContextExpression((String) rs.get("CONTEXTS"));
-                    Labels labels = new Labels((String) rs.get("LABELS"));
-                    String deploymentId = (String) rs.get("DEPLOYMENT_ID");
-                    String liquibaseVersion =  (rs.get("LIQUIBASE") == null) ? null : rs.get("LIQUIBASE").toString();
-
-                    try {
-                        RanChangeSet ranChangeSet = new RanChangeSet(fileName, id, author, CheckSum.parse(md5sum),
-                            dateExecuted, tag, ChangeSet.ExecType.valueOf(execType), description, comments, contexts,
-                            labels, deploymentId, storedFileName);
-                        ranChangeSet.setOrderExecuted(orderExecuted);
-                        ranChangeSet.setLiquibaseVersion(liquibaseVersion);
-                        ranChangeSets.add(ranChangeSet);
-                    } catch (IllegalArgumentException e) {
-                        Scope.getCurrentScope().getLog(getClass()).severe("Unknown EXECTYPE from database: " +
-                            execType);
-                        throw e;
-                    }
+                for (Map<String, ?> rs : readDatabaseChangeLogTable(database)) {
+                    ranChangeSets.add(toRanChangeSet(rs));
                 }
             }
 
@@ -365,6 +323,100 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         return Collections.unmodifiableList(ranChangeSetList);
     }
 
+    /**
+     * Creates a {@link RanChangeSet} from a DATABASECHANGELOG row.
+     */
+    protected RanChangeSet toRanChangeSet(Map<String, ?> rs) {
+        String storedFileName = rs.get("FILENAME").toString();
+        String fileName = DatabaseChangeLog.normalizePath(storedFileName);
+        String author = rs.get("AUTHOR").toString();
+        String id = rs.get("ID").toString();
+        String md5sum = ((rs.get("MD5SUM") == null) || !databaseChecksumsCompatible) ? null : rs.get
+            ("MD5SUM").toString();
+        String description = (rs.get("DESCRIPTION") == null) ? null : rs.get("DESCRIPTION").toString();
+        String comments = (rs.get("COMMENTS") == null) ? null : rs.get("COMMENTS").toString();
+        Object tmpDateExecuted = rs.get("DATEEXECUTED");
+        Date dateExecuted = null;
+        if (tmpDateExecuted instanceof Date) {
+            dateExecuted = (Date) tmpDateExecuted;
+        } else if (tmpDateExecuted instanceof LocalDateTime) {
+            dateExecuted = Date.from(((LocalDateTime) tmpDateExecuted).atZone(ZoneId.systemDefault()).toInstant());
+        } else {
+            DateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+            try {
+                dateExecuted = df.parse((String) tmpDateExecuted);
+            } catch (ParseException e) {
+                // Ignore ParseException and assume dateExecuted == null instead of aborting.
+            }
+        }
+        String tmpOrderExecuted = rs.get("ORDEREXECUTED").toString();
+        Integer orderExecuted = ((tmpOrderExecuted == null) ? null : Integer.valueOf(tmpOrderExecuted));
+        String tag = (rs.get("TAG") == null) ? null : rs.get("TAG").toString();
+        String execType = (rs.get("EXECTYPE") == null) ? null : rs.get("EXECTYPE").toString();
+        ContextExpression contexts = new ContextExpression((String) rs.get("CONTEXTS"));
+        Labels labels = new Labels((String) rs.get("LABELS"));
+        String deploymentId = (String) rs.get("DEPLOYMENT_ID");
+        String liquibaseVersion =  (rs.get("LIQUIBASE") == null) ? null : rs.get("LIQUIBASE").toString();
+
+        try {
+            RanChangeSet ranChangeSet = new RanChangeSet(fileName, id, author, CheckSum.parse(md5sum),
+                dateExecuted, tag, ChangeSet.ExecType.valueOf(execType), description, comments, contexts,
+                labels, deploymentId, storedFileName);
+            ranChangeSet.setOrderExecuted(orderExecuted);
+            ranChangeSet.setLiquibaseVersion(liquibaseVersion);
+            return ranChangeSet;
+        } catch (IllegalArgumentException e) {
+            Scope.getCurrentScope().getLog(getClass()).severe("Unknown EXECTYPE from database: " +
+                execType);
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the DATABASECHANGELOG rows, only querying rows added since the last read when
+     * {@link GlobalConfiguration#INCREMENTAL_HISTORY_READS} is enabled and the cached rows are still valid.
+     */
+    protected List<Map<String, ?>> readDatabaseChangeLogTable(Database database) throws DatabaseException {
+        if (!GlobalConfiguration.INCREMENTAL_HISTORY_READS.getCurrentValue()) {
+            return queryDatabaseChangeLogTable(database);
+        }
+
+        ChangeLogHistoryCache cache = Scope.getCurrentScope().getSingleton(ChangeLogHistoryCache.class);
+        ChangeLogHistoryCache.Entry entry = cache.get(database);
+        if (entry != null) {
+            //rows which were already read must be unchanged, rows re-executed since then get a higher ORDEREXECUTED and leave them
+            if (ChangeLogHistorySummary.read(database, entry.getMaxOrderExecuted()).equals(entry.getSummary())) {
+                Executor executor = Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+                List<Map<String, ?>> newRows = executor.queryForList(new SelectFromDatabaseChangeLogStatement(
+                        new SelectFromDatabaseChangeLogStatement.ByOrderExecutedAfter(entry.getMaxOrderExecuted()),
+                        new ColumnConfig().setName("*").setComputed(true)).setOrderBy("DATEEXECUTED ASC", "ORDEREXECUTED ASC"));
+                if (!newRows.isEmpty()) {
+                    for (Map<String, ?> row : newRows) {
+                        entry.add(row);
+                    }
+                    entry.setSummary(ChangeLogHistorySummary.read(database, entry.getMaxOrderExecuted()));
+                    cache.put(database, entry);
+                }
+                Scope.getCurrentScope().getLog(getClass()).fine("Read " + newRows.size() + " new rows from " + getDatabaseChangeLogTableName());
+                return new ArrayList<>(entry.getRows());
+            }
+            Scope.getCurrentScope().getLog(getClass()).fine(getDatabaseChangeLogTableName() + " was modified, reading all rows");
+        }
+
+        List<Map<String, ?>> rows = queryDatabaseChangeLogTable(database);
+        entry = new ChangeLogHistoryCache.Entry();
+        for (Map<String, ?> row : rows) {
+            entry.add(row);
+        }
+        entry.setSummary(ChangeLogHistorySummary.read(database, entry.getMaxOrderExecuted()));
+        cache.put(database, entry);
+        return rows;
+    }
+
+    private void clearHistoryCache() {
+        Scope.getCurrentScope().getSingleton(ChangeLogHistoryCache.class).clear(getDatabase());
+    }
+
     public List<Map<String, ?>> queryDatabaseChangeLogTable(Database database) throws DatabaseException {
         SelectFromDatabaseChangeLogStatement select = new SelectFromDatabaseChangeLogStatement(new ColumnConfig()
             .setName("*").setComputed(true)).setOrderBy("DATEEXECUTED ASC", "ORDEREXECUTED ASC");
@@ -377,6 +429,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
             (changeSet));
 
         getDatabase().commit();
+        clearHistoryCache();
         reset();
     }
 
@@ -395,6 +448,9 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
 
         Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database).execute(new MarkChangeSetRanStatement(changeSet, execType));
         getDatabase().commit();
+        if (execType.ranBefore) {
+            clearHistoryCache();
+        }
         if (this.ranChangeSetList != null) {
             this.ranChangeSetList.add(new RanChangeSet(changeSet, execType, null, null));
         }
@@ -406,6 +462,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         Database database = getDatabase();
         Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database).execute(new RemoveChangeSetRanStatusStatement(changeSet));
         getDatabase().commit();
+        clearHistoryCache();
 
         if (this.ranChangeSetList != null) {
             this.ranChangeSetList.remove(new RanChangeSet(changeSet));
@@ -444,6 +501,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
 
         executor.execute(new TagDatabaseStatement(tagString));
         getDatabase().commit();
+        clearHistoryCache();
 
         if (this.ranChangeSetList != null) {
             ranChangeSetList.get(ranChangeSetList.size() - 1).setTag(tagString);
@@ -466,6 +524,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         updateStatement.addNewColumnValue("MD5SUM", null);
         Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database).execute(updateStatement);
         database.commit();
+        clearHistoryCache();
     }
 
     @Override
@@ -493,6 +552,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
                 SqlStatement[] sqlStatement = change[0].generateStatements(database);
                 Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor( "jdbc", database).execute(sqlStatement[0]);
             }
+            clearHistoryCache();
             reset();
         } catch (InvalidExampleException e) {
             throw new UnexpectedLiquibaseException(e);
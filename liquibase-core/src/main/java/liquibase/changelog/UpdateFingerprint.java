@@ -0,0 +1,231 @@
+package liquibase.changelog;
+
+import liquibase.Contexts;
+import liquibase.GlobalConfiguration;
+import liquibase.LabelExpression;
+import liquibase.Scope;
+import liquibase.changelog.filter.*;
+import liquibase.database.Database;
+import liquibase.database.ObjectQuotingStrategy;
+import liquibase.datatype.DataTypeFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.LiquibaseException;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.LoggingExecutor;
+import liquibase.snapshot.InvalidExampleException;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.statement.NotNullConstraint;
+import liquibase.statement.core.*;
+import liquibase.structure.core.Table;
+import liquibase.util.LiquibaseUtil;
+import liquibase.util.MD5Util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Records that a changelog is fully deployed so later updates can skip the lock and the full DATABASECHANGELOG read.
+ * Enabled with {@link GlobalConfiguration#UPDATE_FINGERPRINT}.
+ * <p>
+ * After a successful update with nothing left to run, a row is written to
+ * {@link Database#getDatabaseChangeLogFingerprintTableName()} holding
+ * <ul>
+ *     <li>a fingerprint of the changelog: the identity and checksum of every changeset matching the contexts, labels and dbms</li>
+ *     <li>a stamp of the DATABASECHANGELOG table, see {@link ChangeLogHistorySummary}</li>
+ * </ul>
+ * The row is keyed by changelog path, contexts and labels. If both values still match, nothing can have changed on either side and the
+ * update has nothing to do. Any change to the history (including rollbacks or updates from other changelogs) changes the stamp and
+ * falls back to a normal update. Changelogs containing runAlways changesets never use the fast path.
+ */
+public class UpdateFingerprint {
+
+    private final Database database;
+
+    public UpdateFingerprint(Database database) {
+        this.database = database;
+    }
+
+    /**
+     * Returns true if fingerprints are enabled and statements are executed against the database rather than being logged.
+     */
+    public boolean isEnabled() {
+        return GlobalConfiguration.UPDATE_FINGERPRINT.getCurrentValue()
+                && (database.getConnection() != null)
+                && !(getExecutor() instanceof LoggingExecutor);
+    }
+
+    /**
+     * Returns true if the stored fingerprint shows the given changelog is already fully deployed.
+     * Any problem reading the fingerprint returns false so the caller runs a normal update.
+     */
+    public boolean isUpToDate(DatabaseChangeLog changeLog, Contexts contexts, LabelExpression labelExpression) {
+        if (!isEnabled()) {
+            return false;
+        }
+        ObjectQuotingStrategy quotingStrategy = database.getObjectQuotingStrategy();
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
+        try {
+            String fingerprint = computeFingerprint(changeLog, contexts, labelExpression);
+            if ((fingerprint == null) || !hasFingerprintTable()) {
+                return false;
+            }
+
+            List<Map<String, ?>> rows = getExecutor().queryForList(new RawSqlStatement("SELECT FINGERPRINT, HISTORY FROM "
+                    + getEscapedTableName() + " WHERE ID = '" + computeId(changeLog, contexts, labelExpression) + "'"));
+            if (rows.size() != 1) {
+                return false;
+            }
+            Map<String, String> row = toUpperCaseKeys(rows.get(0));
+            return fingerprint.equals(row.get("FINGERPRINT")) && getHistoryStamp().equals(row.get("HISTORY"));
+        } catch (LiquibaseException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot read update fingerprint: " + e.getMessage(), e);
+            rollback();
+            return false;
+        } finally {
+            database.setObjectQuotingStrategy(quotingStrategy);
+        }
+    }
+
+    /**
+     * Stores the fingerprint for the given changelog if all its changesets are deployed, otherwise removes any stored fingerprint.
+     * Must be called while holding the changelog lock. Failures are logged but not thrown since the fingerprint is only an optimization.
+     */
+    public void store(DatabaseChangeLog changeLog, Contexts contexts, LabelExpression labelExpression) {
+        if (!isEnabled()) {
+            return;
+        }
+        ObjectQuotingStrategy quotingStrategy = database.getObjectQuotingStrategy();
+        database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
+        try {
+            String id = computeId(changeLog, contexts, labelExpression);
+            String fingerprint = computeFingerprint(changeLog, contexts, labelExpression);
+            if ((fingerprint != null) && hasPendingChangeSets(changeLog, contexts, labelExpression)) {
+                fingerprint = null;
+            }
+
+            Executor executor = getExecutor();
+            if (!hasFingerprintTable()) {
+                if (fingerprint == null) {
+                    return;
+                }
+                executor.execute(new CreateTableStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableName())
+                        .setTablespace(database.getLiquibaseTablespaceName())
+                        .addPrimaryKeyColumn("ID", DataTypeFactory.getInstance().fromDescription("varchar(255)", database), null, null, null, new NotNullConstraint())
+                        .addColumn("FINGERPRINT", DataTypeFactory.getInstance().fromDescription("varchar(35)", database))
+                        .addColumn("HISTORY", DataTypeFactory.getInstance().fromDescription("varchar(255)", database)));
+            }
+
+            executor.execute(new DeleteStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableName())
+                    .setWhere("ID = '" + id + "'"));
+            if (fingerprint != null) {
+                executor.execute(new InsertStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableName())
+                        .addColumnValue("ID", id)
+                        .addColumnValue("FINGERPRINT", fingerprint)
+                        .addColumnValue("HISTORY", getHistoryStamp()));
+            }
+            database.commit();
+        } catch (LiquibaseException e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Cannot store update fingerprint: " + e.getMessage(), e);
+            rollback();
+        } finally {
+            database.setObjectQuotingStrategy(quotingStrategy);
+        }
+    }
+
+    /**
+     * Returns the fingerprint of the changesets update would consider, or null if the changelog cannot be fingerprinted.
+     */
+    protected String computeFingerprint(DatabaseChangeLog changeLog, Contexts contexts, LabelExpression labelExpression) {
+        StringBuilder valueToHash = new StringBuilder(LiquibaseUtil.getBuildVersion());
+        for (ChangeSet changeSet : getMatchingChangeSets(changeLog, contexts, labelExpression)) {
+            if (changeSet.shouldAlwaysRun()) {
+                return null;
+            }
+            valueToHash.append("\n").append(changeSet.toString(false)).append(":").append(changeSet.generateCheckSum());
+        }
+        return MD5Util.computeMD5(valueToHash.toString());
+    }
+
+    protected String computeId(DatabaseChangeLog changeLog, Contexts contexts, LabelExpression labelExpression) {
+        return MD5Util.computeMD5(changeLog.getFilePath()
+                + "\n" + ((contexts == null) ? "" : contexts.toString())
+                + "\n" + ((labelExpression == null) ? "" : labelExpression.toString()));
+    }
+
+    private boolean hasPendingChangeSets(DatabaseChangeLog changeLog, Contexts contexts, LabelExpression labelExpression) throws DatabaseException {
+        ShouldRunChangeSetFilter shouldRunFilter = new ShouldRunChangeSetFilter(database);
+        for (ChangeSet changeSet : getMatchingChangeSets(changeLog, contexts, labelExpression)) {
+            if (shouldRunFilter.accepts(changeSet).isAccepted()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private List<ChangeSet> getMatchingChangeSets(DatabaseChangeLog changeLog, Contexts contexts, LabelExpression labelExpression) {
+        ChangeSetFilter[] filters = new ChangeSetFilter[]{
+                new ContextChangeSetFilter(contexts),
+                new LabelChangeSetFilter(labelExpression),
+                new DbmsChangeSetFilter(database),
+                new IgnoreChangeSetFilter()
+        };
+        List<ChangeSet> matching = new ArrayList<>();
+        changeSets:
+        for (ChangeSet changeSet : changeLog.getChangeSets()) {
+            for (ChangeSetFilter filter : filters) {
+                if (!filter.accepts(changeSet).isAccepted()) {
+                    continue changeSets;
+                }
+            }
+            matching.add(changeSet);
+        }
+        return matching;
+    }
+
+    /**
+     * Returns a value that changes whenever rows are added to, removed from or rewritten in the DATABASECHANGELOG table.
+     */
+    private String getHistoryStamp() throws DatabaseException {
+        return ChangeLogHistorySummary.read(database, null);
+    }
+
+    private Map<String, String> toUpperCaseKeys(Map<String, ?> row) {
+        Map<String, String> returnMap = new TreeMap<>();
+        for (Map.Entry<String, ?> entry : row.entrySet()) {
+            returnMap.put(entry.getKey().toUpperCase(), (entry.getValue() == null) ? null : entry.getValue().toString());
+        }
+        return returnMap;
+    }
+
+    private boolean hasFingerprintTable() throws DatabaseException {
+        try {
+            return SnapshotGeneratorFactory.getInstance().has(new Table().setName(getTableName())
+                    .setSchema(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName()), database);
+        } catch (InvalidExampleException e) {
+            throw new DatabaseException(e);
+        }
+    }
+
+    private String getTableName() {
+        return database.getDatabaseChangeLogFingerprintTableName();
+    }
+
+    private String getEscapedTableName() {
+        return database.escapeTableName(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableName());
+    }
+
+    private Executor getExecutor() {
+        return Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database);
+    }
+
+    private void rollback() {
+        try {
+            database.rollback();
+        } catch (DatabaseException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot roll back: " + e.getMessage(), e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package liquibase.changelog.filter;
 
 import liquibase.changelog.ChangeSet;
+import liquibase.changelog.ChangeSetIndex;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.RanChangeSet;
 
@@ -10,6 +11,9 @@ public class NotRanChangeSetFilter implements ChangeSetFilter {
 
     public List<RanChangeSet> ranChangeSets;
 
+    private List<RanChangeSet> indexedRanChangeSets;
+    private ChangeSetIndex<RanChangeSet> index;
+
     public NotRanChangeSetFilter(List<RanChangeSet> ranChangeSets) {
         this.ranChangeSets = ranChangeSets;
     }
@@ -17,7 +21,11 @@ public class NotRanChangeSetFilter implements ChangeSetFilter {
     @Override
     @SuppressWarnings({"RedundantIfStatement"})
     public ChangeSetFilterResult accepts(ChangeSet changeSet) {
-        for (RanChangeSet ranChangeSet : ranChangeSets) {
+        if ((index == null) || (indexedRanChangeSets != ranChangeSets) || (index.size() != ranChangeSets.size())) {
+            index = ChangeSetIndex.forRanChangeSets(ranChangeSets);
+            indexedRanChangeSets = ranChangeSets;
+        }
+        for (RanChangeSet ranChangeSet : index.get(changeSet)) {
             if (ranChangeSet.getId().equalsIgnoreCase(changeSet.getId())
                     && ranChangeSet.getAuthor().equalsIgnoreCase(changeSet.getAuthor())
                     && DatabaseChangeLog.normalizePath(ranChangeSet.getChangeLog()).equalsIgnoreCase(DatabaseChangeLog.normalizePath(changeSet.getFilePath()))) {
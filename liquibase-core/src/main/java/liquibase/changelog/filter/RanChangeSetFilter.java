@@ -1,6 +1,7 @@
 package liquibase.changelog.filter;
 
 import liquibase.changelog.ChangeSet;
+import liquibase.changelog.ChangeSetIndex;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.RanChangeSet;
 
@@ -9,12 +10,15 @@ import java.util.List;
 public abstract class RanChangeSetFilter implements ChangeSetFilter {
     public List<RanChangeSet> ranChangeSets;
 
+    private List<RanChangeSet> indexedRanChangeSets;
+    private ChangeSetIndex<RanChangeSet> index;
+
     public RanChangeSetFilter(List<RanChangeSet> ranChangeSets) {
         this.ranChangeSets = ranChangeSets;
     }
 
     public RanChangeSet getRanChangeSet(ChangeSet changeSet) {
-        for (RanChangeSet ranChangeSet : ranChangeSets) {
+        for (RanChangeSet ranChangeSet : getIndex().get(changeSet)) {
             if (ranChangeSet.getId().equalsIgnoreCase(changeSet.getId())
                     && ranChangeSet.getAuthor().equalsIgnoreCase(changeSet.getAuthor())
                     && DatabaseChangeLog.normalizePath(ranChangeSet.getChangeLog()).equalsIgnoreCase(DatabaseChangeLog.normalizePath(changeSet.getFilePath()))) {
@@ -24,4 +28,15 @@ public abstract class RanChangeSetFilter implements ChangeSetFilter {
         return null;
 
     }
+
+    /**
+     * Returns the index of {@link #ranChangeSets}, rebuilding it if the list was replaced or changed size.
+     */
+    protected ChangeSetIndex<RanChangeSet> getIndex() {
+        if ((index == null) || (indexedRanChangeSets != ranChangeSets) || (index.size() != ranChangeSets.size())) {
+            index = ChangeSetIndex.forRanChangeSets(ranChangeSets);
+            indexedRanChangeSets = ranChangeSets;
+        }
+        return index;
+    }
 }
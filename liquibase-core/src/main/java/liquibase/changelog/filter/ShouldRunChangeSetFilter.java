@@ -1,11 +1,14 @@
 package liquibase.changelog.filter;
 
 import liquibase.changelog.ChangeSet;
+import liquibase.changelog.ChangeSetIndex;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.RanChangeSet;
 import liquibase.database.Database;
 import liquibase.exception.DatabaseException;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -13,6 +16,7 @@ import java.util.Map;
 public class ShouldRunChangeSetFilter implements ChangeSetFilter {
 
     private final Map<String, RanChangeSet> ranChangeSets;
+    private final ChangeSetIndex<RanChangeSet> ranChangeSetIndex;
     private final boolean ignoreClasspathPrefix;
 
     public ShouldRunChangeSetFilter(Database database, boolean ignoreClasspathPrefix) throws DatabaseException {
@@ -46,6 +50,7 @@ public class ShouldRunChangeSetFilter implements ChangeSetFilter {
                 this.ranChangeSets.put(ranChangeSet.toString(), ranChangeSet);
             }
         }
+        this.ranChangeSetIndex = ChangeSetIndex.forRanChangeSets(this.ranChangeSets.values());
     }
 
     public ShouldRunChangeSetFilter(Database database) throws DatabaseException {
@@ -55,7 +60,7 @@ public class ShouldRunChangeSetFilter implements ChangeSetFilter {
     @Override
     @SuppressWarnings({"RedundantIfStatement"})
     public ChangeSetFilterResult accepts(ChangeSet changeSet) {
-        for (RanChangeSet ranChangeSet : this.ranChangeSets.values()) {
+        for (RanChangeSet ranChangeSet : candidateRanChangeSets(changeSet)) {
             if (changeSetsMatch(changeSet, ranChangeSet)) {
                 if (changeSet.shouldAlwaysRun()) {
                     return new ChangeSetFilterResult(true, "Change set always runs", this.getClass());
@@ -69,6 +74,22 @@ public class ShouldRunChangeSetFilter implements ChangeSetFilter {
         return new ChangeSetFilterResult(true, "Change set has not ran yet", this.getClass());
     }
 
+    /**
+     * Returns the ran changesets {@link #changeSetsMatch(ChangeSet, RanChangeSet)} is checked against for the given changeset.
+     * By default these are the ran changesets with the same path, id and author ignoring case.
+     * Subclasses which match changesets more loosely than that should return {@link #getRanChangeSets()} instead.
+     */
+    protected Collection<RanChangeSet> candidateRanChangeSets(ChangeSet changeSet) {
+        return ranChangeSetIndex.get(changeSet);
+    }
+
+    /**
+     * Returns the latest ran changeset of each path, id and author.
+     */
+    protected Collection<RanChangeSet> getRanChangeSets() {
+        return Collections.unmodifiableCollection(ranChangeSets.values());
+    }
+
     protected boolean changeSetsMatch(ChangeSet changeSet, RanChangeSet ranChangeSet) {
         return idsAreEqual(changeSet, ranChangeSet)
                 && authorsAreEqual(changeSet, ranChangeSet)
@@ -67,4 +67,16 @@ public interface ChangeExecListener {
     void runFailed(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, Exception exception);
 
     void rollbackFailed(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, Exception exception);
+
+    /**
+     * Called after a batch of rows has been sent to the database while a change runs, for example by loadData.
+     *
+     * @param changeSet      changeSet the rows belong to
+     * @param database       the database the batch was executed on
+     * @param tableName      the table the rows were written to
+     * @param rowCount       number of rows in the batch
+     * @param durationMillis time the database took to execute the batch
+     */
+    default void batchExecuted(ChangeSet changeSet, Database database, String tableName, int rowCount, long durationMillis) {
+    }
 }
@@ -0,0 +1,90 @@
+package liquibase.command.core;
+
+import liquibase.Scope;
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.ChangeSetCheckSumCache;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.command.*;
+import liquibase.exception.CommandExecutionException;
+import liquibase.parser.ChangeLogCache;
+import liquibase.parser.ChangeLogParserConfiguration;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.ResourceAccessor;
+import liquibase.util.StringUtil;
+
+import java.io.PrintWriter;
+import java.util.Collections;
+
+public class CompileChangelogCommandStep extends AbstractCommandStep {
+
+    public static final String[] COMMAND_NAME = {"compileChangelog"};
+
+    public static final CommandArgumentDefinition<String> CHANGELOG_FILE_ARG;
+    public static final CommandArgumentDefinition<String> CACHE_FILE_ARG;
+
+    public static final CommandResultDefinition<Integer> CACHED_FILES_RESULT;
+    public static final CommandResultDefinition<Integer> CHANGESETS_RESULT;
+
+    static {
+        final CommandBuilder builder = new CommandBuilder(COMMAND_NAME);
+        CHANGELOG_FILE_ARG = builder.argument(CommonArgumentNames.CHANGELOG_FILE, String.class).required()
+                .description("The root changelog file").build();
+        CACHE_FILE_ARG = builder.argument("cacheFile", String.class)
+                .description("The changelog cache file to write. Defaults to the liquibase.changelogCacheFile setting").build();
+
+        CACHED_FILES_RESULT = builder.result("cachedFiles", Integer.class)
+                .description("Number of changelog files in the cache").build();
+        CHANGESETS_RESULT = builder.result("changesets", Integer.class)
+                .description("Number of changesets in the changelog").build();
+    }
+
+    @Override
+    public String[][] defineCommandNames() {
+        return new String[][] { COMMAND_NAME };
+    }
+
+    @Override
+    public void run(CommandResultsBuilder resultsBuilder) throws Exception {
+        CommandScope commandScope = resultsBuilder.getCommandScope();
+
+        String changeLogFile = commandScope.getArgumentValue(CHANGELOG_FILE_ARG);
+        String cacheFile = StringUtil.trimToNull(commandScope.getArgumentValue(CACHE_FILE_ARG));
+        if (cacheFile == null) {
+            cacheFile = StringUtil.trimToNull(ChangeLogParserConfiguration.CHANGELOG_CACHE_FILE.getCurrentValue());
+        }
+        if (cacheFile == null) {
+            throw new CommandExecutionException("No cache file specified. Set --cache-file or " + ChangeLogParserConfiguration.CHANGELOG_CACHE_FILE.getKey());
+        }
+
+        final String finalCacheFile = cacheFile;
+        Scope.child(Collections.singletonMap(ChangeLogParserConfiguration.CHANGELOG_CACHE_FILE.getKey(), cacheFile), () -> {
+            ResourceAccessor resourceAccessor = Scope.getCurrentScope().getResourceAccessor();
+            DatabaseChangeLog changeLog = ChangeLogParserFactory.getInstance().getParser(changeLogFile, resourceAccessor)
+                    .parse(changeLogFile, new ChangeLogParameters(), resourceAccessor);
+
+            //also fills the checksum cache, which is kept next to the changelog cache unless liquibase.checksumCacheFile is set
+            for (ChangeSet changeSet : changeLog.getChangeSets()) {
+                changeSet.generateCheckSum();
+            }
+            Scope.getCurrentScope().getSingleton(ChangeSetCheckSumCache.class).save();
+
+            int cachedFiles = Scope.getCurrentScope().getSingleton(ChangeLogCache.class).size();
+
+            PrintWriter output = new PrintWriter(resultsBuilder.getOutputStream());
+            output.println("Cached " + cachedFiles + " changelog file(s) with " + changeLog.getChangeSets().size() + " changeset(s) in " + finalCacheFile);
+            output.flush();
+
+            resultsBuilder.addResult(CACHED_FILES_RESULT, cachedFiles);
+            resultsBuilder.addResult(CHANGESETS_RESULT, changeLog.getChangeSets().size());
+            resultsBuilder.addResult("statusCode", 0);
+        });
+    }
+
+    @Override
+    public void adjustCommandDefinition(CommandDefinition commandDefinition) {
+        commandDefinition.setShortDescription("Parses the changelog and stores it in the changelog cache file");
+        commandDefinition.setLongDescription("Parses the changelog and stores the parsed files in the changelog cache file so later commands " +
+                "using the same liquibase.changelogCacheFile setting do not need to parse unchanged files again");
+    }
+}
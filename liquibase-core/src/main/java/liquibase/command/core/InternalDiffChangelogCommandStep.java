@@ -1,5 +1,6 @@
 package liquibase.command.core;
 
+import liquibase.GlobalConfiguration;
 import liquibase.Scope;
 import liquibase.command.*;
 import liquibase.database.Database;
@@ -7,6 +8,9 @@ import liquibase.database.ObjectQuotingStrategy;
 import liquibase.diff.DiffResult;
 import liquibase.diff.output.DiffOutputControl;
 import liquibase.diff.output.changelog.DiffToChangeLog;
+import liquibase.diff.output.changelog.StreamingDiffToChangeLog;
+import liquibase.exception.DatabaseException;
+import liquibase.snapshot.InvalidExampleException;
 import liquibase.util.StringUtil;
 
 import java.io.PrintStream;
@@ -46,23 +50,35 @@ public class InternalDiffChangelogCommandStep extends InternalDiffCommandStep {
 
         InternalSnapshotCommandStep.logUnsupportedDatabase(referenceDatabase, this.getClass());
 
-        DiffResult diffResult = createDiffResult(commandScope);
+        boolean streaming = GlobalConfiguration.STREAMING_DIFF.getCurrentValue();
+        DiffResult diffResult = streaming ? null : createDiffResult(commandScope);
 
         PrintStream outputStream = new PrintStream(resultsBuilder.getOutputStream());
 
         outputBestPracticeMessage();
 
+        Database targetDatabase = commandScope.getArgumentValue(TARGET_DATABASE_ARG);
         ObjectQuotingStrategy originalStrategy = referenceDatabase.getObjectQuotingStrategy();
+        ObjectQuotingStrategy originalTargetStrategy = targetDatabase.getObjectQuotingStrategy();
         try {
             referenceDatabase.setObjectQuotingStrategy(ObjectQuotingStrategy.QUOTE_ALL_OBJECTS);
+            DiffToChangeLog diffToChangeLog;
+            if (streaming) {
+                //tables are snapshotted while printing
+                targetDatabase.setObjectQuotingStrategy(ObjectQuotingStrategy.QUOTE_ALL_OBJECTS);
+                diffToChangeLog = createStreamingDiffToChangeLogObject(commandScope, targetDatabase);
+            } else {
+                diffToChangeLog = createDiffToChangeLogObject(diffResult, commandScope);
+            }
             if (StringUtil.trimToNull(changeLogFile) == null) {
-                createDiffToChangeLogObject(diffResult, commandScope).print(outputStream);
+                diffToChangeLog.print(outputStream);
             } else {
-                createDiffToChangeLogObject(diffResult, commandScope).print(changeLogFile);
+                diffToChangeLog.print(changeLogFile);
             }
         }
         finally {
             referenceDatabase.setObjectQuotingStrategy(originalStrategy);
+            targetDatabase.setObjectQuotingStrategy(originalTargetStrategy);
             outputStream.flush();
         }
         resultsBuilder.addResult("statusCode", 0);
@@ -72,6 +88,18 @@ public class InternalDiffChangelogCommandStep extends InternalDiffCommandStep {
         return new DiffToChangeLog(diffResult, commandScope.getArgumentValue(DIFF_OUTPUT_CONTROL_ARG));
     }
 
+    /**
+     * Creates a {@link StreamingDiffToChangeLog}, used instead of a {@link DiffResult} if {@link GlobalConfiguration#STREAMING_DIFF} is set.
+     *
+     * @param comparisonDatabase the database to compare to, or null to generate the changelog of the whole reference database
+     */
+    protected DiffToChangeLog createStreamingDiffToChangeLogObject(CommandScope commandScope, Database comparisonDatabase)
+            throws DatabaseException, InvalidExampleException {
+        return new StreamingDiffToChangeLog(commandScope.getArgumentValue(REFERENCE_DATABASE_ARG), comparisonDatabase,
+                createReferenceSnapshotControl(commandScope), commandScope.getArgumentValue(COMPARE_CONTROL_ARG),
+                commandScope.getArgumentValue(DIFF_OUTPUT_CONTROL_ARG));
+    }
+
 
     protected void outputBestPracticeMessage() {
         Scope.getCurrentScope().getUI().sendMessage(
@@ -153,9 +153,6 @@ public class InternalDiffCommandStep extends AbstractCommandStep {
         CompareControl compareControl = commandScope.getArgumentValue(COMPARE_CONTROL_ARG);
         Database targetDatabase = commandScope.getArgumentValue(TARGET_DATABASE_ARG);
         Database referenceDatabase = commandScope.getArgumentValue(REFERENCE_DATABASE_ARG);
-        SnapshotControl snapshotControl = commandScope.getArgumentValue(REFERENCE_SNAPSHOT_CONTROL_ARG);
-        Class<? extends DatabaseObject>[] snapshotTypes = commandScope.getArgumentValue(SNAPSHOT_TYPES_ARG);
-        ObjectChangeFilter objectChangeFilter = commandScope.getArgumentValue(OBJECT_CHANGE_FILTER_ARG);
         SnapshotListener snapshotListener = commandScope.getArgumentValue(SNAPSHOT_LISTENER_ARG);
 
         if ((compareControl == null) || (compareControl.getSchemaComparisons() == null)) {
@@ -175,9 +172,7 @@ public class InternalDiffCommandStep extends AbstractCommandStep {
             }
         }
 
-        if (snapshotControl == null) {
-            snapshotControl = new SnapshotControl(referenceDatabase, objectChangeFilter, snapshotTypes);
-        }
+        SnapshotControl snapshotControl = createReferenceSnapshotControl(commandScope);
         if (snapshotListener != null) {
             snapshotControl.setSnapshotListener(snapshotListener);
         }
@@ -191,5 +186,13 @@ public class InternalDiffCommandStep extends AbstractCommandStep {
         }
     }
 
-}
+    protected SnapshotControl createReferenceSnapshotControl(CommandScope commandScope) {
+        SnapshotControl snapshotControl = commandScope.getArgumentValue(REFERENCE_SNAPSHOT_CONTROL_ARG);
+        if (snapshotControl == null) {
+            snapshotControl = new SnapshotControl(commandScope.getArgumentValue(REFERENCE_DATABASE_ARG),
+                    commandScope.getArgumentValue(OBJECT_CHANGE_FILTER_ARG), commandScope.getArgumentValue(SNAPSHOT_TYPES_ARG));
+        }
+        return snapshotControl;
+    }
 
+}
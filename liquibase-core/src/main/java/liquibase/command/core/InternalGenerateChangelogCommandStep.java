@@ -1,5 +1,6 @@
 package liquibase.command.core;
 
+import liquibase.GlobalConfiguration;
 import liquibase.Scope;
 import liquibase.command.*;
 import liquibase.database.Database;
@@ -63,17 +64,23 @@ public class InternalGenerateChangelogCommandStep extends InternalDiffChangelogC
 
         InternalSnapshotCommandStep.logUnsupportedDatabase(referenceDatabase, this.getClass());
 
-        DiffResult diffResult = createDiffResult(commandScope);
-
-        DiffToChangeLog changeLogWriter = new DiffToChangeLog(diffResult, commandScope.getArgumentValue(DIFF_OUTPUT_CONTROL_ARG));
-
-        changeLogWriter.setChangeSetAuthor(commandScope.getArgumentValue(AUTHOR_ARG));
-        changeLogWriter.setChangeSetContext(commandScope.getArgumentValue(CONTEXT_ARG));
-        changeLogWriter.setChangeSetPath(changeLogFile);
+        boolean streaming = GlobalConfiguration.STREAMING_DIFF.getCurrentValue();
+        DiffResult diffResult = streaming ? null : createDiffResult(commandScope);
 
         ObjectQuotingStrategy originalStrategy = referenceDatabase.getObjectQuotingStrategy();
         try {
             referenceDatabase.setObjectQuotingStrategy(ObjectQuotingStrategy.QUOTE_ALL_OBJECTS);
+            DiffToChangeLog changeLogWriter;
+            if (streaming) {
+                changeLogWriter = createStreamingDiffToChangeLogObject(commandScope, null);
+            } else {
+                changeLogWriter = new DiffToChangeLog(diffResult, commandScope.getArgumentValue(DIFF_OUTPUT_CONTROL_ARG));
+            }
+
+            changeLogWriter.setChangeSetAuthor(commandScope.getArgumentValue(AUTHOR_ARG));
+            changeLogWriter.setChangeSetContext(commandScope.getArgumentValue(CONTEXT_ARG));
+            changeLogWriter.setChangeSetPath(changeLogFile);
+
             if (StringUtil.trimToNull(changeLogFile) != null) {
                 changeLogWriter.print(changeLogFile);
             } else {
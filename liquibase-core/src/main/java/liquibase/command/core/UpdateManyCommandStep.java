@@ -0,0 +1,366 @@
+package liquibase.command.core;
+
+import liquibase.Contexts;
+import liquibase.LabelExpression;
+import liquibase.RuntimeEnvironment;
+import liquibase.Scope;
+import liquibase.changelog.*;
+import liquibase.changelog.filter.*;
+import liquibase.changelog.visitor.AbstractChangeExecListener;
+import liquibase.changelog.visitor.UpdateVisitor;
+import liquibase.command.*;
+import liquibase.configuration.ConfigurationValueObfuscator;
+import liquibase.database.Database;
+import liquibase.database.ObjectQuotingStrategy;
+import liquibase.database.core.H2Database;
+import liquibase.exception.CommandExecutionException;
+import liquibase.exception.LockException;
+import liquibase.executor.ExecutorService;
+import liquibase.integration.commandline.CommandLineUtils;
+import liquibase.lockservice.LockService;
+import liquibase.lockservice.LockServiceFactory;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.resource.ResourceAccessor;
+import liquibase.statement.core.RawSqlStatement;
+import liquibase.structure.core.Schema;
+import liquibase.util.StringUtil;
+
+import java.io.PrintWriter;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Deploys the same changelog to many schemas of a database. The changelog is parsed once per worker thread and the
+ * resulting {@link DatabaseChangeLog} is reused for the targets that worker updates, each of which gets its own connection,
+ * lock and history service.
+ */
+public class UpdateManyCommandStep extends AbstractCommandStep {
+
+    public static final String[] COMMAND_NAME = {"updateMany"};
+
+    public static final CommandArgumentDefinition<String> CHANGELOG_FILE_ARG;
+    public static final CommandArgumentDefinition<String> URL_ARG;
+    public static final CommandArgumentDefinition<String> SCHEMAS_ARG;
+    public static final CommandArgumentDefinition<String> USERNAME_ARG;
+    public static final CommandArgumentDefinition<String> PASSWORD_ARG;
+    public static final CommandArgumentDefinition<String> DRIVER_ARG;
+    public static final CommandArgumentDefinition<String> DRIVER_PROPERTIES_FILE_ARG;
+    public static final CommandArgumentDefinition<String> LABELS_ARG;
+    public static final CommandArgumentDefinition<String> CONTEXTS_ARG;
+    public static final CommandArgumentDefinition<Integer> THREADS_ARG;
+
+    public static final CommandResultDefinition<Map<String, TargetResult>> TARGET_RESULTS;
+    public static final CommandResultDefinition<Integer> FAILED_TARGETS_RESULT;
+
+    static {
+        CommandBuilder builder = new CommandBuilder(COMMAND_NAME);
+        URL_ARG = builder.argument(CommonArgumentNames.URL, String.class).required()
+                .description("The JDBC database connection URL").build();
+        SCHEMAS_ARG = builder.argument("schemas", String.class)
+                .description("Comma-separated list of schemas to update. Each schema is used as default and liquibase schema " +
+                        "of its own connection. If not set, only the default schema of the connection is updated").build();
+        DRIVER_ARG = builder.argument("driver", String.class)
+                .description("The JDBC driver class").build();
+        DRIVER_PROPERTIES_FILE_ARG = builder.argument("driverPropertiesFile", String.class)
+                .description("The JDBC driver properties file").build();
+        USERNAME_ARG = builder.argument(CommonArgumentNames.USERNAME, String.class)
+                .description("Username to use to connect to the database").build();
+        PASSWORD_ARG = builder.argument(CommonArgumentNames.PASSWORD, String.class)
+                .description("Password to use to connect to the database")
+                .setValueObfuscator(ConfigurationValueObfuscator.STANDARD)
+                .build();
+        CHANGELOG_FILE_ARG = builder.argument(CommonArgumentNames.CHANGELOG_FILE, String.class).required()
+                .description("The root changelog").build();
+        LABELS_ARG = builder.argument("labels", String.class)
+                .description("Changeset labels to match").build();
+        CONTEXTS_ARG = builder.argument("contexts", String.class)
+                .description("Changeset contexts to match").build();
+        THREADS_ARG = builder.argument("threads", Integer.class).defaultValue(1)
+                .description("Number of schemas to update concurrently").build();
+
+        TARGET_RESULTS = builder.result("targetResults", (Class<Map<String, TargetResult>>) (Class) Map.class)
+                .description("Result of each schema, in the order the schemas were given").build();
+        FAILED_TARGETS_RESULT = builder.result("failedTargets", Integer.class)
+                .description("Number of schemas which could not be updated").build();
+    }
+
+    @Override
+    public String[][] defineCommandNames() {
+        return new String[][] { COMMAND_NAME };
+    }
+
+    @Override
+    public void run(CommandResultsBuilder resultsBuilder) throws Exception {
+        CommandScope commandScope = resultsBuilder.getCommandScope();
+
+        String changeLogFile = commandScope.getArgumentValue(CHANGELOG_FILE_ARG);
+        Contexts contexts = new Contexts(commandScope.getArgumentValue(CONTEXTS_ARG));
+        LabelExpression labelExpression = new LabelExpression(commandScope.getArgumentValue(LABELS_ARG));
+        Integer threads = commandScope.getArgumentValue(THREADS_ARG);
+        if ((threads == null) || (threads < 1)) {
+            throw new CommandExecutionException("threads must be at least 1");
+        }
+
+        List<String> schemas = new ArrayList<>();
+        String schemasValue = StringUtil.trimToNull(commandScope.getArgumentValue(SCHEMAS_ARG));
+        if (schemasValue != null) {
+            for (String schema : StringUtil.splitAndTrim(schemasValue, ",")) {
+                if (!schema.isEmpty() && !schemas.contains(schema)) {
+                    schemas.add(schema);
+                }
+            }
+        }
+        if (schemas.isEmpty()) {
+            schemas.add(null);
+        }
+
+        ResourceAccessor resourceAccessor = Scope.getCurrentScope().getResourceAccessor();
+        int workers = Math.min(threads, schemas.size());
+
+        //parameters such as ${database.defaultSchemaName} are resolved against the first target.
+        //Updating a target changes state on the changelog and its changesets, so each worker gets its own parsed copy
+        BlockingQueue<DatabaseChangeLog> changeLogs = new ArrayBlockingQueue<>(workers);
+        Database firstDatabase = openDatabase(commandScope, resourceAccessor, schemas.get(0));
+        try {
+            for (int i = 0; i < workers; i++) {
+                ChangeLogParameters changeLogParameters = new ChangeLogParameters(firstDatabase);
+                changeLogParameters.setContexts(contexts);
+                changeLogParameters.setLabels(labelExpression);
+                changeLogs.add(ChangeLogParserFactory.getInstance().getParser(changeLogFile, resourceAccessor)
+                        .parse(changeLogFile, changeLogParameters, resourceAccessor));
+            }
+        } finally {
+            closeDatabase(firstDatabase, schemas.get(0));
+        }
+
+        Map<String, TargetResult> targetResults = new LinkedHashMap<>();
+        if (workers == 1) {
+            DatabaseChangeLog changeLog = changeLogs.peek();
+            for (String schema : schemas) {
+                TargetResult result = updateTarget(commandScope, resourceAccessor, changeLog, schema, contexts, labelExpression);
+                targetResults.put(result.getTarget(), result);
+            }
+        } else {
+            //each worker continues the current scope on its own thread, so the scopes it enters stay out of the others' way
+            Scope parentScope = Scope.getCurrentScope();
+            java.util.concurrent.ExecutorService pool = Executors.newFixedThreadPool(workers);
+            try {
+                List<Future<TargetResult>> futures = new ArrayList<>();
+                for (String schema : schemas) {
+                    futures.add(pool.submit(() -> Scope.child(parentScope, null, () -> {
+                        DatabaseChangeLog changeLog = changeLogs.take();
+                        try {
+                            return updateTarget(commandScope, resourceAccessor, changeLog, schema, contexts, labelExpression);
+                        } finally {
+                            changeLogs.add(changeLog);
+                        }
+                    })));
+                }
+                for (Future<TargetResult> future : futures) {
+                    TargetResult result = future.get();
+                    targetResults.put(result.getTarget(), result);
+                }
+            } finally {
+                pool.shutdownNow();
+            }
+        }
+
+        int failed = 0;
+        PrintWriter output = new PrintWriter(resultsBuilder.getOutputStream());
+        for (TargetResult result : targetResults.values()) {
+            output.println(result + " in " + result.getDuration() + "ms");
+            if (result.getStatus() == TargetResult.Status.FAILED) {
+                failed++;
+            }
+        }
+        output.flush();
+
+        resultsBuilder.addResult(TARGET_RESULTS, Collections.unmodifiableMap(targetResults));
+        resultsBuilder.addResult(FAILED_TARGETS_RESULT, failed);
+        resultsBuilder.addResult("statusCode", (failed == 0) ? 0 : 1);
+
+        if (failed > 0) {
+            throw new CommandExecutionException(failed + " of " + targetResults.size() + " target(s) failed to update");
+        }
+    }
+
+    private Database openDatabase(CommandScope commandScope, ResourceAccessor resourceAccessor, String schema) throws Exception {
+        Database database = CommandLineUtils.createDatabaseObject(resourceAccessor,
+                commandScope.getArgumentValue(URL_ARG),
+                commandScope.getArgumentValue(USERNAME_ARG),
+                commandScope.getArgumentValue(PASSWORD_ARG),
+                commandScope.getArgumentValue(DRIVER_ARG),
+                null,
+                schema,
+                false,
+                false,
+                null,
+                commandScope.getArgumentValue(DRIVER_PROPERTIES_FILE_ARG),
+                null,
+                null,
+                schema,
+                null,
+                null);
+        if ((database instanceof H2Database) && (schema != null)) {
+            //H2 does not switch the connection to the default schema on its own, unlike the databases handled by DatabaseUtils
+            Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database)
+                    .execute(new RawSqlStatement("SET SCHEMA " + database.escapeObjectName(schema, Schema.class)));
+        }
+        return database;
+    }
+
+    /**
+     * Closes the connection of a target and releases the services created for it.
+     */
+    private void closeDatabase(Database database, String target) {
+        LockServiceFactory.getInstance().removeLockService(database);
+        ChangeLogHistoryServiceFactory.getInstance().removeChangeLogService(database);
+        Scope.getCurrentScope().getSingleton(ExecutorService.class).clearExecutor("jdbc", database);
+        try {
+            database.close();
+        } catch (Exception e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Error closing connection for " + target + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Updates a single target. Failures are returned in the result rather than thrown so the remaining targets are still updated.
+     */
+    private TargetResult updateTarget(CommandScope commandScope, ResourceAccessor resourceAccessor, DatabaseChangeLog changeLog,
+                                      String schema, Contexts contexts, LabelExpression labelExpression) {
+        String target = (schema == null) ? commandScope.getArgumentValue(URL_ARG) : schema;
+        long startTime = System.currentTimeMillis();
+        RanChangeSetCounter counter = new RanChangeSetCounter();
+
+        Database database = null;
+        try {
+            database = openDatabase(commandScope, resourceAccessor, schema);
+            final Database targetDatabase = database;
+            TargetResult.Status status = Scope.child(Collections.singletonMap(Scope.Attr.database.name(), targetDatabase), () -> {
+                UpdateFingerprint updateFingerprint = new UpdateFingerprint(targetDatabase);
+                if (updateFingerprint.isEnabled() && updateFingerprint.isUpToDate(changeLog, contexts, labelExpression)) {
+                    return TargetResult.Status.UP_TO_DATE;
+                }
+
+                LockService lockService = LockServiceFactory.getInstance().getLockService(targetDatabase);
+                lockService.waitForLock();
+                try {
+                    ChangeLogHistoryService changeLogHistoryService = ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(targetDatabase);
+                    changeLogHistoryService.init();
+                    changeLogHistoryService.upgradeChecksums(changeLog, contexts, labelExpression);
+                    changeLogHistoryService.generateDeploymentId();
+
+                    changeLog.validate(targetDatabase, contexts, labelExpression);
+
+                    new ChangeLogIterator(changeLog,
+                            new ShouldRunChangeSetFilter(targetDatabase),
+                            new ContextChangeSetFilter(contexts),
+                            new LabelChangeSetFilter(labelExpression),
+                            new DbmsChangeSetFilter(targetDatabase),
+                            new IgnoreChangeSetFilter())
+                            .run(new UpdateVisitor(targetDatabase, counter), new RuntimeEnvironment(targetDatabase, contexts, labelExpression));
+
+                    updateFingerprint.store(changeLog, contexts, labelExpression);
+                } finally {
+                    targetDatabase.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
+                    try {
+                        lockService.releaseLock();
+                    } catch (LockException e) {
+                        Scope.getCurrentScope().getLog(getClass()).severe("Could not release lock for " + target, e);
+                    }
+                }
+                return (counter.getCount() == 0) ? TargetResult.Status.UP_TO_DATE : TargetResult.Status.UPDATED;
+            });
+            return new TargetResult(target, status, counter.getCount(), System.currentTimeMillis() - startTime, null);
+        } catch (Exception e) {
+            Scope.getCurrentScope().getLog(getClass()).severe("Error updating " + target + ": " + e.getMessage(), e);
+            return new TargetResult(target, TargetResult.Status.FAILED, counter.getCount(), System.currentTimeMillis() - startTime, e.getMessage());
+        } finally {
+            if (database != null) {
+                closeDatabase(database, target);
+            }
+        }
+    }
+
+    @Override
+    public void adjustCommandDefinition(CommandDefinition commandDefinition) {
+        commandDefinition.setShortDescription("Deploy the changelog to many schemas");
+        commandDefinition.setLongDescription("Deploy any changes in the changelog file that have not been deployed to each of the given schemas. " +
+                "The changelog is parsed once per thread, and database parameters used in it are resolved against the first schema. " +
+                "Each schema uses its own connection and lock, and a failure in one schema does not stop the others");
+    }
+
+    private static class RanChangeSetCounter extends AbstractChangeExecListener {
+        private int count;
+
+        @Override
+        public void ran(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, ChangeSet.ExecType execType) {
+            count++;
+        }
+
+        public int getCount() {
+            return count;
+        }
+    }
+
+    /**
+     * Outcome of updating one target of {@link UpdateManyCommandStep}.
+     */
+    public static class TargetResult {
+
+        public enum Status {
+            UPDATED,
+            UP_TO_DATE,
+            FAILED
+        }
+
+        private final String target;
+        private final Status status;
+        private final int changeSetsRan;
+        private final long duration;
+        private final String errorMessage;
+
+        public TargetResult(String target, Status status, int changeSetsRan, long duration, String errorMessage) {
+            this.target = target;
+            this.status = status;
+            this.changeSetsRan = changeSetsRan;
+            this.duration = duration;
+            this.errorMessage = errorMessage;
+        }
+
+        public String getTarget() {
+            return target;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public int getChangeSetsRan() {
+            return changeSetsRan;
+        }
+
+        /**
+         * Time taken to update the target, in milliseconds.
+         */
+        public long getDuration() {
+            return duration;
+        }
+
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+
+        @Override
+        public String toString() {
+            String message = target + ": " + status + " (" + changeSetsRan + " changeset(s))";
+            if (errorMessage != null) {
+                message += ": " + errorMessage;
+            }
+            return message;
+        }
+    }
+}
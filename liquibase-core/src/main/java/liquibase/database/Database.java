@@ -1,6 +1,7 @@
 package liquibase.database;
 
 import liquibase.CatalogAndSchema;
+import liquibase.GlobalConfiguration;
 import liquibase.change.Change;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
@@ -153,6 +154,13 @@ public interface Database extends PrioritizedService {
      */
     void setDatabaseChangeLogLockTableName(String tableName);
 
+    /**
+     * Returns the name of the table storing update fingerprints, see {@link liquibase.changelog.UpdateFingerprint}.
+     */
+    default String getDatabaseChangeLogFingerprintTableName() {
+        return GlobalConfiguration.DATABASECHANGELOGFINGERPRINT_TABLE_NAME.getCurrentValue();
+    }
+
     String getLiquibaseTablespaceName();
 
     void setLiquibaseTablespaceName(String tablespaceName);
@@ -166,6 +166,11 @@ public class PostgresDatabase extends AbstractJdbcDatabase {
         return super.getDatabaseChangeLogLockTableName().toLowerCase(Locale.US);
     }
 
+    @Override
+    public String getDatabaseChangeLogFingerprintTableName() {
+        return super.getDatabaseChangeLogFingerprintTableName().toLowerCase(Locale.US);
+    }
+
     @Override
     public void setConnection(DatabaseConnection conn) {
         super.setConnection(conn);
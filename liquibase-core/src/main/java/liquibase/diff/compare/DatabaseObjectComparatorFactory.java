@@ -10,6 +10,7 @@ import liquibase.structure.core.Schema;
 import liquibase.util.StringUtil;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DatabaseObjectComparatorFactory {
 
@@ -17,8 +18,9 @@ public class DatabaseObjectComparatorFactory {
 
     private List<DatabaseObjectComparator> comparators = new ArrayList<>();
 
-    private Map<String, List<DatabaseObjectComparator>> validComparatorsByClassAndDatabase = new HashMap<>();
-    private Map<String, DatabaseObjectComparatorChain> comparatorChainsByClassAndDatabase = new HashMap<>();
+    //concurrent since objects may be compared from several threads, such as by a parallel DiffToChangeLog
+    private Map<String, List<DatabaseObjectComparator>> validComparatorsByClassAndDatabase = new ConcurrentHashMap<>();
+    private Map<String, DatabaseObjectComparatorChain> comparatorChainsByClassAndDatabase = new ConcurrentHashMap<>();
 
     private DatabaseObjectComparatorFactory() {
         try {
@@ -91,6 +93,19 @@ public class DatabaseObjectComparatorFactory {
     }
 
     public boolean isSameObject(DatabaseObject object1, DatabaseObject object2, CompareControl.SchemaComparison[] schemaComparisons, Database accordingTo) {
+        return isSameObject(object1, object2, schemaComparisons, accordingTo, true);
+    }
+
+    /**
+     * Same as {@link #isSameObject(DatabaseObject, DatabaseObject, CompareControl.SchemaComparison[], Database)} for objects
+     * which are already known to share a hash, such as an object found in the hash bucket of the other.
+     * The hashes of the objects are not computed again.
+     */
+    public boolean isSameObjectWithSharedHash(DatabaseObject object1, DatabaseObject object2, CompareControl.SchemaComparison[] schemaComparisons, Database accordingTo) {
+        return isSameObject(object1, object2, schemaComparisons, accordingTo, false);
+    }
+
+    private boolean isSameObject(DatabaseObject object1, DatabaseObject object2, CompareControl.SchemaComparison[] schemaComparisons, Database accordingTo, boolean checkHash) {
         if ((object1 == null) && (object2 == null)) {
             return true;
         }
@@ -122,19 +137,21 @@ public class DatabaseObjectComparatorFactory {
             }
         }
 
-        boolean aHashMatches = false;
+        if (checkHash) {
+            boolean aHashMatches = false;
 
-        List<String> hash1 = Arrays.asList(hash(object1, schemaComparisons, accordingTo));
-        List<String> hash2 = Arrays.asList(hash(object2, schemaComparisons, accordingTo));
-        for (String hash : hash1) {
-            if (hash2.contains(hash)) {
-                aHashMatches = true;
-                break;
+            List<String> hash1 = Arrays.asList(hash(object1, schemaComparisons, accordingTo));
+            List<String> hash2 = Arrays.asList(hash(object2, schemaComparisons, accordingTo));
+            for (String hash : hash1) {
+                if (hash2.contains(hash)) {
+                    aHashMatches = true;
+                    break;
+                }
             }
-        }
 
-        if (!aHashMatches) {
-            return false;
+            if (!aHashMatches) {
+                return false;
+            }
         }
 
 
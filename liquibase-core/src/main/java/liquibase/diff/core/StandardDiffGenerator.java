@@ -16,6 +16,9 @@ import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.Schema;
 import liquibase.util.StringUtil;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
 import java.util.Set;
 
 public class StandardDiffGenerator implements DiffGenerator {
@@ -71,15 +74,21 @@ public class StandardDiffGenerator implements DiffGenerator {
 
         CompareControl.SchemaComparison[] schemaComparisons = diffResult.getCompareControl().getSchemaComparisons();
         if (schemaComparisons != null) {
+            //the snapshots look objects up through their hash buckets, so only the schema names need to be kept here
+            Map<Schema, String> referenceSchemaNames = new IdentityHashMap<>();
+            Map<Schema, String> comparisonSchemaNames = new IdentityHashMap<>();
+
+            //comparison objects found for a reference object are not looked up again in the reference snapshot
+            Set<DatabaseObject> matchedComparisonObjects = Collections.newSetFromMap(new IdentityHashMap<>());
+
             for (CompareControl.SchemaComparison schemaComparison : schemaComparisons) {
+                String referenceSchemaName = StringUtil.trimToEmpty(schemaComparison.getReferenceSchema()
+                    .standardize(referenceDatabase).getSchemaName());
                 for (T referenceObject : referenceSnapshot.get(type)) {
                     Schema referenceObjectSchema = referenceObject.getSchema();
                     if ((referenceObjectSchema != null) && (referenceObjectSchema.getName() != null)) { //don't filter out null-named schemas. May actually be catalog-level objects that should be included
-                        if (!StringUtil.trimToEmpty(
-                            referenceObjectSchema.toCatalogAndSchema().standardize(referenceDatabase).getSchemaName())
-                            .equalsIgnoreCase(
-                                StringUtil.trimToEmpty(schemaComparison.getReferenceSchema()
-                                .standardize(referenceDatabase).getSchemaName()))) {
+                        if (!getStandardizedSchemaName(referenceObjectSchema, referenceDatabase, referenceSchemaNames)
+                            .equalsIgnoreCase(referenceSchemaName)) {
                             continue;
                         }
                     }
@@ -87,6 +96,7 @@ public class StandardDiffGenerator implements DiffGenerator {
                     if (comparisonObject == null) {
                         diffResult.addMissingObject(referenceObject);
                     } else {
+                        matchedComparisonObjects.add(comparisonObject);
                         ObjectDifferences differences = DatabaseObjectComparatorFactory.getInstance().findDifferences(referenceObject, comparisonObject, comparisonDatabase, diffResult.getCompareControl());
                         if (differences.hasDifferences()) {
                             diffResult.addChangedObject(referenceObject, differences);
@@ -94,12 +104,15 @@ public class StandardDiffGenerator implements DiffGenerator {
                     }
                 }
                 //
+                String schemaComparisonName1 = StringUtil.trimToEmpty(schemaComparison.getComparisonSchema().standardize(comparisonDatabase).getSchemaName());
+                String schemaComparisonName2 = StringUtil.trimToEmpty(schemaComparison.getReferenceSchema().standardize(comparisonDatabase).getSchemaName());
                 for (T comparisonObject : comparisonSnapshot.get(type)) {
+                    if (matchedComparisonObjects.contains(comparisonObject)) {
+                        continue;
+                    }
                     Schema comparisonObjectSchema = comparisonObject.getSchema();
                     if (comparisonObjectSchema != null) {
-                        String comparisonObjectSchemaName = StringUtil.trimToEmpty(comparisonObjectSchema.toCatalogAndSchema().standardize(comparisonDatabase).getSchemaName());
-                        String schemaComparisonName1 = StringUtil.trimToEmpty(schemaComparison.getComparisonSchema().standardize(comparisonDatabase).getSchemaName());
-                        String schemaComparisonName2 = StringUtil.trimToEmpty(schemaComparison.getReferenceSchema().standardize(comparisonDatabase).getSchemaName());
+                        String comparisonObjectSchemaName = getStandardizedSchemaName(comparisonObjectSchema, comparisonDatabase, comparisonSchemaNames);
 
                         if ("".equals(comparisonObjectSchemaName) && !"".equals(schemaComparisonName1) && !"".equals
                             (schemaComparisonName2)) {
@@ -121,4 +134,13 @@ public class StandardDiffGenerator implements DiffGenerator {
         }
 
     }
+
+    private String getStandardizedSchemaName(Schema schema, Database database, Map<Schema, String> standardizedNames) {
+        String name = standardizedNames.get(schema);
+        if (name == null) {
+            name = StringUtil.trimToEmpty(schema.toCatalogAndSchema().standardize(database).getSchemaName());
+            standardizedNames.put(schema, name);
+        }
+        return name;
+    }
 }
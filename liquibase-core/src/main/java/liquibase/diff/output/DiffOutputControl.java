@@ -117,6 +117,15 @@ public class DiffOutputControl {
         return alreadyHandledChanged.contains(changedObject, schemaComparisons);
     }
 
+    /**
+     * Forgets all objects marked as already handled, so they are no longer kept in memory.
+     */
+    public void clearAlreadyHandled() {
+        alreadyHandledMissing = new DatabaseObjectCollection(new DatabaseForHash());
+        alreadyHandledUnexpected = new DatabaseObjectCollection(new DatabaseForHash());
+        alreadyHandledChanged = new DatabaseObjectCollection(new DatabaseForHash());
+    }
+
     public DiffOutputControl addIncludedSchema(Schema schema) {
         this.includeSchemas.add(schema.toCatalogAndSchema());
         return this;
@@ -52,6 +52,9 @@ public class DiffToChangeLog {
     private DiffResult diffResult;
     private DiffOutputControl diffOutputControl;
     private boolean tryDbaDependencies = true;
+    private String dependencyOrderKey;
+    private Map<String, Integer> dependencyOrder;
+    private DatabaseException dependencyOrderError;
 
     private static Set<Class> loggedOrderFor = new HashSet<>();
 
@@ -374,17 +377,7 @@ public class DiffToChangeLog {
             }
 
             try {
-                final List<String> dependencyOrder = new ArrayList<>();
-                DependencyUtil.NodeValueListener<String> nameListener = new DependencyUtil.NodeValueListener<String>() {
-                    @Override
-                    public void evaluating(String nodeValue) {
-                        dependencyOrder.add(nodeValue);
-                    }
-                };
-
-                DependencyUtil.DependencyGraph<String> graph = new DependencyUtil.DependencyGraph<String>(nameListener);
-                addDependencies(graph, schemas, database);
-                graph.computeDependencies();
+                final Map<String, Integer> dependencyOrder = getDependencyOrder(schemas, database);
 
                 if (!dependencyOrder.isEmpty()) {
 
@@ -399,7 +392,7 @@ public class DiffToChangeLog {
                             }
 
                             String name = schemaName + "." + obj.getName();
-                            if (dependencyOrder.contains(name)) {
+                            if (dependencyOrder.containsKey(name)) {
                                 toSort.add(obj);
                             } else {
                                 toNotSort.add(obj);
@@ -422,8 +415,8 @@ public class DiffToChangeLog {
                                 o2Schema = o2.getSchema().getName();
                             }
 
-                            Integer o1Order = dependencyOrder.indexOf(o1Schema + "." + o1.getName());
-                            int o2Order = dependencyOrder.indexOf(o2Schema + "." + o2.getName());
+                            Integer o1Order = dependencyOrder.get(o1Schema + "." + o1.getName());
+                            int o2Order = dependencyOrder.get(o2Schema + "." + o2.getName());
 
                             int order = o1Order.compareTo(o2Order);
                             if ("unexpected".equals(type)) {
@@ -443,6 +436,42 @@ public class DiffToChangeLog {
         return new ArrayList<>(objects);
     }
 
+    /**
+     * Returns the position of each schema.object_name in the dependency order of the given schemas.
+     * The dependencies are read from the database once and reused for the missing and unexpected objects,
+     * including a failure to read them.
+     */
+    private Map<String, Integer> getDependencyOrder(List<String> schemas, Database database) throws DatabaseException {
+        String key = database.getShortName() + ":" + schemas;
+        if (!key.equals(dependencyOrderKey)) {
+            dependencyOrderKey = key;
+            dependencyOrder = null;
+            dependencyOrderError = null;
+            try {
+                final Map<String, Integer> order = new HashMap<>();
+                DependencyUtil.NodeValueListener<String> nameListener = new DependencyUtil.NodeValueListener<String>() {
+                    @Override
+                    public void evaluating(String nodeValue) {
+                        if (!order.containsKey(nodeValue)) {
+                            order.put(nodeValue, order.size());
+                        }
+                    }
+                };
+
+                DependencyUtil.DependencyGraph<String> graph = new DependencyUtil.DependencyGraph<String>(nameListener);
+                addDependencies(graph, schemas, database);
+                graph.computeDependencies();
+                dependencyOrder = order;
+            } catch (DatabaseException e) {
+                dependencyOrderError = e;
+            }
+        }
+        if (dependencyOrderError != null) {
+            throw dependencyOrderError;
+        }
+        return dependencyOrder;
+    }
+
     private List<Map<String, ?>> queryForDependenciesOracle(Executor executor, List<String> schemas)
             throws DatabaseException {
         List<Map<String, ?>> rs = null;
@@ -0,0 +1,357 @@
+package liquibase.diff.output.changelog;
+
+import liquibase.CatalogAndSchema;
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.diff.DiffGeneratorFactory;
+import liquibase.diff.DiffResult;
+import liquibase.diff.ObjectDifferences;
+import liquibase.diff.compare.CompareControl;
+import liquibase.diff.compare.DatabaseObjectComparatorFactory;
+import liquibase.diff.output.DiffOutputControl;
+import liquibase.diff.output.ObjectChangeFilter;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.serializer.ChangeLogSerializer;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.EmptyDatabaseSnapshot;
+import liquibase.snapshot.InvalidExampleException;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.DatabaseObjectComparator;
+import liquibase.structure.core.*;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.*;
+
+/**
+ * Writes the changelog of a diff one table at a time, instead of from the {@link DiffResult} of two complete snapshots.
+ * <p>
+ * The schemas are first snapshotted without the objects contained in tables: columns, primary keys, indexes, unique
+ * constraints and data. Foreign keys and the other objects of this snapshot, such as views and sequences, are compared
+ * for the whole schema. Each table is then snapshotted and compared on its own and its changesets are passed to the
+ * serializer before the next table is read, so only one table of each database is held in memory.
+ * <p>
+ * Changesets are ordered by table rather than by object type: dropped foreign keys and schema level objects come first,
+ * then the changes of each table, then added or changed foreign keys and schema level objects.
+ */
+public class StreamingDiffToChangeLog extends DiffToChangeLog {
+
+    private static final List<Class<? extends DatabaseObject>> TABLE_CONTENT_TYPES = Arrays.asList(
+            Column.class, PrimaryKey.class, Index.class, UniqueConstraint.class, Data.class
+    );
+
+    private final DiffResult schemaDiffResult;
+    private final Database referenceDatabase;
+    private final Database comparisonDatabase;
+    private final CompareControl compareControl;
+    private final ObjectChangeFilter objectChangeFilter;
+    private final Set<Class<? extends DatabaseObject>> comparedTypes;
+    private final DiffOutputControl diffOutputControl;
+
+    /**
+     * Snapshots and compares the schema level objects of the schemas in the compare control.
+     * Tables are read when the changesets are generated or printed.
+     *
+     * @param comparisonDatabase the database to compare to, or null to generate the changelog of the whole reference database
+     * @param snapshotControl    the types to compare and the object change filter of the reference snapshot
+     */
+    public StreamingDiffToChangeLog(Database referenceDatabase, Database comparisonDatabase, SnapshotControl snapshotControl,
+                                    CompareControl compareControl, DiffOutputControl diffOutputControl)
+            throws DatabaseException, InvalidExampleException {
+        this(compareSchemaObjects(referenceDatabase, comparisonDatabase, snapshotControl, compareControl),
+                referenceDatabase, comparisonDatabase, snapshotControl, compareControl, diffOutputControl);
+    }
+
+    private StreamingDiffToChangeLog(DiffResult schemaDiffResult, Database referenceDatabase, Database comparisonDatabase,
+                                     SnapshotControl snapshotControl, CompareControl compareControl, DiffOutputControl diffOutputControl) {
+        super(schemaDiffResult, diffOutputControl);
+        this.schemaDiffResult = schemaDiffResult;
+        this.referenceDatabase = referenceDatabase;
+        this.comparisonDatabase = comparisonDatabase;
+        this.compareControl = compareControl;
+        this.objectChangeFilter = snapshotControl.getObjectChangeFilter();
+        this.comparedTypes = getComparedTypes(snapshotControl, compareControl);
+        this.diffOutputControl = diffOutputControl;
+    }
+
+    private static Set<Class<? extends DatabaseObject>> getComparedTypes(SnapshotControl snapshotControl, CompareControl compareControl) {
+        Set<Class<? extends DatabaseObject>> types = new HashSet<>(snapshotControl.getTypesToInclude());
+        types.retainAll(compareControl.getComparedTypes());
+        return types;
+    }
+
+    private static DiffResult compareSchemaObjects(Database referenceDatabase, Database comparisonDatabase, SnapshotControl snapshotControl,
+                                                   CompareControl compareControl) throws DatabaseException, InvalidExampleException {
+        Set<Class<? extends DatabaseObject>> types = getComparedTypes(snapshotControl, compareControl);
+        types.removeAll(TABLE_CONTENT_TYPES);
+        types.remove(Table.class);
+
+        Set<Class<? extends DatabaseObject>> snapshotTypes = new HashSet<>(types);
+        snapshotTypes.add(Table.class);
+        DatabaseSnapshot referenceSnapshot = createSnapshot(compareControl.getSchemas(CompareControl.DatabaseRole.REFERENCE),
+                referenceDatabase, new SnapshotControl(referenceDatabase, snapshotControl.getObjectChangeFilter(), snapshotTypes.toArray(new Class[0])), compareControl);
+        DatabaseSnapshot comparisonSnapshot = null;
+        if (comparisonDatabase != null) {
+            comparisonSnapshot = createSnapshot(compareControl.getSchemas(CompareControl.DatabaseRole.COMPARISON),
+                    comparisonDatabase, new SnapshotControl(comparisonDatabase, snapshotTypes.toArray(new Class[0])), compareControl);
+        }
+
+        if (types.isEmpty()) {
+            //an empty compare control would compare all types, including tables
+            if (comparisonSnapshot == null) {
+                comparisonSnapshot = new EmptyDatabaseSnapshot(referenceDatabase, referenceSnapshot.getSnapshotControl());
+            }
+            return new DiffResult(referenceSnapshot, comparisonSnapshot, compareControl);
+        }
+        return DiffGeneratorFactory.getInstance().compare(referenceSnapshot, comparisonSnapshot, restrict(compareControl, types));
+    }
+
+    /**
+     * Returns a compare control for the given types which keeps the schema comparisons and suppressed fields of the original.
+     */
+    private static CompareControl restrict(CompareControl compareControl, Set<Class<? extends DatabaseObject>> types) {
+        return new CompareControl(compareControl.getSchemaComparisons(), types) {
+            @Override
+            public boolean isSuppressedField(Class<? extends DatabaseObject> type, String field) {
+                return compareControl.isSuppressedField(type, field);
+            }
+        };
+    }
+
+    private static DatabaseSnapshot createSnapshot(CatalogAndSchema[] schemas, Database database, SnapshotControl snapshotControl,
+                                                   CompareControl compareControl) throws DatabaseException, InvalidExampleException {
+        DatabaseSnapshot snapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(schemas, database, snapshotControl);
+        snapshot.setSchemaComparisons(compareControl.getSchemaComparisons());
+        return snapshot;
+    }
+
+    @Override
+    public void printNew(ChangeLogSerializer changeLogSerializer, File file) throws ParserConfigurationException, IOException, DatabaseException {
+        Scope.getCurrentScope().getLog(getClass()).info(file + " does not exist, creating it");
+
+        try (FileOutputStream stream = new FileOutputStream(file);
+             PrintStream out = new PrintStream(stream, true, GlobalConfiguration.OUTPUT_FILE_ENCODING.getCurrentValue())) {
+            print(out, changeLogSerializer);
+        }
+    }
+
+    @Override
+    public void print(PrintStream out, ChangeLogSerializer changeLogSerializer) throws ParserConfigurationException, IOException, DatabaseException {
+        changeLogSerializer.write(new ChangeSetIterator(), out);
+
+        out.flush();
+    }
+
+    /**
+     * Returns all changesets. Use {@link #print(PrintStream, ChangeLogSerializer)} to avoid holding them in memory.
+     */
+    @Override
+    public List<ChangeSet> generateChangeSets() {
+        List<ChangeSet> changeSets = new ArrayList<>();
+        Iterator<ChangeSet> iterator = new ChangeSetIterator();
+        while (iterator.hasNext()) {
+            changeSets.add(iterator.next());
+        }
+        return changeSets;
+    }
+
+    private List<ChangeSet> generateChangeSets(DiffResult diffResult) {
+        setDiffResult(diffResult);
+        return super.generateChangeSets();
+    }
+
+    /**
+     * Returns the schema level objects which are only in the comparison database.
+     */
+    private DiffResult getUnexpectedSchemaObjects() {
+        DiffResult diffResult = new DiffResult(schemaDiffResult.getReferenceSnapshot(), schemaDiffResult.getComparisonSnapshot(), compareControl);
+        for (DatabaseObject object : schemaDiffResult.getUnexpectedObjects()) {
+            diffResult.addUnexpectedObject(object);
+        }
+        return diffResult;
+    }
+
+    /**
+     * Returns the schema level objects which are missing or changed in the comparison database.
+     */
+    private DiffResult getMissingAndChangedSchemaObjects() {
+        DiffResult diffResult = new DiffResult(schemaDiffResult.getReferenceSnapshot(), schemaDiffResult.getComparisonSnapshot(), compareControl);
+        for (DatabaseObject object : schemaDiffResult.getMissingObjects()) {
+            diffResult.addMissingObject(object);
+        }
+        for (Map.Entry<DatabaseObject, ObjectDifferences> entry : schemaDiffResult.getChangedObjects().entrySet()) {
+            diffResult.addChangedObject(entry.getKey(), entry.getValue());
+        }
+        return diffResult;
+    }
+
+    /**
+     * Returns the reference tables paired with the matching comparison table, followed by the comparison tables
+     * which are not in the reference database paired with null.
+     */
+    private List<Table[]> getTablePairs() {
+        DatabaseSnapshot referenceSnapshot = schemaDiffResult.getReferenceSnapshot();
+        DatabaseSnapshot comparisonSnapshot = schemaDiffResult.getComparisonSnapshot();
+        DatabaseObjectComparator comparator = new DatabaseObjectComparator();
+
+        List<Table[]> pairs = new ArrayList<>();
+        for (Table table : sort(referenceSnapshot.get(Table.class), comparator)) {
+            if (!referenceDatabase.isLiquibaseObject(table) && !referenceDatabase.isSystemObject(table)) {
+                pairs.add(new Table[]{table, comparisonSnapshot.get(table)});
+            }
+        }
+        Database comparisonSnapshotDatabase = comparisonSnapshot.getDatabase();
+        for (Table table : sort(comparisonSnapshot.get(Table.class), comparator)) {
+            if ((referenceSnapshot.get(table) == null)
+                    && !comparisonSnapshotDatabase.isLiquibaseObject(table) && !comparisonSnapshotDatabase.isSystemObject(table)) {
+                pairs.add(new Table[]{null, table});
+            }
+        }
+        return pairs;
+    }
+
+    private static List<Table> sort(Set<Table> tables, DatabaseObjectComparator comparator) {
+        List<Table> sorted = (tables == null) ? new ArrayList<>() : new ArrayList<>(tables);
+        sorted.sort(comparator);
+        return sorted;
+    }
+
+    private DiffResult compareTable(Table referenceTable, Table comparisonTable) throws DatabaseException, InvalidExampleException {
+        Set<Class<? extends DatabaseObject>> types = new HashSet<>(comparedTypes);
+        types.retainAll(TABLE_CONTENT_TYPES);
+        types.add(Table.class);
+
+        DatabaseSnapshot referenceSnapshot = createTableSnapshot(referenceTable, referenceDatabase, objectChangeFilter, types);
+        DatabaseSnapshot comparisonSnapshot = null;
+        if (comparisonDatabase != null) {
+            comparisonSnapshot = createTableSnapshot(comparisonTable, comparisonDatabase, null, types);
+        }
+
+        DiffResult diffResult = DiffGeneratorFactory.getInstance().compare(referenceSnapshot, comparisonSnapshot, restrict(compareControl, types));
+
+        //the snapshot of a table also holds the tables its foreign keys point to, which are compared on their own
+        Table table = (referenceTable == null) ? comparisonTable : referenceTable;
+        Database database = (referenceTable == null) ? comparisonDatabase : referenceDatabase;
+        DiffResult tableDiffResult = new DiffResult(diffResult.getReferenceSnapshot(), diffResult.getComparisonSnapshot(), compareControl);
+        for (DatabaseObject object : diffResult.getMissingObjects()) {
+            if (isInTable(object, table, database)) {
+                tableDiffResult.addMissingObject(object);
+            }
+        }
+        for (DatabaseObject object : diffResult.getUnexpectedObjects()) {
+            if (isInTable(object, table, database)) {
+                tableDiffResult.addUnexpectedObject(object);
+            }
+        }
+        for (Map.Entry<DatabaseObject, ObjectDifferences> entry : diffResult.getChangedObjects().entrySet()) {
+            if (isInTable(entry.getKey(), table, database)) {
+                tableDiffResult.addChangedObject(entry.getKey(), entry.getValue());
+            }
+        }
+        return tableDiffResult;
+    }
+
+    private boolean isInTable(DatabaseObject object, Table table, Database database) {
+        DatabaseObject owner;
+        if (object instanceof Table) {
+            owner = object;
+        } else if (object instanceof Column) {
+            owner = ((Column) object).getRelation();
+        } else if (object instanceof Index) {
+            owner = ((Index) object).getRelation();
+        } else if (object instanceof PrimaryKey) {
+            owner = ((PrimaryKey) object).getTable();
+        } else if (object instanceof UniqueConstraint) {
+            owner = ((UniqueConstraint) object).getRelation();
+        } else if (object instanceof Data) {
+            owner = ((Data) object).getTable();
+        } else {
+            return false;
+        }
+        return (owner != null) && DatabaseObjectComparatorFactory.getInstance().isSameObject(owner, table, compareControl.getSchemaComparisons(), database);
+    }
+
+    private DatabaseSnapshot createTableSnapshot(Table table, Database database, ObjectChangeFilter objectChangeFilter,
+                                                 Set<Class<? extends DatabaseObject>> types) throws DatabaseException, InvalidExampleException {
+        SnapshotControl snapshotControl = new SnapshotControl(database, objectChangeFilter, types.toArray(new Class[0]));
+        DatabaseSnapshot snapshot;
+        if (table == null) {
+            snapshot = new EmptyDatabaseSnapshot(database, snapshotControl);
+        } else {
+            snapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(new DatabaseObject[]{table}, database, snapshotControl);
+        }
+        snapshot.setSchemaComparisons(compareControl.getSchemaComparisons());
+        return snapshot;
+    }
+
+    /**
+     * Forgets the objects handled for earlier tables, keeping only the backing indexes of the dropped foreign keys of
+     * the given table which are removed together with the foreign key.
+     */
+    private void resetAlreadyHandled(Table comparisonTable) {
+        diffOutputControl.clearAlreadyHandled();
+        if (comparisonTable == null) {
+            return;
+        }
+        for (ForeignKey foreignKey : schemaDiffResult.getUnexpectedObjects(ForeignKey.class)) {
+            if ((foreignKey.getBackingIndex() != null) && DatabaseObjectComparatorFactory.getInstance().isSameObject(foreignKey.getForeignKeyTable(),
+                    comparisonTable, compareControl.getSchemaComparisons(), schemaDiffResult.getComparisonSnapshot().getDatabase())) {
+                diffOutputControl.setAlreadyHandledUnexpected(foreignKey.getBackingIndex());
+            }
+        }
+    }
+
+    /**
+     * Generates the changesets of the next table only when the serializer asks for more.
+     */
+    private class ChangeSetIterator implements Iterator<ChangeSet> {
+
+        private final Deque<ChangeSet> pending = new ArrayDeque<>();
+        private Iterator<Table[]> tablePairs;
+        private boolean finished;
+
+        @Override
+        public boolean hasNext() {
+            while (pending.isEmpty() && !finished) {
+                pending.addAll(nextBatch());
+            }
+            return !pending.isEmpty();
+        }
+
+        @Override
+        public ChangeSet next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return pending.removeFirst();
+        }
+
+        private List<ChangeSet> nextBatch() {
+            if (tablePairs == null) {
+                tablePairs = getTablePairs().iterator();
+                return generateChangeSets(getUnexpectedSchemaObjects());
+            }
+            if (tablePairs.hasNext()) {
+                Table[] pair = tablePairs.next();
+                Scope.getCurrentScope().getLog(getClass()).fine("Comparing table " + ((pair[0] == null) ? pair[1] : pair[0]));
+                try {
+                    resetAlreadyHandled(pair[1]);
+                    return generateChangeSets(compareTable(pair[0], pair[1]));
+                } catch (DatabaseException | InvalidExampleException e) {
+                    throw new UnexpectedLiquibaseException(e);
+                }
+            }
+            finished = true;
+            diffOutputControl.clearAlreadyHandled();
+            return generateChangeSets(getMissingAndChangedSchemaObjects());
+        }
+    }
+}
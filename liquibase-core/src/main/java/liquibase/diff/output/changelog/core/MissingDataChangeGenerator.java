@@ -6,11 +6,15 @@ import liquibase.change.core.InsertDataChange;
 import liquibase.GlobalConfiguration;
 import liquibase.database.Database;
 import liquibase.database.core.InformixDatabase;
+import liquibase.database.core.MariaDBDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.PostgresDatabase;
 import liquibase.database.jvm.JdbcConnection;
 import liquibase.diff.output.DiffOutputControl;
 import liquibase.diff.output.changelog.AbstractChangeGenerator;
 import liquibase.diff.output.changelog.ChangeGeneratorChain;
 import liquibase.diff.output.changelog.MissingObjectChangeGenerator;
+import liquibase.exception.DatabaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.statement.DatabaseFunction;
 import liquibase.structure.DatabaseObject;
@@ -50,20 +54,15 @@ public class MissingDataChangeGenerator extends AbstractChangeGenerator implemen
 
     @Override
     public Change[] fixMissing(DatabaseObject missingObject, DiffOutputControl outputControl, Database referenceDatabase, Database comparisionDatabase, ChangeGeneratorChain chain) {
-        Statement stmt = null;
-        ResultSet rs = null;
-        try {
-            Data data = (Data) missingObject;
+        Data data = (Data) missingObject;
 
-            Table table = data.getTable();
-            if (referenceDatabase.isLiquibaseObject(table)) {
-                return null;
-            }
+        Table table = data.getTable();
+        if (referenceDatabase.isLiquibaseObject(table)) {
+            return null;
+        }
 
-            String sql = "SELECT * FROM " + referenceDatabase.escapeTableName(table.getSchema().getCatalogName(), table.getSchema().getName(), table.getName());
-            stmt = ((JdbcConnection) referenceDatabase.getConnection()).createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-            stmt.setFetchSize(1000);
-            rs = stmt.executeQuery(sql);
+        try (DataQuery query = queryData(table, referenceDatabase, 1000)) {
+            ResultSet rs = query.getResultSet();
 
             List<String> columnNames = new ArrayList<>();
             for (int i = 0; i < rs.getMetaData().getColumnCount(); i++) {
@@ -116,18 +115,77 @@ public class MissingDataChangeGenerator extends AbstractChangeGenerator implemen
             return changes.toArray(new Change[changes.size()]);
         } catch (Exception e) {
             throw new UnexpectedLiquibaseException(e);
-        } finally {
-            if (rs != null) {
-                try {
-                    rs.close();
-                } catch (SQLException ignore) {
-                }
+        }
+    }
+
+    /**
+     * Selects all rows of the table through a forward-only, read-only cursor which fetches
+     * {@link GlobalConfiguration#DIFF_DATA_FETCH_SIZE} rows at a time, or defaultFetchSize if it is not set.
+     * <p>
+     * Some drivers read the whole result into memory unless the cursor is set up for them: PostgreSQL only uses the
+     * fetch size outside of auto-commit mode, so auto-commit is switched off until the query is closed, and MySQL only
+     * streams rows with a fetch size of {@link Integer#MIN_VALUE}.
+     */
+    protected DataQuery queryData(Table table, Database referenceDatabase, int defaultFetchSize) throws DatabaseException, SQLException {
+        Integer fetchSize = GlobalConfiguration.DIFF_DATA_FETCH_SIZE.getCurrentValue();
+        if (fetchSize == null) {
+            fetchSize = defaultFetchSize;
+        }
+
+        String sql = "SELECT * FROM " + referenceDatabase.escapeTableName(table.getSchema().getCatalogName(), table.getSchema().getName(), table.getName());
+        JdbcConnection connection = (JdbcConnection) referenceDatabase.getConnection();
+
+        boolean restoreAutoCommit = false;
+        if ((referenceDatabase instanceof PostgresDatabase) && connection.getAutoCommit()) {
+            connection.setAutoCommit(false);
+            restoreAutoCommit = true;
+        }
+
+        Statement stmt = null;
+        try {
+            stmt = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            if ((referenceDatabase instanceof MySQLDatabase) && !(referenceDatabase instanceof MariaDBDatabase)) {
+                stmt.setFetchSize(Integer.MIN_VALUE);
+            } else {
+                stmt.setFetchSize(fetchSize);
             }
-            if (stmt != null) {
-                try {
-                    stmt.close();
-                } catch (SQLException ignore) {
-                }
+            return new DataQuery(connection, stmt, stmt.executeQuery(sql), restoreAutoCommit);
+        } catch (SQLException | RuntimeException e) {
+            JdbcUtil.closeStatement(stmt);
+            if (restoreAutoCommit) {
+                connection.setAutoCommit(true);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The open cursor over the rows of a table returned by {@link #queryData(Table, Database, int)}.
+     * Closing it restores the auto-commit mode of the connection.
+     */
+    protected static class DataQuery implements AutoCloseable {
+
+        private final JdbcConnection connection;
+        private final Statement statement;
+        private final ResultSet resultSet;
+        private final boolean restoreAutoCommit;
+
+        protected DataQuery(JdbcConnection connection, Statement statement, ResultSet resultSet, boolean restoreAutoCommit) {
+            this.connection = connection;
+            this.statement = statement;
+            this.resultSet = resultSet;
+            this.restoreAutoCommit = restoreAutoCommit;
+        }
+
+        public ResultSet getResultSet() {
+            return resultSet;
+        }
+
+        @Override
+        public void close() throws DatabaseException {
+            JdbcUtil.close(resultSet, statement);
+            if (restoreAutoCommit) {
+                connection.setAutoCommit(true);
             }
         }
     }
@@ -5,7 +5,6 @@ import liquibase.change.core.LoadDataChange;
 import liquibase.change.core.LoadDataColumnConfig;
 import liquibase.GlobalConfiguration;
 import liquibase.database.Database;
-import liquibase.database.jvm.JdbcConnection;
 import liquibase.diff.output.DiffOutputControl;
 import liquibase.diff.output.changelog.ChangeGeneratorChain;
 import liquibase.exception.UnexpectedLiquibaseException;
@@ -19,8 +18,6 @@ import liquibase.util.csv.CSVWriter;
 
 import java.io.*;
 import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Base64;
 import java.util.Date;
@@ -45,25 +42,16 @@ public class MissingDataExternalFileChangeGenerator extends MissingDataChangeGen
 
     @Override
     public Change[] fixMissing(DatabaseObject missingObject, DiffOutputControl outputControl, Database referenceDatabase, Database comparisionDatabase, ChangeGeneratorChain chain) {
-    
-        ResultSet rs = null;
-        try (
-            Statement stmt = ((JdbcConnection) referenceDatabase.getConnection()).createStatement(
-                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-        )
-        {
-            Data data = (Data) missingObject;
-
-            Table table = data.getTable();
-            if (referenceDatabase.isLiquibaseObject(table)) {
-                return null;
-            }
+        Data data = (Data) missingObject;
 
-            String sql = "SELECT * FROM " + referenceDatabase.escapeTableName(table.getSchema().getCatalogName(), table.getSchema().getName(), table.getName());
+        Table table = data.getTable();
+        if (referenceDatabase.isLiquibaseObject(table)) {
+            return null;
+        }
 
-            
-            stmt.setFetchSize(100);
-            rs = stmt.executeQuery(sql);
+        //rows are written to the file as they are read, so only the fetched rows are held in memory
+        try (DataQuery query = queryData(table, referenceDatabase, 100)) {
+            ResultSet rs = query.getResultSet();
 
             if (rs.isBeforeFirst()) {
                 List<String> columnNames = new ArrayList<>();
@@ -99,6 +87,7 @@ public class MissingDataExternalFileChangeGenerator extends MissingDataChangeGen
                     }
                     outputFile.writeNext(line);
 
+                    ISODateFormat dateFormat = new ISODateFormat();
                     int rowNum = 0;
                     while (rs.next()) {
                         line = new String[columnNames.size()];
@@ -122,7 +111,7 @@ public class MissingDataExternalFileChangeGenerator extends MissingDataChangeGen
                                 line[i] = "NULL";
                             } else {
                                 if (value instanceof Date) {
-                                    line[i] = new ISODateFormat().format(((Date) value));
+                                    line[i] = dateFormat.format(((Date) value));
                                 } else if (value instanceof byte[]) {
                                     // extract the value as a Base64 string, to safely store the
                                     // binary data
@@ -167,14 +156,6 @@ public class MissingDataExternalFileChangeGenerator extends MissingDataChangeGen
             return new Change[]{};
         } catch (Exception e) {
             throw new UnexpectedLiquibaseException(e);
-        } finally {
-            if (rs != null) {
-                try {
-                    rs.close();
-                } catch (SQLException ignore) {
-                    // nothing can be done
-                } // try...
-            } // rs == null?
-        } // try... finally
+        }
     } // method fixMissing
 } // class MissingDataExternalFileChangeGenerator
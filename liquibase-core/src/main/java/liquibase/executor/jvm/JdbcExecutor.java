@@ -1,6 +1,8 @@
 package liquibase.executor.jvm;
 
 import liquibase.Scope;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.visitor.ChangeExecListener;
 import liquibase.sql.SqlConfiguration;
 import liquibase.database.DatabaseConnection;
 import liquibase.database.OfflineConnection;
@@ -21,6 +23,8 @@ import liquibase.statement.CallableSqlStatement;
 import liquibase.statement.CompoundStatement;
 import liquibase.statement.ExecutablePreparedStatement;
 import liquibase.statement.SqlStatement;
+import liquibase.statement.core.CommitStatement;
+import liquibase.statement.core.InsertSetStatement;
 import liquibase.util.JdbcUtil;
 import liquibase.util.StringUtil;
 
@@ -141,6 +145,10 @@ public class JdbcExecutor extends AbstractExecutor {
             ((ExecutablePreparedStatement) sql).execute(new PreparedStatementFactory((JdbcConnection)database.getConnection()));
             return;
         }
+        if (sql instanceof CommitStatement) {
+            database.commit();
+            return;
+        }
         if (sql instanceof CompoundStatement) {
             if (database instanceof Db2zDatabase) {
                 executeDb2ZosComplexStatement(sql);
@@ -148,7 +156,19 @@ public class JdbcExecutor extends AbstractExecutor {
             }
         }
 
+        long startTime = System.currentTimeMillis();
         execute(new ExecuteStatementCallback(sql, sqlVisitors), sqlVisitors);
+        if (sql instanceof InsertSetStatement) {
+            reportBatchExecuted((InsertSetStatement) sql, System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private void reportBatchExecuted(InsertSetStatement statement, long durationMillis) {
+        ChangeExecListener listener = Scope.getCurrentScope().get(ChangeExecListener.class.getName(), ChangeExecListener.class);
+        if (listener != null) {
+            listener.batchExecuted(Scope.getCurrentScope().get(Scope.Attr.changeSet.name(), ChangeSet.class), database,
+                    statement.getTableName(), statement.getStatements().size(), durationMillis);
+        }
     }
 
 
@@ -81,6 +81,13 @@ public class LockServiceFactory {
         return openLockServices.get(database);
     }
 
+    /**
+     * Removes the lock service created for the given database without resetting the lock services of other databases.
+     */
+    public void removeLockService(Database database) {
+        openLockServices.remove(database);
+    }
+
     public void resetAll() {
         for (LockService lockService : registry) {
             lockService.reset();
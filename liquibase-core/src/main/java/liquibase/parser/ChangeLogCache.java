@@ -0,0 +1,488 @@
+package liquibase.parser;
+
+import liquibase.Scope;
+import liquibase.SingletonObject;
+import liquibase.exception.ChangeLogParseException;
+import liquibase.parser.core.ParsedNode;
+import liquibase.parser.core.ParsedNodeException;
+import liquibase.resource.AbstractResourceAccessor;
+import liquibase.resource.InputStreamList;
+import liquibase.resource.ResourceAccessor;
+import liquibase.util.LiquibaseUtil;
+import liquibase.util.MD5Util;
+import liquibase.util.StreamUtil;
+import liquibase.util.StringUtil;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Binary cache of parsed changelog files, stored in the file configured by {@link ChangeLogParserConfiguration#CHANGELOG_CACHE_FILE}.
+ * <p>
+ * Each entry holds the result of parsing a physical changelog path, such as the {@link ParsedNode} tree created by
+ * {@link liquibase.parser.core.xml.AbstractChangeLogParser} or the map read by the YAML and JSON parsers, together with the
+ * file stamp and content hash it was parsed from. When the file is unchanged the result is read from the cache instead of
+ * re-parsing the file. Results are cached before changelog parameters are expanded, so the cache stays valid when parameter
+ * values change. Checksums are cached separately by {@link liquibase.changelog.ChangeSetCheckSumCache}.
+ * <p>
+ * The cache file is written when the outermost changelog parse completes.
+ */
+public class ChangeLogCache implements SingletonObject {
+
+    private static final int FORMAT_VERSION = 2;
+    private static final String FORMAT_HEADER = "LIQUIBASE-CHANGELOG-CACHE";
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_BOOLEAN = 2;
+    private static final byte TYPE_INTEGER = 3;
+    private static final byte TYPE_LONG = 4;
+    private static final byte TYPE_BIG_INTEGER = 5;
+    private static final byte TYPE_BIG_DECIMAL = 6;
+    private static final byte TYPE_DOUBLE = 7;
+    private static final byte TYPE_NODE = 8;
+    private static final byte TYPE_MAP = 9;
+    private static final byte TYPE_LIST = 10;
+    private static final byte TYPE_DATE = 11;
+
+    private final ThreadLocal<Integer> parseDepth = new ThreadLocal<>();
+
+    private String loadedFrom;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private boolean dirty;
+
+    protected ChangeLogCache() {
+    }
+
+    /**
+     * Returns true if a cache file is configured.
+     */
+    public boolean isEnabled() {
+        return StringUtil.trimToNull(ChangeLogParserConfiguration.CHANGELOG_CACHE_FILE.getCurrentValue()) != null;
+    }
+
+    /**
+     * Reads the changelog file at the given path with the given reader, or returns a new copy of the cached result if the file is unchanged.
+     * <p>
+     * Local files and jar entries are looked up by their location, modification time and size, so an unchanged file is not read at all.
+     * Otherwise the file is read once and the content hash is checked before the bytes are handed to the reader through the
+     * {@link ResourceAccessor} it is given. The result is cached before it is returned, so callers may modify it.
+     * Results of a type which cannot be stored are returned without being cached.
+     */
+    public <T> T read(String physicalPath, ResourceAccessor resourceAccessor, Class<T> type, ContentReader<T> reader) throws ChangeLogParseException {
+        if (!isEnabled()) {
+            return reader.read(resourceAccessor);
+        }
+
+        byte[] content;
+        String stamp;
+        try (InputStreamList streams = resourceAccessor.openStreams(null, physicalPath)) {
+            if ((streams == null) || (streams.size() != 1)) {
+                //the reader will report the problem
+                return reader.read(resourceAccessor);
+            }
+            URI uri = streams.getURIs().get(0);
+            stamp = getStamp(uri);
+            T cached = get(physicalPath, type, entry -> (stamp != null) && stamp.equals(entry.stamp));
+            if (cached != null) {
+                return cached;
+            }
+            content = StreamUtil.readStream(streams.iterator().next());
+        } catch (IOException e) {
+            return reader.read(resourceAccessor);
+        }
+
+        String contentHash = MD5Util.computeMD5(new ByteArrayInputStream(content));
+        T cached = get(physicalPath, type, entry -> entry.contentHash.equals(contentHash));
+        if (cached != null) {
+            synchronized (this) {
+                Entry entry = entries.get(physicalPath);
+                if ((entry != null) && entry.contentHash.equals(contentHash)) {
+                    entries.put(physicalPath, new Entry(stamp, contentHash, entry.value));
+                    dirty = true;
+                }
+            }
+            return cached;
+        }
+
+        T value = reader.read(new ContentResourceAccessor(resourceAccessor, physicalPath, content));
+        put(physicalPath, stamp, contentHash, value);
+        return value;
+    }
+
+    private synchronized <T> T get(String physicalPath, Class<T> type, Predicate<Entry> matches) {
+        if (!ensureLoaded()) {
+            return null;
+        }
+        Entry entry = entries.get(physicalPath);
+        if ((entry == null) || !matches.test(entry)) {
+            return null;
+        }
+        try {
+            Object value = readValue(new DataInputStream(new ByteArrayInputStream(entry.value)));
+            if (type.isInstance(value)) {
+                return type.cast(value);
+            }
+        } catch (IOException | ParsedNodeException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot read cached changelog " + physicalPath + ": " + e.getMessage(), e);
+        }
+        entries.remove(physicalPath);
+        return null;
+    }
+
+    private synchronized void put(String physicalPath, String stamp, String contentHash, Object value) {
+        if ((value == null) || !ensureLoaded()) {
+            return;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            writeValue(value, new DataOutputStream(bytes));
+            entries.put(physicalPath, new Entry(stamp, contentHash, bytes.toByteArray()));
+            dirty = true;
+        } catch (IOException e) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot cache changelog " + physicalPath + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Returns the location, modification time and size of a local file or a jar entry, or null if they cannot be determined cheaply.
+     * Jar entries use the time and size of the jar file.
+     */
+    private String getStamp(URI uri) {
+        if (uri == null) {
+            return null;
+        }
+        String location = uri.toString();
+        File file = null;
+        try {
+            if ("file".equals(uri.getScheme())) {
+                file = new File(uri);
+            } else if (location.startsWith("jar:file:") && location.contains("!/")) {
+                file = new File(URI.create(location.substring("jar:".length(), location.indexOf("!/"))));
+            }
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if ((file == null) || !file.isFile()) {
+            return null;
+        }
+        return location + "|" + file.lastModified() + "|" + file.length();
+    }
+
+    /**
+     * Marks the start of a changelog parse on the current thread. Nested parses of included files are tracked so the cache
+     * is only written once the outermost parse finishes.
+     */
+    public void startParse() {
+        Integer depth = parseDepth.get();
+        parseDepth.set(depth == null ? 1 : depth + 1);
+    }
+
+    /**
+     * Marks the end of a changelog parse started with {@link #startParse()}, saving the cache if this was the outermost parse.
+     */
+    public void endParse() {
+        Integer depth = parseDepth.get();
+        if ((depth == null) || (depth <= 1)) {
+            parseDepth.remove();
+            save();
+        } else {
+            parseDepth.set(depth - 1);
+        }
+    }
+
+    /**
+     * Returns the number of changelog files currently in the cache.
+     */
+    public synchronized int size() {
+        if (!ensureLoaded()) {
+            return 0;
+        }
+        return entries.size();
+    }
+
+    /**
+     * Writes the cache file if it changed. Failures are logged but not thrown since the cache is only an optimization.
+     */
+    public synchronized void save() {
+        if (!dirty || (loadedFrom == null)) {
+            return;
+        }
+
+        File file = new File(loadedFrom);
+        File parent = file.getAbsoluteFile().getParentFile();
+        if ((parent != null) && !parent.exists()) {
+            parent.mkdirs();
+        }
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            output.writeUTF(FORMAT_HEADER);
+            output.writeInt(FORMAT_VERSION);
+            output.writeUTF(LiquibaseUtil.getBuildVersion());
+            output.writeInt(entries.size());
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                writeString(entry.getKey(), output);
+                writeString(entry.getValue().stamp, output);
+                writeString(entry.getValue().contentHash, output);
+                output.writeInt(entry.getValue().value.length);
+                output.write(entry.getValue().value);
+            }
+            dirty = false;
+        } catch (IOException e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Cannot write changelog cache " + loadedFrom + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Discards all in-memory state. The cache file will be re-read on next use.
+     */
+    public synchronized void reset() {
+        loadedFrom = null;
+        entries.clear();
+        dirty = false;
+    }
+
+    private boolean ensureLoaded() {
+        String cacheFile = StringUtil.trimToNull(ChangeLogParserConfiguration.CHANGELOG_CACHE_FILE.getCurrentValue());
+        if (cacheFile == null) {
+            return false;
+        }
+        if (cacheFile.equals(loadedFrom)) {
+            return true;
+        }
+
+        save();
+        reset();
+        loadedFrom = cacheFile;
+
+        File file = new File(cacheFile);
+        if (!file.exists()) {
+            return true;
+        }
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (!FORMAT_HEADER.equals(input.readUTF())
+                    || (input.readInt() != FORMAT_VERSION)
+                    || !LiquibaseUtil.getBuildVersion().equals(input.readUTF())) {
+                Scope.getCurrentScope().getLog(getClass()).fine("Changelog cache " + cacheFile + " was created by a different Liquibase version. Ignoring it");
+                dirty = true;
+                return true;
+            }
+            int size = input.readInt();
+            for (int i = 0; i < size; i++) {
+                String path = readString(input);
+                String stamp = readString(input);
+                String contentHash = readString(input);
+                byte[] value = new byte[input.readInt()];
+                input.readFully(value);
+                entries.put(path, new Entry(stamp, contentHash, value));
+            }
+        } catch (IOException e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Cannot read changelog cache " + cacheFile + ", ignoring it: " + e.getMessage());
+            entries.clear();
+            dirty = true;
+        }
+        return true;
+    }
+
+    private void writeNode(ParsedNode node, DataOutputStream output) throws IOException {
+        writeString(node.getNamespace(), output);
+        writeString(node.getName(), output);
+        writeValue(node.getValue(), output);
+        output.writeInt(node.getChildren().size());
+        for (ParsedNode child : node.getChildren()) {
+            writeNode(child, output);
+        }
+    }
+
+    private ParsedNode readNode(DataInputStream input) throws IOException, ParsedNodeException {
+        ParsedNode node = new ParsedNode(readString(input), readString(input));
+        Object value = readValue(input);
+        if (value != null) {
+            node.setValue(value);
+        }
+        int children = input.readInt();
+        for (int i = 0; i < children; i++) {
+            node.addChild(readNode(input));
+        }
+        return node;
+    }
+
+    private void writeValue(Object value, DataOutputStream output) throws IOException {
+        if (value == null) {
+            output.writeByte(TYPE_NULL);
+        } else if (value instanceof String) {
+            output.writeByte(TYPE_STRING);
+            writeString((String) value, output);
+        } else if (value instanceof Boolean) {
+            output.writeByte(TYPE_BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        } else if (value instanceof Integer) {
+            output.writeByte(TYPE_INTEGER);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(TYPE_LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof BigInteger) {
+            output.writeByte(TYPE_BIG_INTEGER);
+            writeString(value.toString(), output);
+        } else if (value instanceof BigDecimal) {
+            output.writeByte(TYPE_BIG_DECIMAL);
+            writeString(value.toString(), output);
+        } else if (value instanceof Double) {
+            output.writeByte(TYPE_DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof ParsedNode) {
+            output.writeByte(TYPE_NODE);
+            writeNode((ParsedNode) value, output);
+        } else if (value instanceof Map) {
+            output.writeByte(TYPE_MAP);
+            output.writeInt(((Map<?, ?>) value).size());
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                writeValue(entry.getKey(), output);
+                writeValue(entry.getValue(), output);
+            }
+        } else if (value instanceof List) {
+            output.writeByte(TYPE_LIST);
+            output.writeInt(((List<?>) value).size());
+            for (Object item : (List<?>) value) {
+                writeValue(item, output);
+            }
+        } else if ((value instanceof Date) && (value.getClass() == Date.class)) {
+            output.writeByte(TYPE_DATE);
+            output.writeLong(((Date) value).getTime());
+        } else {
+            throw new IOException("Unsupported value type " + value.getClass().getName());
+        }
+    }
+
+    private Object readValue(DataInputStream input) throws IOException, ParsedNodeException {
+        byte type = input.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_STRING:
+                return readString(input);
+            case TYPE_BOOLEAN:
+                return input.readBoolean();
+            case TYPE_INTEGER:
+                return input.readInt();
+            case TYPE_LONG:
+                return input.readLong();
+            case TYPE_BIG_INTEGER:
+                return new BigInteger(readString(input));
+            case TYPE_BIG_DECIMAL:
+                return new BigDecimal(readString(input));
+            case TYPE_DOUBLE:
+                return input.readDouble();
+            case TYPE_NODE:
+                return readNode(input);
+            case TYPE_MAP:
+                int mapSize = input.readInt();
+                Map<Object, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < mapSize; i++) {
+                    map.put(readValue(input), readValue(input));
+                }
+                return map;
+            case TYPE_LIST:
+                int listSize = input.readInt();
+                List<Object> list = new ArrayList<>(listSize);
+                for (int i = 0; i < listSize; i++) {
+                    list.add(readValue(input));
+                }
+                return list;
+            case TYPE_DATE:
+                return new Date(input.readLong());
+            default:
+                throw new IOException("Unknown value type " + type);
+        }
+    }
+
+    /**
+     * Writes a nullable string. {@link DataOutputStream#writeUTF(String)} is limited to 64k which is too small for SQL bodies.
+     */
+    private void writeString(String value, DataOutputStream output) throws IOException {
+        if (value == null) {
+            output.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private String readString(DataInputStream input) throws IOException {
+        int length = input.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a changelog file into the object to cache.
+     */
+    @FunctionalInterface
+    public interface ContentReader<T> {
+
+        /**
+         * Reads the file from the given resource accessor, which returns the content already read by the cache for the file, if any.
+         */
+        T read(ResourceAccessor resourceAccessor) throws ChangeLogParseException;
+    }
+
+    private static class Entry {
+        private final String stamp;
+        private final String contentHash;
+        private final byte[] value;
+
+        private Entry(String stamp, String contentHash, byte[] value) {
+            this.stamp = stamp;
+            this.contentHash = contentHash;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Serves the content read by the cache for the changelog file so it is not read a second time.
+     */
+    private static class ContentResourceAccessor extends AbstractResourceAccessor {
+        private final ResourceAccessor delegate;
+        private final String physicalPath;
+        private final byte[] content;
+
+        private ContentResourceAccessor(ResourceAccessor delegate, String physicalPath, byte[] content) {
+            this.delegate = delegate;
+            this.physicalPath = physicalPath;
+            this.content = content;
+        }
+
+        @Override
+        public InputStream openStream(String relativeTo, String streamPath) throws IOException {
+            if ((relativeTo == null) && physicalPath.equals(streamPath)) {
+                return new ByteArrayInputStream(content);
+            }
+            return delegate.openStream(relativeTo, streamPath);
+        }
+
+        @Override
+        public InputStreamList openStreams(String relativeTo, String streamPath) throws IOException {
+            return delegate.openStreams(relativeTo, streamPath);
+        }
+
+        @Override
+        public SortedSet<String> list(String relativeTo, String path, boolean recursive, boolean includeFiles, boolean includeDirectories) throws IOException {
+            return delegate.list(relativeTo, path, recursive, includeFiles, includeDirectories);
+        }
+
+        @Override
+        public SortedSet<String> describeLocations() {
+            return delegate.describeLocations();
+        }
+    }
+}
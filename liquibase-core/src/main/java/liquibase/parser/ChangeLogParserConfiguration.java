@@ -10,6 +10,8 @@ public class ChangeLogParserConfiguration implements AutoloadedConfigurations {
 
     public static final ConfigurationDefinition<Boolean> SUPPORT_PROPERTY_ESCAPING;
     public static final ConfigurationDefinition<Boolean> USE_PROCEDURE_SCHEMA;
+    public static final ConfigurationDefinition<Integer> INCLUDE_PARSING_THREADS;
+    public static final ConfigurationDefinition<String> CHANGELOG_CACHE_FILE;
 
     static {
         ConfigurationDefinition.Builder builder = new ConfigurationDefinition.Builder("liquibase");
@@ -24,5 +26,14 @@ public class ChangeLogParserConfiguration implements AutoloadedConfigurations {
                 .setDescription("If set to true (default value), createProcedure tags with a set schemaName will modify the procedure body with the given schema name.")
                 .setDefaultValue(true)
                 .build();
+
+        INCLUDE_PARSING_THREADS = builder.define("includeParsingThreads", Integer.class)
+                .setDescription("Number of threads used to read and parse sibling include and includeAll files concurrently. Changesets are still loaded in include order. Values less than 2 parse included files one at a time.")
+                .setDefaultValue(1)
+                .build();
+
+        CHANGELOG_CACHE_FILE = builder.define("changelogCacheFile", String.class)
+                .setDescription("Path to a local file used to cache parsed XML, YAML and JSON changelog files between runs. Unmodified changelog files are read from the cache instead of being parsed again. If not set, changelog files are always parsed.")
+                .build();
     }
 }
@@ -26,6 +26,52 @@ import java.util.regex.Pattern;
 @SuppressWarnings("java:S2583")
 public class FormattedSqlChangeLogParser implements ChangeLogParser {
 
+    private static final Pattern CHANGE_LOG_PATTERN = Pattern.compile("\\-\\-\\s*liquibase formatted.*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PROPERTY_PATTERN = Pattern.compile("\\s*\\-\\-[\\s]*property\\s+(.*:.*)\\s+(.*:.*).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALT_PROPERTY_ONE_DASH_PATTERN = Pattern.compile("\\s*?[-]+.*property\\s.*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CHANGE_SET_PATTERN = Pattern.compile("\\s*\\-\\-[\\s]*changeset\\s+(\"[^\"]+\"|[^:]+):\\s*(\"[^\"]+\"|\\S+).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALT_CHANGE_SET_ONE_DASH_PATTERN = Pattern.compile("\\-[\\s]*changeset\\s.*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALT_CHANGE_SET_NO_OTHER_INFO_PATTERN = Pattern.compile("\\s*\\-\\-[\\s]*changeset[\\s]*.*$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ROLLBACK_PATTERN = Pattern.compile("\\s*\\-\\-[\\s]*rollback (.*)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALT_ROLLBACK_ONE_DASH_PATTERN = Pattern.compile("\\s*\\-[\\s]*rollback\\s.*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PRECONDITIONS_PATTERN = Pattern.compile("\\s*\\-\\-[\\s]*preconditions(.*)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALT_PRECONDITIONS_ONE_DASH_PATTERN = Pattern.compile("\\s*\\-[\\s]*preconditions\\s.*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PRECONDITION_PATTERN = Pattern.compile("\\s*\\-\\-[\\s]*precondition\\-([a-zA-Z0-9-]+) (.*)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALT_PRECONDITION_ONE_DASH_PATTERN = Pattern.compile("\\s*\\-[\\s]*precondition(.*)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern STRIP_COMMENTS_PATTERN = Pattern.compile(".*stripComments:(\\w+).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern SPLIT_STATEMENTS_PATTERN = Pattern.compile(".*splitStatements:(\\w+).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ROLLBACK_SPLIT_STATEMENTS_PATTERN = Pattern.compile(".*rollbackSplitStatements:(\\w+).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern END_DELIMITER_PATTERN = Pattern.compile(".*endDelimiter:(\\S*).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ROLLBACK_END_DELIMITER_PATTERN = Pattern.compile(".*rollbackEndDelimiter:(\\S*).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COMMENT_PATTERN = Pattern.compile("\\-\\-[\\s]*comment:? (.*)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALT_COMMENT_PLURAL_PATTERN = Pattern.compile("\\-\\-[\\s]*comments:? (.*)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALT_COMMENT_ONE_DASH_PATTERN = Pattern.compile("\\-[\\s]*comment:? (.*)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern VALID_CHECK_SUM_PATTERN = Pattern.compile("\\-\\-[\\s]*validCheckSum:? (.*)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALT_VALID_CHECK_SUM_ONE_DASH_PATTERN = Pattern.compile("^\\-[\\s]*validCheckSum(.*)$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern IGNORE_LINES_PATTERN = Pattern.compile("\\-\\-[\\s]*ignoreLines:(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALT_IGNORE_LINES_ONE_DASH_PATTERN = Pattern.compile("\\-[\\s]*?ignoreLines:(\\w+).*$", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ALT_IGNORE_PATTERN = Pattern.compile("\\-\\-[\\s]*ignore:(\\w+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern RUN_WITH_PATTERN = Pattern.compile(".*runWith:([\\w\\$\\{\\}]+).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern RUN_ON_CHANGE_PATTERN = Pattern.compile(".*runOnChange:(\\w+).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern RUN_ALWAYS_PATTERN = Pattern.compile(".*runAlways:(\\w+).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CONTEXT_PATTERN = Pattern.compile(".*context:(\".*\"|\\S*).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LOGICAL_FILE_PATH_PATTERN = Pattern.compile(".*logicalFilePath:(\\S*).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CHANGE_LOG_ID_PATTERN = Pattern.compile(".*changeLogId:(\\S*).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LABELS_PATTERN = Pattern.compile(".*labels:(\\S*).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern RUN_IN_TRANSACTION_PATTERN = Pattern.compile(".*runInTransaction:(\\w+).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern DBMS_PATTERN = Pattern.compile(".*dbms:([^,][\\w!,]+).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern FAIL_ON_ERROR_PATTERN = Pattern.compile(".*failOnError:(\\w+).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ON_FAIL_PATTERN = Pattern.compile(".*onFail:(\\w+).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ON_ERROR_PATTERN = Pattern.compile(".*onError:(\\w+).*", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ON_UPDATE_SQL_PATTERN = Pattern.compile(".*onUpdateSQL:(\\w+).*", Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern FIRST_LINE_PATTERN = Pattern.compile("\\-\\-\\s*liquibase formatted.*");
+    private static final Pattern NOT_REQUIRED_PATTERN = Pattern.compile("^not required.*");
+    private static final Pattern[] SQL_CHECK_PATTERNS = new Pattern[] {
+        Pattern.compile("^(?:expectedResult:)?(\\w+) (.*)", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("^(?:expectedResult:)?'([^']+)' (.*)", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("^(?:expectedResult:)?\"([^\"]+)\" (.*)", Pattern.CASE_INSENSITIVE)
+    };
 
     @Override
     public boolean supports(String changeLogFile, ResourceAccessor resourceAccessor) {
@@ -44,7 +90,7 @@ public class FormattedSqlChangeLogParser implements ChangeLogParser {
                     firstLine = reader.readLine();
                 }
 
-                return (firstLine != null) && firstLine.matches("\\-\\-\\s*liquibase formatted.*");
+                return (firstLine != null) && FIRST_LINE_PATTERN.matcher(firstLine).matches();
             } else {
                 return false;
             }
@@ -81,46 +127,6 @@ public class FormattedSqlChangeLogParser implements ChangeLogParser {
 
             ChangeSet changeSet = null;
             RawSQLChange change = null;
-            Pattern changeLogPattern = Pattern.compile("\\-\\-\\s*liquibase formatted.*", Pattern.CASE_INSENSITIVE);
-            Pattern propertyPattern = Pattern.compile("\\s*\\-\\-[\\s]*property\\s+(.*:.*)\\s+(.*:.*).*", Pattern.CASE_INSENSITIVE);
-            Pattern altPropertyOneDashPattern = Pattern.compile("\\s*?[-]+.*property\\s.*", Pattern.CASE_INSENSITIVE);
-            Pattern changeSetPattern = Pattern.compile("\\s*\\-\\-[\\s]*changeset\\s+(\"[^\"]+\"|[^:]+):\\s*(\"[^\"]+\"|\\S+).*", Pattern.CASE_INSENSITIVE);
-            Pattern altChangeSetOneDashPattern = Pattern.compile("\\-[\\s]*changeset\\s.*", Pattern.CASE_INSENSITIVE);
-            Pattern altChangeSetNoOtherInfoPattern = Pattern.compile("\\s*\\-\\-[\\s]*changeset[\\s]*.*$", Pattern.CASE_INSENSITIVE);
-            Pattern rollbackPattern = Pattern.compile("\\s*\\-\\-[\\s]*rollback (.*)", Pattern.CASE_INSENSITIVE);
-            Pattern altRollbackOneDashPattern = Pattern.compile("\\s*\\-[\\s]*rollback\\s.*", Pattern.CASE_INSENSITIVE);
-            Pattern preconditionsPattern = Pattern.compile("\\s*\\-\\-[\\s]*preconditions(.*)", Pattern.CASE_INSENSITIVE);
-            Pattern altPreconditionsOneDashPattern = Pattern.compile("\\s*\\-[\\s]*preconditions\\s.*", Pattern.CASE_INSENSITIVE);
-            Pattern preconditionPattern = Pattern.compile("\\s*\\-\\-[\\s]*precondition\\-([a-zA-Z0-9-]+) (.*)", Pattern.CASE_INSENSITIVE);
-            Pattern altPreconditionOneDashPattern = Pattern.compile("\\s*\\-[\\s]*precondition(.*)", Pattern.CASE_INSENSITIVE);
-
-            Pattern stripCommentsPattern = Pattern.compile(".*stripComments:(\\w+).*", Pattern.CASE_INSENSITIVE);
-            Pattern splitStatementsPattern = Pattern.compile(".*splitStatements:(\\w+).*", Pattern.CASE_INSENSITIVE);
-            Pattern rollbackSplitStatementsPattern = Pattern.compile(".*rollbackSplitStatements:(\\w+).*", Pattern.CASE_INSENSITIVE);
-            Pattern endDelimiterPattern = Pattern.compile(".*endDelimiter:(\\S*).*", Pattern.CASE_INSENSITIVE);
-            Pattern rollbackEndDelimiterPattern = Pattern.compile(".*rollbackEndDelimiter:(\\S*).*", Pattern.CASE_INSENSITIVE);
-            Pattern commentPattern = Pattern.compile("\\-\\-[\\s]*comment:? (.*)", Pattern.CASE_INSENSITIVE);
-            Pattern altCommentPluralPattern = Pattern.compile("\\-\\-[\\s]*comments:? (.*)", Pattern.CASE_INSENSITIVE);
-            Pattern altCommentOneDashPattern = Pattern.compile("\\-[\\s]*comment:? (.*)", Pattern.CASE_INSENSITIVE);
-            Pattern validCheckSumPattern = Pattern.compile("\\-\\-[\\s]*validCheckSum:? (.*)", Pattern.CASE_INSENSITIVE);
-            Pattern altValidCheckSumOneDashPattern = Pattern.compile("^\\-[\\s]*validCheckSum(.*)$", Pattern.CASE_INSENSITIVE);
-            Pattern ignoreLinesPattern = Pattern.compile("\\-\\-[\\s]*ignoreLines:(\\w+)", Pattern.CASE_INSENSITIVE);
-            Pattern altIgnoreLinesOneDashPattern = Pattern.compile("\\-[\\s]*?ignoreLines:(\\w+).*$", Pattern.CASE_INSENSITIVE);
-            Pattern altIgnorePattern = Pattern.compile("\\-\\-[\\s]*ignore:(\\w+)", Pattern.CASE_INSENSITIVE);
-            Pattern runWithPattern = Pattern.compile(".*runWith:([\\w\\$\\{\\}]+).*", Pattern.CASE_INSENSITIVE);
-
-            Pattern runOnChangePattern = Pattern.compile(".*runOnChange:(\\w+).*", Pattern.CASE_INSENSITIVE);
-            Pattern runAlwaysPattern = Pattern.compile(".*runAlways:(\\w+).*", Pattern.CASE_INSENSITIVE);
-            Pattern contextPattern = Pattern.compile(".*context:(\".*\"|\\S*).*", Pattern.CASE_INSENSITIVE);
-            Pattern logicalFilePathPattern = Pattern.compile(".*logicalFilePath:(\\S*).*", Pattern.CASE_INSENSITIVE);
-            Pattern changeLogIdPattern = Pattern.compile(".*changeLogId:(\\S*).*", Pattern.CASE_INSENSITIVE);
-            Pattern labelsPattern = Pattern.compile(".*labels:(\\S*).*", Pattern.CASE_INSENSITIVE);
-            Pattern runInTransactionPattern = Pattern.compile(".*runInTransaction:(\\w+).*", Pattern.CASE_INSENSITIVE);
-            Pattern dbmsPattern = Pattern.compile(".*dbms:([^,][\\w!,]+).*", Pattern.CASE_INSENSITIVE);
-            Pattern failOnErrorPattern = Pattern.compile(".*failOnError:(\\w+).*", Pattern.CASE_INSENSITIVE);
-            Pattern onFailPattern = Pattern.compile(".*onFail:(\\w+).*", Pattern.CASE_INSENSITIVE);
-            Pattern onErrorPattern = Pattern.compile(".*onError:(\\w+).*", Pattern.CASE_INSENSITIVE);
-            Pattern onUpdateSqlPattern = Pattern.compile(".*onUpdateSQL:(\\w+).*", Pattern.CASE_INSENSITIVE);
 
             Matcher rollbackSplitStatementsPatternMatcher=null;
             boolean rollbackSplitStatements = true;
@@ -130,9 +136,17 @@ public class FormattedSqlChangeLogParser implements ChangeLogParser {
             String line;
             while ((line = reader.readLine()) != null) {
                 count++;
-                Matcher commentMatcher = commentPattern.matcher(line);
-                Matcher propertyPatternMatcher = propertyPattern.matcher(line);
-                Matcher altPropertyPatternMatcher = altPropertyOneDashPattern.matcher(line);
+                if (!isDirectiveCandidate(line)) {
+                    //none of the patterns can match, so this is plain sql
+                    if (changeSet != null) {
+                        currentSql.append(line).append(System.lineSeparator());
+                    }
+                    continue;
+                }
+
+                Matcher commentMatcher = COMMENT_PATTERN.matcher(line);
+                Matcher propertyPatternMatcher = PROPERTY_PATTERN.matcher(line);
+                Matcher altPropertyPatternMatcher = ALT_PROPERTY_ONE_DASH_PATTERN.matcher(line);
                 if (propertyPatternMatcher.matches()) {
                     handleProperty(changeLogParameters, changeLog, propertyPatternMatcher);
                     continue;
@@ -140,24 +154,24 @@ public class FormattedSqlChangeLogParser implements ChangeLogParser {
                     String message = String.format("Unexpected formatting at line %d. Formatted SQL changelogs require known formats, such as '--property name=<property name> value=<property value>' and others to be recognized and run. Learn all the options at https://docs.liquibase.com/concepts/changelogs/sql-format.html", count);
                     throw new ChangeLogParseException("\n" + message);
                 }
-                Matcher changeLogPatterMatcher = changeLogPattern.matcher (line);
+                Matcher changeLogPatterMatcher = CHANGE_LOG_PATTERN.matcher (line);
                 if (changeLogPatterMatcher.matches ()) {
-                    Matcher logicalFilePathMatcher = logicalFilePathPattern.matcher (line);
+                    Matcher logicalFilePathMatcher = LOGICAL_FILE_PATH_PATTERN.matcher (line);
                     changeLog.setLogicalFilePath (parseString(logicalFilePathMatcher));
 
-                    Matcher changeLogIdMatcher = changeLogIdPattern.matcher (line);
+                    Matcher changeLogIdMatcher = CHANGE_LOG_ID_PATTERN.matcher (line);
                     changeLog.setChangeLogId (parseString(changeLogIdMatcher));
                 }
 
-                Matcher ignoreLinesMatcher = ignoreLinesPattern.matcher(line);
-                Matcher altIgnoreMatcher = altIgnorePattern.matcher(line);
-                Matcher altIgnoreLinesOneDashMatcher = altIgnoreLinesOneDashPattern.matcher(line);
+                Matcher ignoreLinesMatcher = IGNORE_LINES_PATTERN.matcher(line);
+                Matcher altIgnoreMatcher = ALT_IGNORE_PATTERN.matcher(line);
+                Matcher altIgnoreLinesOneDashMatcher = ALT_IGNORE_LINES_ONE_DASH_PATTERN.matcher(line);
                 if (ignoreLinesMatcher.matches ()) {
                     if ("start".equals(ignoreLinesMatcher.group(1))){
                         while ((line = reader.readLine()) != null){
-                            altIgnoreLinesOneDashMatcher = altIgnoreLinesOneDashPattern.matcher(line);
+                            altIgnoreLinesOneDashMatcher = ALT_IGNORE_LINES_ONE_DASH_PATTERN.matcher(line);
                             count++;
-                            ignoreLinesMatcher = ignoreLinesPattern.matcher(line);
+                            ignoreLinesMatcher = IGNORE_LINES_PATTERN.matcher(line);
                             if (ignoreLinesMatcher.matches ()) {
                                 if ("end".equals(ignoreLinesMatcher.group(1))){
                                     break;
@@ -191,7 +205,7 @@ public class FormattedSqlChangeLogParser implements ChangeLogParser {
                     throw new ChangeLogParseException("\n" + message);
                 }
 
-                Matcher changeSetPatternMatcher = changeSetPattern.matcher(line);
+                Matcher changeSetPatternMatcher = CHANGE_SET_PATTERN.matcher(line);
                 if (changeSetPatternMatcher.matches()) {
                     String finalCurrentSql = changeLogParameters.expandExpressions(StringUtil.trimToNull(currentSql.toString()), changeLog);
                     if (changeSet != null) {
@@ -203,7 +217,7 @@ public class FormattedSqlChangeLogParser implements ChangeLogParser {
                         change.setSql(finalCurrentSql);
 
                         if (StringUtil.trimToNull(currentRollbackSql.toString()) != null) {
-                            if (currentRollbackSql.toString().trim().toLowerCase().matches("^not required.*")) {
+                            if (NOT_REQUIRED_PATTERN.matcher(currentRollbackSql.toString().trim().toLowerCase()).matches()) {
                                 changeSet.addRollbackChange(new EmptyChange());
                             } else {
                                 RawSQLChange rollbackChange = new RawSQLChange();
@@ -219,21 +233,21 @@ public class FormattedSqlChangeLogParser implements ChangeLogParser {
                         }
                     }
 
-                    Matcher stripCommentsPatternMatcher = stripCommentsPattern.matcher(line);
-                    Matcher splitStatementsPatternMatcher = splitStatementsPattern.matcher(line);
-                    Matcher runWithMatcher = runWithPattern.matcher(line);
-                    rollbackSplitStatementsPatternMatcher = rollbackSplitStatementsPattern.matcher(line);
-                    Matcher endDelimiterPatternMatcher = endDelimiterPattern.matcher(line);
-                    Matcher rollbackEndDelimiterPatternMatcher = rollbackEndDelimiterPattern.matcher(line);
-
-                    Matcher logicalFilePathMatcher = logicalFilePathPattern.matcher (line);
-                    Matcher runOnChangePatternMatcher = runOnChangePattern.matcher(line);
-                    Matcher runAlwaysPatternMatcher = runAlwaysPattern.matcher(line);
-                    Matcher contextPatternMatcher = contextPattern.matcher(line);
-                    Matcher labelsPatternMatcher = labelsPattern.matcher(line);
-                    Matcher runInTransactionPatternMatcher = runInTransactionPattern.matcher(line);
-                    Matcher dbmsPatternMatcher = dbmsPattern.matcher(line);
-                    Matcher failOnErrorPatternMatcher = failOnErrorPattern.matcher(line);
+                    Matcher stripCommentsPatternMatcher = STRIP_COMMENTS_PATTERN.matcher(line);
+                    Matcher splitStatementsPatternMatcher = SPLIT_STATEMENTS_PATTERN.matcher(line);
+                    Matcher runWithMatcher = RUN_WITH_PATTERN.matcher(line);
+                    rollbackSplitStatementsPatternMatcher = ROLLBACK_SPLIT_STATEMENTS_PATTERN.matcher(line);
+                    Matcher endDelimiterPatternMatcher = END_DELIMITER_PATTERN.matcher(line);
+                    Matcher rollbackEndDelimiterPatternMatcher = ROLLBACK_END_DELIMITER_PATTERN.matcher(line);
+
+                    Matcher logicalFilePathMatcher = LOGICAL_FILE_PATH_PATTERN.matcher (line);
+                    Matcher runOnChangePatternMatcher = RUN_ON_CHANGE_PATTERN.matcher(line);
+                    Matcher runAlwaysPatternMatcher = RUN_ALWAYS_PATTERN.matcher(line);
+                    Matcher contextPatternMatcher = CONTEXT_PATTERN.matcher(line);
+                    Matcher labelsPatternMatcher = LABELS_PATTERN.matcher(line);
+                    Matcher runInTransactionPatternMatcher = RUN_IN_TRANSACTION_PATTERN.matcher(line);
+                    Matcher dbmsPatternMatcher = DBMS_PATTERN.matcher(line);
+                    Matcher failOnErrorPatternMatcher = FAIL_ON_ERROR_PATTERN.matcher(line);
 
                     boolean stripComments = parseBoolean(stripCommentsPatternMatcher, changeSet, true);
                     boolean splitStatements = parseBoolean(splitStatementsPatternMatcher, changeSet, true);
@@ -277,14 +291,7 @@ public class FormattedSqlChangeLogParser implements ChangeLogParser {
                     String idGroup = changeSetPatternMatcher.group(2);
                     String authorGroup = changeSetPatternMatcher.group(1);
 
-                    //
-                    // Use Pattern.Quote to escape the meta-characters
-                    // <([{\^-=$!|]})?*+.>
-                    //
-                    Pattern changeSetAuthorIdPattern =
-                            Pattern.compile("\\s*\\-\\-[\\s]*changeset\\s+" + Pattern.quote(authorGroup+ ":" + idGroup) + ".*$", Pattern.CASE_INSENSITIVE);
-                    Matcher changeSetAuthorIdPatternMatcher = changeSetAuthorIdPattern.matcher(line);
-                    if (! changeSetAuthorIdPatternMatcher.matches()) {
+                    if (changeSetPatternMatcher.start(2) != (changeSetPatternMatcher.end(1) + 1)) {
                         String message =
                                 String.format("Unexpected formatting at line %d. Formatted SQL changelogs require known formats, such as '--changeset <authorname>:<changesetId>' and others to be recognized and run. Learn all the options at https://docs.liquibase.com/concepts/changelogs/sql-format.html", count);
                         throw new ChangeLogParseException("\n" + message);
@@ -313,23 +320,23 @@ public class FormattedSqlChangeLogParser implements ChangeLogParser {
                     currentSql.setLength(0);
                     currentRollbackSql.setLength(0);
                 } else {
-                    Matcher altChangeSetOneDashPatternMatcher = altChangeSetOneDashPattern.matcher(line);
-                    Matcher altChangeSetNoOtherInfoPatternMatcher = altChangeSetNoOtherInfoPattern.matcher(line);
+                    Matcher altChangeSetOneDashPatternMatcher = ALT_CHANGE_SET_ONE_DASH_PATTERN.matcher(line);
+                    Matcher altChangeSetNoOtherInfoPatternMatcher = ALT_CHANGE_SET_NO_OTHER_INFO_PATTERN.matcher(line);
                     if (altChangeSetOneDashPatternMatcher.matches() || altChangeSetNoOtherInfoPatternMatcher.matches()) {
                         String message = String.format("Unexpected formatting at line %d. Formatted SQL changelogs require known formats, such as '--changeset <authorname>:<changesetId>' and others to be recognized and run. Learn all the options at https://docs.liquibase.com/concepts/changelogs/sql-format.html", count);
                         throw new ChangeLogParseException("\n" + message);
                     }
                     if (changeSet != null) {
-                        Matcher altCommentOneDashMatcher = altCommentOneDashPattern.matcher(line);
-                        Matcher altCommentPluralMatcher = altCommentPluralPattern.matcher(line);
-                        Matcher rollbackMatcher = rollbackPattern.matcher(line);
-                        Matcher altRollbackMatcher = altRollbackOneDashPattern.matcher(line);
-                        Matcher preconditionsMatcher = preconditionsPattern.matcher(line);
-                        Matcher altPreconditionsOneDashMatcher = altPreconditionsOneDashPattern.matcher(line);
-                        Matcher preconditionMatcher = preconditionPattern.matcher(line);
-                        Matcher altPreconditionOneDashMatcher = altPreconditionOneDashPattern.matcher(line);
-                        Matcher validCheckSumMatcher = validCheckSumPattern.matcher(line);
-                        Matcher altValidCheckSumOneDashMatcher = altValidCheckSumOneDashPattern.matcher(line);
+                        Matcher altCommentOneDashMatcher = ALT_COMMENT_ONE_DASH_PATTERN.matcher(line);
+                        Matcher altCommentPluralMatcher = ALT_COMMENT_PLURAL_PATTERN.matcher(line);
+                        Matcher rollbackMatcher = ROLLBACK_PATTERN.matcher(line);
+                        Matcher altRollbackMatcher = ALT_ROLLBACK_ONE_DASH_PATTERN.matcher(line);
+                        Matcher preconditionsMatcher = PRECONDITIONS_PATTERN.matcher(line);
+                        Matcher altPreconditionsOneDashMatcher = ALT_PRECONDITIONS_ONE_DASH_PATTERN.matcher(line);
+                        Matcher preconditionMatcher = PRECONDITION_PATTERN.matcher(line);
+                        Matcher altPreconditionOneDashMatcher = ALT_PRECONDITION_ONE_DASH_PATTERN.matcher(line);
+                        Matcher validCheckSumMatcher = VALID_CHECK_SUM_PATTERN.matcher(line);
+                        Matcher altValidCheckSumOneDashMatcher = ALT_VALID_CHECK_SUM_ONE_DASH_PATTERN.matcher(line);
 
                         if (commentMatcher.matches()) {
                             if (commentMatcher.groupCount() == 0) {
@@ -368,9 +375,9 @@ public class FormattedSqlChangeLogParser implements ChangeLogParser {
                             }
                             if (preconditionsMatcher.groupCount() == 1) {
                                 String body = preconditionsMatcher.group(1);
-                                Matcher onFailMatcher = onFailPattern.matcher(body);
-                                Matcher onErrorMatcher = onErrorPattern.matcher(body);
-                                Matcher onUpdateSqlMatcher = onUpdateSqlPattern.matcher(body);
+                                Matcher onFailMatcher = ON_FAIL_PATTERN.matcher(body);
+                                Matcher onErrorMatcher = ON_ERROR_PATTERN.matcher(body);
+                                Matcher onUpdateSqlMatcher = ON_UPDATE_SQL_PATTERN.matcher(body);
 
                                 PreconditionContainer pc = new PreconditionContainer();
                                 pc.setOnFail(StringUtil.trimToNull(parseString(onFailMatcher)));
@@ -422,7 +429,7 @@ public class FormattedSqlChangeLogParser implements ChangeLogParser {
                 }
 
                 if (StringUtil.trimToNull(currentRollbackSql.toString()) != null) {
-                    if (currentRollbackSql.toString().trim().toLowerCase().matches("^not required.*")) {
+                    if (NOT_REQUIRED_PATTERN.matcher(currentRollbackSql.toString().trim().toLowerCase()).matches()) {
                         changeSet.addRollbackChange(new EmptyChange());
                     } else {
                         RawSQLChange rollbackChange = new RawSQLChange();
@@ -484,13 +491,24 @@ public class FormattedSqlChangeLogParser implements ChangeLogParser {
         return changelogFile.endsWith(".sql");
     }
 
+    /**
+     * Returns false if the line cannot be a formatted sql directive: every directive pattern starts with a dash after optional whitespace.
+     */
+    private static boolean isDirectiveCandidate(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '-') {
+                return true;
+            }
+            if ((c != ' ') && (c != '\t') && (c != '\n') && (c != '\u000B') && (c != '\f') && (c != '\r')) {
+                return false;
+            }
+        }
+        return false;
+    }
+
     private SqlPrecondition parseSqlCheckCondition(String body) throws ChangeLogParseException{
-        Pattern[] patterns = new Pattern[] {
-            Pattern.compile("^(?:expectedResult:)?(\\w+) (.*)", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("^(?:expectedResult:)?'([^']+)' (.*)", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("^(?:expectedResult:)?\"([^\"]+)\" (.*)", Pattern.CASE_INSENSITIVE)
-        };
-        for (Pattern pattern : patterns) {
+        for (Pattern pattern : SQL_CHECK_PATTERNS) {
             Matcher matcher = pattern.matcher(body);
             if (matcher.matches() && (matcher.groupCount() == 2)) {
                 SqlPrecondition p = new SqlPrecondition();
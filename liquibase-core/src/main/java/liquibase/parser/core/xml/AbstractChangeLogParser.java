@@ -1,8 +1,10 @@
 package liquibase.parser.core.xml;
 
+import liquibase.Scope;
 import liquibase.changelog.ChangeLogParameters;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.exception.ChangeLogParseException;
+import liquibase.parser.ChangeLogCache;
 import liquibase.parser.ChangeLogParser;
 import liquibase.parser.core.ParsedNode;
 import liquibase.resource.ResourceAccessor;
@@ -12,7 +14,21 @@ public abstract class AbstractChangeLogParser implements ChangeLogParser {
     @Override
     public DatabaseChangeLog parse(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters,
                                    ResourceAccessor resourceAccessor) throws ChangeLogParseException {
-        ParsedNode parsedNode = parseToNode(physicalChangeLogLocation, changeLogParameters, resourceAccessor);
+        ChangeLogCache changeLogCache = Scope.getCurrentScope().getSingleton(ChangeLogCache.class);
+        changeLogCache.startParse();
+        try {
+            ParsedNode parsedNode = preParse(physicalChangeLogLocation, changeLogParameters, resourceAccessor);
+            return parse(physicalChangeLogLocation, changeLogParameters, resourceAccessor, parsedNode);
+        } finally {
+            changeLogCache.endParse();
+        }
+    }
+
+    /**
+     * Creates the {@link DatabaseChangeLog} from a node already returned by {@link #preParse(String, ChangeLogParameters, ResourceAccessor)}.
+     */
+    public DatabaseChangeLog parse(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters,
+                                   ResourceAccessor resourceAccessor, ParsedNode parsedNode) throws ChangeLogParseException {
         if (parsedNode == null) {
             return null;
         }
@@ -28,6 +44,17 @@ public abstract class AbstractChangeLogParser implements ChangeLogParser {
         return changeLog;
     }
 
+    /**
+     * Reads the file into a {@link ParsedNode} without loading it into a {@link DatabaseChangeLog}, using the {@link ChangeLogCache} if it is enabled.
+     * This can be called from a different thread than the final {@link #parse(String, ChangeLogParameters, ResourceAccessor, ParsedNode)} call,
+     * so {@link #parseToNode(String, ChangeLogParameters, ResourceAccessor)} implementations must not depend on the current changelog parameter values.
+     */
+    public ParsedNode preParse(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters,
+                               ResourceAccessor resourceAccessor) throws ChangeLogParseException {
+        return Scope.getCurrentScope().getSingleton(ChangeLogCache.class).read(physicalChangeLogLocation, resourceAccessor, ParsedNode.class,
+                accessor -> parseToNode(physicalChangeLogLocation, changeLogParameters, accessor));
+    }
+
     protected abstract ParsedNode parseToNode(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters,
                                               ResourceAccessor resourceAccessor) throws ChangeLogParseException;
 }
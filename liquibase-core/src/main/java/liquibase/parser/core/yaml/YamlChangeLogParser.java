@@ -2,10 +2,12 @@ package liquibase.parser.core.yaml;
 
 import liquibase.ContextExpression;
 import liquibase.Labels;
+import liquibase.Scope;
 import liquibase.changelog.ChangeLogParameters;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.exception.ChangeLogParseException;
 import liquibase.exception.LiquibaseException;
+import liquibase.parser.ChangeLogCache;
 import liquibase.parser.ChangeLogParser;
 import liquibase.parser.core.ParsedNode;
 import liquibase.resource.ResourceAccessor;
@@ -22,12 +24,19 @@ public class YamlChangeLogParser extends YamlParser implements ChangeLogParser {
     public DatabaseChangeLog parse(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
         Yaml yaml = new Yaml(new SafeConstructor());
 
-        try (InputStream changeLogStream = resourceAccessor.openStream(null, physicalChangeLogLocation)) {
-            if (changeLogStream == null) {
-                throw new ChangeLogParseException(physicalChangeLogLocation + " does not exist");
-            }
-    
-            Map parsedYaml = parseYamlStream(physicalChangeLogLocation, yaml, changeLogStream);
+        ChangeLogCache changeLogCache = Scope.getCurrentScope().getSingleton(ChangeLogCache.class);
+        changeLogCache.startParse();
+        try {
+            Map parsedYaml = changeLogCache.read(physicalChangeLogLocation, resourceAccessor, Map.class, accessor -> {
+                try (InputStream changeLogStream = accessor.openStream(null, physicalChangeLogLocation)) {
+                    if (changeLogStream == null) {
+                        throw new ChangeLogParseException(physicalChangeLogLocation + " does not exist");
+                    }
+                    return parseYamlStream(physicalChangeLogLocation, yaml, changeLogStream);
+                } catch (IOException e) {
+                    throw new ChangeLogParseException("Error parsing " + physicalChangeLogLocation, e);
+                }
+            });
 
             if ((parsedYaml == null) || parsedYaml.isEmpty()) {
                 throw new ChangeLogParseException("Empty file " + physicalChangeLogLocation);
@@ -87,6 +96,8 @@ public class YamlChangeLogParser extends YamlParser implements ChangeLogParser {
             throw e;
         } catch (Exception e) {
             throw new ChangeLogParseException("Error parsing "+physicalChangeLogLocation, e);
+        } finally {
+            changeLogCache.endParse();
         }
     }
     
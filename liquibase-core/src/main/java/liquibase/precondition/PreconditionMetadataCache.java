@@ -0,0 +1,615 @@
+package liquibase.precondition;
+
+import liquibase.CatalogAndSchema;
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.change.AddColumnConfig;
+import liquibase.change.Change;
+import liquibase.change.ColumnConfig;
+import liquibase.change.ConstraintsConfig;
+import liquibase.change.core.*;
+import liquibase.database.Database;
+import liquibase.diff.compare.DatabaseObjectComparatorFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.LoggingExecutor;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.snapshot.InvalidExampleException;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.*;
+import liquibase.util.StringUtil;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Answers the existence checks of preconditions such as tableExists or indexExists from one snapshot per schema
+ * instead of querying the database metadata for every precondition.
+ * <p>
+ * A cache is created for each Liquibase operation if {@link GlobalConfiguration#PRECONDITION_METADATA_CACHE} is set
+ * and is available through {@link #getCurrent(Database)}. A schema is snapshotted the first time a precondition
+ * refers to it. Executed changes update the cached objects in place, so later preconditions see the tables, columns,
+ * keys, indexes, views and sequences they created, renamed or dropped. Changes whose effect is unknown, such as sql
+ * or sqlFile, discard the cached schemas so they are snapshotted again on the next check.
+ */
+public class PreconditionMetadataCache {
+
+    private static final Class<?>[] SNAPSHOT_TYPES = {
+            Table.class, View.class, Column.class, PrimaryKey.class, ForeignKey.class, Index.class, UniqueConstraint.class, Sequence.class
+    };
+
+    /**
+     * Changes which do not create, rename or drop any object checked by preconditions.
+     */
+    private static final Class<?>[] UNSTRUCTURAL_CHANGES = {
+            InsertDataChange.class, LoadDataChange.class, UpdateDataChange.class, DeleteDataChange.class,
+            TagDatabaseChange.class, EmptyChange.class, OutputChange.class, StopChange.class,
+            AddDefaultValueChange.class, DropDefaultValueChange.class, AddNotNullConstraintChange.class,
+            DropNotNullConstraintChange.class, ModifyDataTypeChange.class, AlterSequenceChange.class,
+            SetTableRemarksChange.class, SetColumnRemarksChange.class,
+            CreateProcedureChange.class, DropProcedureChange.class
+    };
+
+    private final Database database;
+    private final Map<String, SchemaObjects> objectsBySchema = new HashMap<>();
+
+    public PreconditionMetadataCache(Database database) {
+        this.database = database;
+    }
+
+    /**
+     * Returns the cache of the current Liquibase operation for the given database, or null if there is none.
+     */
+    public static PreconditionMetadataCache getCurrent(Database database) {
+        PreconditionMetadataCache cache = Scope.getCurrentScope().get(PreconditionMetadataCache.class.getName(), PreconditionMetadataCache.class);
+        if ((cache == null) || (cache.database != database)) {
+            return null;
+        }
+        return cache;
+    }
+
+    /**
+     * Returns true if the given object exists, using the cache of the current operation if there is one and
+     * {@link SnapshotGeneratorFactory#has(DatabaseObject, Database)} otherwise.
+     */
+    public static boolean has(DatabaseObject example, Database database) throws DatabaseException, InvalidExampleException {
+        PreconditionMetadataCache cache = getCurrent(database);
+        if ((cache == null) || isLiquibaseTable(example, database)) {
+            return SnapshotGeneratorFactory.getInstance().has(example, database);
+        }
+        return cache.exists(example);
+    }
+
+    private static boolean isLiquibaseTable(DatabaseObject example, Database database) {
+        return (example instanceof Table) && (example.getName() != null)
+                && (example.getName().equalsIgnoreCase(database.getDatabaseChangeLogTableName())
+                || example.getName().equalsIgnoreCase(database.getDatabaseChangeLogLockTableName()));
+    }
+
+    /**
+     * Returns true if an object matching the example is in the snapshot of its schema.
+     */
+    public synchronized boolean exists(DatabaseObject example) throws DatabaseException, InvalidExampleException {
+        return getObjects(example.getSchema()).find(example) != null;
+    }
+
+    /**
+     * Applies an executed change to the cached schemas.
+     * Does nothing if the change was only written to an output file.
+     */
+    public synchronized void changeExecuted(Change change) {
+        if (objectsBySchema.isEmpty()
+                || (Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database) instanceof LoggingExecutor)) {
+            return;
+        }
+        for (Class<?> type : UNSTRUCTURAL_CHANGES) {
+            if (type.isInstance(change)) {
+                return;
+            }
+        }
+
+        if (change instanceof CreateTableChange) {
+            createTable((CreateTableChange) change);
+        } else if (change instanceof AddColumnChange) {
+            addColumns((AddColumnChange) change);
+        } else if (change instanceof DropTableChange) {
+            dropTable((DropTableChange) change);
+        } else if (change instanceof DropColumnChange) {
+            dropColumns((DropColumnChange) change);
+        } else if (change instanceof RenameTableChange) {
+            RenameTableChange renameTable = (RenameTableChange) change;
+            rename(renameTable.getCatalogName(), renameTable.getSchemaName(), getTable(renameTable.getCatalogName(), renameTable.getSchemaName(), renameTable.getOldTableName()), renameTable.getNewTableName());
+        } else if (change instanceof RenameViewChange) {
+            RenameViewChange renameView = (RenameViewChange) change;
+            View view = new View();
+            view.setName(correct(renameView.getOldViewName(), View.class));
+            view.setSchema(getSchema(renameView.getCatalogName(), renameView.getSchemaName()));
+            rename(renameView.getCatalogName(), renameView.getSchemaName(), view, renameView.getNewViewName());
+        } else if (change instanceof RenameSequenceChange) {
+            RenameSequenceChange renameSequence = (RenameSequenceChange) change;
+            rename(renameSequence.getCatalogName(), renameSequence.getSchemaName(), new Sequence()
+                    .setName(correct(renameSequence.getOldSequenceName(), Sequence.class))
+                    .setSchema(getSchema(renameSequence.getCatalogName(), renameSequence.getSchemaName())), renameSequence.getNewSequenceName());
+        } else if (change instanceof RenameColumnChange) {
+            renameColumn((RenameColumnChange) change);
+        } else if (change instanceof CreateIndexChange) {
+            createIndex((CreateIndexChange) change);
+        } else if (change instanceof DropIndexChange) {
+            DropIndexChange dropIndex = (DropIndexChange) change;
+            Index example = new Index().setName(correct(dropIndex.getIndexName(), Index.class));
+            if (dropIndex.getTableName() != null) {
+                example.setRelation(getTable(dropIndex.getCatalogName(), dropIndex.getSchemaName(), dropIndex.getTableName()));
+            }
+            remove(dropIndex.getCatalogName(), dropIndex.getSchemaName(), example);
+        } else if (change instanceof AddPrimaryKeyChange) {
+            addPrimaryKey((AddPrimaryKeyChange) change);
+        } else if (change instanceof DropPrimaryKeyChange) {
+            DropPrimaryKeyChange dropPrimaryKey = (DropPrimaryKeyChange) change;
+            remove(dropPrimaryKey.getCatalogName(), dropPrimaryKey.getSchemaName(), new PrimaryKey()
+                    .setTable(getTable(dropPrimaryKey.getCatalogName(), dropPrimaryKey.getSchemaName(), dropPrimaryKey.getTableName())));
+        } else if (change instanceof AddUniqueConstraintChange) {
+            addUniqueConstraint((AddUniqueConstraintChange) change);
+        } else if (change instanceof DropUniqueConstraintChange) {
+            DropUniqueConstraintChange dropUniqueConstraint = (DropUniqueConstraintChange) change;
+            remove(dropUniqueConstraint.getCatalogName(), dropUniqueConstraint.getSchemaName(), new UniqueConstraint()
+                    .setName(correct(dropUniqueConstraint.getConstraintName(), UniqueConstraint.class))
+                    .setRelation(getTable(dropUniqueConstraint.getCatalogName(), dropUniqueConstraint.getSchemaName(), dropUniqueConstraint.getTableName())));
+        } else if (change instanceof AddForeignKeyConstraintChange) {
+            addForeignKey((AddForeignKeyConstraintChange) change);
+        } else if (change instanceof DropForeignKeyConstraintChange) {
+            DropForeignKeyConstraintChange dropForeignKey = (DropForeignKeyConstraintChange) change;
+            remove(dropForeignKey.getBaseTableCatalogName(), dropForeignKey.getBaseTableSchemaName(), new ForeignKey()
+                    .setName(correct(dropForeignKey.getConstraintName(), ForeignKey.class))
+                    .setForeignKeyTable(getTable(dropForeignKey.getBaseTableCatalogName(), dropForeignKey.getBaseTableSchemaName(), dropForeignKey.getBaseTableName())));
+        } else if (change instanceof CreateViewChange) {
+            CreateViewChange createView = (CreateViewChange) change;
+            View view = new View();
+            view.setName(correct(createView.getViewName(), View.class));
+            view.setSchema(getSchema(createView.getCatalogName(), createView.getSchemaName()));
+            remove(createView.getCatalogName(), createView.getSchemaName(), view);
+            add(createView.getCatalogName(), createView.getSchemaName(), view);
+        } else if (change instanceof DropViewChange) {
+            DropViewChange dropView = (DropViewChange) change;
+            View view = new View();
+            view.setName(correct(dropView.getViewName(), View.class));
+            view.setSchema(getSchema(dropView.getCatalogName(), dropView.getSchemaName()));
+            remove(dropView.getCatalogName(), dropView.getSchemaName(), view);
+        } else if (change instanceof CreateSequenceChange) {
+            CreateSequenceChange createSequence = (CreateSequenceChange) change;
+            add(createSequence.getCatalogName(), createSequence.getSchemaName(), new Sequence()
+                    .setName(correct(createSequence.getSequenceName(), Sequence.class))
+                    .setSchema(getSchema(createSequence.getCatalogName(), createSequence.getSchemaName())));
+        } else if (change instanceof DropSequenceChange) {
+            DropSequenceChange dropSequence = (DropSequenceChange) change;
+            remove(dropSequence.getCatalogName(), dropSequence.getSchemaName(), new Sequence()
+                    .setName(correct(dropSequence.getSequenceName(), Sequence.class))
+                    .setSchema(getSchema(dropSequence.getCatalogName(), dropSequence.getSchemaName())));
+        } else {
+            Scope.getCurrentScope().getLog(getClass()).fine("Cannot apply " + change.getSerializedObjectName() + " to the precondition metadata cache, discarding it");
+            clear();
+        }
+    }
+
+    /**
+     * Discards all cached schemas.
+     */
+    public synchronized void clear() {
+        objectsBySchema.clear();
+    }
+
+    private SchemaObjects getObjects(Schema schema) throws DatabaseException, InvalidExampleException {
+        CatalogAndSchema catalogAndSchema = ((schema == null) ? database.getDefaultSchema() : schema.toCatalogAndSchema()).customize(database);
+        String key = getKey(catalogAndSchema);
+        SchemaObjects objects = objectsBySchema.get(key);
+        if (objects == null) {
+            SnapshotControl snapshotControl = new SnapshotControl(database, false, (Class<? extends DatabaseObject>[]) SNAPSHOT_TYPES).setWarnIfObjectNotFound(false);
+            DatabaseSnapshot snapshot = SnapshotGeneratorFactory.getInstance().createSnapshot(catalogAndSchema, database, snapshotControl);
+            objects = new SchemaObjects();
+            for (Class<?> type : SNAPSHOT_TYPES) {
+                for (DatabaseObject object : snapshot.get((Class<? extends DatabaseObject>) type)) {
+                    objects.add(object);
+                }
+            }
+            objectsBySchema.put(key, objects);
+        }
+        return objects;
+    }
+
+    private String getKey(CatalogAndSchema catalogAndSchema) {
+        CatalogAndSchema standardized = catalogAndSchema.standardize(database);
+        return standardized.getCatalogName() + "." + standardized.getSchemaName();
+    }
+
+    /**
+     * Returns the cached objects of the given schema, or null if the schema is not cached.
+     */
+    private SchemaObjects getCachedObjects(String catalogName, String schemaName) {
+        return objectsBySchema.get(getKey(new CatalogAndSchema(catalogName, schemaName).customize(database)));
+    }
+
+    private void forget(String catalogName, String schemaName) {
+        objectsBySchema.remove(getKey(new CatalogAndSchema(catalogName, schemaName).customize(database)));
+    }
+
+    private void add(String catalogName, String schemaName, DatabaseObject object) {
+        SchemaObjects objects = getCachedObjects(catalogName, schemaName);
+        if (objects != null) {
+            objects.add(object);
+        }
+    }
+
+    private void remove(String catalogName, String schemaName, DatabaseObject example) {
+        SchemaObjects objects = getCachedObjects(catalogName, schemaName);
+        if (objects == null) {
+            return;
+        }
+        DatabaseObject object = objects.find(example);
+        if (object == null) {
+            return;
+        }
+        objects.remove(object);
+        if (object instanceof PrimaryKey) {
+            objects.remove(((PrimaryKey) object).getBackingIndex());
+        } else if (object instanceof UniqueConstraint) {
+            objects.remove(((UniqueConstraint) object).getBackingIndex());
+        }
+    }
+
+    private Schema getSchema(String catalogName, String schemaName) {
+        CatalogAndSchema catalogAndSchema = new CatalogAndSchema(catalogName, schemaName).customize(database);
+        return new Schema(catalogAndSchema.getCatalogName(), catalogAndSchema.getSchemaName());
+    }
+
+    private Table getTable(String catalogName, String schemaName, String tableName) {
+        Table table = new Table();
+        table.setName(correct(tableName, Table.class));
+        table.setSchema(getSchema(catalogName, schemaName));
+        return table;
+    }
+
+    private String correct(String name, Class<? extends DatabaseObject> type) {
+        return (name == null) ? null : database.correctObjectName(name, type);
+    }
+
+    /**
+     * Returns the cached table, or null and discards the schema if the table is not cached, since the schema no longer
+     * matches the database then.
+     */
+    private Table findTable(String catalogName, String schemaName, String tableName) {
+        SchemaObjects objects = getCachedObjects(catalogName, schemaName);
+        if (objects == null) {
+            return null;
+        }
+        Table table = (Table) objects.find(getTable(catalogName, schemaName, tableName));
+        if (table == null) {
+            forget(catalogName, schemaName);
+        }
+        return table;
+    }
+
+    private List<Column> getColumns(Table table, String columnNames) {
+        List<Column> columns = new ArrayList<>();
+        for (String columnName : StringUtil.splitAndTrim(columnNames, ",")) {
+            columns.add(new Column(correct(columnName, Column.class)).setRelation(table));
+        }
+        return columns;
+    }
+
+    private void createTable(CreateTableChange change) {
+        SchemaObjects objects = getCachedObjects(change.getCatalogName(), change.getSchemaName());
+        if (objects == null) {
+            return;
+        }
+        Table table = getTable(change.getCatalogName(), change.getSchemaName(), change.getTableName());
+        objects.add(table);
+        addColumns(objects, table, change.getColumns());
+    }
+
+    private void addColumns(AddColumnChange change) {
+        Table table = findTable(change.getCatalogName(), change.getSchemaName(), change.getTableName());
+        if (table != null) {
+            addColumns(getCachedObjects(change.getCatalogName(), change.getSchemaName()), table, new ArrayList<ColumnConfig>(change.getColumns()));
+        }
+    }
+
+    /**
+     * Adds the columns and the primary key, unique and foreign key constraints defined on them.
+     */
+    private void addColumns(SchemaObjects objects, Table table, List<ColumnConfig> columnConfigs) {
+        PrimaryKey primaryKey = null;
+        for (ColumnConfig columnConfig : columnConfigs) {
+            Column column = new Column(correct(columnConfig.getName(), Column.class)).setRelation(table);
+            table.getColumns().add(column);
+            objects.add(column);
+
+            ConstraintsConfig constraints = columnConfig.getConstraints();
+            if (constraints == null) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(constraints.isPrimaryKey())) {
+                if (primaryKey == null) {
+                    primaryKey = new PrimaryKey().setName(correct(constraints.getPrimaryKeyName(), PrimaryKey.class)).setTable(table);
+                    primaryKey.setBackingIndex(new Index().setRelation(table).setUnique(true));
+                    objects.add(primaryKey);
+                    objects.add(primaryKey.getBackingIndex());
+                }
+                primaryKey.addColumn(primaryKey.getColumns().size(), column);
+                primaryKey.getBackingIndex().addColumn(column);
+            }
+            if (Boolean.TRUE.equals(constraints.isUnique())) {
+                UniqueConstraint uniqueConstraint = new UniqueConstraint()
+                        .setName(correct(constraints.getUniqueConstraintName(), UniqueConstraint.class))
+                        .setRelation(table)
+                        .addColumn(0, column);
+                uniqueConstraint.setBackingIndex(new Index().setRelation(table).setUnique(true).addColumn(column));
+                objects.add(uniqueConstraint);
+                objects.add(uniqueConstraint.getBackingIndex());
+            }
+            if (constraints.getForeignKeyName() != null) {
+                ForeignKey foreignKey = new ForeignKey()
+                        .setName(correct(constraints.getForeignKeyName(), ForeignKey.class))
+                        .setForeignKeyTable(table)
+                        .addForeignKeyColumn(column);
+                if (constraints.getReferencedTableName() != null) {
+                    Table primaryKeyTable = getTable(constraints.getReferencedTableCatalogName(), constraints.getReferencedTableSchemaName(), constraints.getReferencedTableName());
+                    foreignKey.setPrimaryKeyTable(primaryKeyTable);
+                    foreignKey.setPrimaryKeyColumns(getColumns(primaryKeyTable, constraints.getReferencedColumnNames()));
+                }
+                objects.add(foreignKey);
+            }
+        }
+    }
+
+    private void dropTable(DropTableChange change) {
+        Table table = findTable(change.getCatalogName(), change.getSchemaName(), change.getTableName());
+        if (table == null) {
+            return;
+        }
+        boolean cascade = Boolean.TRUE.equals(change.isCascadeConstraints());
+        getCachedObjects(change.getCatalogName(), change.getSchemaName()).removeIf(object -> (object == table) || (getTable(object) == table)
+                || (cascade && (object instanceof ForeignKey) && isSameTable(((ForeignKey) object).getPrimaryKeyTable(), table)));
+    }
+
+    private void dropColumns(DropColumnChange change) {
+        Table table = findTable(change.getCatalogName(), change.getSchemaName(), change.getTableName());
+        if (table == null) {
+            return;
+        }
+        List<String> columnNames = new ArrayList<>();
+        if (change.getColumnName() != null) {
+            columnNames.add(change.getColumnName());
+        }
+        for (ColumnConfig column : change.getColumns()) {
+            columnNames.add(column.getName());
+        }
+
+        SchemaObjects objects = getCachedObjects(change.getCatalogName(), change.getSchemaName());
+        for (String columnName : columnNames) {
+            Column column = (Column) objects.find(new Column(correct(columnName, Column.class)).setRelation(table));
+            if (column == null) {
+                continue;
+            }
+            objects.remove(column);
+            table.getColumns().remove(column);
+            for (DatabaseObject object : objects.getAll()) {
+                if (getTable(object) == table && getConstrainedColumns(object).contains(column)) {
+                    //databases differ in whether dropping a column drops or changes the indexes and constraints using it
+                    forget(change.getCatalogName(), change.getSchemaName());
+                    return;
+                }
+            }
+        }
+    }
+
+    private void rename(String catalogName, String schemaName, DatabaseObject example, String newName) {
+        SchemaObjects objects = getCachedObjects(catalogName, schemaName);
+        if (objects == null) {
+            return;
+        }
+        DatabaseObject object = objects.find(example);
+        if (object == null) {
+            forget(catalogName, schemaName);
+        } else {
+            //columns, keys and indexes share the object, so they follow the rename
+            objects.rename(object, correct(newName, example.getClass()));
+        }
+    }
+
+    private void renameColumn(RenameColumnChange change) {
+        Table table = findTable(change.getCatalogName(), change.getSchemaName(), change.getTableName());
+        if (table == null) {
+            return;
+        }
+        SchemaObjects objects = getCachedObjects(change.getCatalogName(), change.getSchemaName());
+        DatabaseObject column = objects.find(new Column(correct(change.getOldColumnName(), Column.class)).setRelation(table));
+        if (column == null) {
+            forget(change.getCatalogName(), change.getSchemaName());
+        } else {
+            objects.rename(column, correct(change.getNewColumnName(), Column.class));
+        }
+    }
+
+    private void createIndex(CreateIndexChange change) {
+        Table table = findTable(change.getCatalogName(), change.getSchemaName(), change.getTableName());
+        if (table == null) {
+            return;
+        }
+        Index index = new Index().setName(correct(change.getIndexName(), Index.class)).setRelation(table);
+        for (AddColumnConfig column : change.getColumns()) {
+            index.addColumn(new Column(correct(column.getName(), Column.class)).setRelation(table));
+        }
+        add(change.getCatalogName(), change.getSchemaName(), index);
+    }
+
+    private void addPrimaryKey(AddPrimaryKeyChange change) {
+        Table table = findTable(change.getCatalogName(), change.getSchemaName(), change.getTableName());
+        if (table == null) {
+            return;
+        }
+        PrimaryKey primaryKey = new PrimaryKey().setName(correct(change.getConstraintName(), PrimaryKey.class)).setTable(table);
+        Index backingIndex = new Index().setRelation(table).setUnique(true);
+        for (Column column : getColumns(table, change.getColumnNames())) {
+            primaryKey.addColumn(primaryKey.getColumns().size(), column);
+            backingIndex.addColumn(column);
+        }
+        primaryKey.setBackingIndex(backingIndex);
+        add(change.getCatalogName(), change.getSchemaName(), primaryKey);
+        if (change.getForIndexName() == null) {
+            add(change.getCatalogName(), change.getSchemaName(), backingIndex);
+        }
+    }
+
+    private void addUniqueConstraint(AddUniqueConstraintChange change) {
+        Table table = findTable(change.getCatalogName(), change.getSchemaName(), change.getTableName());
+        if (table == null) {
+            return;
+        }
+        UniqueConstraint uniqueConstraint = new UniqueConstraint()
+                .setName(correct(change.getConstraintName(), UniqueConstraint.class))
+                .setRelation(table)
+                .setColumns(getColumns(table, change.getColumnNames()));
+        Index backingIndex = new Index().setRelation(table).setUnique(true).setColumns(getColumns(table, change.getColumnNames()));
+        uniqueConstraint.setBackingIndex(backingIndex);
+        add(change.getCatalogName(), change.getSchemaName(), uniqueConstraint);
+        if (change.getForIndexName() == null) {
+            add(change.getCatalogName(), change.getSchemaName(), backingIndex);
+        }
+    }
+
+    private void addForeignKey(AddForeignKeyConstraintChange change) {
+        Table table = findTable(change.getBaseTableCatalogName(), change.getBaseTableSchemaName(), change.getBaseTableName());
+        if (table == null) {
+            return;
+        }
+        Table primaryKeyTable = getTable(change.getReferencedTableCatalogName(), change.getReferencedTableSchemaName(), change.getReferencedTableName());
+        add(change.getBaseTableCatalogName(), change.getBaseTableSchemaName(), new ForeignKey()
+                .setName(correct(change.getConstraintName(), ForeignKey.class))
+                .setForeignKeyTable(table)
+                .setForeignKeyColumns(getColumns(table, change.getBaseColumnNames()))
+                .setPrimaryKeyTable(primaryKeyTable)
+                .setPrimaryKeyColumns(getColumns(primaryKeyTable, change.getReferencedColumnNames())));
+    }
+
+    private boolean isSameTable(Table table, Table other) {
+        return (table != null) && ((table == other) || DatabaseObjectComparatorFactory.getInstance().isSameObject(table, other, null, database));
+    }
+
+    /**
+     * Returns the table an object belongs to, or null for tables, views and sequences.
+     */
+    private Relation getTable(DatabaseObject object) {
+        if (object instanceof Column) {
+            return ((Column) object).getRelation();
+        } else if (object instanceof Index) {
+            return ((Index) object).getRelation();
+        } else if (object instanceof PrimaryKey) {
+            return ((PrimaryKey) object).getTable();
+        } else if (object instanceof UniqueConstraint) {
+            return ((UniqueConstraint) object).getRelation();
+        } else if (object instanceof ForeignKey) {
+            return ((ForeignKey) object).getForeignKeyTable();
+        }
+        return null;
+    }
+
+    private List<Column> getConstrainedColumns(DatabaseObject object) {
+        if (object instanceof Index) {
+            return ((Index) object).getColumns();
+        } else if (object instanceof PrimaryKey) {
+            return ((PrimaryKey) object).getColumns();
+        } else if (object instanceof UniqueConstraint) {
+            return ((UniqueConstraint) object).getColumns();
+        } else if (object instanceof ForeignKey) {
+            return ((ForeignKey) object).getForeignKeyColumns();
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * The cached objects of one schema, indexed by type and name so lookups only compare objects which can match.
+     */
+    private class SchemaObjects {
+        private final Set<DatabaseObject> all = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Map<Class<?>, Map<String, List<DatabaseObject>>> byTypeAndName = new HashMap<>();
+
+        private Collection<DatabaseObject> getAll() {
+            return all;
+        }
+
+        private void add(DatabaseObject object) {
+            if (all.add(object)) {
+                getBucket(object.getClass(), object.getName()).add(object);
+            }
+        }
+
+        private void remove(DatabaseObject object) {
+            if ((object != null) && all.remove(object)) {
+                getBucket(object.getClass(), object.getName()).remove(object);
+            }
+        }
+
+        private void removeIf(Predicate<DatabaseObject> filter) {
+            for (DatabaseObject object : new ArrayList<>(all)) {
+                if (filter.test(object)) {
+                    remove(object);
+                }
+            }
+        }
+
+        private void rename(DatabaseObject object, String newName) {
+            remove(object);
+            object.setName(newName);
+            add(object);
+        }
+
+        /**
+         * Returns the cached object matching the example. Only objects of the same type with the same name, or without
+         * a name, are compared, unless the example has no name.
+         */
+        private DatabaseObject find(DatabaseObject example) {
+            Map<String, List<DatabaseObject>> byName = byTypeAndName.get(example.getClass());
+            if (byName == null) {
+                return null;
+            }
+            if (example.getName() == null) {
+                for (List<DatabaseObject> bucket : byName.values()) {
+                    DatabaseObject found = find(bucket, example);
+                    if (found != null) {
+                        return found;
+                    }
+                }
+                return null;
+            }
+            DatabaseObject found = find(byName.get(getNameKey(example.getName())), example);
+            if (found == null) {
+                found = find(byName.get(getNameKey(null)), example);
+            }
+            return found;
+        }
+
+        private DatabaseObject find(List<DatabaseObject> candidates, DatabaseObject example) {
+            if (candidates != null) {
+                for (DatabaseObject candidate : candidates) {
+                    if (DatabaseObjectComparatorFactory.getInstance().isSameObject(example, candidate, null, database)) {
+                        return candidate;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private List<DatabaseObject> getBucket(Class<?> type, String name) {
+            return byTypeAndName.computeIfAbsent(type, key -> new HashMap<>()).computeIfAbsent(getNameKey(name), key -> new ArrayList<>());
+        }
+
+        /**
+         * Names are compared case-insensitively here since the database may or may not be case sensitive,
+         * {@link DatabaseObjectComparatorFactory#isSameObject} decides between objects sharing a key.
+         */
+        private String getNameKey(String name) {
+            return (name == null) ? "" : name.toLowerCase(Locale.US);
+        }
+    }
+}
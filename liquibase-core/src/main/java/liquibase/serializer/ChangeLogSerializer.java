@@ -7,10 +7,24 @@ import liquibase.servicelocator.PrioritizedService;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 public interface ChangeLogSerializer extends LiquibaseSerializer, PrioritizedService {
     <T extends ChangeLogChild> void write(List<T> children, OutputStream out) throws IOException;
 
+    /**
+     * Writes the children as the iterator returns them, so they do not all have to be kept in memory.
+     * The default implementation collects them and calls {@link #write(List, OutputStream)}.
+     */
+    default <T extends ChangeLogChild> void write(Iterator<T> children, OutputStream out) throws IOException {
+        List<T> list = new ArrayList<>();
+        while (children.hasNext()) {
+            list.add(children.next());
+        }
+        write(list, out);
+    }
+
     void append(ChangeSet changeSet, File changeLogFile) throws IOException;
 }
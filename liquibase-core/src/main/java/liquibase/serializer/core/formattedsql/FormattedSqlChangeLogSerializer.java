@@ -18,6 +18,7 @@ import liquibase.sqlgenerator.SqlGeneratorFactory;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.Iterator;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -118,6 +119,15 @@ public class FormattedSqlChangeLogSerializer  implements ChangeLogSerializer {
 
     }
 
+    @Override
+    public <T extends ChangeLogChild> void write(Iterator<T> children, OutputStream out) throws IOException {
+        String encoding = GlobalConfiguration.OUTPUT_FILE_ENCODING.getCurrentValue();
+        out.write("-- liquibase formatted sql\n\n".getBytes(encoding));
+        while (children.hasNext()) {
+            out.write((serialize(children.next(), true) + "\n").getBytes(encoding));
+        }
+    }
+
     @Override
     public void append(ChangeSet changeSet, File changeLogFile) throws IOException {
 
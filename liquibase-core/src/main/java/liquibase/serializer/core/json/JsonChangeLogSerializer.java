@@ -9,6 +9,7 @@ import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.util.Iterator;
 import java.util.List;
 
 public class JsonChangeLogSerializer extends YamlChangeLogSerializer {
@@ -30,6 +31,22 @@ public class JsonChangeLogSerializer extends YamlChangeLogSerializer {
         writer.flush();
     }
 
+    @Override
+    public <T extends ChangeLogChild> void write(Iterator<T> children, OutputStream out) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, GlobalConfiguration.OUTPUT_FILE_ENCODING.getCurrentValue()));
+        writer.write("{ \"databaseChangeLog\": [\n");
+        while (children.hasNext()) {
+            String serialized = serialize(children.next(), true);
+            if (children.hasNext()) {
+                serialized = serialized.replaceFirst("}\\s*$", "},\n");
+            }
+            writer.write(StringUtil.indent(serialized, 2));
+            writer.write("\n");
+        }
+        writer.write("]}");
+        writer.flush();
+    }
+
     @Override
     public String[] getValidFileExtensions() {
         return new String[]{
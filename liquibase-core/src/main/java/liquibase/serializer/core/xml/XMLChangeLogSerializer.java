@@ -27,15 +27,20 @@ import org.w3c.dom.NodeList;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import java.io.BufferedWriter;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -48,6 +53,7 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
     private Document currentChangeLogFileDOM;
 
     private static final String XML_VERSION = "1.1";
+    private static final String CHILDREN_PLACEHOLDER = "liquibase-changelog-children";
     private final LiquibaseEntityResolver resolver = new LiquibaseEntityResolver();
 
     public XMLChangeLogSerializer() {
@@ -90,6 +96,36 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
 
     @Override
     public <T extends ChangeLogChild> void write(List<T> children, OutputStream out) throws IOException {
+        Document doc = createChangeLogDocument();
+        for (T child : children) {
+            doc.getDocumentElement().appendChild(createNode(child));
+        }
+
+        new DefaultXmlWriter().write(doc, out);
+    }
+
+    @Override
+    public <T extends ChangeLogChild> void write(Iterator<T> children, OutputStream out) throws IOException {
+        Document doc = createChangeLogDocument();
+        doc.getDocumentElement().appendChild(doc.createComment(CHILDREN_PLACEHOLDER));
+        ByteArrayOutputStream emptyChangeLog = new ByteArrayOutputStream();
+        new DefaultXmlWriter().write(doc, emptyChangeLog);
+
+        String encoding = GlobalConfiguration.OUTPUT_FILE_ENCODING.getCurrentValue();
+        String lineSeparator = GlobalConfiguration.OUTPUT_LINE_SEPARATOR.getCurrentValue();
+        String[] parts = new String(emptyChangeLog.toByteArray(), encoding).split("[ \\t]*<!--" + CHILDREN_PLACEHOLDER + "-->\\r?\\n?", 2);
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, encoding));
+        writer.write(parts[0]);
+        while (children.hasNext()) {
+            writer.write(StringUtil.indent(serialize(children.next(), true), 4));
+            writer.write(lineSeparator);
+        }
+        writer.write(parts[1]);
+        writer.flush();
+    }
+
+    private Document createChangeLogDocument() {
         DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
         factory.setNamespaceAware(true);
         DocumentBuilder documentBuilder;
@@ -147,12 +183,7 @@ public class XMLChangeLogSerializer implements ChangeLogSerializer {
 
         doc.appendChild(changeLogElement);
         setCurrentChangeLogFileDOM(doc);
-
-        for (T child : children) {
-            doc.getDocumentElement().appendChild(createNode(child));
-        }
-
-        new DefaultXmlWriter().write(doc, out);
+        return doc;
     }
 
     @Override
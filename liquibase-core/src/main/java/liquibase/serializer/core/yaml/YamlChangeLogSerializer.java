@@ -34,6 +34,21 @@ public class YamlChangeLogSerializer extends YamlSerializer implements ChangeLog
         writer.flush();
     }
 
+    @Override
+    public <T extends ChangeLogChild> void write(Iterator<T> children, OutputStream out) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, GlobalConfiguration.OUTPUT_FILE_ENCODING.getCurrentValue()));
+        if (!children.hasNext()) {
+            writer.write(yaml.dumpAsMap(Collections.singletonMap("databaseChangeLog", Collections.emptyList())));
+        } else {
+            writer.write("databaseChangeLog:\n");
+            while (children.hasNext()) {
+                writer.write(yaml.dump(Collections.singletonList(toMap(children.next()))));
+            }
+        }
+        writer.write("\n");
+        writer.flush();
+    }
+
 
     @Override
     public void append(ChangeSet changeSet, File changeLogFile) throws IOException {
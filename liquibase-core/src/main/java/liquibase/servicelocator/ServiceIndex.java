@@ -0,0 +1,142 @@
+package liquibase.servicelocator;
+
+import liquibase.Scope;
+import liquibase.logging.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of the service implementations declared in the META-INF/services files visible to a class loader.
+ * <p>
+ * The service files of an interface are only read and their classes resolved the first time the interface is looked up.
+ * Like {@link java.util.ServiceLoader}, only public classes with a public no-arg constructor are used; the others are dropped
+ * at that point, so later lookups only create the instances.
+ * Use {@link #getInstance(ClassLoader)} to get the shared index of a class loader.
+ * <p>
+ * The class loader and the resolved classes are weakly referenced, so an index does not keep its class loader alive. A class stays
+ * loaded as long as the class loader defining it, so the references are only cleared once the class loader is unloaded.
+ */
+public class ServiceIndex {
+
+    private static final String SERVICES_DIRECTORY = "META-INF/services/";
+
+    private static final Map<ClassLoader, ServiceIndex> INDEXES = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final WeakReference<ClassLoader> classLoader;
+    private final Map<String, List<WeakReference<Class<?>>>> implementations = new ConcurrentHashMap<>();
+
+    protected ServiceIndex(ClassLoader classLoader) {
+        this.classLoader = new WeakReference<>(classLoader);
+    }
+
+    public static ServiceIndex getInstance(ClassLoader classLoader) {
+        return INDEXES.computeIfAbsent(classLoader, ServiceIndex::new);
+    }
+
+    /**
+     * Creates a new instance of every implementation of the given interface, in the order they are declared in the service files.
+     * Implementations which cannot be loaded or created are logged and skipped.
+     */
+    public <T> List<T> createInstances(Class<T> interfaceType) {
+        List<T> instances = new ArrayList<>();
+        Logger log = Scope.getCurrentScope().getLog(getClass());
+        for (WeakReference<Class<?>> reference : implementations.computeIfAbsent(interfaceType.getName(), interfaceName -> findImplementations(interfaceType))) {
+            Class<?> implementation = reference.get();
+            if (implementation == null) {
+                continue;
+            }
+            try {
+                instances.add(interfaceType.cast(implementation.getConstructor().newInstance()));
+                log.fine("Loaded " + interfaceType.getName() + " instance " + implementation.getName());
+            } catch (Throwable e) {
+                log.info("Cannot load service: " + e.getMessage());
+                log.fine(e.getMessage(), e);
+            }
+        }
+        return instances;
+    }
+
+    /**
+     * Returns the names of the implementations of the given interface listed in the service files, without duplicates.
+     */
+    protected Collection<String> findImplementationNames(Class<?> interfaceType) throws IOException {
+        Set<String> names = new LinkedHashSet<>();
+        Enumeration<URL> serviceFiles = getClassLoader().getResources(SERVICES_DIRECTORY + interfaceType.getName());
+        while (serviceFiles.hasMoreElements()) {
+            URL serviceFile = serviceFiles.nextElement();
+            try (InputStream inputStream = serviceFile.openStream();
+                 BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int commentStart = line.indexOf('#');
+                    if (commentStart >= 0) {
+                        line = line.substring(0, commentStart);
+                    }
+                    line = line.trim();
+                    if (!line.isEmpty()) {
+                        names.add(line);
+                    }
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Returns the implementations which can be created, in the order they are declared in the service files.
+     */
+    private List<WeakReference<Class<?>>> findImplementations(Class<?> interfaceType) {
+        Logger log = Scope.getCurrentScope().getLog(getClass());
+        Collection<String> names;
+        try {
+            names = findImplementationNames(interfaceType);
+        } catch (IOException e) {
+            log.info("Cannot read service files for " + interfaceType.getName() + ": " + e.getMessage());
+            log.fine(e.getMessage(), e);
+            return Collections.emptyList();
+        }
+
+        ClassLoader classLoader = getClassLoader();
+        List<WeakReference<Class<?>>> found = new ArrayList<>(names.size());
+        for (String name : names) {
+            try {
+                Class<?> implementation = Class.forName(name, false, classLoader);
+                if (!interfaceType.isAssignableFrom(implementation)) {
+                    log.info("Cannot load service: " + name + " is not a " + interfaceType.getName());
+                    continue;
+                }
+                if (Modifier.isAbstract(implementation.getModifiers())) {
+                    log.info("Cannot load service: " + name + " is abstract");
+                    continue;
+                }
+                if (!Modifier.isPublic(implementation.getModifiers())) {
+                    log.info("Cannot load service: " + name + " is not public");
+                    continue;
+                }
+                implementation.getConstructor();
+                found.add(new WeakReference<>(implementation));
+            } catch (Throwable e) {
+                log.info("Cannot load service: " + e.getMessage());
+                log.fine(e.getMessage(), e);
+            }
+        }
+        return Collections.unmodifiableList(found);
+    }
+
+    private ClassLoader getClassLoader() {
+        ClassLoader loader = classLoader.get();
+        if (loader == null) {
+            throw new IllegalStateException("The class loader of this service index is no longer available");
+        }
+        return loader;
+    }
+}
@@ -2,10 +2,13 @@ package liquibase.servicelocator;
 
 import liquibase.Scope;
 import liquibase.exception.ServiceNotFoundException;
-import liquibase.logging.Logger;
 
 import java.util.*;
 
+/**
+ * Finds implementations through the META-INF/services files of the scope's class loader.
+ * The files are read once per class loader and interface by {@link ServiceIndex}.
+ */
 public class StandardServiceLocator implements ServiceLocator {
 
     @Override
@@ -15,22 +18,7 @@ public class StandardServiceLocator implements ServiceLocator {
 
     @Override
     public <T> List<T> findInstances(Class<T> interfaceType) throws ServiceNotFoundException {
-        List<T> allInstances = new ArrayList<>();
-
-        final Logger log = Scope.getCurrentScope().getLog(getClass());
-        final Iterator<T> services = ServiceLoader.load(interfaceType, Scope.getCurrentScope().getClassLoader(true)).iterator();
-        while (services.hasNext()) {
-            try {
-                final T service = services.next();
-                log.fine("Loaded "+interfaceType.getName()+" instance "+service.getClass().getName());
-                allInstances.add(service);
-            } catch (Throwable e) {
-                log.info("Cannot load service: "+e.getMessage());
-                log.fine(e.getMessage(), e);
-            }
-        }
-
-        return Collections.unmodifiableList(allInstances);
-
+        ServiceIndex serviceIndex = ServiceIndex.getInstance(Scope.getCurrentScope().getClassLoader(true));
+        return Collections.unmodifiableList(serviceIndex.createInstances(interfaceType));
     }
 }
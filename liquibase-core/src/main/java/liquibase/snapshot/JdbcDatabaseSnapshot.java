@@ -1,6 +1,7 @@
 package liquibase.snapshot;
 
 import liquibase.CatalogAndSchema;
+import liquibase.GlobalConfiguration;
 import liquibase.Scope;
 import liquibase.database.AbstractJdbcDatabase;
 import liquibase.database.Database;
@@ -30,6 +31,8 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
 
     private Set<String> userDefinedTypes;
 
+    private boolean bulkFetchSchemas;
+
     public JdbcDatabaseSnapshot(DatabaseObject[] examples, Database database, SnapshotControl snapshotControl) throws DatabaseException, InvalidExampleException {
         super(examples, database, snapshotControl);
     }
@@ -38,6 +41,52 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
         super(examples, database);
     }
 
+    /**
+     * Reads the per-table metadata of the example schemas through the {@link SnapshotControl#getDataSource()} connections
+     * before the snapshot is built, if a data source is configured.
+     * If {@link GlobalConfiguration#SNAPSHOT_BULK_METADATA} is set and whole schemas are snapshotted, metadata which can be
+     * read for a whole schema at once is read that way on the first query instead.
+     */
+    @Override
+    protected void init(DatabaseObject[] examples) throws DatabaseException, InvalidExampleException {
+        if ((examples != null) && GlobalConfiguration.SNAPSHOT_BULK_METADATA.getCurrentValue()) {
+            for (DatabaseObject example : examples) {
+                if (example instanceof Schema) {
+                    bulkFetchSchemas = true;
+                }
+            }
+        }
+
+        SnapshotControl snapshotControl = getSnapshotControl();
+        if ((examples != null) && (snapshotControl.getDataSource() != null) && (snapshotControl.getThreads() > 1)
+                && snapshotControl.shouldInclude(Table.class) && (getDatabase() instanceof AbstractJdbcDatabase)
+                && (getDatabase().getConnection() instanceof JdbcConnection)) {
+            TableMetaDataPrefetcher prefetcher = new TableMetaDataPrefetcher(this, snapshotControl.getDataSource(), snapshotControl.getThreads());
+            for (DatabaseObject example : examples) {
+                if (example instanceof Schema) {
+                    prefetcher.prefetch((Schema) example);
+                }
+            }
+        }
+        super.init(examples);
+    }
+
+    @Override
+    public ResultSetCache getResultSetCache(String key) {
+        ResultSetCache resultSetCache = super.getResultSetCache(key);
+        if (bulkFetchSchemas) {
+            resultSetCache.setSingleQueryLimit(0);
+        }
+        return resultSetCache;
+    }
+
+    /**
+     * Returns true if this snapshot reads whole schemas on the first query wherever the database supports it.
+     */
+    boolean isBulkFetchSchemas() {
+        return bulkFetchSchemas;
+    }
+
     public CachingDatabaseMetaData getMetaDataFromCache() throws SQLException {
         if (cachingDatabaseMetaData == null) {
             DatabaseMetaData databaseMetaData = null;
@@ -213,7 +262,7 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
                         sql += "ORDER BY i.NAME, k.COLSEQ";
 
                         returnList.addAll(executeAndExtract(sql, database));
-                    } else if (!(database instanceof MariaDBDatabase) && database instanceof MySQLDatabase) {
+                    } else if (isMySQLWithInformationSchemaQueries(database)) {
 
                         //mysql 8.0.13 introduced support for indexes on `lower(first_name)` which comes back in an "expression" column
                         String filterConditionValue = "NULL";
@@ -239,6 +288,44 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
                         sql.append("ORDER BY NON_UNIQUE, INDEX_NAME, SEQ_IN_INDEX");
 
                         returnList.addAll(executeAndExtract(sql.toString(), database));
+                    } else if (isBulkFetchMode && isH2WithInformationSchemaV2(database)) {
+                        //same rows as getIndexInfo, which does not accept a null table name
+                        String sql = "SELECT ic.TABLE_CATALOG AS TABLE_CAT, ic.TABLE_SCHEMA AS TABLE_SCHEM, ic.TABLE_NAME, " +
+                                "NOT ic.IS_UNIQUE AS NON_UNIQUE, ic.INDEX_CATALOG AS INDEX_QUALIFIER, ic.INDEX_NAME, " +
+                                "CAST(CASE WHEN i.INDEX_TYPE_NAME LIKE '%HASH%' THEN " + DatabaseMetaData.tableIndexHashed + " ELSE " + DatabaseMetaData.tableIndexOther + " END AS SMALLINT) AS TYPE, " +
+                                "CAST(ic.ORDINAL_POSITION AS SMALLINT) AS ORDINAL_POSITION, ic.COLUMN_NAME, " +
+                                "CASE ic.ORDERING_SPECIFICATION WHEN 'DESC' THEN 'D' ELSE 'A' END AS ASC_OR_DESC, " +
+                                "CAST(0 AS BIGINT) AS CARDINALITY, CAST(0 AS BIGINT) AS PAGES, CAST(NULL AS VARCHAR) AS FILTER_CONDITION " +
+                                "FROM INFORMATION_SCHEMA.INDEXES i " +
+                                "JOIN INFORMATION_SCHEMA.INDEX_COLUMNS ic ON ic.INDEX_CATALOG = i.INDEX_CATALOG AND ic.INDEX_SCHEMA = i.INDEX_SCHEMA AND ic.INDEX_NAME = i.INDEX_NAME " +
+                                "WHERE i.TABLE_SCHEMA = '" + database.escapeStringForDatabase(((AbstractJdbcDatabase) database).getJdbcSchemaName(catalogAndSchema)) + "' " +
+                                "ORDER BY ic.TABLE_NAME, NON_UNIQUE, TYPE, INDEX_NAME, ORDINAL_POSITION";
+
+                        returnList.addAll(executeAndExtract(sql, database));
+                    } else if (isBulkFetchMode && isPostgresWithCatalogQueries(database)) {
+                        //same query as the PostgreSQL driver uses for getIndexInfo, without the table name filter it requires
+                        String sql = "SELECT tmp.TABLE_CAT, tmp.TABLE_SCHEM, tmp.TABLE_NAME, tmp.NON_UNIQUE, tmp.INDEX_QUALIFIER, tmp.INDEX_NAME, tmp.TYPE, tmp.ORDINAL_POSITION, " +
+                                "trim(both '\"' from pg_catalog.pg_get_indexdef(tmp.CI_OID, tmp.ORDINAL_POSITION, false)) AS COLUMN_NAME, " +
+                                "CASE tmp.AM_NAME WHEN 'btree' THEN CASE tmp.I_INDOPTION[tmp.ORDINAL_POSITION - 1] & 1 WHEN 1 THEN 'D' ELSE 'A' END ELSE NULL END AS ASC_OR_DESC, " +
+                                "tmp.CARDINALITY, tmp.PAGES, tmp.FILTER_CONDITION " +
+                                "FROM (" +
+                                "SELECT NULL AS TABLE_CAT, n.nspname AS TABLE_SCHEM, ct.relname AS TABLE_NAME, NOT i.indisunique AS NON_UNIQUE, " +
+                                "NULL AS INDEX_QUALIFIER, ci.relname AS INDEX_NAME, " +
+                                "CASE i.indisclustered WHEN true THEN " + DatabaseMetaData.tableIndexClustered + " ELSE CASE am.amname WHEN 'hash' THEN " + DatabaseMetaData.tableIndexHashed + " ELSE " + DatabaseMetaData.tableIndexOther + " END END AS TYPE, " +
+                                "(information_schema._pg_expandarray(i.indkey)).n AS ORDINAL_POSITION, " +
+                                "ci.reltuples AS CARDINALITY, ci.relpages AS PAGES, " +
+                                "pg_catalog.pg_get_expr(i.indpred, i.indrelid) AS FILTER_CONDITION, " +
+                                "ci.oid AS CI_OID, i.indoption AS I_INDOPTION, am.amname AS AM_NAME " +
+                                "FROM pg_catalog.pg_class ct " +
+                                "JOIN pg_catalog.pg_namespace n ON (ct.relnamespace = n.oid) " +
+                                "JOIN pg_catalog.pg_index i ON (ct.oid = i.indrelid) " +
+                                "JOIN pg_catalog.pg_class ci ON (ci.oid = i.indexrelid) " +
+                                "JOIN pg_catalog.pg_am am ON (ci.relam = am.oid) " +
+                                "WHERE n.nspname = '" + database.escapeStringForDatabase(((AbstractJdbcDatabase) database).getJdbcSchemaName(catalogAndSchema)) + "'" +
+                                ") AS tmp " +
+                                "ORDER BY tmp.TABLE_NAME, NON_UNIQUE, TYPE, INDEX_NAME, ORDINAL_POSITION";
+
+                        returnList.addAll(executeAndExtract(sql, database));
                     } else {
                         /*
                          * If we do not know in which table to look for the index, things get a little bit ugly.
@@ -282,6 +369,9 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
                     if (database instanceof OracleDatabase || database instanceof MSSQLDatabase) {
                         return JdbcDatabaseSnapshot.this.getAllCatalogsStringScratchData() != null || (tableName == null && indexName == null) || super.shouldBulkSelect(schemaKey, resultSetCache);
                     }
+                    if (isMySQLWithInformationSchemaQueries(database) || isH2WithInformationSchemaV2(database) || isPostgresWithCatalogQueries(database)) {
+                        return (tableName == null && indexName == null) || super.shouldBulkSelect(schemaKey, resultSetCache);
+                    }
                     return false;
                 }
             });
@@ -700,11 +790,90 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
                     String jdbcSchemaName = ((AbstractJdbcDatabase) database).getJdbcSchemaName(catalogAndSchema);
                     String sql = getMSSQLSql(jdbcSchemaName, tableName);
                     return executeAndExtract(sql, database);
+                } else if (isMySQLWithInformationSchemaQueries(database)) {
+                    CatalogAndSchema catalogAndSchema = new CatalogAndSchema(catalogName, schemaName).customize(database);
+                    return executeAndExtract(getMySQLSql(database.correctObjectName(catalogAndSchema.getCatalogName(), Catalog.class)), database);
+                } else if (isH2WithInformationSchemaV2(database)) {
+                    CatalogAndSchema catalogAndSchema = new CatalogAndSchema(catalogName, schemaName).customize(database);
+                    return executeAndExtract(getH2Sql(((AbstractJdbcDatabase) database).getJdbcSchemaName(catalogAndSchema)), database);
+                } else if (isPostgresWithCatalogQueries(database)) {
+                    //the PostgreSQL driver returns the keys of all tables if no table name is given
+                    CatalogAndSchema catalogAndSchema = new CatalogAndSchema(catalogName, schemaName).customize(database);
+                    return extract(databaseMetaData.getImportedKeys(((AbstractJdbcDatabase) database).getJdbcCatalogName(catalogAndSchema),
+                            ((AbstractJdbcDatabase) database).getJdbcSchemaName(catalogAndSchema), null));
                 } else {
                     throw new RuntimeException("Cannot bulk select");
                 }
             }
 
+            /**
+             * Same rows as the information_schema based getImportedKeys of MySQL Connector/J, for all tables of the schema.
+             */
+            protected String getMySQLSql(String jdbcCatalogName) {
+                return "SELECT " +
+                        "A.REFERENCED_TABLE_SCHEMA AS PKTABLE_CAT, " +
+                        "NULL AS PKTABLE_SCHEM, " +
+                        "A.REFERENCED_TABLE_NAME AS PKTABLE_NAME, " +
+                        "A.REFERENCED_COLUMN_NAME AS PKCOLUMN_NAME, " +
+                        "A.TABLE_SCHEMA AS FKTABLE_CAT, " +
+                        "NULL AS FKTABLE_SCHEM, " +
+                        "A.TABLE_NAME AS FKTABLE_NAME, " +
+                        "A.COLUMN_NAME AS FKCOLUMN_NAME, " +
+                        "A.ORDINAL_POSITION AS KEY_SEQ, " +
+                        getRuleSql("R.UPDATE_RULE", DatabaseMetaData.importedKeyRestrict) + " AS UPDATE_RULE, " +
+                        getRuleSql("R.DELETE_RULE", DatabaseMetaData.importedKeyRestrict) + " AS DELETE_RULE, " +
+                        "A.CONSTRAINT_NAME AS FK_NAME, " +
+                        "R.UNIQUE_CONSTRAINT_NAME AS PK_NAME, " +
+                        DatabaseMetaData.importedKeyNotDeferrable + " AS DEFERRABILITY " +
+                        "FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE A " +
+                        "JOIN INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS R ON R.CONSTRAINT_SCHEMA = A.CONSTRAINT_SCHEMA " +
+                        "AND R.CONSTRAINT_NAME = A.CONSTRAINT_NAME AND R.TABLE_NAME = A.TABLE_NAME " +
+                        "WHERE A.TABLE_SCHEMA = '" + database.escapeStringForDatabase(jdbcCatalogName) + "' " +
+                        "AND A.REFERENCED_TABLE_NAME IS NOT NULL " +
+                        "ORDER BY A.TABLE_NAME, A.REFERENCED_TABLE_SCHEMA, A.REFERENCED_TABLE_NAME, A.CONSTRAINT_NAME, A.ORDINAL_POSITION";
+            }
+
+            /**
+             * Same rows as getImportedKeys of H2 2.x, for all tables of the schema.
+             */
+            protected String getH2Sql(String jdbcSchemaName) {
+                return "SELECT " +
+                        "pk.TABLE_CATALOG AS PKTABLE_CAT, " +
+                        "pk.TABLE_SCHEMA AS PKTABLE_SCHEM, " +
+                        "pk.TABLE_NAME AS PKTABLE_NAME, " +
+                        "pk.COLUMN_NAME AS PKCOLUMN_NAME, " +
+                        "fk.TABLE_CATALOG AS FKTABLE_CAT, " +
+                        "fk.TABLE_SCHEMA AS FKTABLE_SCHEM, " +
+                        "fk.TABLE_NAME AS FKTABLE_NAME, " +
+                        "fk.COLUMN_NAME AS FKCOLUMN_NAME, " +
+                        "CAST(fk.ORDINAL_POSITION AS SMALLINT) AS KEY_SEQ, " +
+                        "CAST(" + getRuleSql("rc.UPDATE_RULE", DatabaseMetaData.importedKeyNoAction) + " AS SMALLINT) AS UPDATE_RULE, " +
+                        "CAST(" + getRuleSql("rc.DELETE_RULE", DatabaseMetaData.importedKeyNoAction) + " AS SMALLINT) AS DELETE_RULE, " +
+                        "rc.CONSTRAINT_NAME AS FK_NAME, " +
+                        "rc.UNIQUE_CONSTRAINT_NAME AS PK_NAME, " +
+                        "CAST(" + DatabaseMetaData.importedKeyNotDeferrable + " AS SMALLINT) AS DEFERRABILITY " +
+                        "FROM INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS rc " +
+                        "JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE fk ON fk.CONSTRAINT_CATALOG = rc.CONSTRAINT_CATALOG " +
+                        "AND fk.CONSTRAINT_SCHEMA = rc.CONSTRAINT_SCHEMA AND fk.CONSTRAINT_NAME = rc.CONSTRAINT_NAME " +
+                        "JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE pk ON pk.CONSTRAINT_CATALOG = rc.UNIQUE_CONSTRAINT_CATALOG " +
+                        "AND pk.CONSTRAINT_SCHEMA = rc.UNIQUE_CONSTRAINT_SCHEMA AND pk.CONSTRAINT_NAME = rc.UNIQUE_CONSTRAINT_NAME " +
+                        "AND pk.ORDINAL_POSITION = fk.POSITION_IN_UNIQUE_CONSTRAINT " +
+                        "WHERE fk.TABLE_SCHEMA = '" + database.escapeStringForDatabase(jdbcSchemaName) + "' " +
+                        "ORDER BY FKTABLE_NAME, PKTABLE_CAT, PKTABLE_SCHEM, PKTABLE_NAME, FK_NAME, KEY_SEQ";
+            }
+
+            /**
+             * Converts an information_schema referential action to its {@link DatabaseMetaData} constant.
+             */
+            private String getRuleSql(String column, int noActionValue) {
+                return "CASE " + column +
+                        " WHEN 'CASCADE' THEN " + DatabaseMetaData.importedKeyCascade +
+                        " WHEN 'SET NULL' THEN " + DatabaseMetaData.importedKeySetNull +
+                        " WHEN 'SET DEFAULT' THEN " + DatabaseMetaData.importedKeySetDefault +
+                        " WHEN 'NO ACTION' THEN " + noActionValue +
+                        " ELSE " + DatabaseMetaData.importedKeyRestrict + " END";
+            }
+
             protected String getOracleSql(String jdbcSchemaName) {
                 String sql = "SELECT  /*+rule*/" +
                         "  NULL AS pktable_cat,  " +
@@ -865,6 +1034,8 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
             boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
                 if (database instanceof AbstractDb2Database || database instanceof MSSQLDatabase) {
                     return super.shouldBulkSelect(schemaKey, resultSetCache); //can bulk and fast fetch
+                } else if (isMySQLWithInformationSchemaQueries(database) || isH2WithInformationSchemaV2(database) || isPostgresWithCatalogQueries(database)) {
+                    return (tableName == null) || super.shouldBulkSelect(schemaKey, resultSetCache);
                 } else {
                     return database instanceof OracleDatabase; //oracle is slow, always bulk select while you are at it. Other databases need to go through all tables.
                 }
@@ -1455,6 +1626,41 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
                         } catch (DatabaseException e) {
                             throw new SQLException(e);
                         }
+                    } else if (isMySQLWithInformationSchemaQueries(database)) {
+                        //same rows as the information_schema based getPrimaryKeys of MySQL Connector/J
+                        CatalogAndSchema catalogAndSchema = new CatalogAndSchema(catalogName, schemaName).customize(database);
+                        String sql = "SELECT TABLE_SCHEMA AS TABLE_CAT, NULL AS TABLE_SCHEM, TABLE_NAME, COLUMN_NAME, " +
+                                "SEQ_IN_INDEX AS KEY_SEQ, 'PRIMARY' AS PK_NAME " +
+                                "FROM INFORMATION_SCHEMA.STATISTICS " +
+                                "WHERE TABLE_SCHEMA = '" + database.escapeStringForDatabase(database.correctObjectName(catalogAndSchema.getCatalogName(), Catalog.class)) + "' " +
+                                "AND INDEX_NAME = 'PRIMARY' " +
+                                "ORDER BY TABLE_NAME, SEQ_IN_INDEX";
+                        try {
+                            return executeAndExtract(sql, database);
+                        } catch (DatabaseException e) {
+                            throw new SQLException(e);
+                        }
+                    } else if (isH2WithInformationSchemaV2(database)) {
+                        //same rows as getPrimaryKeys, which does not accept a null table name
+                        CatalogAndSchema catalogAndSchema = new CatalogAndSchema(catalogName, schemaName).customize(database);
+                        String sql = "SELECT kcu.TABLE_CATALOG AS TABLE_CAT, kcu.TABLE_SCHEMA AS TABLE_SCHEM, kcu.TABLE_NAME, kcu.COLUMN_NAME, " +
+                                "CAST(kcu.ORDINAL_POSITION AS SMALLINT) AS KEY_SEQ, tc.CONSTRAINT_NAME AS PK_NAME " +
+                                "FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS tc " +
+                                "JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE kcu ON kcu.CONSTRAINT_CATALOG = tc.CONSTRAINT_CATALOG " +
+                                "AND kcu.CONSTRAINT_SCHEMA = tc.CONSTRAINT_SCHEMA AND kcu.CONSTRAINT_NAME = tc.CONSTRAINT_NAME " +
+                                "WHERE tc.CONSTRAINT_TYPE = 'PRIMARY KEY' " +
+                                "AND tc.TABLE_SCHEMA = '" + database.escapeStringForDatabase(((AbstractJdbcDatabase) database).getJdbcSchemaName(catalogAndSchema)) + "' " +
+                                "ORDER BY kcu.TABLE_NAME, kcu.COLUMN_NAME";
+                        try {
+                            return executeAndExtract(sql, database);
+                        } catch (DatabaseException e) {
+                            throw new SQLException(e);
+                        }
+                    } else if (isPostgresWithCatalogQueries(database)) {
+                        //the PostgreSQL driver returns the keys of all tables if no table name is given
+                        CatalogAndSchema catalogAndSchema = new CatalogAndSchema(catalogName, schemaName).customize(database);
+                        return extract(databaseMetaData.getPrimaryKeys(((AbstractJdbcDatabase) database).getJdbcCatalogName(catalogAndSchema),
+                                ((AbstractJdbcDatabase) database).getJdbcSchemaName(catalogAndSchema), null));
                     }
                     return null;
                 }
@@ -1463,6 +1669,8 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
                 boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
                     if ((database instanceof OracleDatabase) || (database instanceof MSSQLDatabase)) {
                         return table == null || getAllCatalogsStringScratchData() != null || super.shouldBulkSelect(schemaKey, resultSetCache);
+                    } else if (isMySQLWithInformationSchemaQueries(database) || isH2WithInformationSchemaV2(database) || isPostgresWithCatalogQueries(database)) {
+                        return table == null || super.shouldBulkSelect(schemaKey, resultSetCache);
                     } else {
                         return false;
                     }
@@ -1694,6 +1902,33 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
         }
     }
 
+    /**
+     * MySQL itself, not MariaDB, whose information_schema does not match MySQL's in every version.
+     * MariaDB keeps the table by table queries for indexes, primary keys and foreign keys.
+     */
+    private boolean isMySQLWithInformationSchemaQueries(Database database) {
+        return (database instanceof MySQLDatabase) && !(database instanceof MariaDBDatabase);
+    }
+
+    /**
+     * H2 2.x requires a table name for getIndexInfo, getPrimaryKeys and getImportedKeys,
+     * so whole schemas are read from its INFORMATION_SCHEMA, whose layout changed in 2.0.
+     */
+    private boolean isH2WithInformationSchemaV2(Database database) {
+        try {
+            return (database instanceof H2Database) && (database.getDatabaseMajorVersion() >= 2);
+        } catch (DatabaseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * PostgreSQL itself, not the databases which are compatible with its protocol but not with its catalog.
+     */
+    private boolean isPostgresWithCatalogQueries(Database database) {
+        return (database instanceof PostgresDatabase) && !(database instanceof CockroachDatabase);
+    }
+
     private String getAllCatalogsStringScratchData() {
         return (String) JdbcDatabaseSnapshot.this.getScratchData(ALL_CATALOGS_STRING_SCRATCH_KEY);
     }
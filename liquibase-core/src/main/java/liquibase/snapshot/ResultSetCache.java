@@ -20,6 +20,7 @@ class ResultSetCache {
     private Map<String, Integer> timesSingleQueried = new HashMap<>();
     private Map<String, Boolean> didBulkQuery = new HashMap<>();
     private boolean bulkTracking = true;
+    private int singleQueryLimit = 3;
 
     private Map<String, Map<String, List<CachedRow>>> cacheBySchema = new HashMap<>();
 
@@ -106,6 +107,21 @@ class ResultSetCache {
         }
     }
 
+    /**
+     * Stores rows which were fetched outside of this cache, so a later {@link #get(ResultSetExtractor)} with the same
+     * wanted key returns them without querying. Rows already cached for the key are kept.
+     */
+    void put(String schemaKey, String wantedKey, List<CachedRow> rows) {
+        Map<String, List<CachedRow>> cache = cacheBySchema.get(schemaKey);
+        if (cache == null) {
+            cache = new HashMap<>();
+            cacheBySchema.put(schemaKey, cache);
+        }
+        if (!cache.containsKey(wantedKey)) {
+            cache.put(wantedKey, rows);
+        }
+    }
+
     public <T> T getInfo(String key, Class<T> type) {
         return (T) info.get(key);
     }
@@ -255,7 +271,7 @@ class ResultSetCache {
         }
 
         boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
-            return resultSetCache.getTimesSingleQueried(schemaKey) >= 3;
+            return resultSetCache.getTimesSingleQueried(schemaKey) >= resultSetCache.singleQueryLimit;
         }
 
         List<CachedRow> executeAndExtract(String sql, Database database) throws DatabaseException, SQLException {
@@ -388,4 +404,16 @@ class ResultSetCache {
     public void setBulkTracking(boolean bulkTracking) {
         this.bulkTracking = bulkTracking;
     }
+
+    /**
+     * Sets how many objects of a schema are queried one by one before the whole schema is fetched at once.
+     * Defaults to 3. A limit of 0 fetches the whole schema on the first query, for extractors which support it.
+     */
+    public void setSingleQueryLimit(int singleQueryLimit) {
+        this.singleQueryLimit = singleQueryLimit;
+    }
+
+    public int getSingleQueryLimit() {
+        return singleQueryLimit;
+    }
 }
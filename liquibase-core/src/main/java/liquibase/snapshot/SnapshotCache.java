@@ -0,0 +1,235 @@
+package liquibase.snapshot;
+
+import liquibase.GlobalConfiguration;
+import liquibase.Scope;
+import liquibase.SingletonObject;
+import liquibase.database.AbstractJdbcDatabase;
+import liquibase.database.Database;
+import liquibase.database.core.CockroachDatabase;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.parser.core.ParsedNode;
+import liquibase.serializer.core.json.JsonSnapshotSerializer;
+import liquibase.statement.core.RawSqlStatement;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Schema;
+import liquibase.util.LiquibaseUtil;
+import liquibase.util.MD5Util;
+import liquibase.util.StringUtil;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Stores schema snapshots in the directory configured by {@link GlobalConfiguration#SNAPSHOT_CACHE_DIRECTORY}, one JSON
+ * file per connection, schema list and {@link SnapshotControl} settings.
+ * <p>
+ * Before a schema snapshot is created, a change marker is read for each schema from the database catalog. It changes
+ * whenever DDL changes an object of the schema: the xmin of the PostgreSQL catalog rows, the LAST_DDL_TIME of Oracle
+ * objects or the modify_date of SQL Server objects, together with the object count to notice drops. If the markers
+ * equal the ones stored with the cached snapshot, the cached snapshot is returned without querying any metadata.
+ * Otherwise the schemas are snapshotted again and the file is replaced.
+ * <p>
+ * The Oracle and SQL Server times cannot tell apart two changes made within the same second, so their markers are
+ * only used once the last change is more than a second old. Until then the schemas are snapshotted without the cache.
+ * <p>
+ * Any change to a schema refreshes the whole cached snapshot, not only the changed objects, since objects of a
+ * snapshot reference each other across tables, e.g. through foreign keys and their backing indexes. Schemas which
+ * change on every run therefore gain nothing from the cache.
+ * Databases without a change marker are always snapshotted.
+ */
+public class SnapshotCache implements SingletonObject {
+
+    private static final String MARKER_METADATA_KEY = "snapshotCacheMarker";
+
+    protected SnapshotCache() {
+    }
+
+    /**
+     * Returns true if a cache directory is configured.
+     */
+    public boolean isEnabled() {
+        return StringUtil.trimToNull(GlobalConfiguration.SNAPSHOT_CACHE_DIRECTORY.getCurrentValue()) != null;
+    }
+
+    /**
+     * Returns the cached snapshot of the given schemas if their change markers did not change since it was stored,
+     * otherwise creates a new {@link JdbcDatabaseSnapshot} and stores it.
+     * Snapshots of other examples than schemas, or which use a {@link SnapshotListener} or an
+     * {@link liquibase.diff.output.ObjectChangeFilter}, are never cached.
+     */
+    public DatabaseSnapshot createSnapshot(DatabaseObject[] examples, Database database, SnapshotControl snapshotControl)
+            throws DatabaseException, InvalidExampleException {
+        String marker = isCacheable(examples, database, snapshotControl) ? getChangeMarker(examples, database) : null;
+        if (marker == null) {
+            return new JdbcDatabaseSnapshot(examples, database, snapshotControl);
+        }
+
+        File file = new File(GlobalConfiguration.SNAPSHOT_CACHE_DIRECTORY.getCurrentValue(), getCacheKey(examples, database, snapshotControl) + ".json");
+        DatabaseSnapshot cached = read(file, marker, database, snapshotControl);
+        if (cached != null) {
+            Scope.getCurrentScope().getLog(getClass()).fine("Using cached snapshot " + file.getAbsolutePath());
+            return cached;
+        }
+
+        DatabaseSnapshot snapshot = new JdbcDatabaseSnapshot(examples, database, snapshotControl);
+        write(file, marker, snapshot);
+        return snapshot;
+    }
+
+    private boolean isCacheable(DatabaseObject[] examples, Database database, SnapshotControl snapshotControl) {
+        if ((examples == null) || (examples.length == 0) || !(database.getConnection() instanceof JdbcConnection)
+                || (snapshotControl.getSnapshotListener() != null) || (snapshotControl.getObjectChangeFilter() != null)) {
+            return false;
+        }
+        for (DatabaseObject example : examples) {
+            if (!(example instanceof Schema)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String getChangeMarker(DatabaseObject[] examples, Database database) throws DatabaseException {
+        List<String> markers = new ArrayList<>();
+        for (DatabaseObject example : examples) {
+            String marker = getChangeMarker(database, (Schema) example);
+            if (marker == null) {
+                return null;
+            }
+            markers.add(marker);
+        }
+        return StringUtil.join(markers, ";");
+    }
+
+    /**
+     * Returns a value which changes whenever DDL changes an object of the given schema, or null if the database
+     * does not expose one or the schema changed too recently to tell.
+     */
+    protected String getChangeMarker(Database database, Schema schema) throws DatabaseException {
+        String sql = getChangeMarkerSql(database, schema);
+        if (sql == null) {
+            return null;
+        }
+        return Scope.getCurrentScope().getSingleton(ExecutorService.class).getExecutor("jdbc", database)
+                .queryForObject(new RawSqlStatement(sql), String.class);
+    }
+
+    /**
+     * Returns the query reading the change marker of the schema, or null if the database has none.
+     */
+    protected String getChangeMarkerSql(Database database, Schema schema) {
+        String schemaName = database.escapeStringForDatabase(((AbstractJdbcDatabase) database).getJdbcSchemaName(schema.toCatalogAndSchema().customize(database)));
+        if ((database instanceof PostgresDatabase) && !(database instanceof CockroachDatabase)) {
+            return "SELECT COUNT(*) || ':' || COALESCE(SUM(x), 0) FROM (" +
+                    "SELECT c.xmin::text::bigint AS x FROM pg_catalog.pg_class c " +
+                    "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = '" + schemaName + "' " +
+                    "UNION ALL SELECT a.xmin::text::bigint FROM pg_catalog.pg_attribute a " +
+                    "JOIN pg_catalog.pg_class c ON c.oid = a.attrelid " +
+                    "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = '" + schemaName + "' " +
+                    "UNION ALL SELECT d.xmin::text::bigint FROM pg_catalog.pg_attrdef d " +
+                    "JOIN pg_catalog.pg_class c ON c.oid = d.adrelid " +
+                    "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = '" + schemaName + "' " +
+                    "UNION ALL SELECT r.xmin::text::bigint FROM pg_catalog.pg_rewrite r " +
+                    "JOIN pg_catalog.pg_class c ON c.oid = r.ev_class " +
+                    "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = '" + schemaName + "' " +
+                    "UNION ALL SELECT co.xmin::text::bigint FROM pg_catalog.pg_constraint co " +
+                    "JOIN pg_catalog.pg_namespace n ON n.oid = co.connamespace WHERE n.nspname = '" + schemaName + "' " +
+                    "UNION ALL SELECT ds.xmin::text::bigint FROM pg_catalog.pg_description ds " +
+                    "JOIN pg_catalog.pg_class c ON c.oid = ds.objoid AND ds.classoid = 'pg_catalog.pg_class'::regclass " +
+                    "JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace WHERE n.nspname = '" + schemaName + "'" +
+                    ") markers";
+        } else if (database instanceof OracleDatabase) {
+            //LAST_DDL_TIME only has a precision of one second, so it is no marker until that second has passed
+            return "SELECT CASE WHEN MAX(LAST_DDL_TIME) IS NULL OR MAX(LAST_DDL_TIME) < SYSDATE - 1/86400 " +
+                    "THEN COUNT(*) || ':' || TO_CHAR(MAX(LAST_DDL_TIME), 'YYYYMMDDHH24MISS') END " +
+                    "FROM ALL_OBJECTS WHERE OWNER = '" + schemaName + "'";
+        } else if (database instanceof MSSQLDatabase) {
+            //modify_date is rounded to a few milliseconds, so it is treated like the Oracle marker
+            return "SELECT CASE WHEN MAX(modify_date) IS NULL OR MAX(modify_date) < DATEADD(second, -1, GETDATE()) " +
+                    "THEN CAST(COUNT(*) AS VARCHAR(20)) + ':' + COALESCE(CONVERT(VARCHAR(30), MAX(modify_date), 126), '') END " +
+                    "FROM sys.objects WHERE schema_id = SCHEMA_ID('" + schemaName + "')";
+        }
+        return null;
+    }
+
+    private String getCacheKey(DatabaseObject[] examples, Database database, SnapshotControl snapshotControl) {
+        StringBuilder key = new StringBuilder()
+                .append(LiquibaseUtil.getBuildVersion()).append("\n")
+                .append(database.getConnection().getURL()).append("\n")
+                .append(database.getConnection().getConnectionUserName()).append("\n");
+        for (DatabaseObject example : examples) {
+            key.append(((Schema) example).getCatalogName()).append(".").append(example.getName()).append("\n");
+        }
+        TreeSet<String> types = new TreeSet<>();
+        for (Class<? extends DatabaseObject> type : snapshotControl.getTypesToInclude()) {
+            types.add(type.getName());
+        }
+        key.append(types).append("\n")
+                .append(snapshotControl.isWarnIfObjectNotFound());
+        return MD5Util.computeMD5(key.toString());
+    }
+
+    private DatabaseSnapshot read(File file, String marker, Database database, SnapshotControl snapshotControl) {
+        if (!file.exists()) {
+            return null;
+        }
+        try (Reader reader = new InputStreamReader(new BufferedInputStream(new FileInputStream(file)), StandardCharsets.UTF_8)) {
+            Map rootList = (Map) ((Map) new Yaml(new SafeConstructor()).load(reader)).get("snapshot");
+            Map metadata = (Map) rootList.get("metadata");
+            if ((metadata == null) || !marker.equals(metadata.get(MARKER_METADATA_KEY))) {
+                return null;
+            }
+            metadata.remove(MARKER_METADATA_KEY);
+
+            DatabaseSnapshot snapshot = new RestoredDatabaseSnapshot(database, snapshotControl);
+            ParsedNode snapshotNode = new ParsedNode(null, "snapshot");
+            snapshotNode.setValue(rootList);
+            snapshot.getMetadata().putAll(metadata);
+            snapshot.load(snapshotNode, Scope.getCurrentScope().getResourceAccessor());
+            return snapshot;
+        } catch (Exception e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Cannot read cached snapshot " + file.getAbsolutePath() + ", ignoring it: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the snapshot through a temporary file so concurrent runs never read a partially written one.
+     * Failures are logged but not thrown since the cache is only an optimization.
+     */
+    private void write(File file, String marker, DatabaseSnapshot snapshot) {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.exists()) {
+            directory.mkdirs();
+        }
+        snapshot.getMetadata().put(MARKER_METADATA_KEY, marker);
+        try {
+            File tempFile = File.createTempFile(file.getName(), ".tmp", directory);
+            try {
+                try (Writer writer = new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(tempFile)), StandardCharsets.UTF_8)) {
+                    writer.write(new JsonSnapshotSerializer().serialize(snapshot, true));
+                }
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                tempFile.delete();
+            }
+        } catch (Exception e) {
+            Scope.getCurrentScope().getLog(getClass()).warning("Cannot write cached snapshot " + file.getAbsolutePath() + ": " + e.getMessage(), e);
+        } finally {
+            snapshot.getMetadata().remove(MARKER_METADATA_KEY);
+        }
+    }
+}
@@ -10,6 +10,7 @@ import liquibase.serializer.LiquibaseSerializable;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.DatabaseObjectFactory;
 
+import javax.sql.DataSource;
 import java.util.*;
 
 /**
@@ -18,10 +19,17 @@ import java.util.*;
  */
 public class SnapshotControl implements LiquibaseSerializable {
 
+    /**
+     * Number of connections used by a parallel snapshot if {@link #setThreads(int)} is not called.
+     */
+    public static final int DEFAULT_THREADS = 4;
+
     private Set<Class<? extends DatabaseObject>> types;
     private ObjectChangeFilter objectChangeFilter;
     private SnapshotListener snapshotListener;
     private boolean warnIfObjectNotFound = true;
+    private DataSource dataSource;
+    private int threads = DEFAULT_THREADS;
     
     
     /**
@@ -69,6 +77,10 @@ public class SnapshotControl implements LiquibaseSerializable {
         this.objectChangeFilter = objectChangeFilter;
     }
 
+    public ObjectChangeFilter getObjectChangeFilter() {
+        return objectChangeFilter;
+    }
+
     public SnapshotListener getSnapshotListener() {
         return snapshotListener;
     }
@@ -186,6 +198,40 @@ public class SnapshotControl implements LiquibaseSerializable {
         return this;
     }
 
+    /**
+     * Returns the source of the additional connections used for a parallel snapshot, or null if the snapshot runs on
+     * the database connection only.
+     */
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Enables parallel snapshots. The per-table metadata of the snapshotted schemas is read concurrently through
+     * connections from the given data source, which must connect to the same database as the snapshotted one.
+     * The snapshot itself is still built on the database connection, so the result is the same as without a data source.
+     */
+    public SnapshotControl setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+        return this;
+    }
+
+    /**
+     * Returns the maximum number of data source connections used at the same time by a parallel snapshot.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the maximum number of data source connections used at the same time by a parallel snapshot.
+     * A value of 1 or less disables the parallel snapshot.
+     */
+    public SnapshotControl setThreads(int threads) {
+        this.threads = threads;
+        return this;
+    }
+
     public <T extends DatabaseObject> boolean shouldInclude(T example) {
         if (objectChangeFilter != null) {
             return objectChangeFilter.include(example);
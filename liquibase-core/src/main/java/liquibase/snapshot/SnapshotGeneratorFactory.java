@@ -212,6 +212,10 @@ public class SnapshotGeneratorFactory {
             }
             return snapshot;
         }
+        SnapshotCache snapshotCache = Scope.getCurrentScope().getSingleton(SnapshotCache.class);
+        if (snapshotCache.isEnabled()) {
+            return snapshotCache.createSnapshot(examples, database, snapshotControl);
+        }
         return new JdbcDatabaseSnapshot(examples, database, snapshotControl);
     }
 
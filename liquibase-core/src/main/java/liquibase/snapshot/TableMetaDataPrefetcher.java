@@ -0,0 +1,244 @@
+package liquibase.snapshot;
+
+import liquibase.Scope;
+import liquibase.database.AbstractJdbcDatabase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.structure.core.*;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reads the per-table metadata of a schema through several connections at once and stores it in the
+ * {@link ResultSetCache}s of a {@link JdbcDatabaseSnapshot}. The tables are split across the connections, and each
+ * connection runs the same single-table queries the snapshot would run. The snapshot then finds the rows in its caches,
+ * while its objects are still created and linked one by one on the snapshot connection, so the result does not depend
+ * on the number of connections or the order in which they finish.
+ * <p>
+ * Queries the snapshot runs for the whole schema at once, such as the column query of most databases or the bulk
+ * metadata queries of {@link liquibase.GlobalConfiguration#SNAPSHOT_BULK_METADATA}, are left to the snapshot.
+ */
+class TableMetaDataPrefetcher {
+
+    private final JdbcDatabaseSnapshot snapshot;
+    private final DataSource dataSource;
+    private final int threads;
+
+    TableMetaDataPrefetcher(JdbcDatabaseSnapshot snapshot, DataSource dataSource, int threads) {
+        this.snapshot = snapshot;
+        this.dataSource = dataSource;
+        this.threads = threads;
+    }
+
+    void prefetch(Schema schema) throws DatabaseException {
+        AbstractJdbcDatabase database = (AbstractJdbcDatabase) snapshot.getDatabase();
+
+        List<String> tableNames = new ArrayList<>();
+        try {
+            for (CachedRow row : snapshot.getMetaDataFromCache().getTables(database.getJdbcCatalogName(schema), database.getJdbcSchemaName(schema), null)) {
+                tableNames.add(row.getString("TABLE_NAME"));
+            }
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        }
+        Collections.sort(tableNames);
+
+        int connections = Math.min(threads, tableNames.size());
+        if (connections < 2) {
+            return;
+        }
+
+        List<List<String>> partitions = new ArrayList<>();
+        for (int i = 0; i < connections; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (int i = 0; i < tableNames.size(); i++) {
+            partitions.get(i % connections).add(tableNames.get(i));
+        }
+
+        long startTime = System.currentTimeMillis();
+        List<Database> workerDatabases = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(connections);
+        try {
+            List<Future<Map<String, List<FetchedRows>>>> futures = new ArrayList<>();
+            for (List<String> partition : partitions) {
+                Database workerDatabase = openDatabase(database);
+                workerDatabases.add(workerDatabase);
+                futures.add(pool.submit(() -> fetch(workerDatabase, schema, partition)));
+            }
+
+            Map<String, List<FetchedRows>> fetchedByTable = new HashMap<>();
+            for (Future<Map<String, List<FetchedRows>>> future : futures) {
+                fetchedByTable.putAll(future.get());
+            }
+
+            for (String tableName : tableNames) {
+                for (FetchedRows fetched : fetchedByTable.get(tableName)) {
+                    snapshot.getResultSetCache(fetched.cacheName).put(fetched.schemaKey, fetched.wantedKey, fetched.rows);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DatabaseException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof DatabaseException) {
+                throw (DatabaseException) e.getCause();
+            }
+            throw new DatabaseException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+            for (Database workerDatabase : workerDatabases) {
+                try {
+                    workerDatabase.close();
+                } catch (DatabaseException e) {
+                    Scope.getCurrentScope().getLog(getClass()).warning("Cannot close snapshot connection: " + e.getMessage(), e);
+                }
+            }
+        }
+
+        Scope.getCurrentScope().getLog(getClass()).fine("Read metadata of " + tableNames.size() + " tables in " + schema +
+                " through " + connections + " connections in " + (System.currentTimeMillis() - startTime) + "ms");
+    }
+
+    private Database openDatabase(Database database) throws DatabaseException {
+        JdbcConnection connection;
+        try {
+            connection = new JdbcConnection(dataSource.getConnection());
+        } catch (SQLException e) {
+            throw new DatabaseException("Cannot open a connection for the parallel snapshot: " + e.getMessage(), e);
+        }
+        Database workerDatabase = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(connection);
+        workerDatabase.setDefaultCatalogName(database.getDefaultCatalogName());
+        workerDatabase.setDefaultSchemaName(database.getDefaultSchemaName());
+        return workerDatabase;
+    }
+
+    /**
+     * Runs the single-table queries for the given tables on the worker connection and returns what was fetched,
+     * grouped by table name.
+     */
+    private Map<String, List<FetchedRows>> fetch(Database workerDatabase, Schema schema, List<String> tableNames)
+            throws DatabaseException, InvalidExampleException, SQLException {
+        SnapshotControl snapshotControl = snapshot.getSnapshotControl();
+        AbstractJdbcDatabase database = (AbstractJdbcDatabase) workerDatabase;
+        String jdbcCatalogName = database.getJdbcCatalogName(schema);
+        String jdbcSchemaName = database.getJdbcSchemaName(schema);
+
+        RecordingSnapshot workerSnapshot = new RecordingSnapshot(workerDatabase, snapshotControl, snapshot.isBulkFetchSchemas());
+        JdbcDatabaseSnapshot.CachingDatabaseMetaData metaData = workerSnapshot.getMetaDataFromCache();
+
+        Map<String, List<FetchedRows>> fetchedByTable = new HashMap<>();
+        for (String tableName : tableNames) {
+            workerSnapshot.fetched = new ArrayList<>();
+            if (snapshotControl.shouldInclude(Column.class)) {
+                metaData.getColumns(jdbcCatalogName, jdbcSchemaName, tableName, null);
+                metaData.getNotNullConst(schema.getCatalogName(), schema.getName(), tableName);
+            }
+            if (snapshotControl.shouldInclude(PrimaryKey.class)) {
+                metaData.getPrimaryKeys(jdbcCatalogName, jdbcSchemaName, tableName);
+            }
+            if (snapshotControl.shouldInclude(ForeignKey.class)) {
+                metaData.getForeignKeys(jdbcCatalogName, jdbcSchemaName, database.correctObjectName(tableName, Table.class), null);
+            }
+            if (snapshotControl.shouldInclude(Index.class)) {
+                metaData.getIndexInfo(jdbcCatalogName, jdbcSchemaName, tableName, null);
+            }
+            if (snapshotControl.shouldInclude(UniqueConstraint.class)) {
+                metaData.getUniqueConstraints(schema.getCatalogName(), schema.getName(), tableName);
+            }
+            fetchedByTable.put(tableName, workerSnapshot.fetched);
+        }
+        return fetchedByTable;
+    }
+
+    /**
+     * Rows returned by one metadata query, with the keys the snapshot cache stores them under.
+     */
+    private static class FetchedRows {
+        private final String cacheName;
+        private final String schemaKey;
+        private final String wantedKey;
+        private final List<CachedRow> rows;
+
+        private FetchedRows(String cacheName, String schemaKey, String wantedKey, List<CachedRow> rows) {
+            this.cacheName = cacheName;
+            this.schemaKey = schemaKey;
+            this.wantedKey = wantedKey;
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * Snapshot without examples whose metadata queries are recorded instead of cached.
+     */
+    private static class RecordingSnapshot extends JdbcDatabaseSnapshot {
+
+        private final boolean skipBulkQueries;
+        private List<FetchedRows> fetched = new ArrayList<>();
+
+        private RecordingSnapshot(Database database, SnapshotControl snapshotControl, boolean skipBulkQueries) throws DatabaseException, InvalidExampleException {
+            super(null, database, snapshotControl);
+            this.skipBulkQueries = skipBulkQueries;
+        }
+
+        @Override
+        public ResultSetCache getResultSetCache(String key) {
+            ResultSetCache resultSetCache = new RecordingResultSetCache(key, getDatabase(), fetched);
+            if (skipBulkQueries) {
+                //the snapshot reads the whole schema on its first query wherever it can, so only the rest is prefetched
+                resultSetCache.setSingleQueryLimit(0);
+            }
+            return resultSetCache;
+        }
+    }
+
+    /**
+     * Runs every query the snapshot would run for a single table and records the rows.
+     * Queries the snapshot would run for the whole schema are skipped and return no rows.
+     */
+    private static class RecordingResultSetCache extends ResultSetCache {
+
+        private final String cacheName;
+        private final Database database;
+        private final List<FetchedRows> fetched;
+
+        private RecordingResultSetCache(String cacheName, Database database, List<FetchedRows> fetched) {
+            this.cacheName = cacheName;
+            this.database = database;
+            this.fetched = fetched;
+        }
+
+        @Override
+        public List<CachedRow> get(ResultSetExtractor resultSetExtractor) throws DatabaseException {
+            String schemaKey = resultSetExtractor.wantedKeyParameters().createSchemaKey(database);
+            if (resultSetExtractor.shouldBulkSelect(schemaKey, this)) {
+                return new ArrayList<>();
+            }
+            String wantedKey = resultSetExtractor.wantedKeyParameters().createParamsKey(database);
+
+            List<CachedRow> rows = new ArrayList<>();
+            try {
+                //select the rows the same way ResultSetCache.get() does after a single query
+                for (CachedRow row : resultSetExtractor.fastFetch()) {
+                    for (String rowKey : resultSetExtractor.rowKeyParameters(row).getKeyPermutations()) {
+                        if (rowKey.equals(wantedKey)) {
+                            rows.add(row);
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                throw new DatabaseException(e);
+            }
+            fetched.add(new FetchedRows(cacheName, schemaKey, wantedKey, rows));
+            return rows;
+        }
+    }
+}
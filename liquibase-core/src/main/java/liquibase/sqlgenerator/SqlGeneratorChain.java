@@ -6,43 +6,53 @@ import liquibase.exception.Warnings;
 import liquibase.sql.Sql;
 import liquibase.statement.SqlStatement;
 
-import java.util.Iterator;
 import java.util.SortedSet;
 
 public class SqlGeneratorChain<T extends SqlStatement> {
-    private Iterator<SqlGenerator<T>> sqlGenerators;
+    private SqlGenerator<T>[] sqlGenerators;
+    private int position;
 
     public SqlGeneratorChain(SortedSet<SqlGenerator<T>> sqlGenerators) {
         if (sqlGenerators != null) {
-            this.sqlGenerators = sqlGenerators.iterator();
+            //noinspection unchecked
+            this.sqlGenerators = sqlGenerators.toArray(new SqlGenerator[0]);
         }
     }
 
+    /**
+     * Creates a chain over generators already sorted by priority. The array is shared, not copied, and must not be modified.
+     */
+    static <T extends SqlStatement> SqlGeneratorChain<T> ofSorted(SqlGenerator<T>[] sortedGenerators) {
+        SqlGeneratorChain<T> chain = new SqlGeneratorChain<>((SortedSet<SqlGenerator<T>>) null);
+        chain.sqlGenerators = sortedGenerators;
+        return chain;
+    }
+
     public Sql[] generateSql(T statement, Database database) {
         if (sqlGenerators == null) {
             return null;
         }
 
-        if (!sqlGenerators.hasNext()) {
+        if (position >= sqlGenerators.length) {
             return new Sql[0];
         }
 
-        return sqlGenerators.next().generateSql(statement, database, this);
+        return sqlGenerators[position++].generateSql(statement, database, this);
     }
 
     public Warnings warn(T statement, Database database) {
-        if ((sqlGenerators == null) || !sqlGenerators.hasNext()) {
+        if ((sqlGenerators == null) || (position >= sqlGenerators.length)) {
             return new Warnings();
         }
 
-        return sqlGenerators.next().warn(statement, database, this);
+        return sqlGenerators[position++].warn(statement, database, this);
     }
 
     public ValidationErrors validate(T statement, Database database) {
-        if ((sqlGenerators == null) || !sqlGenerators.hasNext()) {
+        if ((sqlGenerators == null) || (position >= sqlGenerators.length)) {
             return new ValidationErrors();
         }
 
-        return sqlGenerators.next().validate(statement, database, this);
+        return sqlGenerators[position++].validate(statement, database, this);
     }
 }
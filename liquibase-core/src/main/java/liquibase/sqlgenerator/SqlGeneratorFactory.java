@@ -3,6 +3,7 @@ package liquibase.sqlgenerator;
 import liquibase.Scope;
 import liquibase.change.Change;
 import liquibase.database.Database;
+import liquibase.database.DatabaseConnection;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.exception.ValidationErrors;
 import liquibase.exception.Warnings;
@@ -11,10 +12,13 @@ import liquibase.sql.Sql;
 import liquibase.statement.SqlStatement;
 import liquibase.structure.DatabaseObject;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 /**
  * SqlGeneratorFactory is a singleton registry of SqlGenerators.
@@ -23,12 +27,17 @@ import java.util.*;
  */
 public class SqlGeneratorFactory {
 
+    private static final SqlGenerator[] NO_GENERATORS = new SqlGenerator[0];
+
     private static SqlGeneratorFactory instance;
-    //caches for expensive reflection based calls that slow down Liquibase initialization: CORE-1207
-    private final Map<Class<?>, Type[]> genericInterfacesCache = new HashMap<>();
-    private final Map<Class<?>, Type> genericSuperClassCache = new HashMap<>();
-    private List<SqlGenerator> generators = new ArrayList<>();
-    private Map<String, SortedSet<SqlGenerator>> generatorsByKey = new HashMap<>();
+    private final GeneratorList generators = new GeneratorList();
+    //statement types each generator class is declared for, resolved once from the generic type arguments: CORE-1207
+    private final Map<Class<?>, Class<?>[]> statementTypesByGenerator = new ConcurrentHashMap<>();
+    //generators by statement class and database, sorted by priority. Cleared when the registered generators change
+    private final Map<DispatchKey, SqlGenerator[]> dispatchTable = new ConcurrentHashMap<>();
+    private volatile int dispatchTableVersion;
+    //major version of the database used for the last lookup, so the connection metadata is not read for every statement
+    private volatile DatabaseVersion lastDatabaseVersion;
 
     private SqlGeneratorFactory() {
         try {
@@ -55,15 +64,11 @@ public class SqlGeneratorFactory {
     }
 
 
-    public void register(SqlGenerator generator) {
-        if (this.generators.size() == 0) {
-            //handle case in tests wher we clear out the generators
-            this.generatorsByKey.clear();
-        }
+    public synchronized void register(SqlGenerator generator) {
         generators.add(generator);
     }
 
-    public void unregister(SqlGenerator generator) {
+    public synchronized void unregister(SqlGenerator generator) {
         generators.remove(generator);
     }
 
@@ -83,77 +88,118 @@ public class SqlGeneratorFactory {
     }
 
     public SortedSet<SqlGenerator> getGenerators(SqlStatement statement, Database database) {
-        String databaseName = null;
-        if (database == null) {
-            databaseName = "NULL";
-        } else {
-            databaseName = database.getShortName();
-        }
-
-        int version;
-        if (database == null) {
-            version = 0;
-        } else {
-            try {
-                version = database.getDatabaseMajorVersion();
-            } catch (Exception e) {
-                version = 0;
-            }
-        }
+        SortedSet<SqlGenerator> result = new TreeSet<>(new SqlGeneratorComparator());
+        result.addAll(Arrays.asList(getSortedGenerators(statement, database)));
+        return result;
+    }
 
-        String key = statement.getClass().getName()+":"+ databaseName+":"+ version;
+    /**
+     * Returns the generators for the statement and database, highest priority first.
+     * The result is looked up in the dispatch table, which is keyed by statement class, database class and major version.
+     */
+    private SqlGenerator[] getSortedGenerators(SqlStatement statement, Database database) {
+        int version = resetIfGeneratorsChanged();
 
-        if (generatorsByKey.containsKey(key) && !generatorsByKey.get(key).isEmpty()) {
-            SortedSet<SqlGenerator> result = new TreeSet<>(new SqlGeneratorComparator());
-            result.addAll(generatorsByKey.get(key));
-            result.retainAll(getGenerators());
-            return result;
+        DispatchKey key = new DispatchKey(statement.getClass(), database, getDatabaseMajorVersion(database));
+        SqlGenerator[] sortedGenerators = dispatchTable.get(key);
+        if (sortedGenerators != null) {
+            return sortedGenerators;
         }
 
         SortedSet<SqlGenerator> validGenerators = new TreeSet<>(new SqlGeneratorComparator());
+        for (SqlGenerator generator : getGeneratorsSnapshot()) {
+            if (isDeclaredFor(generator, statement.getClass()) && generator.supports(statement, database)) {
+                validGenerators.add(generator);
+            }
+        }
+        if (validGenerators.isEmpty()) {
+            //not cached: supports() may accept other statements of the same class
+            return NO_GENERATORS;
+        }
 
-        for (SqlGenerator generator : getGenerators()) {
-            Class clazz = generator.getClass();
-            Type classType = null;
-            while (clazz != null) {
-                if (classType instanceof ParameterizedType) {
-                    checkType(classType, statement, generator, database, validGenerators);
-                }
+        sortedGenerators = validGenerators.toArray(NO_GENERATORS);
+        if (generators.getVersion() == version) {
+            dispatchTable.put(key, sortedGenerators);
+        }
+        return sortedGenerators;
+    }
 
-                for (Type type : getGenericInterfaces(clazz)) {
-                    if (type instanceof ParameterizedType) {
-                        checkType(type, statement, generator, database, validGenerators);
-                    } else if (isTypeEqual(type, SqlGenerator.class)) {
-                        //noinspection unchecked
-                        if (generator.supports(statement, database)) {
-                            validGenerators.add(generator);
-                        }
-                    }
+    /**
+     * Clears the dispatch table if generators were registered or removed since they were filled.
+     * Only locks when that happened.
+     *
+     * @return the generator list version the dispatch table is valid for
+     */
+    private int resetIfGeneratorsChanged() {
+        int version = generators.getVersion();
+        if (version != dispatchTableVersion) {
+            synchronized (this) {
+                version = generators.getVersion();
+                if (version != dispatchTableVersion) {
+                    dispatchTable.clear();
+                    dispatchTableVersion = version;
                 }
-                classType = getGenericSuperclass(clazz);
-                clazz = clazz.getSuperclass();
             }
         }
-        generatorsByKey.put(key, validGenerators);
-        return validGenerators;
+        return version;
     }
 
-    private Type[] getGenericInterfaces(Class<?> clazz) {
-        if(genericInterfacesCache.containsKey(clazz)) {
-            return genericInterfacesCache.get(clazz);
+    private int getDatabaseMajorVersion(Database database) {
+        if (database == null) {
+            return 0;
+        }
+        DatabaseConnection connection = database.getConnection();
+        DatabaseVersion last = lastDatabaseVersion;
+        if ((last != null) && (last.database.get() == database) && (last.connection.get() == connection)) {
+            return last.majorVersion;
+        }
+
+        int majorVersion;
+        try {
+            majorVersion = database.getDatabaseMajorVersion();
+        } catch (Exception e) {
+            majorVersion = 0;
         }
-        Type[] genericInterfaces = clazz.getGenericInterfaces();
-        genericInterfacesCache.put(clazz, genericInterfaces);
-        return genericInterfaces;
+        lastDatabaseVersion = new DatabaseVersion(database, connection, majorVersion);
+        return majorVersion;
     }
 
-    private Type getGenericSuperclass(Class<?> clazz) {
-        if(genericSuperClassCache.containsKey(clazz)) {
-            return genericSuperClassCache.get(clazz);
+    private synchronized SqlGenerator[] getGeneratorsSnapshot() {
+        return generators.toArray(NO_GENERATORS);
+    }
+
+    private boolean isDeclaredFor(SqlGenerator generator, Class<?> statementClass) {
+        for (Class<?> statementType : statementTypesByGenerator.computeIfAbsent(generator.getClass(), this::findStatementTypes)) {
+            if (statementType.isAssignableFrom(statementClass)) {
+                return true;
+            }
         }
-        Type genericSuperclass = clazz.getGenericSuperclass();
-        genericSuperClassCache.put(clazz, genericSuperclass);
-        return genericSuperclass;
+        return false;
+    }
+
+    /**
+     * Walks the class hierarchy of the generator and returns the SqlStatement types it is declared for.
+     * A generator implementing a raw supertype of SqlGenerator is declared for all statements.
+     */
+    private Class<?>[] findStatementTypes(Class<?> generatorClass) {
+        Set<Class<?>> statementTypes = new LinkedHashSet<>();
+        Class<?> clazz = generatorClass;
+        while (clazz != null) {
+            Type superclass = clazz.getGenericSuperclass();
+            if (superclass instanceof ParameterizedType) {
+                addStatementTypes((ParameterizedType) superclass, statementTypes);
+            }
+
+            for (Type type : clazz.getGenericInterfaces()) {
+                if (type instanceof ParameterizedType) {
+                    addStatementTypes((ParameterizedType) type, statementTypes);
+                } else if (isTypeEqual(type, SqlGenerator.class)) {
+                    statementTypes.add(SqlStatement.class);
+                }
+            }
+            clazz = clazz.getSuperclass();
+        }
+        return statementTypes.toArray(new Class<?>[0]);
     }
 
     private boolean isTypeEqual(Type aType, Class aClass) {
@@ -163,8 +209,8 @@ public class SqlGeneratorFactory {
         return aType.equals(aClass);
     }
 
-    private void checkType(Type type, SqlStatement statement, SqlGenerator generator, Database database, SortedSet<SqlGenerator> validGenerators) {
-        for (Type typeClass : ((ParameterizedType) type).getActualTypeArguments()) {
+    private void addStatementTypes(ParameterizedType type, Set<Class<?>> statementTypes) {
+        for (Type typeClass : type.getActualTypeArguments()) {
             if (typeClass instanceof TypeVariable) {
                 typeClass = ((TypeVariable) typeClass).getBounds()[0];
             }
@@ -173,21 +219,19 @@ public class SqlGeneratorFactory {
                 return;
             }
 
-            if (((Class) typeClass).isAssignableFrom(statement.getClass())) {
-                if (generator.supports(statement, database)) {
-                    validGenerators.add(generator);
-                }
+            if (typeClass instanceof Class) {
+                statementTypes.add((Class<?>) typeClass);
             }
         }
     }
 
     private SqlGeneratorChain createGeneratorChain(SqlStatement statement, Database database) {
-        SortedSet<SqlGenerator> sqlGenerators = getGenerators(statement, database);
-        if ((sqlGenerators == null) || sqlGenerators.isEmpty()) {
+        SqlGenerator[] sqlGenerators = getSortedGenerators(statement, database);
+        if (sqlGenerators.length == 0) {
             return null;
         }
         //noinspection unchecked
-        return new SqlGeneratorChain(sqlGenerators);
+        return SqlGeneratorChain.ofSorted(sqlGenerators);
     }
 
     public Sql[] generateSql(Change change, Database database) {
@@ -225,7 +269,7 @@ public class SqlGeneratorFactory {
      * If the statement queries the database, it cannot be used in updateSql type operations
      */
     public boolean generateStatementsVolatile(SqlStatement statement, Database database) {
-        for (SqlGenerator generator : getGenerators(statement, database)) {
+        for (SqlGenerator generator : getSortedGenerators(statement, database)) {
             if (generator.generateStatementsIsVolatile(database)) {
                 return true;
             }
@@ -234,7 +278,7 @@ public class SqlGeneratorFactory {
     }
 
     public boolean generateRollbackStatementsVolatile(SqlStatement statement, Database database) {
-        for (SqlGenerator generator : getGenerators(statement, database)) {
+        for (SqlGenerator generator : getSortedGenerators(statement, database)) {
             if (generator.generateRollbackStatementsIsVolatile(database)) {
                 return true;
             }
@@ -243,7 +287,7 @@ public class SqlGeneratorFactory {
     }
 
     public boolean supports(SqlStatement statement, Database database) {
-        return !getGenerators(statement, database).isEmpty();
+        return getSortedGenerators(statement, database).length > 0;
     }
 
     public ValidationErrors validate(SqlStatement statement, Database database) {
@@ -280,4 +324,119 @@ public class SqlGeneratorFactory {
         }
         return affectedObjects;
     }
+
+    /**
+     * Generator list which counts its changes in a volatile field, so changes made through {@link #getGenerators()} also
+     * reset the dispatch table and lookups can check for them without locking.
+     */
+    private static class GeneratorList extends ArrayList<SqlGenerator> {
+        private volatile int version;
+
+        int getVersion() {
+            return version;
+        }
+
+        private <T> T changed(T result) {
+            version++;
+            return result;
+        }
+
+        @Override
+        public boolean add(SqlGenerator generator) {
+            return changed(super.add(generator));
+        }
+
+        @Override
+        public void add(int index, SqlGenerator generator) {
+            super.add(index, generator);
+            changed(null);
+        }
+
+        @Override
+        public boolean addAll(Collection<? extends SqlGenerator> generators) {
+            return changed(super.addAll(generators));
+        }
+
+        @Override
+        public boolean addAll(int index, Collection<? extends SqlGenerator> generators) {
+            return changed(super.addAll(index, generators));
+        }
+
+        @Override
+        public SqlGenerator set(int index, SqlGenerator generator) {
+            return changed(super.set(index, generator));
+        }
+
+        @Override
+        public SqlGenerator remove(int index) {
+            return changed(super.remove(index));
+        }
+
+        @Override
+        public boolean remove(Object generator) {
+            return changed(super.remove(generator));
+        }
+
+        @Override
+        public boolean removeAll(Collection<?> generators) {
+            return changed(super.removeAll(generators));
+        }
+
+        @Override
+        public boolean retainAll(Collection<?> generators) {
+            return changed(super.retainAll(generators));
+        }
+
+        @Override
+        public boolean removeIf(Predicate<? super SqlGenerator> filter) {
+            return changed(super.removeIf(filter));
+        }
+
+        @Override
+        public void clear() {
+            super.clear();
+            changed(null);
+        }
+    }
+
+    private static class DispatchKey {
+        private final Class<?> statementClass;
+        private final Class<?> databaseClass;
+        private final String databaseName;
+        private final int databaseVersion;
+
+        DispatchKey(Class<?> statementClass, Database database, int databaseVersion) {
+            this.statementClass = statementClass;
+            this.databaseClass = (database == null) ? null : database.getClass();
+            this.databaseName = (database == null) ? "NULL" : database.getShortName();
+            this.databaseVersion = databaseVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof DispatchKey)) {
+                return false;
+            }
+            DispatchKey other = (DispatchKey) o;
+            return (statementClass == other.statementClass) && (databaseClass == other.databaseClass)
+                    && (databaseVersion == other.databaseVersion) && Objects.equals(databaseName, other.databaseName);
+        }
+
+        @Override
+        public int hashCode() {
+            return (31 * ((31 * ((31 * statementClass.hashCode()) + Objects.hashCode(databaseClass))) + Objects.hashCode(databaseName))) + databaseVersion;
+        }
+    }
+
+    private static class DatabaseVersion {
+        private final WeakReference<Database> database;
+        private final WeakReference<DatabaseConnection> connection;
+        private final int majorVersion;
+
+        DatabaseVersion(Database database, DatabaseConnection connection, int majorVersion) {
+            this.database = new WeakReference<>(database);
+            this.connection = new WeakReference<>(connection);
+            this.majorVersion = majorVersion;
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.*;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.core.CommitStatement;
+
+/**
+ * Generates a COMMIT for {@link CommitStatement} so SQL output shows where the transaction is committed.
+ * When updating, the executor commits through the connection instead of running the generated SQL.
+ * <p>
+ * No SQL is generated for databases whose scripts run outside a transaction unless one is started explicitly, where COMMIT fails.
+ */
+public class CommitGenerator extends AbstractSqlGenerator<CommitStatement> {
+
+    @Override
+    public ValidationErrors validate(CommitStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new ValidationErrors();
+    }
+
+    @Override
+    public Sql[] generateSql(CommitStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        if ((database instanceof MSSQLDatabase) || (database instanceof SybaseDatabase) || (database instanceof SybaseASADatabase)
+                || (database instanceof SQLiteDatabase) || (database instanceof InformixDatabase)) {
+            return new Sql[0];
+        }
+        return new Sql[]{new UnparsedSql("COMMIT")};
+    }
+}
@@ -66,25 +66,7 @@ public class InsertGenerator extends AbstractSqlGenerator<InsertStatement> {
         sql.append("(");
 
         for (String column : statement.getColumnValues().keySet()) {
-            Object newValue = statement.getColumnValues().get(column);
-            if ((newValue == null) || "NULL".equalsIgnoreCase(newValue.toString())) {
-                sql.append("NULL");
-            } else if ((newValue instanceof String) && !looksLikeFunctionCall(((String) newValue), database)) {
-                sql.append(DataTypeFactory.getInstance().fromObject(newValue, database).objectToSql(newValue, database));
-            } else if (newValue instanceof Date) {
-                sql.append(database.getDateLiteral(((Date) newValue)));
-            } else if (newValue instanceof Boolean) {
-                if (((Boolean) newValue)) {
-                    sql.append(DataTypeFactory.getInstance().getTrueBooleanValue(database));
-                } else {
-                    sql.append(DataTypeFactory.getInstance().getFalseBooleanValue(database));
-                }
-            } else if (newValue instanceof DatabaseFunction) {
-                sql.append(database.generateDatabaseFunctionValue((DatabaseFunction) newValue));
-            }
-            else {
-                sql.append(newValue);
-            }
+            sql.append(generateValue(statement.getColumnValues().get(column), database));
             sql.append(", ");
         }
 
@@ -97,6 +79,28 @@ public class InsertGenerator extends AbstractSqlGenerator<InsertStatement> {
         sql.append(")");
     }
 
+    /**
+     * Returns the SQL literal, function call or NULL for a single column value.
+     */
+    public String generateValue(Object newValue, Database database) {
+        if ((newValue == null) || "NULL".equalsIgnoreCase(newValue.toString())) {
+            return "NULL";
+        } else if ((newValue instanceof String) && !looksLikeFunctionCall(((String) newValue), database)) {
+            return DataTypeFactory.getInstance().fromObject(newValue, database).objectToSql(newValue, database);
+        } else if (newValue instanceof Date) {
+            return database.getDateLiteral(((Date) newValue));
+        } else if (newValue instanceof Boolean) {
+            if (((Boolean) newValue)) {
+                return DataTypeFactory.getInstance().getTrueBooleanValue(database);
+            } else {
+                return DataTypeFactory.getInstance().getFalseBooleanValue(database);
+            }
+        } else if (newValue instanceof DatabaseFunction) {
+            return database.generateDatabaseFunctionValue((DatabaseFunction) newValue);
+        }
+        return newValue.toString();
+    }
+
 
     protected Relation getAffectedTable(InsertStatement statement) {
         return new Table().setName(statement.getTableName()).setSchema(statement.getCatalogName(), statement.getSchemaName());
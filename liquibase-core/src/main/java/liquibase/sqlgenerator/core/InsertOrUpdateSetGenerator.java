@@ -0,0 +1,192 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.core.InsertOrUpdateSetStatement;
+import liquibase.statement.core.InsertOrUpdateStatement;
+import liquibase.structure.core.Table;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Base class for generators which apply an {@link InsertOrUpdateSetStatement} with one set-based upsert per batch.
+ * The rows are split into batches of at most {@link InsertOrUpdateSetStatement#getBatchSize()} rows. A new batch is
+ * also started when a row repeats a primary key of the current batch or sets different columns, so each batch gives
+ * the same result as running its rows one by one.
+ */
+public abstract class InsertOrUpdateSetGenerator extends AbstractSqlGenerator<InsertOrUpdateSetStatement> {
+
+    /**
+     * Returns the SQL applying a batch of rows. All rows set the same columns and have distinct primary keys.
+     */
+    protected abstract String generateBatchSql(InsertOrUpdateSetStatement statement, List<InsertOrUpdateStatement> rows,
+                                               Database database);
+
+    /**
+     * Returns true if {@link #generateBatchSql} handles statements with onlyUpdate set. If not, such statements are
+     * generated with one {@link InsertOrUpdateStatement} per row. Otherwise batches with no column to update generate
+     * no SQL, as there is nothing for them to do.
+     */
+    protected boolean supportsOnlyUpdate() {
+        return true;
+    }
+
+    @Override
+    public int getPriority() {
+        return PRIORITY_DATABASE;
+    }
+
+    @Override
+    public ValidationErrors validate(InsertOrUpdateSetStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        ValidationErrors validationErrors = new ValidationErrors();
+        validationErrors.checkRequiredField("tableName", statement.getTableName());
+        validationErrors.checkRequiredField("primaryKey", statement.getPrimaryKey());
+        validationErrors.checkRequiredField("statements", statement.getStatements());
+
+        return validationErrors;
+    }
+
+    @Override
+    public Sql[] generateSql(InsertOrUpdateSetStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        if (statement.getOnlyUpdate() && !supportsOnlyUpdate()) {
+            return SqlGeneratorFactory.getInstance().generateSql(statement.getStatementsArray(), database);
+        }
+
+        List<Sql> result = new ArrayList<>();
+        for (List<InsertOrUpdateStatement> batch : getBatches(statement)) {
+            if (statement.getOnlyUpdate() && getUpdateColumns(statement, batch.get(0)).isEmpty()) {
+                // nothing to update, same as InsertOrUpdateGenerator which generates no SQL for such rows
+                continue;
+            }
+            result.add(new UnparsedSql(generateBatchSql(statement, batch, database), getAffectedTable(statement)));
+        }
+        return result.toArray(new Sql[0]);
+    }
+
+    protected List<List<InsertOrUpdateStatement>> getBatches(InsertOrUpdateSetStatement statement) {
+        List<String> primaryKeyColumns = getPrimaryKeyColumns(statement);
+        List<List<InsertOrUpdateStatement>> batches = new ArrayList<>();
+        List<InsertOrUpdateStatement> batch = new ArrayList<>();
+        Set<List<Object>> batchKeys = new HashSet<>();
+        for (InsertOrUpdateStatement row : statement.getStatements()) {
+            List<Object> key = new ArrayList<>();
+            for (String column : primaryKeyColumns) {
+                key.add(row.getColumnValue(column));
+            }
+            if (!batch.isEmpty() && ((batch.size() >= statement.getBatchSize()) || batchKeys.contains(key)
+                    || !batch.get(0).getColumnValues().keySet().equals(row.getColumnValues().keySet()))) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                batchKeys.clear();
+            }
+            batch.add(row);
+            batchKeys.add(key);
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    protected List<String> getPrimaryKeyColumns(InsertOrUpdateSetStatement statement) {
+        List<String> columns = new ArrayList<>();
+        for (String column : statement.getPrimaryKey().split(",")) {
+            columns.add(column.trim());
+        }
+        return columns;
+    }
+
+    protected List<String> getColumns(InsertOrUpdateStatement row) {
+        return new ArrayList<>(row.getColumnValues().keySet());
+    }
+
+    /**
+     * Returns the columns updated when a row already exists: all columns except the primary key and the columns
+     * which do not allow updates.
+     */
+    protected List<String> getUpdateColumns(InsertOrUpdateSetStatement statement, InsertOrUpdateStatement row) {
+        List<String> primaryKeyColumns = getPrimaryKeyColumns(statement);
+        List<String> columns = new ArrayList<>();
+        for (String column : row.getColumnValues().keySet()) {
+            if (!primaryKeyColumns.contains(column) && row.getAllowColumnUpdate(column)) {
+                columns.add(column);
+            }
+        }
+        return columns;
+    }
+
+    protected String escapeColumnName(InsertOrUpdateSetStatement statement, String column, Database database) {
+        return database.escapeColumnName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName(), column);
+    }
+
+    protected String getColumnList(InsertOrUpdateSetStatement statement, List<String> columns, String prefix, Database database) {
+        StringJoiner list = new StringJoiner(", ");
+        for (String column : columns) {
+            list.add(prefix + escapeColumnName(statement, column, database));
+        }
+        return list.toString();
+    }
+
+    protected String getValueSql(InsertOrUpdateStatement row, String column, Database database) {
+        return new InsertGenerator().generateValue(row.getColumnValue(column), database);
+    }
+
+    /**
+     * Returns the rows as a list of parenthesized value tuples, as used by a VALUES clause.
+     */
+    protected String getValuesList(List<InsertOrUpdateStatement> rows, List<String> columns, Database database) {
+        StringJoiner valuesList = new StringJoiner(", ");
+        for (InsertOrUpdateStatement row : rows) {
+            StringJoiner values = new StringJoiner(", ", "(", ")");
+            for (String column : columns) {
+                values.add(getValueSql(row, column, database));
+            }
+            valuesList.add(values.toString());
+        }
+        return valuesList.toString();
+    }
+
+    /**
+     * Creates a MERGE statement reading the rows from the given source, which must expose the columns under their
+     * own names with the alias "source".
+     */
+    protected String getMergeSql(InsertOrUpdateSetStatement statement, List<String> columns, List<String> updateColumns,
+                                 String source, Database database) {
+        StringBuilder sql = new StringBuilder("MERGE INTO ")
+                .append(database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()))
+                .append(" target USING ").append(source).append(" ON (");
+
+        StringJoiner condition = new StringJoiner(" AND ");
+        for (String column : getPrimaryKeyColumns(statement)) {
+            String escapedColumn = escapeColumnName(statement, column, database);
+            condition.add("target." + escapedColumn + " = source." + escapedColumn);
+        }
+        sql.append(condition).append(")");
+
+        if (!updateColumns.isEmpty()) {
+            StringJoiner set = new StringJoiner(", ");
+            for (String column : updateColumns) {
+                String escapedColumn = escapeColumnName(statement, column, database);
+                set.add("target." + escapedColumn + " = source." + escapedColumn);
+            }
+            sql.append("\nWHEN MATCHED THEN UPDATE SET ").append(set);
+        }
+        if (!statement.getOnlyUpdate()) {
+            sql.append("\nWHEN NOT MATCHED THEN INSERT (").append(getColumnList(statement, columns, "", database))
+                    .append(") VALUES (").append(getColumnList(statement, columns, "source.", database)).append(")");
+        }
+        return sql.toString();
+    }
+
+    protected Table getAffectedTable(InsertOrUpdateSetStatement statement) {
+        return (Table) new Table().setName(statement.getTableName()).setSchema(statement.getCatalogName(), statement.getSchemaName());
+    }
+}
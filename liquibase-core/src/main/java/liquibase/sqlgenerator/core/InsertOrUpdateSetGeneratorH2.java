@@ -0,0 +1,33 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.statement.core.InsertOrUpdateSetStatement;
+import liquibase.statement.core.InsertOrUpdateStatement;
+
+import java.util.List;
+
+/**
+ * Applies each batch with a multi-row MERGE INTO ... KEY, like {@link InsertOrUpdateGeneratorH2} does for single rows.
+ */
+public class InsertOrUpdateSetGeneratorH2 extends InsertOrUpdateSetGenerator {
+    @Override
+    public boolean supports(InsertOrUpdateSetStatement statement, Database database) {
+        return (database instanceof H2Database);
+    }
+
+    @Override
+    protected boolean supportsOnlyUpdate() {
+        return false;
+    }
+
+    @Override
+    protected String generateBatchSql(InsertOrUpdateSetStatement statement, List<InsertOrUpdateStatement> rows, Database database) {
+        List<String> columns = getColumns(rows.get(0));
+        return "MERGE INTO " +
+                database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()) +
+                " (" + getColumnList(statement, columns, "", database) + ")" +
+                " KEY (" + getColumnList(statement, getPrimaryKeyColumns(statement), "", database) + ")" +
+                " VALUES " + getValuesList(rows, columns, database);
+    }
+}
@@ -0,0 +1,27 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.statement.core.InsertOrUpdateSetStatement;
+import liquibase.statement.core.InsertOrUpdateStatement;
+
+import java.util.List;
+
+/**
+ * Applies each batch with a MERGE reading the rows from a VALUES table constructor.
+ */
+public class InsertOrUpdateSetGeneratorMSSQL extends InsertOrUpdateSetGenerator {
+    @Override
+    public boolean supports(InsertOrUpdateSetStatement statement, Database database) {
+        return database instanceof MSSQLDatabase;
+    }
+
+    @Override
+    protected String generateBatchSql(InsertOrUpdateSetStatement statement, List<InsertOrUpdateStatement> rows, Database database) {
+        List<String> columns = getColumns(rows.get(0));
+        String source = "(VALUES " + getValuesList(rows, columns, database) + ") AS source (" +
+                getColumnList(statement, columns, "", database) + ")";
+        // MERGE must be terminated by a semicolon on SQL Server
+        return getMergeSql(statement, columns, getUpdateColumns(statement, rows.get(0)), source, database) + ";";
+    }
+}
@@ -0,0 +1,44 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.statement.core.InsertOrUpdateSetStatement;
+import liquibase.statement.core.InsertOrUpdateStatement;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Applies each batch with a multi-row INSERT ... ON DUPLICATE KEY UPDATE, or INSERT IGNORE if no column can be updated.
+ */
+public class InsertOrUpdateSetGeneratorMySQL extends InsertOrUpdateSetGenerator {
+    @Override
+    public boolean supports(InsertOrUpdateSetStatement statement, Database database) {
+        return (database instanceof MySQLDatabase);
+    }
+
+    @Override
+    protected boolean supportsOnlyUpdate() {
+        return false;
+    }
+
+    @Override
+    protected String generateBatchSql(InsertOrUpdateSetStatement statement, List<InsertOrUpdateStatement> rows, Database database) {
+        List<String> columns = getColumns(rows.get(0));
+        List<String> updateColumns = getUpdateColumns(statement, rows.get(0));
+
+        StringBuilder sql = new StringBuilder(updateColumns.isEmpty() ? "INSERT IGNORE INTO " : "INSERT INTO ")
+                .append(database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()))
+                .append(" (").append(getColumnList(statement, columns, "", database)).append(") VALUES ")
+                .append(getValuesList(rows, columns, database));
+        if (!updateColumns.isEmpty()) {
+            StringJoiner set = new StringJoiner(", ");
+            for (String column : updateColumns) {
+                String escapedColumn = escapeColumnName(statement, column, database);
+                set.add(escapedColumn + " = VALUES(" + escapedColumn + ")");
+            }
+            sql.append("\nON DUPLICATE KEY UPDATE ").append(set);
+        }
+        return sql.toString();
+    }
+}
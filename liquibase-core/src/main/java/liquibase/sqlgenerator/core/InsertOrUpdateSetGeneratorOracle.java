@@ -0,0 +1,34 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.OracleDatabase;
+import liquibase.statement.core.InsertOrUpdateSetStatement;
+import liquibase.statement.core.InsertOrUpdateStatement;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Applies each batch with a MERGE reading the rows from a UNION ALL of selects from DUAL.
+ */
+public class InsertOrUpdateSetGeneratorOracle extends InsertOrUpdateSetGenerator {
+    @Override
+    public boolean supports(InsertOrUpdateSetStatement statement, Database database) {
+        return database instanceof OracleDatabase;
+    }
+
+    @Override
+    protected String generateBatchSql(InsertOrUpdateSetStatement statement, List<InsertOrUpdateStatement> rows, Database database) {
+        List<String> columns = getColumns(rows.get(0));
+
+        StringJoiner source = new StringJoiner("\nUNION ALL ", "(", ") source");
+        for (InsertOrUpdateStatement row : rows) {
+            StringJoiner values = new StringJoiner(", ", "SELECT ", " FROM DUAL");
+            for (String column : columns) {
+                values.add(getValueSql(row, column, database) + " " + escapeColumnName(statement, column, database));
+            }
+            source.add(values.toString());
+        }
+        return getMergeSql(statement, columns, getUpdateColumns(statement, rows.get(0)), source.toString(), database);
+    }
+}
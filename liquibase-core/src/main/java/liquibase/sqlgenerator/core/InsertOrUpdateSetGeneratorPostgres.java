@@ -0,0 +1,57 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.database.core.CockroachDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.exception.DatabaseException;
+import liquibase.statement.core.InsertOrUpdateSetStatement;
+import liquibase.statement.core.InsertOrUpdateStatement;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Applies each batch with INSERT ... ON CONFLICT, which requires a unique constraint on the primary key columns.
+ */
+public class InsertOrUpdateSetGeneratorPostgres extends InsertOrUpdateSetGenerator {
+    @Override
+    public boolean supports(InsertOrUpdateSetStatement statement, Database database) {
+        if (!(database instanceof PostgresDatabase) || (database instanceof CockroachDatabase)) {
+            return false;
+        }
+        try {
+            return (database.getDatabaseMajorVersion() > 9)
+                    || ((database.getDatabaseMajorVersion() == 9) && (database.getDatabaseMinorVersion() >= 5));
+        } catch (DatabaseException e) {
+            return true;
+        }
+    }
+
+    @Override
+    protected boolean supportsOnlyUpdate() {
+        return false;
+    }
+
+    @Override
+    protected String generateBatchSql(InsertOrUpdateSetStatement statement, List<InsertOrUpdateStatement> rows, Database database) {
+        List<String> columns = getColumns(rows.get(0));
+        List<String> updateColumns = getUpdateColumns(statement, rows.get(0));
+
+        StringBuilder sql = new StringBuilder("INSERT INTO ")
+                .append(database.escapeTableName(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName()))
+                .append(" (").append(getColumnList(statement, columns, "", database)).append(") VALUES ")
+                .append(getValuesList(rows, columns, database))
+                .append("\nON CONFLICT (").append(getColumnList(statement, getPrimaryKeyColumns(statement), "", database)).append(")");
+        if (updateColumns.isEmpty()) {
+            sql.append(" DO NOTHING");
+        } else {
+            StringJoiner set = new StringJoiner(", ");
+            for (String column : updateColumns) {
+                String escapedColumn = escapeColumnName(statement, column, database);
+                set.add(escapedColumn + " = EXCLUDED." + escapedColumn);
+            }
+            sql.append(" DO UPDATE SET ").append(set);
+        }
+        return sql.toString();
+    }
+}
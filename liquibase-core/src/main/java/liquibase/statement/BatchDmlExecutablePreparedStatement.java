@@ -25,6 +25,8 @@ import java.util.List;
 public class BatchDmlExecutablePreparedStatement extends ExecutablePreparedStatementBase {
     private final List<ExecutablePreparedStatementBase> collectedStatements;
     private final Logger LOG = Scope.getCurrentScope().getLog(getClass());
+    private Integer batchSize;
+    private int pendingRows;
 
     public BatchDmlExecutablePreparedStatement(
             Database database, String catalogName, String schemaName, String tableName,
@@ -43,15 +45,31 @@ public class BatchDmlExecutablePreparedStatement extends ExecutablePreparedState
         return new ArrayList<>(collectedStatements);
     }
 
+    /**
+     * Returns the maximum number of rows sent to the database in a single JDBC batch.
+     * @return the batch size, or null if all rows are sent in one batch
+     */
+    public Integer getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(Integer batchSize) {
+        this.batchSize = batchSize;
+    }
+
     @Override
     protected void attachParams(List<? extends ColumnConfig> ignored, PreparedStatement stmt)
             throws SQLException, DatabaseException {
+        pendingRows = 0;
         for (ExecutablePreparedStatementBase insertStatement : collectedStatements) {
             super.attachParams(insertStatement.getColumns(), stmt);
             stmt.addBatch();
+            pendingRows++;
+            if ((batchSize != null) && (pendingRows >= batchSize)) {
+                executeBatch(stmt);
+            }
         }
     }
-
     @Override
     protected String generateSql(List<ColumnConfig> cols) {
         // By convention, all of the statements are the same except the bind values. So it is sufficient to simply
@@ -61,13 +79,25 @@ public class BatchDmlExecutablePreparedStatement extends ExecutablePreparedState
 
     @Override
     protected void executePreparedStatement(PreparedStatement stmt) throws SQLException {
+        if (pendingRows > 0) {
+            executeBatch(stmt);
+        }
+    }
+
+    private void executeBatch(PreparedStatement stmt) throws SQLException {
+        long startTime = System.currentTimeMillis();
         int updateCounts[] = stmt.executeBatch();
+        long duration = System.currentTimeMillis() - startTime;
         long sumUpdateCounts = 0;
         for (int updateCount : updateCounts) {
-            sumUpdateCounts = updateCount;
+            sumUpdateCounts += updateCount;
         }
         LOG.info(String.format("Executing JDBC DML batch was successful. %d operations were executed, %d individual UPDATE events were confirmed by the database.",
                 updateCounts.length, sumUpdateCounts));
+        reportBatchExecuted(pendingRows, duration);
+        pendingRows = 0;
+        stmt.clearBatch();
+        closeOpenedStreams();
     }
 
     @Override
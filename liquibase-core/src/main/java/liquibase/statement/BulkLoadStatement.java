@@ -0,0 +1,104 @@
+package liquibase.statement;
+
+import liquibase.Scope;
+import liquibase.bulkload.BulkLoader;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.visitor.ChangeExecListener;
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Loads rows into a table through a {@link BulkLoader} instead of INSERT statements.
+ * The rows are pulled from a {@link RowSource} when the statement is executed.
+ */
+public class BulkLoadStatement extends AbstractSqlStatement implements ExecutablePreparedStatement {
+
+    private final BulkLoader bulkLoader;
+    private final Database database;
+    private final String catalogName;
+    private final String schemaName;
+    private final String tableName;
+    private final List<String> columnNames;
+    private final ChangeSet changeSet;
+    private final RowSource rowSource;
+
+    public BulkLoadStatement(BulkLoader bulkLoader, Database database, String catalogName, String schemaName,
+                             String tableName, List<String> columnNames, ChangeSet changeSet, RowSource rowSource) {
+        this.bulkLoader = bulkLoader;
+        this.database = database;
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.columnNames = new ArrayList<>(columnNames);
+        this.changeSet = changeSet;
+        this.rowSource = rowSource;
+    }
+
+    public BulkLoader getBulkLoader() {
+        return bulkLoader;
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<String> getColumnNames() {
+        return columnNames;
+    }
+
+    @Override
+    public void execute(PreparedStatementFactory factory) throws DatabaseException {
+        Iterator<Object[]> rows = rowSource.open();
+        try {
+            long startTime = System.currentTimeMillis();
+            long rowCount = bulkLoader.load(database, catalogName, schemaName, tableName, columnNames, rows);
+            long duration = System.currentTimeMillis() - startTime;
+            Scope.getCurrentScope().getLog(getClass()).info(String.format("Bulk loaded %d row(s) into %s using %s",
+                    rowCount, tableName, bulkLoader.getClass().getSimpleName()));
+
+            ChangeExecListener listener = Scope.getCurrentScope().get(ChangeExecListener.class.getName(), ChangeExecListener.class);
+            if (listener != null) {
+                listener.batchExecuted(changeSet, database, tableName, (int) rowCount, duration);
+            }
+        } catch (UnexpectedLiquibaseException e) {
+            throw new DatabaseException(e.getMessage(), e);
+        } finally {
+            if (rows instanceof Closeable) {
+                try {
+                    ((Closeable) rows).close();
+                } catch (IOException ignore) {
+                    // Do nothing
+                }
+            }
+        }
+    }
+
+    /**
+     * Supplies the rows of a {@link BulkLoadStatement}.
+     */
+    @FunctionalInterface
+    public interface RowSource {
+
+        /**
+         * Opens a new iterator over the rows, holding one value per column. Rows should be read lazily. If the
+         * returned iterator implements {@link Closeable} it is closed once the rows have been loaded.
+         */
+        Iterator<Object[]> open() throws DatabaseException;
+    }
+}
@@ -3,6 +3,7 @@ package liquibase.statement;
 import liquibase.Scope;
 import liquibase.change.ColumnConfig;
 import liquibase.changelog.ChangeSet;
+import liquibase.changelog.visitor.ChangeExecListener;
 import liquibase.database.Database;
 import liquibase.database.PreparedStatementFactory;
 import liquibase.database.core.PostgresDatabase;
@@ -83,16 +84,34 @@ public abstract class ExecutablePreparedStatementBase implements ExecutablePrepa
         } catch (SQLException e) {
             throw new DatabaseException(e);
         } finally {
-            for (Closeable closeable : closeables) {
-                try {
-                    closeable.close();
-                } catch (IOException ignore) {
-                }
-            }
+            closeOpenedStreams();
             JdbcUtil.closeStatement(stmt);
         }
     }
 
+    /**
+     * Reports a batch of rows sent to the database to the {@link ChangeExecListener} of the changeSet being executed.
+     */
+    protected void reportBatchExecuted(int rowCount, long durationMillis) {
+        ChangeExecListener listener = Scope.getCurrentScope().get(ChangeExecListener.class.getName(), ChangeExecListener.class);
+        if (listener != null) {
+            listener.batchExecuted(changeSet, database, tableName, rowCount, durationMillis);
+        }
+    }
+
+    /**
+     * Closes the LOB streams and readers opened while attaching parameters.
+     */
+    protected void closeOpenedStreams() {
+        for (Closeable closeable : closeables) {
+            try {
+                closeable.close();
+            } catch (IOException ignore) {
+            }
+        }
+        closeables.clear();
+    }
+
     protected void executePreparedStatement(PreparedStatement stmt) throws SQLException {
         stmt.execute();
     }
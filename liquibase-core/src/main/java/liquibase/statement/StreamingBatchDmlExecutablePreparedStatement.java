@@ -0,0 +1,193 @@
+package liquibase.statement;
+
+import liquibase.Scope;
+import liquibase.change.ColumnConfig;
+import liquibase.changelog.ChangeSet;
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.listener.SqlListener;
+import liquibase.logging.Logger;
+import liquibase.resource.ResourceAccessor;
+import liquibase.util.JdbcUtil;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Streaming version of {@link BatchDmlExecutablePreparedStatement}. Instead of holding a statement for every row, the
+ * rows are pulled from a {@link RowSource} when the statement is executed and sent to the database in JDBC batches of
+ * at most {@link #getChunkSize()} rows. Only the rows of the current chunk are kept in memory. If
+ * {@link #getCommitEvery()} is set, the transaction is committed each time that many rows have been executed.
+ * <p>
+ * The rows are expected to generate the same SQL. If a row generates different SQL, for example because a column
+ * holds a {@link DatabaseFunction}, the pending batch is executed and a new {@link PreparedStatement} is created.
+ */
+public class StreamingBatchDmlExecutablePreparedStatement extends ExecutablePreparedStatementBase {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    private final RowSource rowSource;
+    private final int chunkSize;
+    private final boolean useBatches;
+    private Integer commitEvery;
+    private int pendingRows;
+    private long pendingDuration;
+    private int uncommittedRows;
+    private final Logger LOG = Scope.getCurrentScope().getLog(getClass());
+
+    /**
+     * @param rowSource  opens the rows to execute. It is called once each time this statement is executed.
+     * @param chunkSize  the maximum number of rows bound to a single JDBC batch
+     * @param useBatches if false, each row is executed on its own using the same {@link PreparedStatement}
+     */
+    public StreamingBatchDmlExecutablePreparedStatement(
+            Database database, String catalogName, String schemaName, String tableName,
+            List<? extends ColumnConfig> columns, ChangeSet changeSet, ResourceAccessor resourceAccessor,
+            RowSource rowSource, int chunkSize, boolean useBatches) {
+        super(database, catalogName, schemaName, tableName, new ArrayList<ColumnConfig>(columns), changeSet,
+                resourceAccessor);
+        if (chunkSize < 1) {
+            throw new UnexpectedLiquibaseException("Chunk size must be greater than 0, got " + chunkSize);
+        }
+        this.rowSource = rowSource;
+        this.chunkSize = chunkSize;
+        this.useBatches = useBatches;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public boolean isUseBatches() {
+        return useBatches;
+    }
+
+    /**
+     * Returns the number of rows after which the transaction is committed.
+     * @return the commit interval, or null if the rows are not committed by this statement
+     */
+    public Integer getCommitEvery() {
+        return commitEvery;
+    }
+
+    public void setCommitEvery(Integer commitEvery) {
+        this.commitEvery = commitEvery;
+    }
+
+    @Override
+    public void execute(PreparedStatementFactory factory) throws DatabaseException {
+        Iterator<? extends ExecutablePreparedStatementBase> rows = rowSource.open();
+        PreparedStatement stmt = null;
+        String currentSql = null;
+        long totalRows = 0;
+        pendingRows = 0;
+        pendingDuration = 0;
+        uncommittedRows = 0;
+        try {
+            while (rows.hasNext()) {
+                ExecutablePreparedStatementBase row = rows.next();
+
+                List<ColumnConfig> cols = new ArrayList<>(row.getColumns().size());
+                String sql = row.generateSql(cols);
+                if (!sql.equals(currentSql)) {
+                    flush(stmt);
+                    JdbcUtil.closeStatement(stmt);
+
+                    for (SqlListener listener : Scope.getCurrentScope().getListeners(SqlListener.class)) {
+                        listener.writeSqlWillRun(sql);
+                    }
+                    stmt = factory.create(sql);
+                    currentSql = sql;
+                }
+
+                attachParams(cols, stmt);
+                totalRows++;
+                pendingRows++;
+                uncommittedRows++;
+                if (useBatches) {
+                    stmt.addBatch();
+                } else {
+                    long startTime = System.currentTimeMillis();
+                    stmt.execute();
+                    pendingDuration += System.currentTimeMillis() - startTime;
+                    closeOpenedStreams();
+                }
+
+                if ((commitEvery != null) && (uncommittedRows >= commitEvery)) {
+                    flush(stmt);
+                    database.commit();
+                    uncommittedRows = 0;
+                } else if (pendingRows >= chunkSize) {
+                    flush(stmt);
+                }
+            }
+            flush(stmt);
+            LOG.info(String.format("Streamed %d row(s) into %s", totalRows, getTableName()));
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        } catch (UnexpectedLiquibaseException e) {
+            throw new DatabaseException(e.getMessage(), e);
+        } finally {
+            closeOpenedStreams();
+            JdbcUtil.closeStatement(stmt);
+            if (rows instanceof Closeable) {
+                try {
+                    ((Closeable) rows).close();
+                } catch (IOException ignore) {
+                    // Do nothing
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes the rows added to the current batch, if any, and reports them as one batch.
+     */
+    private void flush(PreparedStatement stmt) throws SQLException {
+        if ((stmt == null) || (pendingRows == 0)) {
+            return;
+        }
+        if (useBatches) {
+            long startTime = System.currentTimeMillis();
+            int[] updateCounts = stmt.executeBatch();
+            pendingDuration = System.currentTimeMillis() - startTime;
+            stmt.clearBatch();
+            closeOpenedStreams();
+            LOG.fine(String.format("Executed JDBC DML batch of %d row(s), %d operation(s) were confirmed by the database.",
+                    pendingRows, updateCounts.length));
+        }
+        reportBatchExecuted(pendingRows, pendingDuration);
+        pendingRows = 0;
+        pendingDuration = 0;
+    }
+
+    @Override
+    protected String generateSql(List<ColumnConfig> cols) {
+        throw new UnexpectedLiquibaseException("SQL of a streaming batch is generated by each of its rows");
+    }
+
+    @Override
+    public boolean continueOnError() {
+        return false;
+    }
+
+    /**
+     * Supplies the rows of a {@link StreamingBatchDmlExecutablePreparedStatement}.
+     */
+    @FunctionalInterface
+    public interface RowSource {
+
+        /**
+         * Opens a new iterator over the rows. Rows should be read lazily. If the returned iterator implements
+         * {@link Closeable} it is closed once the statement has been executed.
+         */
+        Iterator<? extends ExecutablePreparedStatementBase> open() throws DatabaseException;
+    }
+}
@@ -0,0 +1,16 @@
+package liquibase.statement.core;
+
+import liquibase.statement.AbstractSqlStatement;
+
+/**
+ * Commits the current transaction when executed by the {@link liquibase.executor.jvm.JdbcExecutor}.
+ * Used to split large changes such as loadData into several transactions.
+ * SQL output shows it as the COMMIT generated by {@link liquibase.sqlgenerator.core.CommitGenerator}.
+ */
+public class CommitStatement extends AbstractSqlStatement {
+
+    @Override
+    public String toString() {
+        return "COMMIT";
+    }
+}
@@ -0,0 +1,78 @@
+package liquibase.statement.core;
+
+import liquibase.statement.AbstractSqlStatement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A set of {@link InsertOrUpdateStatement}s for the same table which databases with a set-based upsert (MERGE,
+ * INSERT ... ON CONFLICT and similar) apply with one statement per batch of rows instead of one per row.
+ */
+public class InsertOrUpdateSetStatement extends AbstractSqlStatement {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final List<InsertOrUpdateStatement> statements = new ArrayList<>();
+    private final String catalogName;
+    private final String schemaName;
+    private final String tableName;
+    private final String primaryKey;
+    private final boolean onlyUpdate;
+    private final int batchSize;
+
+    public InsertOrUpdateSetStatement(String catalogName, String schemaName, String tableName, String primaryKey,
+                                      boolean onlyUpdate) {
+        this(catalogName, schemaName, tableName, primaryKey, onlyUpdate, DEFAULT_BATCH_SIZE);
+    }
+
+    public InsertOrUpdateSetStatement(String catalogName, String schemaName, String tableName, String primaryKey,
+                                      boolean onlyUpdate, int batchSize) {
+        this.catalogName = catalogName;
+        this.schemaName = schemaName;
+        this.tableName = tableName;
+        this.primaryKey = primaryKey;
+        this.onlyUpdate = onlyUpdate;
+        this.batchSize = batchSize;
+    }
+
+    public String getCatalogName() {
+        return catalogName;
+    }
+
+    public String getSchemaName() {
+        return schemaName;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getPrimaryKey() {
+        return primaryKey;
+    }
+
+    public boolean getOnlyUpdate() {
+        return onlyUpdate;
+    }
+
+    /**
+     * Returns the maximum number of rows applied by a single generated statement.
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public InsertOrUpdateSetStatement addStatement(InsertOrUpdateStatement statement) {
+        statements.add(statement);
+        return this;
+    }
+
+    public List<InsertOrUpdateStatement> getStatements() {
+        return statements;
+    }
+
+    public InsertOrUpdateStatement[] getStatementsArray() {
+        return statements.toArray(new InsertOrUpdateStatement[0]);
+    }
+}
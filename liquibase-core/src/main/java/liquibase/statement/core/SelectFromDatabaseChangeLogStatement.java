@@ -63,6 +63,32 @@ public class SelectFromDatabaseChangeLogStatement extends AbstractSqlStatement {
 
     }
 
+    public static class ByOrderExecutedAfter implements WhereClause {
+
+        private int orderExecuted;
+
+        public ByOrderExecutedAfter(int orderExecuted) {
+            this.orderExecuted = orderExecuted;
+        }
+
+        public int getOrderExecuted() {
+            return orderExecuted;
+        }
+    }
+
+    public static class ByOrderExecutedUpTo implements WhereClause {
+
+        private int orderExecuted;
+
+        public ByOrderExecutedUpTo(int orderExecuted) {
+            this.orderExecuted = orderExecuted;
+        }
+
+        public int getOrderExecuted() {
+            return orderExecuted;
+        }
+    }
+
     public static class ByTag implements WhereClause {
 
         private String tagName;
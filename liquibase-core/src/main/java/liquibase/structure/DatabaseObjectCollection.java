@@ -102,27 +102,25 @@ public class DatabaseObjectCollection implements LiquibaseSerializable {
 
         String[] hashes = DatabaseObjectComparatorFactory.getInstance().hash(example, null, database);
 
-        SortedSet<Set<DatabaseObject>> objectSets = new TreeSet<>(new Comparator<Set<DatabaseObject>>() {
-            @Override
-            public int compare(Set<DatabaseObject> o1, Set<DatabaseObject> o2) {
-                int sizeComparison = Integer.valueOf(o1.size()).compareTo(o2.size());
-                if (sizeComparison == 0) {
-                    return o1.toString().compareTo(o2.toString());
-                }
-                return sizeComparison;
-            }
-        });
-
+        //check the smallest buckets first, an object is in the bucket of each of its hashes
+        List<Set<DatabaseObject>> buckets = new ArrayList<>(hashes.length);
         for (String hash : hashes) {
             Set<DatabaseObject> databaseObjects = databaseObjectsByHash.get(hash);
             if (databaseObjects != null) {
-                objectSets.add(databaseObjects);
+                buckets.add(databaseObjects);
             }
         }
+        if (buckets.size() > 1) {
+            buckets.sort(Comparator.comparingInt(Set::size));
+        }
 
-        for (Set<DatabaseObject> databaseObjects : objectSets) {
+        Set<DatabaseObject> checked = (buckets.size() > 1) ? Collections.newSetFromMap(new IdentityHashMap<>()) : null;
+        for (Set<DatabaseObject> databaseObjects : buckets) {
             for (DatabaseObject obj : databaseObjects) {
-                if (DatabaseObjectComparatorFactory.getInstance().isSameObject(obj, example, schemaComparisons, database)) {
+                if ((checked != null) && !checked.add(obj)) {
+                    continue;
+                }
+                if (DatabaseObjectComparatorFactory.getInstance().isSameObjectWithSharedHash(obj, example, schemaComparisons, database)) {
                     //noinspection unchecked
                     return (DatabaseObjectType) obj;
                 }
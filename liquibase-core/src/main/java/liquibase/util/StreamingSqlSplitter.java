@@ -0,0 +1,226 @@
+package liquibase.util;
+
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.util.grammar.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Splits the SQL read from a {@link Reader} into statements one at a time.
+ * <p>
+ * The statements are the same ones {@link StringUtil#processMultiLineSQL(String, boolean, boolean, String)} returns for
+ * the whole content, but only the statement being built is kept in memory so large SQL files can be executed as they are read.
+ * Like with processMultiLineSQL, line endings are not changed: remove any \r characters from the reader first if needed.
+ */
+public class StreamingSqlSplitter implements Iterator<String>, Closeable {
+
+    private final TrimmingReader reader;
+    private final SimpleSqlGrammar grammar;
+    private final boolean stripComments;
+    private final boolean splitStatements;
+    private final String endDelimiter;
+
+    private final Deque<String> pieces = new ArrayDeque<>();
+    private final List<String> possibleMerge = new ArrayList<>();
+    private boolean endOfInput;
+
+    private StringBuilder currentString = new StringBuilder();
+    private String previousPiece;
+    private boolean previousDelimiter;
+    private String nextStatement;
+
+    public StreamingSqlSplitter(Reader reader, boolean stripComments, boolean splitStatements, String endDelimiter) {
+        this.reader = new TrimmingReader(reader);
+        this.grammar = new SimpleSqlGrammar(new SimpleSqlGrammarTokenManager(new SimpleCharStream(this.reader)));
+        this.stripComments = stripComments;
+        this.splitStatements = splitStatements;
+        this.endDelimiter = endDelimiter;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextStatement == null) {
+            nextStatement = readStatement();
+        }
+        return nextStatement != null;
+    }
+
+    @Override
+    public String next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        String statement = nextStatement;
+        nextStatement = null;
+        return statement;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Same loop as processMultiLineSQL, returning as soon as a statement is complete.
+     */
+    private String readStatement() {
+        String piece;
+        while ((piece = nextPiece()) != null) {
+            if (splitStatements && StringUtil.isDelimiter(piece, previousPiece, endDelimiter)) {
+                String trimmedString = StringUtil.trimToNull(currentString.toString());
+                currentString = new StringBuilder();
+                previousDelimiter = true;
+                previousPiece = piece;
+                if (trimmedString != null) {
+                    return trimmedString;
+                }
+            } else {
+                if (!previousDelimiter || (StringUtil.trimToNull(piece) != null)) { //don't include whitespace after a delimiter
+                    if ((currentString.length() > 0) || (StringUtil.trimToNull(piece) != null)) { //don't include whitespace before the statement
+                        currentString.append(piece);
+                    }
+                }
+                previousDelimiter = false;
+                previousPiece = piece;
+            }
+        }
+
+        String trimmedString = StringUtil.trimToNull(currentString.toString());
+        currentString = new StringBuilder();
+        return trimmedString;
+    }
+
+    /**
+     * Returns the next piece of SQL, combining the tokens of a multi-token end delimiter the same way processMultiLineSQL does.
+     * Returns null once the reader is exhausted.
+     */
+    private String nextPiece() {
+        while (pieces.isEmpty() && !endOfInput) {
+            String token = nextToken();
+            if (token == null) {
+                endOfInput = true;
+            } else if (endDelimiter == null) {
+                pieces.add(token);
+            } else if (possibleMerge.isEmpty()) {
+                if (endDelimiter.startsWith(token)) {
+                    possibleMerge.add(token);
+                } else {
+                    pieces.add(token);
+                }
+            } else {
+                String possibleMergeString = StringUtil.join(possibleMerge, "") + token;
+                if (endDelimiter.equals(possibleMergeString)) {
+                    pieces.add(possibleMergeString);
+                    possibleMerge.clear();
+                } else if (endDelimiter.startsWith(possibleMergeString)) {
+                    possibleMerge.add(token);
+                } else {
+                    pieces.addAll(possibleMerge);
+                    pieces.add(token);
+                    possibleMerge.clear();
+                }
+            }
+        }
+        return pieces.poll();
+    }
+
+    /**
+     * Returns the next token as the string {@link SqlParser#parse(String, boolean, boolean)} keeps for it when preserving whitespace,
+     * skipping comments if they are stripped. Returns null once the reader is exhausted.
+     */
+    private String nextToken() {
+        try {
+            Token token = grammar.getNextToken();
+            while (!"".equals(token.toString())) {
+                if (token.kind == SimpleSqlGrammarConstants.WHITESPACE) {
+                    return token.image;
+                } else if ((token.kind == SimpleSqlGrammarConstants.LINE_COMMENT) || (token.kind ==
+                    SimpleSqlGrammarConstants.MULTI_LINE_COMMENT)) {
+                    if (!stripComments) {
+                        return token.image;
+                    }
+                } else {
+                    return StringUtil.trimToEmpty(token.image);
+                }
+                token = grammar.getNextToken();
+            }
+        } catch (Exception e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+
+        // the grammar reports read errors as the end of the input
+        if (reader.failure != null) {
+            throw new UnexpectedLiquibaseException(reader.failure);
+        }
+        return null;
+    }
+
+    /**
+     * Drops the leading and trailing characters {@link String#trim()} would remove, holding back runs of them until
+     * it is known whether more content follows.
+     */
+    private static class TrimmingReader extends Reader {
+        private final Reader reader;
+        private final StringBuilder heldBack = new StringBuilder();
+        private final char[] buffer = new char[8192];
+        private int contentEnd;
+        private boolean started;
+        private boolean ended;
+        private IOException failure;
+
+        private TrimmingReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            while (contentEnd == 0) {
+                if (ended) {
+                    return -1;
+                }
+                int read = readSource(Math.min(len, buffer.length));
+                if (read == -1) {
+                    ended = true;
+                    heldBack.setLength(0);
+                    return -1;
+                }
+                for (int i = 0; i < read; i++) {
+                    char c = buffer[i];
+                    if (c > ' ') {
+                        started = true;
+                        heldBack.append(c);
+                        contentEnd = heldBack.length();
+                    } else if (started) {
+                        heldBack.append(c);
+                    }
+                }
+            }
+
+            int count = Math.min(len, contentEnd);
+            heldBack.getChars(0, count, cbuf, off);
+            heldBack.delete(0, count);
+            contentEnd -= count;
+            return count;
+        }
+
+        private int readSource(int len) throws IOException {
+            try {
+                return reader.read(buffer, 0, len);
+            } catch (IOException e) {
+                failure = e;
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package liquibase
 
 import liquibase.exception.UnexpectedLiquibaseException
+import liquibase.executor.ExecutorService
 import spock.lang.Specification
 
 class ScopeTest extends Specification {
@@ -89,6 +90,47 @@ class ScopeTest extends Specification {
         e.message.startsWith("Cannot end scope ")
     }
 
+    def "child of a given scope lets threads nest scopes concurrently"() {
+        when:
+        def seen = Collections.synchronizedMap([:])
+        def singletons = Collections.synchronizedList([])
+        def errors = Collections.synchronizedList([])
+        def scopeBefore = Scope.currentScope
+        Scope.child([test1: "outer"], {
+            def parent = Scope.currentScope
+            def latch = new java.util.concurrent.CountDownLatch(2)
+            def threads = ["a", "b"].collect { name ->
+                Thread.start {
+                    try {
+                        Scope.child(parent, [test2: name], {
+                            Scope.child([test3: name + "!"], {
+                                latch.countDown()
+                                latch.await()
+                                seen[name] = Scope.currentScope.get("test1", String) + "/" + Scope.currentScope.get("test2", String) + "/" + Scope.currentScope.get("test3", String)
+                                singletons << Scope.currentScope.getSingleton(ExecutorService)
+                            } as Scope.ScopedRunner)
+                            assert Scope.currentScope.get("test3", String) == null
+                            return null
+                        } as Scope.ScopedRunnerWithReturn)
+                        assert !Scope.currentScope.has("test2")
+                    } catch (Throwable e) {
+                        errors << e
+                    }
+                }
+            }
+            threads*.join()
+
+            assert Scope.currentScope.is(parent)
+        } as Scope.ScopedRunner)
+
+        then:
+        errors.empty
+        seen == [a: "outer/a/a!", b: "outer/b/b!"]
+        singletons.size() == 2
+        singletons.every { it.is(Scope.currentScope.getSingleton(ExecutorService)) }
+        Scope.currentScope.is(scopeBefore)
+    }
+
     def "Constructor passed a null value gives useful error message"() {
         when:
             new Scope(null, Collections.emptyMap());
@@ -1,6 +1,9 @@
 package liquibase.change.core
 
+import liquibase.GlobalConfiguration
 import liquibase.Scope
+import liquibase.bulkload.BulkLoader
+import liquibase.bulkload.core.H2CsvReadBulkLoader
 import liquibase.change.ChangeStatus
 import liquibase.change.StandardChangeTest
 import liquibase.changelog.ChangeSet
@@ -8,18 +11,24 @@ import liquibase.changelog.DatabaseChangeLog
 import liquibase.database.Database
 import liquibase.database.DatabaseConnection
 import liquibase.database.DatabaseFactory
+import liquibase.database.core.H2Database
 import liquibase.database.core.MSSQLDatabase
 import liquibase.database.core.MockDatabase
+import liquibase.database.jvm.JdbcConnection
 import liquibase.exception.ValidationErrors
 import liquibase.parser.core.ParsedNodeException
 import liquibase.resource.ClassLoaderResourceAccessor
 import liquibase.resource.ResourceAccessor
+import liquibase.sdk.resource.MockResourceAccessor
 import liquibase.snapshot.MockSnapshotGeneratorFactory
+import liquibase.sqlgenerator.SqlGeneratorFactory
 import liquibase.snapshot.SnapshotGeneratorFactory
+import liquibase.statement.BulkLoadStatement
 import liquibase.statement.DatabaseFunction
 import liquibase.statement.ExecutablePreparedStatement
 import liquibase.statement.ExecutablePreparedStatementBase
 import liquibase.statement.SqlStatement
+import liquibase.statement.StreamingBatchDmlExecutablePreparedStatement
 import liquibase.statement.core.InsertSetStatement
 import liquibase.statement.core.InsertStatement
 import liquibase.structure.DatabaseObject
@@ -852,6 +861,127 @@ public class LoadDataChangeTest extends StandardChangeTest {
     }
 
 
+    def "rows are not streamed unless enabled or when prepared statements are disabled"() {
+        given:
+        def database = new MSSQLDatabase() { public boolean supportsBatchUpdates() { return true; } }
+        LoadDataChange change = new LoadDataChange()
+        change.setSchemaName("SCHEMA_NAME")
+        change.setTableName("TABLE_NAME")
+        change.setFile("liquibase/change/core/sample.data1.csv")
+        change.setUsePreparedStatements(usePreparedStatements)
+
+        when:
+        SqlStatement[] statements = null
+        Scope.child(GlobalConfiguration.STREAM_LOAD_DATA.key, streamLoadData, {
+            statements = change.generateStatements(database)
+        } as Scope.ScopedRunner)
+
+        then:
+        statements.length == 1
+        (statements[0] instanceof StreamingBatchDmlExecutablePreparedStatement) == expectStreaming
+
+        where:
+        streamLoadData | usePreparedStatements | expectStreaming
+        false          | null                  | false
+        true           | null                  | true
+        true           | false                 | false
+    }
+
+    def "bulkLoadData escapes column names the same way as the inserts"() {
+        given:
+        def change = new LoadDataChange() {
+            @Override
+            protected BulkLoader getBulkLoader(Database database) {
+                return new H2CsvReadBulkLoader()
+            }
+        }
+        change.tableName = "person"
+        change.file = "people.csv"
+        change.addColumn(new LoadDataColumnConfig(header: "name", name: "full_name", type: "STRING"))
+
+        when:
+        SqlStatement[] statements = null
+        def database = new H2Database()
+        Scope.child(Scope.Attr.resourceAccessor.name(), new MockResourceAccessor(["people.csv": "id,name,order,full name\n1,Bob,2,Bob Smith\n"]), {
+            statements = change.generateStatements(database)
+        } as Scope.ScopedRunner)
+
+        def columnNames = ((BulkLoadStatement) statements[0]).columnNames
+        def insert = new InsertStatement(null, null, "person")
+        columnNames.each { insert.addColumnValue(it, 1) }
+        def insertSql = SqlGeneratorFactory.instance.generateSql(insert, database)[0].toSql()
+
+        then:
+        statements*.class.simpleName == ["BulkLoadStatement"]
+        columnNames == ["id", "full_name", "order", "full name"]
+        insertSql.contains("(" + new H2CsvReadBulkLoader().getColumnList(database, null, null, "person", columnNames) + ")")
+    }
+
+    def "rows are not bulk loaded unless enabled or when a column cannot be bulk loaded"() {
+        given:
+        def connection = Stub(JdbcConnection) {
+            getURL() >> "jdbc:h2:mem:test"
+            getUnderlyingConnection() >> Stub(java.sql.Connection)
+        }
+        def database = new H2Database() {
+            @Override
+            DatabaseConnection getConnection() {
+                return connection
+            }
+        }
+
+        def change = new LoadDataChange()
+        change.tableName = "person"
+        change.file = "liquibase/change/core/sample.data1.csv"
+        change.addColumn(new LoadDataColumnConfig(name: "name", type: columnType))
+        change.commitEvery = commitEvery
+
+        expect:
+        Scope.child(GlobalConfiguration.BULK_LOAD_DATA.key, enabled, {
+            assert (change.getBulkLoader(database) != null) == expected
+        } as Scope.ScopedRunner)
+
+        where:
+        enabled | columnType | commitEvery | expected
+        true    | "STRING"   | null        | true
+        false   | "STRING"   | null        | false
+        true    | "COMPUTED" | null        | false
+        true    | "CLOB"     | null        | false
+        true    | "STRING"   | 10          | false
+    }
+
+    def "commitEvery splits insert sets when prepared statements are not used"() {
+        when:
+        LoadDataChange change = new LoadDataChange()
+        change.setSchemaName("SCHEMA_NAME")
+        change.setTableName("TABLE_NAME")
+        change.setFile("liquibase/change/core/sample.data1.csv")
+        change.setUsePreparedStatements(false)
+        change.setCommitEvery(1)
+        SqlStatement[] statements = change.generateStatements(mssqlDb)
+
+        then:
+        statements*.class.simpleName == ["InsertSetStatement", "CommitStatement", "InsertSetStatement"]
+        ((InsertSetStatement) statements[0]).statements.size() == 1
+    }
+
+    @Unroll
+    def "validate rejects #property of #value"() {
+        when:
+        def change = new LoadDataChange()
+        change.tableName = "person"
+        change.file = "people.csv"
+        change[property] = value
+
+        then:
+        change.validate(mockDb).errorMessages.contains(property + " must be greater than 0")
+
+        where:
+        property      | value
+        "batchSize"   | 0
+        "commitEvery" | -1
+    }
+
     class ColDef {
         ColDef(Object n, String type) {
             this.name = n.toString()
@@ -1,6 +1,9 @@
 package liquibase.change.core
 
+import liquibase.GlobalConfiguration
+import liquibase.Scope
 import liquibase.change.ChangeStatus
+import liquibase.database.core.SQLiteDatabase
 import liquibase.database.core.PostgresDatabase
 import liquibase.database.DatabaseConnection
 import liquibase.snapshot.MockSnapshotGeneratorFactory
@@ -120,6 +123,31 @@ public class LoadUpdateDataChangeTest extends StandardChangeTest {
         assert statements[0].getOnlyUpdate()
     }
 
+    def "loadUpdate generates a statement set if bulkLoadUpdateData is enabled and supported"() {
+        when:
+        def change = new LoadUpdateDataChange()
+        change.setTableName("TABLE_NAME")
+        change.setFile("liquibase/change/core/sample.data1.csv")
+        change.setPrimaryKey("username")
+        change.setOnlyUpdate(onlyUpdate)
+
+        SqlStatement[] statements = null
+        Scope.child(GlobalConfiguration.BULK_LOAD_UPDATE_DATA.key, enabled, {
+            statements = change.generateStatements(database)
+        } as Scope.ScopedRunner)
+
+        then:
+        statements*.class.simpleName == expected
+
+        where:
+        database              | enabled | onlyUpdate | expected
+        new MSSQLDatabase()   | false   | false      | ["InsertOrUpdateStatement", "InsertOrUpdateStatement"]
+        new MSSQLDatabase()   | true    | false      | ["InsertOrUpdateSetStatement"]
+        new MSSQLDatabase()   | true    | true       | ["InsertOrUpdateSetStatement"]
+        new PostgresDatabase()| true    | false      | ["InsertOrUpdateSetStatement"]
+        new SQLiteDatabase()  | true    | false      | ["InsertOrUpdateStatement", "InsertOrUpdateStatement"]
+    }
+
     def "generateChecksum produces different values with each field"() {
         LoadUpdateDataChange refactoring = new LoadUpdateDataChange();
         refactoring.setSchemaName("SCHEMA_NAME");
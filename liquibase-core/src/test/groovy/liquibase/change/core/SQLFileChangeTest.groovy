@@ -1,5 +1,6 @@
 package liquibase.change.core
 
+import liquibase.GlobalConfiguration
 import liquibase.Scope
 import liquibase.change.Change
 import liquibase.change.ChangeStatus
@@ -8,8 +9,11 @@ import liquibase.changelog.ChangeLogParameters
 import liquibase.changelog.ChangeSet
 import liquibase.changelog.DatabaseChangeLog
 import liquibase.database.core.MockDatabase
+import liquibase.database.core.PostgresDatabase
 import liquibase.exception.UnexpectedLiquibaseException
+import liquibase.sql.visitor.SqlVisitor
 import liquibase.statement.SqlStatement
+import liquibase.statement.core.RawSqlStatement
 import liquibase.test.JUnitResourceAccessor
 import liquibase.util.StreamUtil
 import spock.lang.Unroll
@@ -103,6 +107,144 @@ public class SQLFileChangeTest extends StandardChangeTest {
         return ((SQLFileChange) change).path != null;
     }
 
+    def "streamed statements match the generated statements"() {
+        when:
+        def change = fileChange("--create\r\ncreate table \${table.prefix}_customer (id int);\r\n\r\ninsert into \${table.prefix}_customer values (1);\r\n/* done */\r\n")
+        change.stripComments = stripComments
+        change.endDelimiter = endDelimiter
+        def database = new MockDatabase()
+        List<String> streamed = withStreaming { change.openStatements(database).withCloseable { it.collect { it.sql } } }
+
+        then:
+        streamed == change.generateStatements(database)*.sql
+        streamed.join().contains("prfx_customer")
+        !streamed.join().contains("\r")
+
+        where:
+        stripComments | endDelimiter
+        true          | null
+        false         | null
+        false         | ";"
+    }
+
+    def "statements are streamed only when enabled and read from a file"() {
+        expect:
+        !fileChange("select 1").streamingStatements
+        fileChange("select 1").openStatements(new MockDatabase()) == null
+        withStreaming { fileChange("select 1").streamingStatements }
+        !withStreaming { def change = fileChange("select 1"); change.sql = "select 2"; change.streamingStatements }
+    }
+
+    def "streamed sqlFile statements are executed"() {
+        when:
+        def database = new RecordingDatabase()
+        def contents = "create table \${table.prefix}_customer (id int);\n" + (1..100).collect { "insert into prfx_customer values (" + it + ");\n" }.join("")
+        def change = new SQLFileChange() {
+            @Override
+            InputStream openSqlStream() throws IOException {
+                return new ByteArrayInputStream(contents.getBytes("UTF-8"))
+            }
+
+            @Override
+            String getSql() {
+                throw new IllegalStateException("the file should not be loaded")
+            }
+        }
+        change.path = "file.sql"
+        def changeSet = fileChange("").changeSet
+        change.changeSet = changeSet
+        changeSet.addChange(change)
+        withStreaming { changeSet.execute(new DatabaseChangeLog("changelog.xml"), null, database) }
+        def executed = database.events.findAll { it.startsWith("execute ") }
+
+        then:
+        executed.size() == 101
+        executed.first() == "execute create table prfx_customer (id int)"
+        executed.last() == "execute insert into prfx_customer values (100)"
+    }
+
+    @Unroll
+    def "streamed sqlFile runs like the loaded file with runInTransaction=#runInTransaction and splitStatements=#splitStatements"() {
+        when:
+        def contents = "create table customer (id int);\ninsert into customer values (1);\ninsert into customer values (2);\n"
+        def execute = { boolean streaming ->
+            def database = new RecordingDatabase()
+            def change = fileChange(contents)
+            change.splitStatements = splitStatements
+            def changeSet = new ChangeSet("x", "y", false, false, null, null, null, runInTransaction, null)
+            change.changeSet = changeSet
+            changeSet.addChange(change)
+            Scope.child([(GlobalConfiguration.STREAMING_SQL_FILE.key): streaming], {
+                changeSet.execute(new DatabaseChangeLog("changelog.xml"), null, database)
+            } as Scope.ScopedRunner)
+            return database.events
+        }
+        def loaded = execute(false)
+        def streamed = execute(true)
+
+        then:
+        streamed == loaded
+        streamed.count { it.startsWith("execute") } == (splitStatements ? 3 : 1)
+        streamed.contains("commit") == runInTransaction
+        streamed.first() == "autoCommit " + !runInTransaction
+
+        where:
+        runInTransaction | splitStatements
+        true             | true
+        false            | true
+        true             | false
+        false            | false
+    }
+
+    /**
+     * Records the transaction handling and the statements executed by a changeset.
+     */
+    private static class RecordingDatabase extends PostgresDatabase {
+        List<String> events = []
+
+        @Override
+        void setAutoCommit(boolean b) {
+            events << "autoCommit " + b
+        }
+
+        @Override
+        void commit() {
+            events << "commit"
+        }
+
+        @Override
+        void rollback() {
+            events << "rollback"
+        }
+
+        @Override
+        void execute(SqlStatement[] statements, List<SqlVisitor> sqlVisitors) {
+            for (SqlStatement statement : statements) {
+                events << "execute " + ((RawSqlStatement) statement).sql
+            }
+        }
+    }
+
+    private static SQLFileChange fileChange(String contents) {
+        def change = new SQLFileChange() {
+            @Override
+            InputStream openSqlStream() throws IOException {
+                return new ByteArrayInputStream(contents.getBytes("UTF-8"))
+            }
+        }
+        change.path = "file.sql"
+        ChangeLogParameters changeLogParameters = new ChangeLogParameters()
+        changeLogParameters.set("table.prefix", "prfx")
+        ChangeSet changeSet = new ChangeSet("x", "y", true, true, null, null, null, null)
+        changeSet.setChangeLogParameters(changeLogParameters)
+        change.setChangeSet(changeSet)
+        return change
+    }
+
+    private static <T> T withStreaming(Closure<T> closure) {
+        return Scope.child([(GlobalConfiguration.STREAMING_SQL_FILE.key): true], closure as Scope.ScopedRunnerWithReturn<T>)
+    }
+
     def "openSqlStream throws exception if file does not exist"() {
         when:
         def change = new SQLFileChange()
@@ -0,0 +1,132 @@
+package liquibase.changelog
+
+import liquibase.GlobalConfiguration
+import liquibase.Scope
+import liquibase.change.CheckSum
+import liquibase.change.core.CreateTableChange
+import liquibase.change.core.SQLFileChange
+import liquibase.sdk.resource.MockResourceAccessor
+import spock.lang.Specification
+
+class ChangeSetCheckSumCacheTest extends Specification {
+
+    private static final String PARAM = "table.name"
+
+    def cacheFile
+
+    def setup() {
+        cacheFile = File.createTempFile("liquibase-checksums", ".properties")
+        cacheFile.delete()
+    }
+
+    def cleanup() {
+        cacheFile.delete()
+    }
+
+    def "get returns null when cache is not configured"() {
+        when:
+        def cache = new ChangeSetCheckSumCache()
+        def changeSet = createChangeSet()
+        cache.put(changeSet, CheckSum.compute("test"))
+
+        then:
+        cache.get(changeSet) == null
+    }
+
+    def "cached values survive a reload when the changelog is unchanged"() {
+        when:
+        def checkSum = CheckSum.compute("test")
+        CheckSum found = null
+        runWithCache("changelog content", {
+            def cache = new ChangeSetCheckSumCache()
+            cache.put(createChangeSet(), checkSum)
+            cache.save()
+        })
+        runWithCache("changelog content", {
+            found = new ChangeSetCheckSumCache().get(createChangeSet())
+        })
+
+        then:
+        cacheFile.exists()
+        found == checkSum
+    }
+
+    def "cached values are ignored when the changelog changes"() {
+        when:
+        CheckSum found = CheckSum.compute("before")
+        runWithCache("changelog content", {
+            def cache = new ChangeSetCheckSumCache()
+            cache.put(createChangeSet(), CheckSum.compute("test"))
+            cache.save()
+        })
+        runWithCache("changed changelog content", {
+            found = new ChangeSetCheckSumCache().get(createChangeSet())
+        })
+
+        then:
+        found == null
+    }
+
+    def "cached values are ignored when a referenced changelog parameter changes"() {
+        when:
+        CheckSum found = CheckSum.compute("before")
+        runWithCache('<createTable tableName="${table.name}"/>', {
+            def cache = new ChangeSetCheckSumCache()
+            cache.put(createChangeSet([(PARAM): "first"]), CheckSum.compute("test"))
+            cache.save()
+        })
+        runWithCache('<createTable tableName="${table.name}"/>', {
+            found = new ChangeSetCheckSumCache().get(createChangeSet([(PARAM): "second"]))
+        })
+
+        then:
+        found == null
+    }
+
+    def "changesets referencing external files are not cached"() {
+        when:
+        CheckSum found = CheckSum.compute("before")
+        runWithCache("changelog content", {
+            def changeSet = createChangeSet()
+            changeSet.addChange(new SQLFileChange(path: "com/example/other.sql"))
+
+            def cache = new ChangeSetCheckSumCache()
+            cache.put(changeSet, CheckSum.compute("test"))
+            found = cache.get(changeSet)
+        })
+
+        then:
+        found == null
+    }
+
+    def "generateCheckSum uses the cache"() {
+        when:
+        def cached = CheckSum.compute("cached value")
+        CheckSum generated = null
+        runWithCache("changelog content", {
+            Scope.currentScope.getSingleton(ChangeSetCheckSumCache.class).put(createChangeSet(), cached)
+            generated = createChangeSet().generateCheckSum()
+            Scope.currentScope.getSingleton(ChangeSetCheckSumCache.class).reset()
+        })
+
+        then:
+        generated == cached
+    }
+
+    private void runWithCache(String changeLogContent, Closure closure) {
+        Scope.child([
+                (GlobalConfiguration.CHECKSUM_CACHE_FILE.key): cacheFile.absolutePath,
+                (Scope.Attr.resourceAccessor.name())         : new MockResourceAccessor(["com/example/changelog.xml": changeLogContent]),
+        ], closure as Scope.ScopedRunner)
+    }
+
+    private static ChangeSet createChangeSet(Map<String, String> parameters = [:]) {
+        def changeLog = new DatabaseChangeLog("com/example/changelog.xml")
+        def changeLogParameters = new ChangeLogParameters()
+        parameters.each { changeLogParameters.set(it.key, it.value) }
+        changeLog.setChangeLogParameters(changeLogParameters)
+        def changeSet = new ChangeSet("1", "test", false, false, "com/example/changelog.xml", null, null, changeLog)
+        changeSet.addChange(new CreateTableChange(tableName: "test_table"))
+        return changeSet
+    }
+}
@@ -0,0 +1,54 @@
+package liquibase.changelog
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class ChangeSetIndexTest extends Specification {
+
+    @Unroll
+    def "get matches normalized path, id and author ignoring case: #path #id #author"() {
+        when:
+        def changeSet = new ChangeSet("a1", "Nathan", false, false, "classpath:com/example/Changelog.xml", null, null, null)
+        def index = ChangeSetIndex.forChangeSets([changeSet])
+
+        then:
+        index.get(path, id, author) == (expected ? [changeSet] : [])
+
+        where:
+        path                                 | id   | author   | expected
+        "com/example/Changelog.xml"          | "a1" | "Nathan" | true
+        "/com/example/changelog.xml"         | "A1" | "nathan" | true
+        "com\\example\\Changelog.xml"        | "a1" | "Nathan" | true
+        "classpath:com/example/Changelog.xml" | "a1" | "Nathan" | true
+        "com/example/other.xml"              | "a1" | "Nathan" | false
+        "com/example/Changelog.xml"          | "a2" | "Nathan" | false
+        "com/example/Changelog.xml"          | "a1" | "other"  | false
+        null                                 | "a1" | "Nathan" | false
+    }
+
+    def "candidates are returned in insertion order"() {
+        when:
+        def first = new RanChangeSet("com/example/changelog.xml", "1", "test", null, null, null, null, null, null, null, null, null)
+        def second = new RanChangeSet("COM/EXAMPLE/CHANGELOG.XML", "1", "TEST", null, null, null, null, null, null, null, null, null)
+        def other = new RanChangeSet("com/example/changelog.xml", "2", "test", null, null, null, null, null, null, null, null, null)
+        def index = ChangeSetIndex.forRanChangeSets([first, other, second])
+
+        then:
+        index.size() == 3
+        index.get("com/example/changelog.xml", "1", "test") == [first, second]
+        index.get("com/example/changelog.xml", "2", "test") == [other]
+    }
+
+    def "DatabaseChangeLog.getChangeSet finds changesets added after a lookup"() {
+        when:
+        def changeLog = new DatabaseChangeLog("com/example/changelog.xml")
+        changeLog.addChangeSet(new ChangeSet("1", "test", false, false, "com/example/changelog.xml", null, null, changeLog))
+        def firstLookup = changeLog.getChangeSet("com/example/changelog.xml", "test", "2")
+        changeLog.addChangeSet(new ChangeSet("2", "test", false, false, "com/example/changelog.xml", null, null, changeLog))
+
+        then:
+        firstLookup == null
+        changeLog.getChangeSet("com/example/changelog.xml", "test", "2").id == "2"
+        changeLog.getChangeSet("com/example/changelog.xml", "TEST", "1").id == "1"
+    }
+}
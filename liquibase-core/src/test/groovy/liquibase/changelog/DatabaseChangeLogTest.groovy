@@ -2,9 +2,12 @@ package liquibase.changelog
 
 import liquibase.ContextExpression
 import liquibase.LabelExpression
+import liquibase.Scope
 import liquibase.change.core.CreateTableChange
 import liquibase.change.core.RawSQLChange
 import liquibase.exception.SetupException
+import liquibase.parser.ChangeLogCache
+import liquibase.parser.ChangeLogParserConfiguration
 import liquibase.parser.core.ParsedNode
 import liquibase.precondition.core.OrPrecondition
 import liquibase.precondition.core.PreconditionContainer
@@ -204,6 +207,85 @@ create view sql_view as select * from sql_table;'''
         ((RawSQLChange) rootChangeLog.getChangeSets().get(3).changes[0]).sql == testSql
     }
 
+    def "included files parsed in parallel are loaded in include order"() {
+        when:
+        def files = [:]
+        for (i in 1..10) {
+            files["com/example/test${i}.xml".toString()] = test1Xml.replace("person", "person${i}")
+        }
+        def resourceAccessor = new MockResourceAccessor(files)
+
+        def rootChangeLog = new DatabaseChangeLog("com/example/root.xml")
+        rootChangeLog.setChangeLogParameters(new ChangeLogParameters())
+        rootChangeLog.getChangeLogParameters().set("loginUser", "testUser")
+
+        def rootNode = new ParsedNode(null, "databaseChangeLog")
+        for (i in 1..10) {
+            rootNode.addChildren([include: [file: "com/example/test${i}.xml".toString()]])
+        }
+        Scope.child(ChangeLogParserConfiguration.INCLUDE_PARSING_THREADS.getKey(), 4, {
+            rootChangeLog.load(rootNode, resourceAccessor)
+        } as Scope.ScopedRunner)
+
+        then:
+        rootChangeLog.changeSets.collect { ((CreateTableChange) it.changes[0]).tableName } == (1..10).collect { "person${it}".toString() }
+        rootChangeLog.preconditions.nestedPreconditions.size() == 10
+        ((RunningAsPrecondition) ((PreconditionContainer) rootChangeLog.preconditions.nestedPreconditions[9]).nestedPreconditions[0].nestedPreconditions[0]).username == "testUser"
+    }
+
+    def "included files parsed in parallel use the scope of the including thread"() {
+        when:
+        def files = [:]
+        for (i in 1..4) {
+            files["com/example/test${i}.xml".toString()] = test1Xml.replace("person", "person${i}")
+        }
+        def resourceAccessor = new MockResourceAccessor(files)
+        def cacheFile = File.createTempFile("changelog", ".cache")
+        cacheFile.delete()
+
+        def rootChangeLog = new DatabaseChangeLog("com/example/root.xml")
+        rootChangeLog.setChangeLogParameters(new ChangeLogParameters())
+        def rootNode = new ParsedNode(null, "databaseChangeLog")
+        for (i in 1..4) {
+            rootNode.addChildren([include: [file: "com/example/test${i}.xml".toString()]])
+        }
+        def cachedFiles = 0
+        Scope.child([(ChangeLogParserConfiguration.INCLUDE_PARSING_THREADS.getKey()): 4,
+                     (ChangeLogParserConfiguration.CHANGELOG_CACHE_FILE.getKey()) : cacheFile.absolutePath], {
+            def cache = Scope.currentScope.getSingleton(ChangeLogCache)
+            cache.reset()
+            rootChangeLog.load(rootNode, resourceAccessor)
+            cachedFiles = cache.size()
+            cache.reset()
+        } as Scope.ScopedRunner)
+
+        then:
+        rootChangeLog.changeSets.size() == 4
+        cachedFiles == 4
+
+        cleanup:
+        cacheFile.delete()
+    }
+
+    def "included files parsed in parallel report parse errors for the failing file"() {
+        when:
+        def resourceAccessor = new MockResourceAccessor([
+                "com/example/test1.xml": test1Xml,
+                "com/example/test2.xml": "<databaseChangeLog><invalid",
+                "com/example/test3.xml": test1Xml.replace("person", "person3"),
+        ])
+
+        def rootChangeLog = new DatabaseChangeLog("com/example/root.xml")
+        rootChangeLog.setChangeLogParameters(new ChangeLogParameters())
+        Scope.child(ChangeLogParserConfiguration.INCLUDE_PARSING_THREADS.getKey(), 4, {
+            rootChangeLog.includeAll("com/example", false, null, true, rootChangeLog.getStandardChangeLogComparator(), resourceAccessor, new ContextExpression(), new LabelExpression(), false)
+        } as Scope.ScopedRunner)
+
+        then:
+        def e = thrown(SetupException)
+        e.message.contains("com/example/test2.xml")
+    }
+
     def "included changelogs inherit contexts, labels, and ignores via load()"() {
         when:
         def resourceAccessor = new MockResourceAccessor(["com/example/test1.xml": test1Xml, "com/example/test2.xml": test1Xml.replace("testUser", "otherUser").replace("person", "person2")])
@@ -79,6 +79,34 @@ public class ShouldRunChangeSetFilterTest extends Specification {
         assertFalse(filter.accepts(changeSet).isAccepted());
     }
 
+    public void subclasses_use_the_index_unless_they_override_the_candidates() throws DatabaseException {
+        when:
+        given_a_database_with_two_executed_changesets();
+        ShouldRunChangeSetFilter subclass = new ShouldRunChangeSetFilter(database) {
+            @Override
+            protected boolean idsAreEqual(ChangeSet changeSet, RanChangeSet ranChangeSet) {
+                return ranChangeSet.getId().equalsIgnoreCase(changeSet.getId());
+            }
+        };
+        ShouldRunChangeSetFilter ignoringAuthors = new ShouldRunChangeSetFilter(database) {
+            @Override
+            protected Collection<RanChangeSet> candidateRanChangeSets(ChangeSet changeSet) {
+                return getRanChangeSets();
+            }
+
+            @Override
+            protected boolean authorsAreEqual(ChangeSet changeSet, RanChangeSet ranChangeSet) {
+                return true;
+            }
+        };
+
+        then:
+        assertFalse(subclass.accepts(new ChangeSet("1", "testAuthor", false, false, "path/changelog", null, null, null)).isAccepted());
+        assertTrue(subclass.accepts(new ChangeSet("1", "otherAuthor", false, false, "path/changelog", null, null, null)).isAccepted());
+        assertFalse(ignoringAuthors.accepts(new ChangeSet("1", "otherAuthor", false, false, "path/changelog", null, null, null)).isAccepted());
+        assertTrue(ignoringAuthors.accepts(new ChangeSet("3", "otherAuthor", false, false, "path/changelog", null, null, null)).isAccepted());
+    }
+
 //    public void should_decline_not_changed_changeset_when_has_run_on_change() throws DatabaseException {
 //        when:
 //        given_a_database_with_one_twice_executed_changeset();
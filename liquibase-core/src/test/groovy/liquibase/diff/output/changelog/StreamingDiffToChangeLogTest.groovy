@@ -0,0 +1,73 @@
+package liquibase.diff.output.changelog
+
+import liquibase.change.AddColumnConfig
+import liquibase.change.ColumnConfig
+import liquibase.change.core.*
+import liquibase.changelog.ChangeSet
+import liquibase.serializer.core.json.JsonChangeLogSerializer
+import liquibase.serializer.core.xml.XMLChangeLogSerializer
+import liquibase.serializer.core.yaml.YamlChangeLogSerializer
+import org.yaml.snakeyaml.Yaml
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import javax.xml.parsers.DocumentBuilderFactory
+
+class StreamingDiffToChangeLogTest extends Specification {
+
+    @Unroll
+    def "#serializer.class.simpleName writes streamed changesets like a list"() {
+        when:
+        def changeSets = changeSets()
+        def listOutput = new ByteArrayOutputStream()
+        serializer.write(changeSets, listOutput)
+        def streamedOutput = new ByteArrayOutputStream()
+        serializer.write(changeSets.iterator(), streamedOutput)
+
+        then:
+        parse(streamedOutput.toString("UTF-8")) == parse(listOutput.toString("UTF-8"))
+
+        where:
+        serializer << [new XMLChangeLogSerializer(), new YamlChangeLogSerializer(), new JsonChangeLogSerializer()]
+    }
+
+    def "streamed yaml changelog without changesets is valid"() {
+        when:
+        def out = new ByteArrayOutputStream()
+        new YamlChangeLogSerializer().write(Collections.<ChangeSet> emptyIterator(), out)
+
+        then:
+        new Yaml().load(out.toString("UTF-8")) == [databaseChangeLog: []]
+    }
+
+    private static List<ChangeSet> changeSets() {
+        def createTable = new CreateTableChange(tableName: "CHILD")
+        createTable.addColumn(new ColumnConfig(name: "ID", type: "INT"))
+        createTable.addColumn(new ColumnConfig(name: "PARENT_ID", type: "INT"))
+        def createIndex = new CreateIndexChange(tableName: "CHILD", indexName: "IDX_CHILD_PARENT")
+        createIndex.addColumn(new AddColumnConfig(name: "PARENT_ID"))
+        def addForeignKey = new AddForeignKeyConstraintChange(baseTableName: "CHILD", baseColumnNames: "PARENT_ID",
+                referencedTableName: "PARENT", referencedColumnNames: "ID", constraintName: "FK_CHILD_PARENT")
+
+        return [
+                new DropForeignKeyConstraintChange(baseTableName: "OLD_TABLE", constraintName: "FK_OLD_PARENT"),
+                createTable,
+                createIndex,
+                new DropTableChange(tableName: "OLD_TABLE"),
+                addForeignKey
+        ].withIndex().collect { change, i ->
+            def changeSet = new ChangeSet("1-" + (i + 1), "test", false, false, null, null, null, null)
+            changeSet.addChange(change)
+            return changeSet
+        }
+    }
+
+    private static Object parse(String changeLog) {
+        if (changeLog.startsWith("<?xml")) {
+            def document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(new ByteArrayInputStream(changeLog.getBytes("UTF-8")))
+            def changeSets = document.documentElement.getElementsByTagName("changeSet")
+            return (0..<changeSets.length).collect { changeSets.item(it).getAttribute("id") + " " + changeSets.item(it).textContent.replaceAll("\\s+", " ").trim() }
+        }
+        return new Yaml().load(changeLog)
+    }
+}
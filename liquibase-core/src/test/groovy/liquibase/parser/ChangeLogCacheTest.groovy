@@ -0,0 +1,173 @@
+package liquibase.parser
+
+import liquibase.Scope
+import liquibase.changelog.ChangeLogParameters
+import liquibase.parser.core.xml.XMLChangeLogSAXParser
+import liquibase.parser.core.yaml.YamlChangeLogParser
+import liquibase.resource.FileSystemResourceAccessor
+import liquibase.sdk.resource.MockResourceAccessor
+import spock.lang.Specification
+
+class ChangeLogCacheTest extends Specification {
+
+    private static final String CHANGELOG = """<databaseChangeLog xmlns="http://www.liquibase.org/xml/ns/dbchangelog"
+    xmlns:xsi="http://www.w3.org/2001/XMLSchema-instance"
+    xsi:schemaLocation="http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.4.xsd">
+    <changeSet id="1" author="test">
+        <createTable tableName="\${table.name}">
+            <column name="id" type="int"/>
+        </createTable>
+    </changeSet>
+</databaseChangeLog>
+"""
+
+    private static final String YAML_CHANGELOG = """databaseChangeLog:
+  - changeSet:
+      id: 1
+      author: test
+      changes:
+        - createTable:
+            tableName: \${table.name}
+            columns:
+              - column:
+                  name: id
+                  type: int
+"""
+
+    def cacheFile
+
+    def setup() {
+        cacheFile = File.createTempFile("liquibase-changelog", ".cache")
+        cacheFile.delete()
+    }
+
+    def cleanup() {
+        cacheFile.delete()
+        new File(cacheFile.absolutePath + ".checksums").delete()
+    }
+
+    def "changelog is not cached when no cache file is configured"() {
+        when:
+        def cache = new ChangeLogCache()
+        def reads = 0
+        def resourceAccessor = new MockResourceAccessor(["com/example/changelog.xml": CHANGELOG])
+        2.times {
+            cache.read("com/example/changelog.xml", resourceAccessor, String.class, { accessor -> reads++; return "value" } as ChangeLogCache.ContentReader)
+        }
+
+        then:
+        !cache.isEnabled()
+        reads == 2
+        cache.size() == 0
+    }
+
+    def "unchanged local file is only read by the reader once"() {
+        when:
+        def dir = File.createTempDir()
+        def changeLogFile = new File(dir, "changelog.xml")
+        changeLogFile.text = CHANGELOG
+        def resourceAccessor = new FileSystemResourceAccessor(dir)
+        def readContent = []
+        def reader = { accessor -> readContent.add(accessor.openStream(null, "changelog.xml").text); return readContent.size() } as ChangeLogCache.ContentReader
+
+        def first = null
+        def second = null
+        def afterTouch = null
+        def afterChange = null
+        withCache {
+            def cache = Scope.currentScope.getSingleton(ChangeLogCache.class)
+            first = cache.read("changelog.xml", resourceAccessor, Integer.class, reader)
+            second = cache.read("changelog.xml", resourceAccessor, Integer.class, reader)
+
+            changeLogFile.setLastModified(changeLogFile.lastModified() - 10000)
+            afterTouch = cache.read("changelog.xml", resourceAccessor, Integer.class, reader)
+
+            changeLogFile.text = CHANGELOG.replace('id="1"', 'id="2"')
+            afterChange = cache.read("changelog.xml", resourceAccessor, Integer.class, reader)
+        }
+
+        then:
+        first == 1
+        second == 1
+        afterTouch == 1
+        afterChange == 2
+        readContent == [CHANGELOG, CHANGELOG.replace('id="1"', 'id="2"')]
+
+        cleanup:
+        dir?.deleteDir()
+    }
+
+    def "cached yaml changelog is read back after a reload and parameters are still expanded"() {
+        when:
+        withCache {
+            parseYaml("first_table")
+        }
+        Scope.currentScope.getSingleton(ChangeLogCache.class).reset()
+
+        def changeLog = null
+        def size = 0
+        withCache {
+            size = Scope.currentScope.getSingleton(ChangeLogCache.class).size()
+            changeLog = parseYaml("second_table")
+        }
+
+        then:
+        size == 1
+        changeLog.changeSets.size() == 1
+        changeLog.changeSets[0].changes[0].tableName == "second_table"
+        changeLog.changeSets[0].changes[0].columns[0].name == "id"
+    }
+
+    def "cached changelog is read back after a reload and parameters are still expanded"() {
+        when:
+        parseWithCache(CHANGELOG, "first_table")
+        Scope.currentScope.getSingleton(ChangeLogCache.class).reset()
+
+        def changeLog = null
+        def size = 0
+        withCache {
+            size = Scope.currentScope.getSingleton(ChangeLogCache.class).size()
+            changeLog = parse(CHANGELOG, "second_table")
+        }
+
+        then:
+        cacheFile.exists()
+        size == 1
+        changeLog.changeSets.size() == 1
+        changeLog.changeSets[0].changes[0].tableName == "second_table"
+    }
+
+    def "cached changelog is not used when the file changes"() {
+        when:
+        parseWithCache(CHANGELOG, "test_table")
+        Scope.currentScope.getSingleton(ChangeLogCache.class).reset()
+        def changeLog = parseWithCache(CHANGELOG.replace('id="1"', 'id="2"'), "test_table")
+
+        then:
+        changeLog.changeSets[0].id == "2"
+    }
+
+    private def parseWithCache(String content, String tableName) {
+        def changeLog = null
+        withCache {
+            changeLog = parse(content, tableName)
+        }
+        return changeLog
+    }
+
+    private void withCache(Closure closure) {
+        Scope.child(ChangeLogParserConfiguration.CHANGELOG_CACHE_FILE.key, cacheFile.absolutePath, closure as Scope.ScopedRunner)
+    }
+
+    private static def parse(String content, String tableName) {
+        def parameters = new ChangeLogParameters()
+        parameters.set("table.name", tableName)
+        return new XMLChangeLogSAXParser().parse("com/example/changelog.xml", parameters, new MockResourceAccessor(["com/example/changelog.xml": content]))
+    }
+
+    private static def parseYaml(String tableName) {
+        def parameters = new ChangeLogParameters()
+        parameters.set("table.name", tableName)
+        return new YamlChangeLogParser().parse("com/example/changelog.yaml", parameters, new MockResourceAccessor(["com/example/changelog.yaml": YAML_CHANGELOG]))
+    }
+}
@@ -640,6 +640,34 @@ grant execute on any_procedure_name to ANY_USER3/
         "--liquibase formatted sql\n--changeset John Doe:12345\nCREATE PROC TEST\nAnother Line\nEND MY PROC;\n/"      | "CREATE PROC TEST\nAnother Line\nEND MY PROC;\n/"
     }
 
+    def "indented sql, dashes inside sql and comment lines are kept in the changeset sql"() {
+        when:
+        def changeLog = new MockFormattedSqlChangeLogParser("--liquibase formatted sql\n" +
+                "--changeset John Doe:12345\n" +
+                "select 1 - 2\n" +
+                "\t  from dual\n" +
+                "  -- not a directive\n" +
+                "  --rollback drop table indented;\n" +
+                "where x = '--changeset'\n" +
+                "--changeset John Doe:67890\n" +
+                "select 3").parse("asdf.sql", new ChangeLogParameters(), new JUnitResourceAccessor())
+
+        then:
+        changeLog.changeSets*.id == ["12345", "67890"]
+        ((RawSQLChange) changeLog.changeSets[0].changes[0]).sql.replace("\r\n", "\n") == "select 1 - 2\n\t  from dual\n  -- not a directive\nwhere x = '--changeset'"
+        ((RawSQLChange) changeLog.changeSets[0].rollback.changes[0]).sql.trim() == "drop table indented;"
+        ((RawSQLChange) changeLog.changeSets[1].changes[0]).sql == "select 3"
+    }
+
+    def "space between author and id is rejected"() {
+        when:
+        new MockFormattedSqlChangeLogParser("--liquibase formatted sql\n--changeset John Doe: 12345\nselect 1").parse("asdf.sql", new ChangeLogParameters(), new JUnitResourceAccessor())
+
+        then:
+        def e = thrown(ChangeLogParseException)
+        e.message.contains("'--changeset <authorname>:<changesetId>'")
+    }
+
     @LiquibaseService(skip = true)
     private static class MockFormattedSqlChangeLogParser extends FormattedSqlChangeLogParser {
         private String changeLog
@@ -0,0 +1,109 @@
+package liquibase.servicelocator
+
+import liquibase.database.Database
+import liquibase.sqlgenerator.SqlGenerator
+import spock.lang.Specification
+
+class ServiceIndexTest extends Specification {
+
+    def "instances are created for every implementation in the service files"() {
+        when:
+        def index = new ServiceIndex(getClass().classLoader)
+        def names = index.findImplementationNames(SqlGenerator)
+        def first = index.createInstances(SqlGenerator)
+        def second = index.createInstances(SqlGenerator)
+
+        then:
+        first*.class*.name == names as List
+        second*.class == first*.class
+        [first, second].transpose().every { !it[0].is(it[1]) }
+    }
+
+    def "service files are read once per interface"() {
+        when:
+        def reads = 0
+        def index = new ServiceIndex(getClass().classLoader) {
+            @Override
+            protected Collection<String> findImplementationNames(Class<?> interfaceType) throws IOException {
+                reads++
+                return super.findImplementationNames(interfaceType)
+            }
+        }
+        3.times { index.createInstances(Database) }
+
+        then:
+        reads == 1
+        index.createInstances(Database).size() > 0
+    }
+
+    def "invalid and missing implementations are skipped"() {
+        when:
+        def index = new ServiceIndex(getClass().classLoader) {
+            @Override
+            protected Collection<String> findImplementationNames(Class<?> interfaceType) throws IOException {
+                return ["liquibase.MissingService", String.name, "liquibase.database.core.H2Database", "liquibase.database.AbstractJdbcDatabase"]
+            }
+        }
+
+        then:
+        index.createInstances(Database)*.class*.name == ["liquibase.database.core.H2Database"]
+    }
+
+    def "implementations without a public no-arg constructor are skipped"() {
+        when:
+        def index = new ServiceIndex(getClass().classLoader) {
+            @Override
+            protected Collection<String> findImplementationNames(Class<?> interfaceType) throws IOException {
+                return [PrivateConstructorService.name, ArgumentConstructorService.name, PublicConstructorService.name]
+            }
+        }
+
+        then:
+        index.createInstances(PrioritizedService)*.class == [PublicConstructorService]
+    }
+
+    def "indexes do not keep their class loader alive"() {
+        when:
+        def loader = new URLClassLoader(new URL[0], getClass().classLoader)
+        ServiceIndex.getInstance(loader).createInstances(SqlGenerator)
+        def reference = new java.lang.ref.WeakReference<ClassLoader>(loader)
+        loader = null
+        for (int i = 0; (i < 50) && (reference.get() != null); i++) {
+            System.gc()
+            Thread.sleep(10)
+        }
+
+        then:
+        reference.get() == null
+    }
+
+    def "indexes are shared per class loader"() {
+        expect:
+        ServiceIndex.getInstance(getClass().classLoader).is(ServiceIndex.getInstance(getClass().classLoader))
+        !ServiceIndex.getInstance(getClass().classLoader).is(ServiceIndex.getInstance(new URLClassLoader(new URL[0], getClass().classLoader)))
+    }
+}
+
+class PrivateConstructorService implements PrioritizedService {
+    private PrivateConstructorService() {
+    }
+
+    int getPriority() {
+        return PRIORITY_DEFAULT
+    }
+}
+
+class ArgumentConstructorService implements PrioritizedService {
+    ArgumentConstructorService(String value) {
+    }
+
+    int getPriority() {
+        return PRIORITY_DEFAULT
+    }
+}
+
+class PublicConstructorService implements PrioritizedService {
+    int getPriority() {
+        return PRIORITY_DEFAULT
+    }
+}
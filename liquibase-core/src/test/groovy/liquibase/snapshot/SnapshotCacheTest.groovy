@@ -0,0 +1,42 @@
+package liquibase.snapshot
+
+import liquibase.GlobalConfiguration
+import liquibase.Scope
+import liquibase.database.core.H2Database
+import liquibase.database.core.MSSQLDatabase
+import liquibase.database.core.OracleDatabase
+import liquibase.database.core.PostgresDatabase
+import liquibase.structure.core.Schema
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class SnapshotCacheTest extends Specification {
+
+    def "snapshot is not cached without a cache directory"() {
+        expect:
+        !new SnapshotCache().isEnabled()
+    }
+
+    def "snapshot is cached with a cache directory"() {
+        expect:
+        Scope.child([(GlobalConfiguration.SNAPSHOT_CACHE_DIRECTORY.key): "cache"], {
+            return new SnapshotCache().isEnabled()
+        } as Scope.ScopedRunnerWithReturn<Boolean>)
+    }
+
+    @Unroll
+    def "change marker query for #database.shortName"() {
+        when:
+        def sql = new SnapshotCache().getChangeMarkerSql(database, new Schema((String) null, "LB"))
+
+        then:
+        sql == null ? expected == null : sql.contains(expected)
+
+        where:
+        database               | expected
+        new PostgresDatabase() | "c.xmin::text::bigint"
+        new OracleDatabase()   | "MAX(LAST_DDL_TIME) < SYSDATE - 1/86400"
+        new MSSQLDatabase()    | "MAX(modify_date) < DATEADD(second, -1, GETDATE())"
+        new H2Database()       | null
+    }
+}
@@ -0,0 +1,31 @@
+package liquibase.sqlgenerator.core
+
+import liquibase.database.core.*
+import liquibase.sqlgenerator.SqlGeneratorFactory
+import liquibase.statement.core.CommitStatement
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class CommitGeneratorTest extends Specification {
+
+    @Unroll
+    def "commit SQL for #database.shortName"() {
+        when:
+        def sql = SqlGeneratorFactory.instance.generateSql(new CommitStatement(), database)
+
+        then:
+        sql*.toSql() == expected
+
+        where:
+        database                 | expected
+        new OracleDatabase()     | ["COMMIT"]
+        new PostgresDatabase()   | ["COMMIT"]
+        new MySQLDatabase()      | ["COMMIT"]
+        new H2Database()         | ["COMMIT"]
+        new DB2Database()        | ["COMMIT"]
+        new MSSQLDatabase()      | []
+        new SybaseDatabase()     | []
+        new SQLiteDatabase()     | []
+        new InformixDatabase()   | []
+    }
+}
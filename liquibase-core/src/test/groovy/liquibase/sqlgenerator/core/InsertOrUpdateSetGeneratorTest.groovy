@@ -0,0 +1,87 @@
+package liquibase.sqlgenerator.core
+
+import liquibase.database.core.H2Database
+import liquibase.database.core.MSSQLDatabase
+import liquibase.database.core.MySQLDatabase
+import liquibase.database.core.OracleDatabase
+import liquibase.database.core.PostgresDatabase
+import liquibase.statement.core.InsertOrUpdateSetStatement
+import liquibase.statement.core.InsertOrUpdateStatement
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class InsertOrUpdateSetGeneratorTest extends Specification {
+
+    private static InsertOrUpdateSetStatement createStatement(boolean onlyUpdate, int batchSize, List<List> rows) {
+        def statement = new InsertOrUpdateSetStatement(null, null, "testtable", "id", onlyUpdate, batchSize)
+        for (def row : rows) {
+            def insert = new InsertOrUpdateStatement(null, null, "testtable", "id", onlyUpdate)
+            insert.addColumnValue("id", row[0])
+            insert.addColumnValue("name", row[1])
+            insert.addColumnValue("code", row[2])
+            insert.setAllowColumnUpdate("code", false)
+            statement.addStatement(insert)
+        }
+        return statement
+    }
+
+    @Unroll
+    def "generates a set-based upsert for #database.shortName"() {
+        when:
+        def statement = createStatement(false, 10, [[1, "a", "x"], [2, "b", "y"]])
+        def sql = generator.generateSql(statement, database, null)
+
+        then:
+        generator.supports(statement, database)
+        sql*.toSql() == [expected]
+
+        where:
+        generator                                | database             | expected
+        new InsertOrUpdateSetGeneratorPostgres() | new PostgresDatabase() | "INSERT INTO testtable (id, name, code) VALUES (1, 'a', 'x'), (2, 'b', 'y')\nON CONFLICT (id) DO UPDATE SET name = EXCLUDED.name"
+        new InsertOrUpdateSetGeneratorMySQL()    | new MySQLDatabase()  | "INSERT INTO testtable (id, name, code) VALUES (1, 'a', 'x'), (2, 'b', 'y')\nON DUPLICATE KEY UPDATE name = VALUES(name)"
+        new InsertOrUpdateSetGeneratorH2()       | new H2Database()     | "MERGE INTO testtable (id, name, code) KEY (id) VALUES (1, 'a', 'x'), (2, 'b', 'y')"
+        new InsertOrUpdateSetGeneratorOracle()   | new OracleDatabase() | "MERGE INTO testtable target USING (SELECT 1 id, 'a' name, 'x' code FROM DUAL\nUNION ALL SELECT 2 id, 'b' name, 'y' code FROM DUAL) source ON (target.id = source.id)\nWHEN MATCHED THEN UPDATE SET target.name = source.name\nWHEN NOT MATCHED THEN INSERT (id, name, code) VALUES (source.id, source.name, source.code)"
+        new InsertOrUpdateSetGeneratorMSSQL()    | new MSSQLDatabase()  | "MERGE INTO testtable target USING (VALUES (1, 'a', 'x'), (2, 'b', 'y')) AS source (id, name, code) ON (target.id = source.id)\nWHEN MATCHED THEN UPDATE SET target.name = source.name\nWHEN NOT MATCHED THEN INSERT (id, name, code) VALUES (source.id, source.name, source.code);"
+    }
+
+    def "onlyUpdate leaves out the insert of a MERGE and falls back to a statement per row for insert based upserts"() {
+        when:
+        def statement = createStatement(true, 10, [[1, "a", "x"]])
+
+        then:
+        new InsertOrUpdateSetGeneratorMSSQL().generateSql(statement, new MSSQLDatabase(), null)*.toSql() ==
+                ["MERGE INTO testtable target USING (VALUES (1, 'a', 'x')) AS source (id, name, code) ON (target.id = source.id)\nWHEN MATCHED THEN UPDATE SET target.name = source.name;"]
+        new InsertOrUpdateSetGeneratorH2().generateSql(statement, new H2Database(), null)*.toSql() ==
+                ["UPDATE testtable SET name = 'a' WHERE id = 1;"]
+    }
+
+    @Unroll
+    def "onlyUpdate generates no MERGE for rows without a column to update on #database.shortName"() {
+        when:
+        def statement = createStatement(true, 10, [[1, "a", "x"]])
+        def keyOnly = new InsertOrUpdateStatement(null, null, "testtable", "id", true)
+        keyOnly.addColumnValue("id", 2)
+        keyOnly.addColumnValue("code", "y")
+        keyOnly.setAllowColumnUpdate("code", false)
+        statement.addStatement(keyOnly)
+        def sql = generator.generateSql(statement, database, null)*.toSql()
+
+        then:
+        sql.size() == 1
+        sql[0].contains("SET target.name = source.name")
+
+        where:
+        generator                              | database
+        new InsertOrUpdateSetGeneratorOracle() | new OracleDatabase()
+        new InsertOrUpdateSetGeneratorMSSQL()  | new MSSQLDatabase()
+    }
+
+    def "rows are split into batches by size and by repeated keys"() {
+        when:
+        def statement = createStatement(false, 3, [[1, "a", "x"], [2, "b", "x"], [3, "c", "x"], [4, "d", "x"], [4, "e", "x"], [5, "f", "x"]])
+        def batches = new InsertOrUpdateSetGeneratorH2().getBatches(statement)
+
+        then:
+        batches.collect { batch -> batch.collect { it.getColumnValue("name") } } == [["a", "b", "c"], ["d"], ["e", "f"]]
+    }
+}
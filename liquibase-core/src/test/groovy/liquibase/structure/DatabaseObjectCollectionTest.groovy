@@ -0,0 +1,45 @@
+package liquibase.structure
+
+import liquibase.database.core.H2Database
+import liquibase.diff.compare.CompareControl
+import liquibase.structure.core.Column
+import liquibase.structure.core.Index
+import liquibase.structure.core.Table
+import spock.lang.Specification
+
+class DatabaseObjectCollectionTest extends Specification {
+
+    def database = new H2Database()
+    def collection = new DatabaseObjectCollection(database)
+    def schemaComparisons = new CompareControl().schemaComparisons
+
+    def "objects are found through their hash buckets"() {
+        when:
+        def tables = (1..3).collect { new Table(null, "PUBLIC", "TABLE_" + it) }
+        tables.each { table ->
+            collection.add(table)
+            (1..3).each { collection.add(new Column("COL_" + it).setRelation(table)) }
+        }
+
+        then:
+        collection.get(new Table(null, "PUBLIC", "table_2"), schemaComparisons).is(tables[1])
+        collection.get(new Column("col_3").setRelation(new Table(null, "PUBLIC", "TABLE_1")), schemaComparisons).relation.is(tables[0])
+        collection.get(new Table(null, "PUBLIC", "TABLE_4"), schemaComparisons) == null
+        collection.get(new Column("COL_4").setRelation(tables[0]), schemaComparisons) == null
+        collection.get(Column).size() == 9
+    }
+
+    def "objects in several buckets are matched by any of their hashes"() {
+        when:
+        def table = new Table(null, "PUBLIC", "TABLE_1")
+        def named = new Index("IDX_NAMED").setRelation(table)
+        def other = new Index("IDX_OTHER").setRelation(table)
+        collection.add(named)
+        collection.add(other)
+
+        then:
+        collection.get(new Index("IDX_NAMED").setRelation(table), schemaComparisons).is(named)
+        collection.get(new Index("IDX_OTHER"), schemaComparisons).is(other)
+        collection.get(new Index("IDX_MISSING").setRelation(table), schemaComparisons) == null
+    }
+}
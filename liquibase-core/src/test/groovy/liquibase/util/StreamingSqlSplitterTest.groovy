@@ -0,0 +1,122 @@
+package liquibase.util
+
+import liquibase.exception.UnexpectedLiquibaseException
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class StreamingSqlSplitterTest extends Specification {
+
+    @Unroll
+    def "statements match processMultiLineSQL: #sql"() {
+        expect:
+        split(new StringReader(sql), stripComments, splitStatements, endDelimiter) == processMultiLineSQL(sql, stripComments, splitStatements, endDelimiter)
+        split(new OneCharReader(sql), stripComments, splitStatements, endDelimiter) == processMultiLineSQL(sql, stripComments, splitStatements, endDelimiter)
+
+        where:
+        [sql, stripComments, splitStatements, endDelimiter] << [
+                [
+                        "SELECT * FROM customer;",
+                        "SELECT * FROM customer;\nSELECT * from table;\nSELECT * from table2;\n",
+                        "  \n\t SELECT * FROM customer\ngo\nSELECT * FROM go\ngo\nSELECT * from gogo\ngo\n",
+                        "goSELECT * FROM customer\ngo",
+                        "insert into table ( col ) values (' value with; semicolon ');",
+                        "--\n-- This is a comment\nUPDATE tablename SET column = 1;\nGO",
+                        "/**\nSome comments go here\n**/\ncreate table t1 (id int);\n\n/**\nmore comments\n**/\ncreate table t2 (id int);",
+                        "some sql/*Some text\nmore text*/more sql",
+                        "drop procedure if exists my_proc//\n\ncreate procedure my_proc(i_myvar varchar)\nbegin\n  a bunch of code here\nend//",
+                        "CREATE OR REPLACE PACKAGE emp_actions AS  -- spec\nTYPE EmpRecTyp IS RECORD (emp_id INT);\nEND emp_actions;\n/\nanother statement;here\n/\n",
+                        "statement 1 \nGO\nstatement 2\n\n\n",
+                        "statement 1;;  ;\n/* trailing comment */",
+                        "select 1 from dual\n/\nselect 2 from dual\n/\n/* a */ /\n-- end",
+                        "   \n  \t",
+                ],
+                [true, false],
+                [true, false],
+                [null, ";", "/", "//", "\\n/", "\\ngo", "X"]
+        ].combinations()
+    }
+
+    def "statements are read as they are requested"() {
+        when:
+        def reader = new CountingReader("create table t1 (id int);\n" + ("insert into t1 values (1);\n" * 10000))
+        def splitter = new StreamingSqlSplitter(reader, true, true, null)
+
+        then:
+        splitter.next() == "create table t1 (id int)"
+        reader.read < 20000
+
+        when:
+        def remaining = 0
+        while (splitter.hasNext()) {
+            assert splitter.next() == "insert into t1 values (1)"
+            remaining++
+        }
+
+        then:
+        remaining == 10000
+        !splitter.hasNext()
+    }
+
+    def "read errors are not treated as the end of the sql"() {
+        when:
+        def reader = new StringReader("select 1;\nselect 2;\n") {
+            int calls
+
+            @Override
+            int read(char[] cbuf, int off, int len) throws IOException {
+                if (calls++ > 0) {
+                    throw new IOException("disk failure")
+                }
+                return super.read(cbuf, off, 3)
+            }
+        }
+        split(reader, true, true, null)
+
+        then:
+        def e = thrown(UnexpectedLiquibaseException)
+        e.cause.message == "disk failure"
+    }
+
+    private static List<String> split(Reader reader, boolean stripComments, boolean splitStatements, String endDelimiter) {
+        def statements = []
+        new StreamingSqlSplitter(reader, stripComments, splitStatements, endDelimiter).withCloseable { splitter ->
+            while (splitter.hasNext()) {
+                statements << splitter.next()
+            }
+        }
+        return statements
+    }
+
+    private static List<String> processMultiLineSQL(String sql, boolean stripComments, boolean splitStatements, String endDelimiter) {
+        sql = StringUtil.trimToNull(sql)
+        return sql == null ? [] : StringUtil.processMultiLineSQL(sql, stripComments, splitStatements, endDelimiter) as List
+    }
+
+    private static class OneCharReader extends StringReader {
+        OneCharReader(String s) {
+            super(s)
+        }
+
+        @Override
+        int read(char[] cbuf, int off, int len) throws IOException {
+            return super.read(cbuf, off, Math.min(len, 1))
+        }
+    }
+
+    private static class CountingReader extends StringReader {
+        int read
+
+        CountingReader(String s) {
+            super(s)
+        }
+
+        @Override
+        int read(char[] cbuf, int off, int len) throws IOException {
+            int count = super.read(cbuf, off, len)
+            if (count > 0) {
+                read += count
+            }
+            return count
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package liquibase.database;
 
 import liquibase.database.jvm.JdbcConnection;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -20,6 +21,11 @@ public class ConnectionServiceFactoryTest {
         connectionServiceFactory = ConnectionServiceFactory.getInstance();
     }
 
+    @After
+    public void tearDown() {
+        ConnectionServiceFactory.reset();
+    }
+
     @Test
     public void testGetDatabaseConnection() {
 
@@ -1,12 +1,18 @@
 package liquibase.diff.output.changelog;
 
+import liquibase.database.Database;
+import liquibase.database.MockDatabaseConnection;
+import liquibase.database.core.MockDatabase;
 import liquibase.database.core.MySQLDatabase;
 import liquibase.diff.DiffResult;
 import liquibase.diff.compare.CompareControl;
+import liquibase.diff.output.DiffOutputControl;
+import liquibase.exception.DatabaseException;
 import liquibase.snapshot.EmptyDatabaseSnapshot;
 import liquibase.snapshot.SnapshotControl;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.*;
+import liquibase.util.DependencyUtil;
 import org.junit.Test;
 
 import java.util.ArrayList;
@@ -53,4 +59,53 @@ public class DiffToChangeLogTest {
         List<Class<? extends DatabaseObject>> changedOrderedOutputTypes = obj.getOrderedOutputTypes(ChangedObjectChangeGenerator.class);
         assertThat("There should be some types", changedOrderedOutputTypes, hasSize(6));
     }
+
+    @Test
+    public void generateChangeSets_readsDependenciesOnce() throws Exception {
+        MockDatabase database = new MockDatabase();
+        database.setConnection(new MockDatabaseConnection());
+        DiffResult diffResult = new DiffResult(new EmptyDatabaseSnapshot(database), new EmptyDatabaseSnapshot(database), new CompareControl());
+        diffResult.addMissingObject(table("NEW_TABLE"));
+        diffResult.addMissingObject(view("NEW_VIEW", "NEW_TABLE"));
+        diffResult.addUnexpectedObject(table("OLD_TABLE"));
+        diffResult.addUnexpectedObject(view("OLD_VIEW", "OLD_TABLE"));
+
+        final List<List<String>> queriedSchemas = new ArrayList<>();
+        DiffToChangeLog diffToChangeLog = new DiffToChangeLog(diffResult, new DiffOutputControl(false, false, false, null)) {
+            @Override
+            protected boolean supportsSortingObjects(Database database) {
+                return true;
+            }
+
+            @Override
+            protected void addDependencies(DependencyUtil.DependencyGraph<String> graph, List<String> schemas, Database database) throws DatabaseException {
+                queriedSchemas.add(schemas);
+                graph.add("PUBLIC.NEW_TABLE", "PUBLIC.NEW_VIEW");
+                graph.add("PUBLIC.OLD_TABLE", "PUBLIC.OLD_VIEW");
+            }
+        };
+
+        List<String> changes = new ArrayList<>();
+        for (liquibase.changelog.ChangeSet changeSet : diffToChangeLog.generateChangeSets()) {
+            changes.add(changeSet.getChanges().get(0).getDescription());
+        }
+
+        assertThat(queriedSchemas, hasSize(1));
+        assertThat(changes, hasItems("createTable tableName=NEW_TABLE", "createView viewName=NEW_VIEW", "dropView viewName=OLD_VIEW", "dropTable tableName=OLD_TABLE"));
+        assertThat(changes.indexOf("createTable tableName=NEW_TABLE"), lessThan(changes.indexOf("createView viewName=NEW_VIEW")));
+        assertThat(changes.indexOf("dropView viewName=OLD_VIEW"), lessThan(changes.indexOf("dropTable tableName=OLD_TABLE")));
+    }
+
+    private Table table(String name) {
+        Table table = new Table(null, "PUBLIC", name);
+        table.addColumn(new Column("ID").setRelation(table).setType(new DataType("INT")));
+        return table;
+    }
+
+    private View view(String name, String tableName) {
+        View view = new View(null, "PUBLIC", name);
+        view.setDefinition("SELECT ID FROM " + tableName);
+        view.addColumn(new Column("ID").setRelation(view));
+        return view;
+    }
 }
@@ -1,18 +1,30 @@
 package liquibase.sqlgenerator;
 
+import liquibase.database.Database;
 import liquibase.database.core.H2Database;
+import liquibase.database.core.MockDatabase;
+import liquibase.exception.ValidationErrors;
 import liquibase.servicelocator.LiquibaseService;
+import liquibase.sqlgenerator.core.AbstractSqlGenerator;
 import liquibase.sqlgenerator.core.AddAutoIncrementGenerator;
 import liquibase.sqlgenerator.core.AddAutoIncrementGeneratorDB2;
 import liquibase.sqlgenerator.core.AddAutoIncrementGeneratorHsqlH2;
 import liquibase.sqlgenerator.core.AddColumnGenerator;
+import liquibase.sql.Sql;
+import liquibase.sql.UnparsedSql;
 import liquibase.statement.core.AddAutoIncrementStatement;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.SortedSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 
@@ -164,6 +176,71 @@ public class SqlGeneratorFactoryTest {
     }
 
 
+    @Test
+    public void supportsIsCheckedOncePerStatementClassAndDatabase() {
+        factory.getGenerators().clear();
+        CountingSqlGenerator generator = new CountingSqlGenerator();
+        factory.register(generator);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(1, factory.generateSql(statement, database).length);
+        }
+        assertEquals(1, generator.supportsCalls.get());
+
+        factory.generateSql(statement, new MockDatabase());
+        assertEquals(2, generator.supportsCalls.get());
+    }
+
+    @Test
+    public void databaseVersionIsReadOncePerDatabase() {
+        AtomicInteger versionCalls = new AtomicInteger();
+        MockDatabase countingDatabase = new MockDatabase() {
+            @Override
+            public int getDatabaseMajorVersion() {
+                versionCalls.incrementAndGet();
+                return 1;
+            }
+        };
+        factory.getGenerators().clear();
+        factory.register(new CountingSqlGenerator());
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(1, factory.generateSql(statement, countingDatabase).length);
+        }
+        assertEquals(1, versionCalls.get());
+    }
+
+    @Test
+    public void registeredGeneratorsResetTheDispatchTable() {
+        factory.getGenerators().clear();
+        factory.register(new MockSqlGenerator(1, "A1"));
+        assertEquals("A1", factory.generateSql(statement, database)[0].toSql());
+
+        factory.register(new MockSqlGenerator(2, "B2"));
+        assertEquals("B2", factory.generateSql(statement, database)[0].toSql());
+        assertEquals("A1", factory.generateSql(statement, database)[1].toSql());
+
+        factory.getGenerators().clear();
+        assertFalse(factory.supports(statement, database));
+    }
+
+    @Test
+    public void concurrentLookupsUseTheSameGenerators() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(() -> factory.generateSql(statement, database)[0].toSql()));
+            }
+            String expected = factory.generateSql(statement, database)[0].toSql();
+            for (Future<String> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void reset() {
         SqlGeneratorFactory.reset();
@@ -193,4 +270,26 @@ public class SqlGeneratorFactoryTest {
             return super.getPriority() + 1;
         }
     }
+
+    @LiquibaseService(skip = true)
+    private static class CountingSqlGenerator extends AbstractSqlGenerator<AddAutoIncrementStatement> {
+
+        private final AtomicInteger supportsCalls = new AtomicInteger();
+
+        @Override
+        public boolean supports(AddAutoIncrementStatement statement, Database database) {
+            supportsCalls.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public ValidationErrors validate(AddAutoIncrementStatement statement, Database database, SqlGeneratorChain<AddAutoIncrementStatement> sqlGeneratorChain) {
+            return new ValidationErrors();
+        }
+
+        @Override
+        public Sql[] generateSql(AddAutoIncrementStatement statement, Database database, SqlGeneratorChain<AddAutoIncrementStatement> sqlGeneratorChain) {
+            return new Sql[]{new UnparsedSql("counted")};
+        }
+    }
 }
@@ -0,0 +1,234 @@
+package liquibase.change.core
+
+import liquibase.GlobalConfiguration
+import liquibase.Scope
+import liquibase.bulkload.core.H2CsvReadBulkLoader
+import liquibase.changelog.ChangeSet
+import liquibase.changelog.DatabaseChangeLog
+import liquibase.changelog.visitor.AbstractChangeExecListener
+import liquibase.database.Database
+import liquibase.exception.MigrationFailedException
+import liquibase.executor.ExecutorService
+import liquibase.integrationtest.EmptyH2Database
+import liquibase.resource.FileSystemResourceAccessor
+import liquibase.statement.BulkLoadStatement
+import liquibase.statement.SqlStatement
+import liquibase.statement.StreamingBatchDmlExecutablePreparedStatement
+import liquibase.statement.core.RawSqlStatement
+import spock.lang.Specification
+
+class LoadDataChangeIntegrationTest extends Specification {
+
+    def "streamLoadData inserts rows in chunks while executing"() {
+        given:
+        def tempDir = File.createTempDir()
+        def csv = new File(tempDir, "people.csv")
+        csv.withWriter { writer ->
+            writer.write("id,name\n")
+            for (int i = 1; i <= rowCount; i++) {
+                writer.write(i + ",name " + i + "\n")
+            }
+        }
+        def h2Database = new EmptyH2Database()
+        def database = h2Database.database
+        def executor = Scope.currentScope.getSingleton(ExecutorService).getExecutor("jdbc", database)
+        executor.execute(new RawSqlStatement("CREATE TABLE person (id INT, name VARCHAR(50))"))
+
+        def change = new LoadDataChange()
+        change.tableName = "person"
+        change.file = "people.csv"
+        change.addColumn(new LoadDataColumnConfig(name: "id", type: "NUMERIC"))
+        change.addColumn(new LoadDataColumnConfig(name: "name", type: "STRING"))
+
+        when:
+        SqlStatement[] statements = null
+        Scope.child([
+                (Scope.Attr.resourceAccessor.name())    : new FileSystemResourceAccessor(tempDir),
+                (GlobalConfiguration.STREAM_LOAD_DATA.key): true,
+        ], {
+            statements = change.generateStatements(database)
+            database.execute(statements, [])
+        } as Scope.ScopedRunner)
+
+        then:
+        statements.length == 1
+        statements[0] instanceof StreamingBatchDmlExecutablePreparedStatement
+        ((StreamingBatchDmlExecutablePreparedStatement) statements[0]).useBatches
+        executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM person")) == rowCount
+        rowCount == 0 || executor.queryForObject(new RawSqlStatement("SELECT name FROM person WHERE id = " + rowCount), String) == "name " + rowCount
+
+        cleanup:
+        h2Database?.close()
+        tempDir?.deleteDir()
+
+        where:
+        rowCount << [0, 1, StreamingBatchDmlExecutablePreparedStatement.DEFAULT_CHUNK_SIZE * 2 + 500]
+    }
+
+    def "batchSize and commitEvery split the rows into batches and transactions"() {
+        given:
+        def tempDir = File.createTempDir()
+        new File(tempDir, "people.csv").withWriter { writer ->
+            writer.write("id,name\n")
+            for (int i = 1; i <= 10; i++) {
+                writer.write(i + ",name " + i + "\n")
+            }
+        }
+        def h2Database = new EmptyH2Database()
+        def database = h2Database.database
+        def executor = Scope.currentScope.getSingleton(ExecutorService).getExecutor("jdbc", database)
+        executor.execute(new RawSqlStatement("CREATE TABLE person (id INT, name VARCHAR(50))"))
+
+        def changeLog = new DatabaseChangeLog("com/example/changelog.xml")
+        def changeSet = new ChangeSet("1", "test", false, false, "com/example/changelog.xml", null, null, changeLog)
+        def change = new LoadDataChange()
+        change.tableName = "person"
+        change.file = "people.csv"
+        change.batchSize = 3
+        change.commitEvery = 5
+        change.addColumn(new LoadDataColumnConfig(name: "id", type: "NUMERIC"))
+        change.addColumn(new LoadDataColumnConfig(name: "name", type: "STRING"))
+        changeSet.addChange(change)
+
+        def batches = []
+        def listener = new AbstractChangeExecListener() {
+            @Override
+            void batchExecuted(ChangeSet ranChangeSet, Database db, String tableName, int rowCount, long durationMillis) {
+                batches << [tableName, rowCount]
+            }
+        }
+
+        when:
+        SqlStatement[] statements = null
+        Scope.child([
+                (Scope.Attr.resourceAccessor.name())    : new FileSystemResourceAccessor(tempDir),
+                (GlobalConfiguration.STREAM_LOAD_DATA.key): streamLoadData,
+        ], {
+            statements = change.generateStatements(database)
+            changeSet.execute(changeLog, listener, database)
+        } as Scope.ScopedRunner)
+
+        then:
+        statements*.class.simpleName == expectedStatements
+        batches == [["person", 3], ["person", 2], ["person", 3], ["person", 2]]
+        executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM person")) == 10
+
+        cleanup:
+        h2Database?.close()
+        tempDir?.deleteDir()
+
+        where:
+        streamLoadData | expectedStatements
+        false          | ["BatchDmlExecutablePreparedStatement", "CommitStatement", "BatchDmlExecutablePreparedStatement"]
+        true           | ["StreamingBatchDmlExecutablePreparedStatement"]
+    }
+
+    def "bulkLoadData loads rows through the native bulk loader of the database"() {
+        given:
+        def tempDir = File.createTempDir()
+        new File(tempDir, "people.csv").withWriter("UTF-8") { writer ->
+            writer.write("id,name,ignored,active,birth\n")
+            writer.write("1,\"Smith, \"\"Bob\"\"\",x,true,2001-02-03\n")
+            writer.write("# a comment\n")
+            writer.write("2,NULL,x,false,NULL\n")
+            writer.write("3,,x,,2001-02-04\n")
+            writer.write("4,Zoë,x,true,2001-02-05\n")
+        }
+        def h2Database = new EmptyH2Database()
+        def database = h2Database.database
+        def executor = Scope.currentScope.getSingleton(ExecutorService).getExecutor("jdbc", database)
+        executor.execute(new RawSqlStatement("CREATE TABLE person (id INT, full_name VARCHAR(50), active BOOLEAN, birth DATE)"))
+
+        def changeLog = new DatabaseChangeLog("com/example/changelog.xml")
+        def changeSet = new ChangeSet("1", "test", false, false, "com/example/changelog.xml", null, null, changeLog)
+        def change = new LoadDataChange()
+        change.tableName = "person"
+        change.file = "people.csv"
+        change.commentLineStartsWith = "#"
+        change.addColumn(new LoadDataColumnConfig(name: "id", type: "NUMERIC"))
+        change.addColumn(new LoadDataColumnConfig(header: "name", name: "full_name", type: "STRING"))
+        change.addColumn(new LoadDataColumnConfig(name: "ignored", type: "skip"))
+        change.addColumn(new LoadDataColumnConfig(name: "active", type: "BOOLEAN"))
+        change.addColumn(new LoadDataColumnConfig(name: "birth", type: "DATE"))
+        changeSet.addChange(change)
+
+        def batches = []
+        def listener = new AbstractChangeExecListener() {
+            @Override
+            void batchExecuted(ChangeSet ranChangeSet, Database db, String tableName, int rowCount, long durationMillis) {
+                batches << [tableName, rowCount]
+            }
+        }
+
+        when:
+        SqlStatement[] statements = null
+        Scope.child([
+                (Scope.Attr.resourceAccessor.name())    : new FileSystemResourceAccessor(tempDir),
+                (GlobalConfiguration.BULK_LOAD_DATA.key): true,
+        ], {
+            statements = change.generateStatements(database)
+            changeSet.execute(changeLog, listener, database)
+        } as Scope.ScopedRunner)
+
+        then:
+        statements*.class.simpleName == ["BulkLoadStatement"]
+        ((BulkLoadStatement) statements[0]).bulkLoader instanceof H2CsvReadBulkLoader
+        ((BulkLoadStatement) statements[0]).columnNames == ["id", "full_name", "active", "birth"]
+        batches == [["person", 4]]
+        executor.queryForList(new RawSqlStatement("SELECT id, full_name, active, CAST(birth AS VARCHAR) AS birth FROM person ORDER BY id")) == [
+                [ID: 1, FULL_NAME: "Smith, \"Bob\"", ACTIVE: true, BIRTH: "2001-02-03"],
+                [ID: 2, FULL_NAME: null, ACTIVE: false, BIRTH: null],
+                [ID: 3, FULL_NAME: "", ACTIVE: null, BIRTH: "2001-02-04"],
+                [ID: 4, FULL_NAME: "Zoë", ACTIVE: true, BIRTH: "2001-02-05"],
+        ]
+
+        cleanup:
+        h2Database?.close()
+        tempDir?.deleteDir()
+    }
+
+    def "bulkLoadData is chosen without reading the rows and fails on a value computed by the database"() {
+        given:
+        def tempDir = File.createTempDir()
+        new File(tempDir, "people.csv").withWriter("UTF-8") { writer ->
+            writer.write("id,name,birth\n")
+            writer.write("1,Bob,2001-02-03\n")
+            writer.write("2,Ann,CURRENT_DATE\n")
+        }
+        def h2Database = new EmptyH2Database()
+        def database = h2Database.database
+        def executor = Scope.currentScope.getSingleton(ExecutorService).getExecutor("jdbc", database)
+        executor.execute(new RawSqlStatement("CREATE TABLE person (id INT, name VARCHAR(50), birth DATE)"))
+
+        def changeLog = new DatabaseChangeLog("com/example/changelog.xml")
+        def changeSet = new ChangeSet("1", "test", false, false, "com/example/changelog.xml", null, null, changeLog)
+        def change = new LoadDataChange()
+        change.tableName = "person"
+        change.file = "people.csv"
+        change.addColumn(new LoadDataColumnConfig(name: "id", type: "NUMERIC"))
+        change.usePreparedStatements = false
+        change.addColumn(new LoadDataColumnConfig(name: "name", type: "STRING"))
+        change.addColumn(new LoadDataColumnConfig(name: "birth", type: "DATE"))
+        changeSet.addChange(change)
+
+        when:
+        SqlStatement[] statements = null
+        Scope.child([
+                (Scope.Attr.resourceAccessor.name())    : new FileSystemResourceAccessor(tempDir),
+                (GlobalConfiguration.BULK_LOAD_DATA.key): true,
+        ], {
+            assert change.getBulkLoader(database) instanceof H2CsvReadBulkLoader
+            statements = change.generateStatements(database)
+            changeSet.execute(changeLog, null, database)
+        } as Scope.ScopedRunner)
+
+        then:
+        def e = thrown(MigrationFailedException)
+        e.message.contains("Computed value 'CURRENT_DATE' cannot be bulk loaded")
+        statements*.class.simpleName == ["BulkLoadStatement"]
+
+        cleanup:
+        h2Database?.close()
+        tempDir?.deleteDir()
+    }
+}
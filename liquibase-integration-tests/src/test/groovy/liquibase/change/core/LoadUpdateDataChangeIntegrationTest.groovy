@@ -0,0 +1,72 @@
+package liquibase.change.core
+
+import liquibase.GlobalConfiguration
+import liquibase.Scope
+import liquibase.executor.ExecutorService
+import liquibase.integrationtest.EmptyH2Database
+import liquibase.resource.FileSystemResourceAccessor
+import liquibase.sqlgenerator.SqlGeneratorFactory
+import liquibase.statement.SqlStatement
+import liquibase.statement.core.RawSqlStatement
+import spock.lang.Specification
+
+class LoadUpdateDataChangeIntegrationTest extends Specification {
+
+    def "bulkLoadUpdateData inserts or updates rows with a statement per batch"() {
+        given:
+        def tempDir = File.createTempDir()
+        new File(tempDir, "people.csv").withWriter { writer ->
+            writer.write("id,name,created\n")
+            writer.write("1,updated 1,new\n")
+            writer.write("2,updated 2,new\n")
+            writer.write("3,new 3,new\n")
+            writer.write("1,updated again 1,new\n")
+            writer.write("4,new 4,new\n")
+            writer.write("5,new 5,new\n")
+        }
+        def h2Database = new EmptyH2Database()
+        def database = h2Database.database
+        def executor = Scope.currentScope.getSingleton(ExecutorService).getExecutor("jdbc", database)
+        executor.execute(new RawSqlStatement("CREATE TABLE person (id INT PRIMARY KEY, name VARCHAR(50), created VARCHAR(50))"))
+        executor.execute(new RawSqlStatement("INSERT INTO person VALUES (1, 'old 1', 'old'), (2, 'old 2', 'old'), (9, 'old 9', 'old')"))
+
+        def change = new LoadUpdateDataChange()
+        change.tableName = "person"
+        change.file = "people.csv"
+        change.primaryKey = "id"
+        change.batchSize = 4
+        change.addColumn(new LoadDataColumnConfig(name: "id", type: "NUMERIC"))
+        change.addColumn(new LoadDataColumnConfig(name: "name", type: "STRING"))
+        change.addColumn(new LoadDataColumnConfig(name: "created", type: "STRING", allowUpdate: false))
+
+        when:
+        SqlStatement[] statements = null
+        SqlStatement[] rollback = null
+        Scope.child([
+                (Scope.Attr.resourceAccessor.name())           : new FileSystemResourceAccessor(tempDir),
+                (GlobalConfiguration.BULK_LOAD_UPDATE_DATA.key): true,
+        ], {
+            statements = change.generateStatements(database)
+            rollback = change.generateRollbackStatements(database)
+            executor.execute(change)
+        } as Scope.ScopedRunner)
+
+        then:
+        statements*.class.simpleName == ["InsertOrUpdateSetStatement"]
+        // the repeated key of row 1 starts a second batch
+        SqlGeneratorFactory.instance.generateSql(statements[0], database).length == 2
+        rollback.length == 6
+        executor.queryForList(new RawSqlStatement("SELECT id, name FROM person ORDER BY id")) == [
+                [ID: 1, NAME: "updated again 1"],
+                [ID: 2, NAME: "updated 2"],
+                [ID: 3, NAME: "new 3"],
+                [ID: 4, NAME: "new 4"],
+                [ID: 5, NAME: "new 5"],
+                [ID: 9, NAME: "old 9"],
+        ]
+
+        cleanup:
+        h2Database?.close()
+        tempDir?.deleteDir()
+    }
+}
@@ -0,0 +1,114 @@
+package liquibase.changelog
+
+import liquibase.Contexts
+import liquibase.GlobalConfiguration
+import liquibase.Liquibase
+import liquibase.Scope
+import liquibase.integrationtest.EmptyH2Database
+import liquibase.resource.ClassLoaderResourceAccessor
+import spock.lang.Specification
+
+class StandardChangeLogHistoryServiceTest extends Specification {
+
+    EmptyH2Database h2Database
+    def liquibase
+
+    def setup() {
+        h2Database = new EmptyH2Database()
+        liquibase = new Liquibase("liquibase/tagged-changelog.xml", new ClassLoaderResourceAccessor(), h2Database.database)
+    }
+
+    def cleanup() {
+        Scope.currentScope.getSingleton(ChangeLogHistoryCache).clearAll()
+        liquibase?.close()
+        h2Database?.close()
+    }
+
+    def "incremental reads return the same rows as a full read"() {
+        when:
+        List<String> incremental = null
+        List<String> full = null
+        def maxOrderExecuted = 0
+        withIncrementalReads {
+            liquibase.update("1.0", new Contexts())
+            assert readRanChangeSets().size() == 2
+
+            liquibase.update(new Contexts())
+            incremental = readRanChangeSets()
+            maxOrderExecuted = Scope.currentScope.getSingleton(ChangeLogHistoryCache).get(liquibase.database).maxOrderExecuted
+        }
+        full = readRanChangeSets()
+
+        then:
+        maxOrderExecuted == 5
+        incremental == ["1", "2", "3", "4", "5"]
+        incremental == full
+    }
+
+    def "all rows are read again when rows are removed"() {
+        when:
+        List<String> ranChangeSets = null
+        withIncrementalReads {
+            liquibase.update(new Contexts())
+            readRanChangeSets()
+
+            h2Database.execute("DELETE FROM DATABASECHANGELOG WHERE ID='3'")
+
+            ranChangeSets = readRanChangeSets()
+        }
+
+        then:
+        ranChangeSets == ["1", "2", "4", "5"]
+    }
+
+    def "all rows are read again when checksums are cleared"() {
+        when:
+        List<RanChangeSet> ranChangeSets = null
+        withIncrementalReads {
+            liquibase.update(new Contexts())
+            readRanChangeSets()
+
+            h2Database.execute("UPDATE DATABASECHANGELOG SET MD5SUM=NULL")
+
+            ChangeLogHistoryServiceFactory.instance.resetAll()
+            ranChangeSets = ChangeLogHistoryServiceFactory.instance.getChangeLogService(liquibase.database).getRanChangeSets()
+        }
+
+        then:
+        ranChangeSets.size() == 5
+        ranChangeSets.every { it.lastCheckSum == null }
+    }
+
+    def "all rows are read again when existing rows are rewritten"() {
+        when:
+        List<RanChangeSet> ranChangeSets = null
+        withIncrementalReads {
+            liquibase.update(new Contexts())
+            readRanChangeSets()
+
+            h2Database.execute(sql)
+
+            ChangeLogHistoryServiceFactory.instance.resetAll()
+            ranChangeSets = ChangeLogHistoryServiceFactory.instance.getChangeLogService(liquibase.database).getRanChangeSets()
+        }
+
+        then:
+        check(ranChangeSets.find { it.id == "2" })
+
+        where:
+        sql                                                                                   | check
+        "UPDATE DATABASECHANGELOG SET MD5SUM = '9:00000000000000000000000000000000' WHERE ID = '2'" | { RanChangeSet it -> it.lastCheckSum.toString() == "9:00000000000000000000000000000000" }
+        "UPDATE DATABASECHANGELOG SET EXECTYPE = 'MARK_RAN' WHERE ID = '2'"                   | { RanChangeSet it -> it.execType == ChangeSet.ExecType.MARK_RAN }
+        "UPDATE DATABASECHANGELOG SET DEPLOYMENT_ID = 'other' WHERE ID = '2'"                 | { RanChangeSet it -> it.deploymentId == "other" }
+        "UPDATE DATABASECHANGELOG SET TAG = 'other' WHERE ID = '2'"                           | { RanChangeSet it -> it.tag == "other" }
+    }
+
+    private List<String> readRanChangeSets() {
+        ChangeLogHistoryServiceFactory.instance.resetAll()
+        return ChangeLogHistoryServiceFactory.instance.getChangeLogService(liquibase.database).getRanChangeSets()*.id
+    }
+
+    private void withIncrementalReads(Closure closure) {
+        Scope.child(GlobalConfiguration.INCREMENTAL_HISTORY_READS.key, true, closure as Scope.ScopedRunner)
+    }
+}
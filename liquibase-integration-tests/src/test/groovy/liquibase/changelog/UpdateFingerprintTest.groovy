@@ -0,0 +1,128 @@
+package liquibase.changelog
+
+import liquibase.Contexts
+import liquibase.GlobalConfiguration
+import liquibase.LabelExpression
+import liquibase.Liquibase
+import liquibase.Scope
+import liquibase.integrationtest.EmptyH2Database
+import liquibase.resource.ClassLoaderResourceAccessor
+import liquibase.snapshot.SnapshotGeneratorFactory
+import liquibase.structure.core.Table
+import spock.lang.Specification
+
+class UpdateFingerprintTest extends Specification {
+
+    EmptyH2Database h2Database
+    def liquibase
+
+    def setup() {
+        h2Database = new EmptyH2Database()
+        liquibase = new Liquibase("liquibase/tagged-changelog.xml", new ClassLoaderResourceAccessor(), h2Database.database)
+    }
+
+    def cleanup() {
+        liquibase?.close()
+        h2Database?.close()
+    }
+
+    def "fingerprint is not stored when disabled"() {
+        when:
+        liquibase.update(new Contexts())
+
+        then:
+        !hasFingerprintTable()
+    }
+
+    def "fingerprint matches after update"() {
+        when:
+        def upToDateBefore = true
+        def upToDateAfter = false
+        withFingerprint {
+            upToDateBefore = isUpToDate()
+            liquibase.update(new Contexts())
+            upToDateAfter = isUpToDate()
+        }
+
+        then:
+        hasFingerprintTable()
+        !upToDateBefore
+        upToDateAfter
+    }
+
+    def "fingerprint does not match when the history changes"() {
+        when:
+        def upToDate = true
+        withFingerprint {
+            liquibase.update(new Contexts())
+            liquibase.rollback(1, null)
+            upToDate = isUpToDate()
+        }
+
+        then:
+        !upToDate
+    }
+
+    def "fingerprint does not match when any value of the history stamp changes"() {
+        when:
+        def upToDate = true
+        withFingerprint {
+            liquibase.update(new Contexts())
+            h2Database.execute(sql)
+            upToDate = isUpToDate()
+        }
+
+        then:
+        !upToDate
+
+        where:
+        sql << [
+                "DELETE FROM DATABASECHANGELOG WHERE ORDEREXECUTED = 1",
+                "UPDATE DATABASECHANGELOG SET MD5SUM = NULL",
+                "UPDATE DATABASECHANGELOG SET ORDEREXECUTED = ORDEREXECUTED + 10 WHERE ORDEREXECUTED = (SELECT MAX(ORDEREXECUTED) FROM DATABASECHANGELOG)",
+                "UPDATE DATABASECHANGELOG SET DATEEXECUTED = DATEADD('DAY', 1, DATEEXECUTED)",
+                "UPDATE DATABASECHANGELOG SET MD5SUM = '9:00000000000000000000000000000000' WHERE ORDEREXECUTED = 2",
+                "UPDATE DATABASECHANGELOG SET EXECTYPE = 'MARK_RAN' WHERE ORDEREXECUTED = 2",
+                "UPDATE DATABASECHANGELOG SET DEPLOYMENT_ID = 'other' WHERE ORDEREXECUTED = 2",
+        ]
+    }
+
+    def "fingerprint does not match for different contexts"() {
+        when:
+        def upToDate = true
+        withFingerprint {
+            liquibase.update(new Contexts())
+            upToDate = new UpdateFingerprint(liquibase.database).isUpToDate(liquibase.getDatabaseChangeLog(), new Contexts("other"), new LabelExpression())
+        }
+
+        then:
+        !upToDate
+    }
+
+    def "fingerprint table is a liquibase object"() {
+        when:
+        withFingerprint {
+            liquibase.update(new Contexts())
+        }
+        def table = SnapshotGeneratorFactory.instance.createSnapshot(new Table(name: liquibase.database.databaseChangeLogFingerprintTableName)
+                .setSchema(liquibase.database.liquibaseCatalogName, liquibase.database.liquibaseSchemaName), liquibase.database)
+
+        then:
+        table != null
+        liquibase.database.isLiquibaseObject(table)
+        liquibase.database.isLiquibaseObject(table.columns[0])
+    }
+
+    private boolean isUpToDate() {
+        return new UpdateFingerprint(liquibase.database).isUpToDate(liquibase.getDatabaseChangeLog(), new Contexts(), new LabelExpression())
+    }
+
+    private boolean hasFingerprintTable() {
+        return SnapshotGeneratorFactory.instance.has(new Table(name: GlobalConfiguration.DATABASECHANGELOGFINGERPRINT_TABLE_NAME.currentValue)
+                .setSchema(liquibase.database.liquibaseCatalogName, liquibase.database.liquibaseSchemaName), liquibase.database)
+    }
+
+    private void withFingerprint(Closure closure) {
+        Scope.child(GlobalConfiguration.UPDATE_FINGERPRINT.key, true, closure as Scope.ScopedRunner)
+    }
+}
@@ -0,0 +1,88 @@
+package liquibase.command.core
+
+import liquibase.Scope
+import liquibase.command.CommandScope
+import liquibase.exception.CommandExecutionException
+import liquibase.integrationtest.EmptyH2Database
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class UpdateManyCommandStepTest extends Specification {
+
+    EmptyH2Database h2Database
+
+    def setup() {
+        //H2 serializes DDL across schemas, so concurrent targets may wait on each other
+        h2Database = new EmptyH2Database([LOCK_TIMEOUT: "60000"], "CREATE SCHEMA T1", "CREATE SCHEMA T2", "CREATE SCHEMA T3")
+    }
+
+    def cleanup() {
+        h2Database?.close()
+    }
+
+    @Unroll
+    def "updates every schema with #threads thread(s)"() {
+        when:
+        def scopeBefore = Scope.currentScope
+        def results = updateMany("T1, T2,T3", threads)
+        Map<String, UpdateManyCommandStep.TargetResult> targetResults = results.getResult(UpdateManyCommandStep.TARGET_RESULTS)
+
+        then:
+        targetResults.keySet() as List == ["T1", "T2", "T3"]
+        targetResults.values()*.status.every { it == UpdateManyCommandStep.TargetResult.Status.UPDATED }
+        targetResults.values()*.changeSetsRan.every { it == 3 }
+        results.getResult(UpdateManyCommandStep.FAILED_TARGETS_RESULT) == 0
+        ["T1", "T2", "T3"].every { countRows(it + ".DATABASECHANGELOG") == 3 && countRows(it + ".TENANT_TABLE") == 1 }
+        Scope.currentScope.is(scopeBefore)
+
+        when:
+        targetResults = updateMany("T1,T2,T3", threads).getResult(UpdateManyCommandStep.TARGET_RESULTS)
+
+        then:
+        targetResults.values()*.status.every { it == UpdateManyCommandStep.TargetResult.Status.UP_TO_DATE }
+        ["T1", "T2", "T3"].every { countRows(it + ".DATABASECHANGELOG") == 3 }
+
+        where:
+        threads << [1, 3]
+    }
+
+    def "workers reuse their changelog for more schemas than threads"() {
+        when:
+        def schemas = (1..8).collect { "W" + it }
+        schemas.each { h2Database.execute("CREATE SCHEMA " + it) }
+        Map<String, UpdateManyCommandStep.TargetResult> targetResults = updateMany(schemas.join(","), 3).getResult(UpdateManyCommandStep.TARGET_RESULTS)
+
+        then:
+        targetResults.values()*.status.every { it == UpdateManyCommandStep.TargetResult.Status.UPDATED }
+        schemas.every { countRows(it + ".DATABASECHANGELOG") == 3 && countRows(it + ".TENANT_TABLE") == 1 }
+    }
+
+    def "a failing schema does not stop the other schemas"() {
+        when:
+        h2Database.execute("CREATE TABLE T2.TENANT_TABLE (OTHER INTEGER)")
+
+        updateMany("T1,T2,T3", 2)
+
+        then:
+        def e = thrown(CommandExecutionException)
+        e.message.contains("1 of 3 target(s) failed")
+        countRows("T1.DATABASECHANGELOG") == 3
+        countRows("T2.DATABASECHANGELOG") == 0
+        countRows("T3.DATABASECHANGELOG") == 3
+    }
+
+    private def updateMany(String schemas, int threads) {
+        return new CommandScope(UpdateManyCommandStep.COMMAND_NAME)
+                .addArgumentValue(UpdateManyCommandStep.URL_ARG, h2Database.url)
+                .addArgumentValue(UpdateManyCommandStep.USERNAME_ARG, h2Database.username)
+                .addArgumentValue(UpdateManyCommandStep.PASSWORD_ARG, h2Database.password)
+                .addArgumentValue(UpdateManyCommandStep.CHANGELOG_FILE_ARG, "liquibase/command/core/update-many-changelog.xml")
+                .addArgumentValue(UpdateManyCommandStep.SCHEMAS_ARG, schemas)
+                .addArgumentValue(UpdateManyCommandStep.THREADS_ARG, threads)
+                .execute()
+    }
+
+    private int countRows(String table) {
+        return h2Database.queryForInt("SELECT COUNT(*) FROM " + table)
+    }
+}
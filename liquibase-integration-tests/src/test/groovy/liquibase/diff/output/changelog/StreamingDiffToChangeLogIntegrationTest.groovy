@@ -0,0 +1,87 @@
+package liquibase.diff.output.changelog
+
+import liquibase.change.core.*
+import liquibase.changelog.ChangeSet
+import liquibase.database.Database
+import liquibase.diff.DiffGeneratorFactory
+import liquibase.diff.compare.CompareControl
+import liquibase.diff.output.DiffOutputControl
+import liquibase.integrationtest.EmptyH2Database
+import liquibase.snapshot.SnapshotControl
+import spock.lang.Specification
+
+class StreamingDiffToChangeLogIntegrationTest extends Specification {
+
+    EmptyH2Database reference
+    EmptyH2Database target
+    Database referenceDatabase
+    Database targetDatabase
+
+    def setup() {
+        reference = new EmptyH2Database("CREATE TABLE PARENT (ID INT PRIMARY KEY, NAME VARCHAR(50))",
+                "CREATE TABLE CHILD (ID INT PRIMARY KEY, PARENT_ID INT, CODE VARCHAR(10), CONSTRAINT FK_CHILD_PARENT FOREIGN KEY (PARENT_ID) REFERENCES PARENT (ID))",
+                "CREATE INDEX IDX_CHILD_CODE ON CHILD (CODE)",
+                "CREATE VIEW PARENT_NAMES AS SELECT NAME FROM PARENT")
+
+        target = new EmptyH2Database("CREATE TABLE PARENT (ID INT PRIMARY KEY)",
+                "CREATE TABLE OLD_TABLE (ID INT PRIMARY KEY, PARENT_ID INT, CONSTRAINT FK_OLD_PARENT FOREIGN KEY (PARENT_ID) REFERENCES PARENT (ID))")
+
+        referenceDatabase = reference.database
+        targetDatabase = target.database
+    }
+
+    def cleanup() {
+        reference?.close()
+        target?.close()
+    }
+
+    def "streaming diff generates the same changes as a diff of complete snapshots"() {
+        when:
+        def diffResult = DiffGeneratorFactory.instance.compare(referenceDatabase, targetDatabase, new CompareControl())
+        def expected = new DiffToChangeLog(diffResult, new DiffOutputControl(false, false, false, null)).generateChangeSets()
+        def streamed = streaming(targetDatabase).generateChangeSets()
+
+        then:
+        !expected.isEmpty()
+        describe(streamed) == describe(expected)
+    }
+
+    def "streaming generateChangeLog creates all objects of the reference database"() {
+        when:
+        def diffResult = DiffGeneratorFactory.instance.compare(referenceDatabase, null, new CompareControl())
+        def expected = new DiffToChangeLog(diffResult, new DiffOutputControl(false, false, false, null)).generateChangeSets()
+        def streamed = streaming(null).generateChangeSets()
+
+        then:
+        describe(streamed) == describe(expected)
+    }
+
+    def "dropped foreign keys come first and added foreign keys last"() {
+        when:
+        def changes = streaming(targetDatabase).generateChangeSets()*.changes.flatten()
+        def dropForeignKey = changes.findIndexOf { it instanceof DropForeignKeyConstraintChange }
+        def lastTableChange = changes.findLastIndexOf { it instanceof CreateTableChange || it instanceof DropTableChange || it instanceof AddColumnChange || it instanceof CreateIndexChange }
+        def addForeignKey = changes.findIndexOf { it instanceof AddForeignKeyConstraintChange }
+
+        then:
+        dropForeignKey == 0
+        addForeignKey > lastTableChange
+    }
+
+    def "changeset ids stay unique across tables"() {
+        when:
+        def ids = streaming(targetDatabase).generateChangeSets()*.id
+
+        then:
+        ids.unique(false) == ids
+    }
+
+    private StreamingDiffToChangeLog streaming(Database comparisonDatabase) {
+        return new StreamingDiffToChangeLog(referenceDatabase, comparisonDatabase, new SnapshotControl(referenceDatabase),
+                new CompareControl(), new DiffOutputControl(false, false, false, null))
+    }
+
+    private static List<String> describe(List<ChangeSet> changeSets) {
+        return changeSets*.changes.flatten().collect { it.serializedObjectName + " " + it.confirmationMessage }.sort()
+    }
+}
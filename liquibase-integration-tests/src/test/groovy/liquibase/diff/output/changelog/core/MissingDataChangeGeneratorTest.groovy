@@ -0,0 +1,69 @@
+package liquibase.diff.output.changelog.core
+
+import liquibase.GlobalConfiguration
+import liquibase.Scope
+import liquibase.change.Change
+import liquibase.change.core.InsertDataChange
+import liquibase.change.core.LoadDataChange
+import liquibase.database.Database
+import liquibase.diff.output.DiffOutputControl
+import liquibase.integrationtest.EmptyH2Database
+import liquibase.structure.core.Data
+import liquibase.structure.core.Table
+import spock.lang.Specification
+
+import java.sql.Connection
+
+class MissingDataChangeGeneratorTest extends Specification {
+
+    EmptyH2Database h2Database
+    Connection connection
+    Database database
+    File dataDir
+
+    def setup() {
+        h2Database = new EmptyH2Database("CREATE TABLE ITEM (ID INT PRIMARY KEY, NAME VARCHAR(50))")
+        (1..5).each { h2Database.execute("INSERT INTO ITEM VALUES (" + it + ", 'item " + it + "')") }
+        connection = h2Database.connection
+        database = h2Database.database
+        dataDir = File.createTempDir()
+    }
+
+    def cleanup() {
+        h2Database?.close()
+        dataDir?.deleteDir()
+    }
+
+    def "insert changes are generated for all rows with the configured fetch size"() {
+        when:
+        def autoCommit = connection.autoCommit
+        def changes = withFetchSize(2) { new MissingDataChangeGenerator().fixMissing(data(), new DiffOutputControl(), database, database, null) }
+
+        then:
+        changes.length == 5
+        changes.every { it instanceof InsertDataChange }
+        changes.collect { ((InsertDataChange) it).columns.find { it.name == "NAME" }.value } == (1..5).collect { "item " + it }
+        connection.autoCommit == autoCommit
+    }
+
+    def "rows are written to the csv file as they are read"() {
+        when:
+        def autoCommit = connection.autoCommit
+        def changes = withFetchSize(2) { new MissingDataExternalFileChangeGenerator(dataDir.absolutePath).fixMissing(data(), new DiffOutputControl(), database, database, null) }
+
+        then:
+        changes.length == 1
+        ((LoadDataChange) changes[0]).file == dataDir.absolutePath + "/item.csv"
+        ((LoadDataChange) changes[0]).columns*.type == ["NUMERIC", "STRING"]
+        new File(dataDir, "item.csv").readLines() == ['"ID","NAME"'] + (1..5).collect { '"' + it + '","item ' + it + '"' }
+        connection.autoCommit == autoCommit
+    }
+
+    private Change[] withFetchSize(int fetchSize, Closure<Change[]> closure) {
+        return Scope.child([(GlobalConfiguration.DIFF_DATA_FETCH_SIZE.key): fetchSize], closure as Scope.ScopedRunnerWithReturn<Change[]>)
+    }
+
+    private Data data() {
+        return new Data().setTable(new Table(null, "PUBLIC", "ITEM"))
+    }
+}
@@ -0,0 +1,92 @@
+package liquibase.integrationtest
+
+import liquibase.Scope
+import liquibase.database.Database
+import liquibase.database.DatabaseFactory
+import liquibase.database.jvm.JdbcConnection
+import liquibase.extension.testing.testsystem.DatabaseTestSystem
+import liquibase.extension.testing.testsystem.TestSystemFactory
+import liquibase.extension.testing.testsystem.spock.LiquibaseIntegrationMethodInterceptor
+import org.junit.Assume
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+/**
+ * A new in-memory database next to the catalog of the "h2" test system, for tests which snapshot, diff or update
+ * a whole database and so cannot share the test system's catalog with other tests.
+ * The test is skipped if the "h2" test system is not tested.
+ */
+class EmptyH2Database implements Closeable {
+
+    final String url
+    final String username
+    final String password
+    final Connection connection
+    final Database database
+
+    /**
+     * Creates the database and runs the given SQL in it.
+     */
+    EmptyH2Database(String... sql) {
+        this([:], sql)
+    }
+
+    /**
+     * Creates the database with the given settings added to the url, like [LOCK_TIMEOUT: "60000"], and runs the given SQL in it.
+     */
+    EmptyH2Database(Map<String, String> urlSettings, String... sql) {
+        DatabaseTestSystem testSystem = (DatabaseTestSystem) Scope.currentScope.getSingleton(TestSystemFactory).getTestSystem("h2")
+        Assume.assumeTrue("Not running test against h2", testSystem.shouldTest())
+        testSystem.start()
+        LiquibaseIntegrationMethodInterceptor.startedTestSystems.add(testSystem)
+
+        url = testSystem.connectionUrl.replace(testSystem.catalog, "lb" + UUID.randomUUID().toString().replace("-", "")) +
+                urlSettings.collect { ";" + it.key + "=" + it.value }.join("")
+        username = testSystem.username
+        password = testSystem.password
+        connection = openConnection()
+        database = DatabaseFactory.instance.findCorrectDatabaseImplementation(new JdbcConnection(connection))
+        execute(sql)
+    }
+
+    /**
+     * Opens another connection to the database, which the caller closes.
+     */
+    Connection openConnection() {
+        return DriverManager.getConnection(url, username, password)
+    }
+
+    void execute(String... sql) {
+        def statement = connection.createStatement()
+        try {
+            sql.each { statement.execute(it) }
+        } finally {
+            statement.close()
+        }
+    }
+
+    int queryForInt(String sql) {
+        def statement = connection.createStatement()
+        try {
+            def resultSet = statement.executeQuery(sql)
+            resultSet.next()
+            return resultSet.getInt(1)
+        } finally {
+            statement.close()
+        }
+    }
+
+    /**
+     * Drops the database, even if the connection was already closed through {@link #database}.
+     */
+    @Override
+    void close() {
+        def shutdownConnection = connection.closed ? openConnection() : connection
+        try {
+            shutdownConnection.createStatement().execute("SHUTDOWN")
+        } finally {
+            shutdownConnection.close()
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package liquibase.precondition
+
+import liquibase.Scope
+import liquibase.change.AddColumnConfig
+import liquibase.change.ColumnConfig
+import liquibase.change.ConstraintsConfig
+import liquibase.change.core.*
+import liquibase.database.Database
+import liquibase.integrationtest.EmptyH2Database
+import liquibase.structure.core.*
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class PreconditionMetadataCacheTest extends Specification {
+
+    EmptyH2Database h2Database
+    Database database
+    PreconditionMetadataCache cache
+
+    def setup() {
+        h2Database = new EmptyH2Database("CREATE TABLE PARENT (ID INT PRIMARY KEY, NAME VARCHAR(50))",
+                "CREATE INDEX IDX_PARENT_NAME ON PARENT (NAME)",
+                "CREATE TABLE CHILD (ID INT, PARENT_ID INT, CONSTRAINT FK_CHILD_PARENT FOREIGN KEY (PARENT_ID) REFERENCES PARENT (ID))",
+                "CREATE SEQUENCE SEQ_PARENT")
+        database = h2Database.database
+        cache = new PreconditionMetadataCache(database)
+    }
+
+    def cleanup() {
+        h2Database?.close()
+    }
+
+    def "existence checks are answered from one snapshot of the schema"() {
+        expect:
+        cache.exists(table("PARENT"))
+        !cache.exists(table("MISSING"))
+        cache.exists(column("PARENT", "NAME"))
+        !cache.exists(column("PARENT", "MISSING"))
+        cache.exists(new Index().setName("IDX_PARENT_NAME"))
+        cache.exists(new PrimaryKey().setTable(table("PARENT")))
+        !cache.exists(new PrimaryKey().setTable(table("CHILD")))
+        cache.exists(new ForeignKey().setName("FK_CHILD_PARENT").setForeignKeyTable(table("CHILD")))
+        cache.exists(new Sequence().setName("SEQ_PARENT"))
+
+        when:
+        h2Database.execute("CREATE TABLE ADDED (ID INT)")
+
+        then:
+        !cache.exists(table("ADDED"))
+    }
+
+    def "executed changes are applied to the cached schema"() {
+        when:
+        cache.exists(table("PARENT"))
+        def createTable = new CreateTableChange(tableName: "CREATED")
+        createTable.addColumn(new ColumnConfig(name: "ID", type: "INT", constraints: new ConstraintsConfig(primaryKey: true)))
+        createTable.addColumn(new ColumnConfig(name: "CODE", type: "INT", constraints: new ConstraintsConfig(unique: true, uniqueConstraintName: "UQ_CREATED_CODE")))
+        cache.changeExecuted(createTable)
+
+        def addColumn = new AddColumnChange(tableName: "PARENT")
+        addColumn.addColumn(new AddColumnConfig(name: "ADDED", type: "INT"))
+        cache.changeExecuted(addColumn)
+
+        def createIndex = new CreateIndexChange(tableName: "CREATED", indexName: "IDX_CREATED_ID")
+        createIndex.addColumn(new AddColumnConfig(name: "ID"))
+        cache.changeExecuted(createIndex)
+
+        cache.changeExecuted(new RenameColumnChange(tableName: "PARENT", oldColumnName: "NAME", newColumnName: "TITLE"))
+        cache.changeExecuted(new DropTableChange(tableName: "PARENT", cascadeConstraints: true))
+        cache.changeExecuted(new InsertDataChange(tableName: "CREATED"))
+
+        then:
+        cache.exists(table("CREATED"))
+        cache.exists(column("CREATED", "CODE"))
+        cache.exists(new PrimaryKey().setTable(table("CREATED")))
+        cache.exists(new UniqueConstraint().setName("UQ_CREATED_CODE").setRelation(table("CREATED")))
+        cache.exists(new Index().setName("IDX_CREATED_ID"))
+        !cache.exists(table("PARENT"))
+        !cache.exists(column("PARENT", "ADDED"))
+        !cache.exists(new Index().setName("IDX_PARENT_NAME"))
+        !cache.exists(new ForeignKey().setName("FK_CHILD_PARENT").setForeignKeyTable(table("CHILD")))
+        cache.exists(table("CHILD"))
+    }
+
+    def "renamed objects are found under their new name only"() {
+        when:
+        cache.exists(table("PARENT"))
+        cache.changeExecuted(new RenameTableChange(oldTableName: "PARENT", newTableName: "RENAMED"))
+        cache.changeExecuted(new RenameColumnChange(tableName: "RENAMED", oldColumnName: "NAME", newColumnName: "TITLE"))
+        cache.changeExecuted(new RenameSequenceChange(oldSequenceName: "SEQ_PARENT", newSequenceName: "SEQ_RENAMED"))
+
+        then:
+        cache.exists(table("RENAMED"))
+        !cache.exists(table("PARENT"))
+        cache.exists(column("RENAMED", "TITLE"))
+        !cache.exists(column("RENAMED", "NAME"))
+        cache.exists(column("RENAMED", "ID"))
+        cache.exists(new Sequence().setName("SEQ_RENAMED"))
+        !cache.exists(new Sequence().setName("SEQ_PARENT"))
+        cache.exists(new Index().setName("IDX_PARENT_NAME"))
+    }
+
+    @Unroll
+    def "schema is snapshotted again after a change which cannot be applied: #change.class.simpleName"() {
+        when:
+        cache.exists(table("PARENT"))
+        h2Database.execute("CREATE TABLE ADDED (ID INT)")
+        cache.changeExecuted(change)
+
+        then:
+        cache.exists(table("ADDED"))
+
+        where:
+        change << [
+                new RawSQLChange("CREATE TABLE ADDED (ID INT)"),
+                new AddAutoIncrementChange(tableName: "PARENT", columnName: "ID", columnDataType: "INT"),
+        ]
+    }
+
+    def "has uses the cache of the current scope"() {
+        when:
+        def before = PreconditionMetadataCache.has(table("PARENT"), database)
+        Scope.child(PreconditionMetadataCache.name, cache, {
+            assert PreconditionMetadataCache.getCurrent(database) == cache
+            assert PreconditionMetadataCache.has(table("PARENT"), database)
+        } as Scope.ScopedRunner)
+
+        then:
+        before
+        PreconditionMetadataCache.getCurrent(database) == null
+    }
+
+    private static Table table(String name) {
+        return new Table(null, null, name)
+    }
+
+    private static Column column(String tableName, String name) {
+        return new Column(name).setRelation(table(tableName))
+    }
+}
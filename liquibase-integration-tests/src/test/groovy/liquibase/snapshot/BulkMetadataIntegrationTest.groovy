@@ -0,0 +1,93 @@
+package liquibase.snapshot
+
+import liquibase.CatalogAndSchema
+import liquibase.GlobalConfiguration
+import liquibase.Scope
+import liquibase.database.Database
+import liquibase.database.DatabaseFactory
+import liquibase.database.jvm.JdbcConnection
+import liquibase.extension.testing.testsystem.DatabaseTestSystem
+import liquibase.extension.testing.testsystem.TestSystemFactory
+import liquibase.extension.testing.testsystem.spock.LiquibaseIntegrationMethodInterceptor
+import liquibase.statement.SqlStatement
+import liquibase.statement.core.RawSqlStatement
+import liquibase.structure.core.Table
+import org.junit.Assume
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * Compares the schema wide index, primary key and foreign key queries of {@link JdbcDatabaseSnapshot} with the table by table queries.
+ */
+class BulkMetadataIntegrationTest extends Specification {
+
+    private static final List<String> BULK_CACHES = ["getIndexInfo", "getPrimaryKeys", "getImportedKeys"]
+
+    @Unroll
+    def "bulk metadata queries return the same objects as table by table queries on #testSystemName"() {
+        given:
+        def database = openDatabase(testSystemName)
+        execute(database, "CREATE TABLE BULK_PARENT (ID INT NOT NULL, CODE VARCHAR(10), CONSTRAINT PK_BULK_PARENT PRIMARY KEY (ID))")
+        execute(database, "CREATE TABLE BULK_CHILD (ID INT NOT NULL, PARENT_ID INT, NAME VARCHAR(50), CONSTRAINT PK_BULK_CHILD PRIMARY KEY (ID), " +
+                "CONSTRAINT FK_BULK_CHILD_PARENT FOREIGN KEY (PARENT_ID) REFERENCES BULK_PARENT (ID))")
+        execute(database, "CREATE INDEX IDX_BULK_CHILD_NAME ON BULK_CHILD (NAME)")
+        execute(database, "CREATE TABLE BULK_NO_KEYS (DESCRIPTION VARCHAR(10))")
+
+        when:
+        def tableByTableSnapshot = snapshot(database, false)
+        def bulkSnapshot = snapshot(database, true)
+        def tableByTable = describe(tableByTableSnapshot)
+
+        then:
+        describe(bulkSnapshot) == tableByTable
+        tableByTable.toUpperCase().contains("FKS=[FK_BULK_CHILD_PARENT->BULK_PARENT]")
+        tableByTable.toUpperCase().contains("IDX_BULK_CHILD_NAME[NAME]")
+        tableByTable.toUpperCase().contains("BULK_NO_KEYS COLUMNS=[DESCRIPTION] PK=NULL FKS=[] INDEXES=[]")
+        BULK_CACHES.every {
+            def cache = bulkSnapshot.getResultSetCache(it)
+            bulkQueries ? (cache.timesSingleQueried.isEmpty() && cache.didBulkQuery.values().toList() == [true]) : !cache.didBulkQuery.containsValue(true)
+        }
+
+        cleanup:
+        execute(database, "DROP TABLE BULK_CHILD")
+        execute(database, "DROP TABLE BULK_PARENT")
+        execute(database, "DROP TABLE BULK_NO_KEYS")
+
+        where:
+        testSystemName | bulkQueries
+        "h2"           | true
+        "postgresql"   | true
+        "mysql"        | true
+        "mariadb"      | false
+    }
+
+    private static Database openDatabase(String testSystemName) {
+        DatabaseTestSystem testSystem = (DatabaseTestSystem) Scope.currentScope.getSingleton(TestSystemFactory).getTestSystem(testSystemName)
+        Assume.assumeTrue("Not running test against " + testSystemName, testSystem.shouldTest())
+        testSystem.start()
+        LiquibaseIntegrationMethodInterceptor.startedTestSystems.add(testSystem)
+        return DatabaseFactory.instance.findCorrectDatabaseImplementation(new JdbcConnection(testSystem.getConnection()))
+    }
+
+    private static void execute(Database database, String sql) {
+        database.execute([new RawSqlStatement(sql)] as SqlStatement[], null)
+        database.commit()
+    }
+
+    private static JdbcDatabaseSnapshot snapshot(Database database, boolean bulkMetadata) {
+        return Scope.child([(GlobalConfiguration.SNAPSHOT_BULK_METADATA.key): bulkMetadata], {
+            return SnapshotGeneratorFactory.instance.createSnapshot(new CatalogAndSchema(database.defaultCatalogName, database.defaultSchemaName),
+                    database, new SnapshotControl(database))
+        } as Scope.ScopedRunnerWithReturn<DatabaseSnapshot>) as JdbcDatabaseSnapshot
+    }
+
+    private static String describe(DatabaseSnapshot snapshot) {
+        return snapshot.get(Table).findAll { it.name.toUpperCase().startsWith("BULK_") }.sort { it.name.toUpperCase() }.collect { Table table ->
+            table.name +
+                    " columns=" + table.columns*.name +
+                    " pk=" + (table.primaryKey == null ? null : table.primaryKey.name + table.primaryKey.columns*.name) +
+                    " fks=" + table.outgoingForeignKeys.collect { it.name + "->" + it.primaryKeyTable.name }.sort() +
+                    " indexes=" + table.indexes.collect { it.name + (it.unique ? " unique" : "") + it.columns*.name }.sort()
+        }.join("\n")
+    }
+}
@@ -1,10 +1,14 @@
 package liquibase.snapshot
 
+import liquibase.CatalogAndSchema
+import liquibase.GlobalConfiguration
 import liquibase.Scope
 import liquibase.database.DatabaseFactory
 import liquibase.database.jvm.JdbcConnection
+import liquibase.exception.DatabaseException
 import liquibase.extension.testing.testsystem.DatabaseTestSystem
 import liquibase.extension.testing.testsystem.TestSystemFactory
+import liquibase.integrationtest.EmptyH2Database
 import liquibase.statement.SqlStatement
 import liquibase.statement.core.RawSqlStatement
 import liquibase.structure.core.Table
@@ -14,7 +18,11 @@ import spock.lang.Shared
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import javax.sql.DataSource
 import java.sql.Connection
+import java.sql.SQLException
+import java.sql.SQLFeatureNotSupportedException
+import java.util.logging.Logger
 
 class JdbcDatabaseSnapshotTest extends Specification {
 
@@ -46,4 +54,159 @@ class JdbcDatabaseSnapshotTest extends Specification {
                 new RawSqlStatement("drop schema \"test-schema\" if exists"),
         ] as SqlStatement[], null)
     }
+
+    def "parallel snapshot reads table metadata through the data source and returns the same objects"() {
+        given:
+        def h2Database = createTables()
+
+        when:
+        def serial
+        def dataSource = new CountingDataSource(h2Database)
+        def parallelSnapshot
+        Scope.child(GlobalConfiguration.SNAPSHOT_BULK_METADATA.key, false, {
+            serial = describe(SnapshotGeneratorFactory.instance.createSnapshot(new CatalogAndSchema(null, "PUBLIC"), h2Database.database, new SnapshotControl(h2Database.database)))
+
+            parallelSnapshot = SnapshotGeneratorFactory.instance.createSnapshot(new CatalogAndSchema(null, "PUBLIC"), h2Database.database,
+                    new SnapshotControl(h2Database.database).setDataSource(dataSource).setThreads(3))
+        } as Scope.ScopedRunner)
+        def parallel = describe(parallelSnapshot)
+
+        then:
+        dataSource.connectionsOpened == 3
+        parallel == serial
+        (1..7).every { serial.contains("CHILD_$it columns=[ID, PARENT_ID, NAME] pk=PK_CHILD_$it fks=[FK_CHILD_${it}_PARENT] indexes=[FK_CHILD_${it}_PARENT_INDEX_") }
+        (1..7).every { serial.contains("IDX_CHILD_${it}_NAME") }
+        serial.contains("PARENT columns=[ID, CODE]")
+        serial.contains("uniques=[UQ_PARENT_CODE]")
+        serial.contains("NO_KEYS columns=[DESCRIPTION] pk=null fks=[] indexes=[] uniques=[]")
+
+        cleanup:
+        h2Database?.close()
+    }
+
+    def "bulk metadata queries return the same objects as table by table queries"() {
+        given:
+        def h2Database = createTables()
+        def database = h2Database.database
+
+        when:
+        def tableByTable
+        Scope.child(GlobalConfiguration.SNAPSHOT_BULK_METADATA.key, false, {
+            tableByTable = describe(SnapshotGeneratorFactory.instance.createSnapshot(new CatalogAndSchema(null, "PUBLIC"), database, new SnapshotControl(database)))
+        } as Scope.ScopedRunner)
+
+        def bulkSnapshot
+        def parallelSnapshot
+        Scope.child(GlobalConfiguration.SNAPSHOT_BULK_METADATA.key, true, {
+            bulkSnapshot = SnapshotGeneratorFactory.instance.createSnapshot(new CatalogAndSchema(null, "PUBLIC"), database, new SnapshotControl(database))
+            parallelSnapshot = SnapshotGeneratorFactory.instance.createSnapshot(new CatalogAndSchema(null, "PUBLIC"), database,
+                    new SnapshotControl(database).setDataSource(new CountingDataSource(h2Database)).setThreads(3))
+        } as Scope.ScopedRunner)
+        def bulk = describe(bulkSnapshot)
+
+        then:
+        bulk == tableByTable
+        describe(parallelSnapshot) == tableByTable
+        ["getPrimaryKeys", "getImportedKeys", "getIndexInfo", "getUniqueConstraints"].every {
+            bulkSnapshot.getResultSetCache(it).timesSingleQueried.isEmpty() && bulkSnapshot.getResultSetCache(it).didBulkQuery.values().toList() == [true]
+        }
+
+        cleanup:
+        h2Database?.close()
+    }
+
+    def "parallel snapshot fails if the data source cannot connect"() {
+        given:
+        def h2Database = createTables()
+
+        when:
+        SnapshotGeneratorFactory.instance.createSnapshot(new CatalogAndSchema(null, "PUBLIC"), h2Database.database,
+                new SnapshotControl(h2Database.database).setDataSource(new CountingDataSource(null)))
+
+        then:
+        def e = thrown(DatabaseException)
+        e.message.contains("Cannot open a connection for the parallel snapshot")
+
+        cleanup:
+        h2Database?.close()
+    }
+
+    def "data source is not used if threads is 1"() {
+        given:
+        def h2Database = createTables()
+
+        when:
+        def dataSource = new CountingDataSource(h2Database)
+        def snapshot = SnapshotGeneratorFactory.instance.createSnapshot(new CatalogAndSchema(null, "PUBLIC"), h2Database.database,
+                new SnapshotControl(h2Database.database).setDataSource(dataSource).setThreads(1))
+
+        then:
+        dataSource.connectionsOpened == 0
+        snapshot.get(Table).size() == 9
+
+        cleanup:
+        h2Database?.close()
+    }
+
+    private static EmptyH2Database createTables() {
+        def h2Database = new EmptyH2Database("CREATE TABLE PARENT (ID INT PRIMARY KEY, CODE VARCHAR(10) NOT NULL, CONSTRAINT UQ_PARENT_CODE UNIQUE (CODE))")
+        for (int i = 1; i <= 7; i++) {
+            h2Database.execute("CREATE TABLE CHILD_$i (ID INT NOT NULL, PARENT_ID INT, NAME VARCHAR(50), CONSTRAINT PK_CHILD_$i PRIMARY KEY (ID), " +
+                    "CONSTRAINT FK_CHILD_${i}_PARENT FOREIGN KEY (PARENT_ID) REFERENCES PARENT (ID))",
+                    "CREATE INDEX IDX_CHILD_${i}_NAME ON CHILD_$i (NAME)")
+        }
+        h2Database.execute("CREATE TABLE NO_KEYS (DESCRIPTION VARCHAR(10))")
+        return h2Database
+    }
+
+    private static String describe(DatabaseSnapshot snapshot) {
+        return snapshot.get(Table).sort { it.name }.collect { Table table ->
+            table.name +
+                    " columns=" + table.columns*.name +
+                    " pk=" + table.primaryKey?.name +
+                    " fks=" + table.outgoingForeignKeys*.name.sort() +
+                    " indexes=" + table.indexes*.name.sort() +
+                    " uniques=" + table.uniqueConstraints*.name.sort()
+        }.join("\n")
+    }
+
+    private static class CountingDataSource implements DataSource {
+        EmptyH2Database h2Database
+        int connectionsOpened
+        PrintWriter logWriter
+        int loginTimeout
+
+        CountingDataSource(EmptyH2Database h2Database) {
+            this.h2Database = h2Database
+        }
+
+        @Override
+        Connection getConnection() throws SQLException {
+            if (h2Database == null) {
+                throw new SQLException("No database")
+            }
+            connectionsOpened++
+            return h2Database.openConnection()
+        }
+
+        @Override
+        Connection getConnection(String username, String password) throws SQLException {
+            return getConnection()
+        }
+
+        @Override
+        Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException()
+        }
+
+        @Override
+        def <T> T unwrap(Class<T> iface) throws SQLException {
+            throw new SQLException("Not a wrapper")
+        }
+
+        @Override
+        boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return false
+        }
+    }
 }
@@ -0,0 +1,212 @@
+package liquibase.snapshot
+
+import liquibase.CatalogAndSchema
+import liquibase.GlobalConfiguration
+import liquibase.Scope
+import liquibase.database.Database
+import liquibase.database.DatabaseFactory
+import liquibase.database.jvm.JdbcConnection
+import liquibase.extension.testing.testsystem.DatabaseTestSystem
+import liquibase.extension.testing.testsystem.TestSystemFactory
+import liquibase.extension.testing.testsystem.spock.LiquibaseIntegrationMethodInterceptor
+import liquibase.integrationtest.EmptyH2Database
+import liquibase.statement.SqlStatement
+import liquibase.statement.core.RawSqlStatement
+import liquibase.structure.core.Schema
+import liquibase.structure.core.Table
+import liquibase.util.StringUtil
+import org.junit.Assume
+import spock.lang.Specification
+import spock.lang.Unroll
+
+/**
+ * Runs {@link SnapshotCache} against H2 with a fixed change marker, and the change marker queries against the databases which have one.
+ */
+class SnapshotCacheIntegrationTest extends Specification {
+
+    @Unroll
+    def "change marker detects DDL on #testSystemName"() {
+        given:
+        def database = openDatabase(testSystemName)
+        def schema = new Schema(database.defaultCatalogName, database.defaultSchemaName)
+        def tableName = StringUtil.randomIdentifer(10).toUpperCase()
+        def cache = new SnapshotCache()
+
+        when:
+        execute(database, "CREATE TABLE $tableName (ID INT)")
+        def afterCreate = cache.getChangeMarker(database, schema)
+        //the Oracle and SQL Server markers are only used once the last change is more than a second old
+        sleep(2100)
+        def stable = cache.getChangeMarker(database, schema)
+        def stableAgain = cache.getChangeMarker(database, schema)
+
+        execute(database, "ALTER TABLE $tableName ADD NAME VARCHAR(10)")
+        sleep(2100)
+        def afterAlter = cache.getChangeMarker(database, schema)
+
+        execute(database, "DROP TABLE $tableName")
+        sleep(2100)
+        def afterDrop = cache.getChangeMarker(database, schema)
+
+        then:
+        afterCreate == null || testSystemName == "postgresql"
+        stable != null
+        stable == stableAgain
+        afterAlter != null
+        afterAlter != stable
+        afterDrop != null
+        afterDrop != afterAlter
+
+        where:
+        testSystemName << ["postgresql", "oracle", "mssql"]
+    }
+
+    @Unroll
+    def "cached snapshot is used until the schema changes on #testSystemName"() {
+        given:
+        def database = openDatabase(testSystemName)
+        def schemas = [new Schema(database.defaultCatalogName, database.defaultSchemaName)] as Schema[]
+        def tableName = StringUtil.randomIdentifer(10).toUpperCase()
+        def cacheDirectory = File.createTempDir()
+        def cache = new SnapshotCache()
+
+        when:
+        execute(database, "CREATE TABLE $tableName (ID INT)")
+        sleep(2100)
+        def first = snapshot(cache, schemas, database, cacheDirectory)
+        def second = snapshot(cache, schemas, database, cacheDirectory)
+
+        execute(database, "ALTER TABLE $tableName ADD NAME VARCHAR(10)")
+        def third = snapshot(cache, schemas, database, cacheDirectory)
+
+        then:
+        first instanceof JdbcDatabaseSnapshot
+        second instanceof RestoredDatabaseSnapshot
+        third instanceof JdbcDatabaseSnapshot
+        third.get(Table).find { it.name.equalsIgnoreCase(tableName) }.columns*.name*.toUpperCase() == ["ID", "NAME"]
+
+        cleanup:
+        execute(database, "DROP TABLE $tableName")
+        cacheDirectory?.deleteDir()
+
+        where:
+        testSystemName << ["postgresql", "oracle", "mssql"]
+    }
+
+    def "snapshot is read from the cache while the change marker is unchanged"() {
+        given:
+        def h2Database = createTables()
+        def cacheDirectory = File.createTempDir()
+        def cache = new FixedMarkerSnapshotCache()
+
+        when:
+        def first = snapshot(cache, h2Database.database, cacheDirectory)
+        h2Database.execute("CREATE TABLE NOT_SEEN (ID INT)")
+        def second = snapshot(cache, h2Database.database, cacheDirectory)
+
+        then:
+        first instanceof JdbcDatabaseSnapshot
+        second instanceof RestoredDatabaseSnapshot
+        cacheDirectory.listFiles().length == 1
+        describe(second) == describe(first)
+        second.getDatabase() == h2Database.database
+        second.get(Table).find { it.name == "CHILD" }.outgoingForeignKeys*.primaryKeyTable*.name == ["PARENT"]
+
+        cleanup:
+        h2Database?.close()
+        cacheDirectory?.deleteDir()
+    }
+
+    def "schema is snapshotted again when the change marker changes"() {
+        given:
+        def h2Database = createTables()
+        def cacheDirectory = File.createTempDir()
+        def cache = new FixedMarkerSnapshotCache()
+
+        when:
+        snapshot(cache, h2Database.database, cacheDirectory)
+        h2Database.execute("CREATE TABLE ADDED (ID INT)")
+        cache.marker = "2"
+        def second = snapshot(cache, h2Database.database, cacheDirectory)
+        def third = snapshot(cache, h2Database.database, cacheDirectory)
+
+        then:
+        second instanceof JdbcDatabaseSnapshot
+        second.get(Table)*.name.sort() == ["ADDED", "CHILD", "PARENT"]
+        third instanceof RestoredDatabaseSnapshot
+        describe(third) == describe(second)
+        cacheDirectory.listFiles().length == 1
+
+        cleanup:
+        h2Database?.close()
+        cacheDirectory?.deleteDir()
+    }
+
+    def "snapshot is not cached without a change marker"() {
+        given:
+        def h2Database = createTables()
+        def cacheDirectory = File.createTempDir()
+        def cache = new FixedMarkerSnapshotCache(marker: null)
+
+        when:
+        def snapshot = snapshot(cache, h2Database.database, cacheDirectory)
+
+        then:
+        snapshot instanceof JdbcDatabaseSnapshot
+        cacheDirectory.listFiles().length == 0
+
+        cleanup:
+        h2Database?.close()
+        cacheDirectory?.deleteDir()
+    }
+
+    private static Database openDatabase(String testSystemName) {
+        DatabaseTestSystem testSystem = (DatabaseTestSystem) Scope.currentScope.getSingleton(TestSystemFactory).getTestSystem(testSystemName)
+        Assume.assumeTrue("Not running test against " + testSystemName, testSystem.shouldTest())
+        testSystem.start()
+        LiquibaseIntegrationMethodInterceptor.startedTestSystems.add(testSystem)
+        return DatabaseFactory.instance.findCorrectDatabaseImplementation(new JdbcConnection(testSystem.getConnection()))
+    }
+
+    private static void execute(Database database, String sql) {
+        database.execute([new RawSqlStatement(sql)] as SqlStatement[], null)
+        database.commit()
+    }
+
+    private static DatabaseSnapshot snapshot(SnapshotCache cache, Schema[] schemas, Database database, File cacheDirectory) {
+        return Scope.child([(GlobalConfiguration.SNAPSHOT_CACHE_DIRECTORY.key): cacheDirectory.absolutePath], {
+            return cache.createSnapshot(schemas, database, new SnapshotControl(database))
+        } as Scope.ScopedRunnerWithReturn<DatabaseSnapshot>)
+    }
+
+    private static EmptyH2Database createTables() {
+        return new EmptyH2Database("CREATE TABLE PARENT (ID INT PRIMARY KEY, NAME VARCHAR(50) NOT NULL)",
+                "CREATE TABLE CHILD (ID INT PRIMARY KEY, PARENT_ID INT, CONSTRAINT FK_CHILD_PARENT FOREIGN KEY (PARENT_ID) REFERENCES PARENT (ID))")
+    }
+
+    private static DatabaseSnapshot snapshot(SnapshotCache cache, Database database, File cacheDirectory) {
+        def schemas = [new Schema(new CatalogAndSchema(null, "PUBLIC").customize(database).catalogName, "PUBLIC")] as Schema[]
+        return snapshot(cache, schemas, database, cacheDirectory)
+    }
+
+    private static String describe(DatabaseSnapshot snapshot) {
+        return snapshot.get(Table).sort { it.name }.collect { Table table ->
+            table.name +
+                    " columns=" + table.columns.collect { it.name + " " + it.type + " " + it.nullable } +
+                    " pk=" + table.primaryKey?.columnNames +
+                    " fks=" + table.outgoingForeignKeys*.name.sort()
+        }.join("\n")
+    }
+
+    /**
+     * Uses a marker set by the test, since H2 has no change marker query.
+     */
+    private static class FixedMarkerSnapshotCache extends SnapshotCache {
+        String marker = "1"
+
+        @Override
+        protected String getChangeMarker(Database database, Schema schema) {
+            return marker
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package liquibase.extension.testing.command
+
+import liquibase.exception.CommandValidationException
+
+CommandTests.define {
+    command = ["compileChangelog"]
+    signature = """
+Short Description: Parses the changelog and stores it in the changelog cache file
+Long Description: Parses the changelog and stores the parsed files in the changelog cache file so later commands using the same liquibase.changelogCacheFile setting do not need to parse unchanged files again
+Required Args:
+  changelogFile (String) The root changelog file
+Optional Args:
+  cacheFile (String) The changelog cache file to write. Defaults to the liquibase.changelogCacheFile setting
+    Default: null
+"""
+
+    run "Happy path", {
+        arguments = [
+                changelogFile: "changelogs/hsqldb/complete/simple.changelog.xml",
+                cacheFile    : "target/compileChangelog/changelog.cache"
+        ]
+
+        expectedResults = [
+                cachedFiles: 1,
+                changesets : 42,
+                statusCode : 0
+        ]
+    }
+
+    run "Run without a changeLogFile throws an exception", {
+        arguments = [
+                changelogFile: ""
+        ]
+        expectedException = CommandValidationException.class
+    }
+}
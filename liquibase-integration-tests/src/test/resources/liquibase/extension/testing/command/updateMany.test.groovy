@@ -0,0 +1,65 @@
+package liquibase.extension.testing.command
+
+import liquibase.exception.CommandValidationException
+
+import java.util.regex.Pattern
+
+CommandTests.define {
+    command = ["updateMany"]
+    signature = """
+Short Description: Deploy the changelog to many schemas
+Long Description: Deploy any changes in the changelog file that have not been deployed to each of the given schemas. The changelog is parsed once per thread, and database parameters used in it are resolved against the first schema. Each schema uses its own connection and lock, and a failure in one schema does not stop the others
+Required Args:
+  changelogFile (String) The root changelog
+  url (String) The JDBC database connection URL
+    OBFUSCATED
+Optional Args:
+  contexts (String) Changeset contexts to match
+    Default: null
+  driver (String) The JDBC driver class
+    Default: null
+  driverPropertiesFile (String) The JDBC driver properties file
+    Default: null
+  labels (String) Changeset labels to match
+    Default: null
+  password (String) Password to use to connect to the database
+    Default: null
+    OBFUSCATED
+  schemas (String) Comma-separated list of schemas to update. Each schema is used as default and liquibase schema of its own connection. If not set, only the default schema of the connection is updated
+    Default: null
+  threads (Integer) Number of schemas to update concurrently
+    Default: 1
+  username (String) Username to use to connect to the database
+    Default: null
+"""
+
+    run "Happy path with a simple changelog", {
+        arguments = [
+                url:        { it.url },
+                username:   { it.username },
+                password:   { it.password },
+                schemas:    "PUBLIC",
+                changelogFile: "changelogs/hsqldb/complete/simple.changelog.xml"
+        ]
+
+        expectedResults = [
+                targetResults: "{PUBLIC=PUBLIC: UPDATED (42 changeset(s))}",
+                failedTargets: 0,
+                statusCode   : 0
+        ]
+
+        expectedDatabaseContent = [
+                "txt": [Pattern.compile(".*liquibase.structure.core.Table:.*ADDRESS.*", Pattern.MULTILINE|Pattern.DOTALL|Pattern.CASE_INSENSITIVE)]
+        ]
+    }
+
+    run "Run without a changeLogFile throws an exception", {
+        arguments = [
+                url:        { it.url },
+                username:   { it.username },
+                password:   { it.password },
+                changelogFile: ""
+        ]
+        expectedException = CommandValidationException.class
+    }
+}